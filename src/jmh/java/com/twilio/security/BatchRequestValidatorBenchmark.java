@@ -0,0 +1,94 @@
+package com.twilio.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link BatchRequestValidator} against validating one request at a time.
+ *
+ * <p>
+ * Run with {@code mvn -P benchmark test-compile exec:exec}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchRequestValidatorBenchmark {
+
+    private static final String AUTH_TOKEN = "12345";
+    private static final String URL = "https://mycompany.com/myapp.php?foo=1&bar=2";
+    private static final String SIGNATURE = "RSOYDt4T1cUTdK1PDd93/VVr8B8=";
+
+    @Param({"10000"})
+    private int requestCount;
+
+    @Param({"1", "4"})
+    private int parallelism;
+
+    private List<SignedRequest> requests;
+    private RequestValidator validator;
+    private ExecutorService executor;
+    private BatchRequestValidator batchValidator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        validator = new RequestValidator(AUTH_TOKEN);
+        Map<String, String> params = new HashMap<>();
+        params.put("Digits", "1234");
+        params.put("CallSid", "CA1234567890ABCDE");
+        params.put("To", "+18005551212");
+        params.put("Caller", "+14158675309");
+        params.put("From", "+14158675309");
+
+        requests = new ArrayList<>(requestCount);
+        for (int i = 0; i < requestCount; i++) {
+            requests.add(new SignedRequest(URL, params, i % 100 == 0 ? "NOT" + SIGNATURE : SIGNATURE));
+        }
+
+        executor = Executors.newFixedThreadPool(parallelism);
+        batchValidator = new BatchRequestValidator(validator).parallelism(parallelism).executorService(executor);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public int oneAtATime() {
+        int valid = 0;
+        for (SignedRequest request : requests) {
+            if (validator.validate(request.getUrl(), request.getParams(), request.getSignature())) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    @Benchmark
+    public int batch() {
+        return batchValidator.validate(requests).getValidCount();
+    }
+}
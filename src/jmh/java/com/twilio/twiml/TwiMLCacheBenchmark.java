@@ -0,0 +1,83 @@
+package com.twilio.twiml;
+
+import com.twilio.http.HttpMethod;
+import com.twilio.twiml.voice.Gather;
+import com.twilio.twiml.voice.Pause;
+import com.twilio.twiml.voice.Play;
+import com.twilio.twiml.voice.Say;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of a {@link TwiMLCache} hit against rendering with {@link TwiML#toXml()}.
+ *
+ * <p>
+ * {@code hitSameTree} looks up a tree which was rendered through the cache before, {@code hitRebuiltTree}
+ * builds an equal tree for every lookup, as an IVR menu rebuilt per call does, and {@code buildAndRender}
+ * is the same work without the cache. Run with {@code mvn -P benchmark test-compile exec:exec}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TwiMLCacheBenchmark {
+
+    private TwiMLCache cache;
+    private VoiceResponse menu;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cache = new TwiMLCache(1024 * 1024);
+        menu = menu();
+        cache.toXml(menu);
+    }
+
+    @Benchmark
+    public String hitSameTree() {
+        return cache.toXml(menu);
+    }
+
+    @Benchmark
+    public String hitRebuiltTree() {
+        return cache.toXml(menu());
+    }
+
+    @Benchmark
+    public String render() {
+        return menu.toXml();
+    }
+
+    @Benchmark
+    public String buildAndRender() {
+        return menu().toXml();
+    }
+
+    private static VoiceResponse menu() {
+        Gather gather = new Gather.Builder()
+            .inputs(Gather.Input.DTMF).numDigits(1).timeout(5).action("/menu").method(HttpMethod.POST)
+            .say(new Say.Builder("For sales, press 1.").voice(Say.Voice.ALICE).language(Say.Language.EN_US).build())
+            .say(new Say.Builder("For support, press 2.").voice(Say.Voice.ALICE).language(Say.Language.EN_US).build())
+            .say(new Say.Builder("To hear these options again, press 9.").voice(Say.Voice.ALICE).build())
+            .build();
+
+        return new VoiceResponse.Builder()
+            .gather(gather)
+            .pause(new Pause.Builder().length(1).build())
+            .play(new Play.Builder("https://example.com/hold.mp3").loop(0).build())
+            .build();
+    }
+}
@@ -0,0 +1,85 @@
+package com.twilio.base;
+
+import java.util.Objects;
+
+/**
+ * A record produced by a {@link FanOutReader}, tagged with the account it was read from.
+ *
+ * <p>
+ * If reading an account fails, a single error entry is produced for it instead of further records.
+ * </p>
+ *
+ * @param <T> type of the resource
+ */
+public class AccountRecord<T> {
+
+    private final String accountSid;
+    private final T record;
+    private final RuntimeException error;
+
+    private AccountRecord(final String accountSid, final T record, final RuntimeException error) {
+        this.accountSid = accountSid;
+        this.record = record;
+        this.error = error;
+    }
+
+    static <T> AccountRecord<T> of(final String accountSid, final T record) {
+        return new AccountRecord<>(accountSid, record, null);
+    }
+
+    static <T> AccountRecord<T> failed(final String accountSid, final RuntimeException error) {
+        return new AccountRecord<>(accountSid, null, error);
+    }
+
+    public String getAccountSid() {
+        return accountSid;
+    }
+
+    /**
+     * Get the record.
+     *
+     * @return the record, or null for an error entry
+     */
+    public T getRecord() {
+        return record;
+    }
+
+    /**
+     * Get the error which stopped reading the account.
+     *
+     * @return the error, or null for a record entry
+     */
+    public RuntimeException getError() {
+        return error;
+    }
+
+    public boolean isError() {
+        return error != null;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        AccountRecord<?> other = (AccountRecord<?>) o;
+        return Objects.equals(accountSid, other.accountSid)
+            && Objects.equals(record, other.record)
+            && Objects.equals(error, other.error);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(accountSid, record, error);
+    }
+
+    @Override
+    public String toString() {
+        return "AccountRecord(accountSid=" + accountSid + ", record=" + record + ", error=" + error + ")";
+    }
+}
@@ -0,0 +1,84 @@
+package com.twilio.base;
+
+/**
+ * Page size policy which grows pages while they are fast and small, and shrinks them when they are slow or large.
+ *
+ * <p>
+ * Pages double while the fetch takes less than half the target latency and the body stays under half the
+ * byte budget, and halve when either is exceeded. When the body size is known, the page size is also capped
+ * so the estimated body fits the byte budget. The result never exceeds the remaining limit or the API maximum
+ * of {@value #MAX_PAGE_SIZE}. The budget is compared with the body size in characters, which matches its
+ * size in bytes only while the body is ASCII.
+ * </p>
+ */
+public class AdaptivePageSizePolicy implements PageSizePolicy {
+
+    public static final int MAX_PAGE_SIZE = Reader.MAX_PAGE_SIZE;
+    public static final long DEFAULT_TARGET_LATENCY_MILLIS = 1000L;
+    public static final long DEFAULT_MAX_BODY_BYTES = 1024L * 1024L;
+    public static final int DEFAULT_MIN_PAGE_SIZE = 20;
+
+    private final long targetLatencyMillis;
+    private final long maxBodyBytes;
+    private final int minPageSize;
+
+    /**
+     * Create a policy with the default latency target, byte budget and minimum page size.
+     */
+    public AdaptivePageSizePolicy() {
+        this(DEFAULT_TARGET_LATENCY_MILLIS, DEFAULT_MAX_BODY_BYTES, DEFAULT_MIN_PAGE_SIZE);
+    }
+
+    /**
+     * Create a policy.
+     *
+     * @param targetLatencyMillis latency above which pages shrink
+     * @param maxBodyBytes        body size above which pages shrink
+     * @param minPageSize         smallest page size to shrink to
+     */
+    public AdaptivePageSizePolicy(final long targetLatencyMillis, final long maxBodyBytes, final int minPageSize) {
+        if (targetLatencyMillis <= 0 || maxBodyBytes <= 0) {
+            throw new IllegalArgumentException("Latency target and byte budget must be positive");
+        }
+
+        if (minPageSize < 1 || minPageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Minimum page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        this.targetLatencyMillis = targetLatencyMillis;
+        this.maxBodyBytes = maxBodyBytes;
+        this.minPageSize = minPageSize;
+    }
+
+    @Override
+    public int nextPageSize(final int pageSize, final int records, final long elapsedMillis, final long bodySize,
+                            final Long remaining) {
+        long size = Math.max(1, pageSize);
+
+        if (elapsedMillis >= 0) {
+            boolean slow = elapsedMillis > targetLatencyMillis;
+            boolean large = bodySize > maxBodyBytes;
+            boolean fast = elapsedMillis < targetLatencyMillis / 2;
+            boolean small = bodySize < 0 || bodySize < maxBodyBytes / 2;
+
+            if (slow || large) {
+                size = Math.max(minPageSize, size / 2);
+            } else if (fast && small && records >= pageSize) {
+                size = size * 2;
+            }
+        }
+
+        if (bodySize > 0 && records > 0) {
+            long bytesPerRecord = Math.max(1, bodySize / records);
+            size = Math.min(size, Math.max(minPageSize, maxBodyBytes / bytesPerRecord));
+        }
+
+        size = Math.min(size, MAX_PAGE_SIZE);
+
+        if (remaining != null) {
+            size = Math.min(size, Math.max(1, remaining));
+        }
+
+        return (int) size;
+    }
+}
@@ -0,0 +1,254 @@
+package com.twilio.base;
+
+import com.twilio.exception.ApiConnectionException;
+import com.twilio.exception.ApiException;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Runs the requests of a bulk operation, such as sending many messages, concurrently.
+ *
+ * <p>
+ * At most {@code maxInFlight} requests are on the wire at once. Each request first waits for its
+ * optional {@link RateLimiter} and only then takes a slot in that window, so requests paced by a slow
+ * limiter, or backing off before a retry, never hold a slot that requests of another limiter could
+ * use. Items are read from the input only while fewer than {@code maxInFlight + maxWaiting} are being
+ * processed, so the input is never read far ahead of the requests. A request is retried with
+ * exponential backoff and jitter while the API rejects it as throttled.
+ * </p>
+ *
+ * <p>
+ * Only retry requests which the API rejected before acting on them. By default only throttled
+ * requests (429) are retried, which is safe for creates that must not run twice. A request whose
+ * connection failed may have been processed, so it is only retried if
+ * {@link #retryConnectionErrors(boolean)} says the request is idempotent.
+ * </p>
+ */
+public class BulkRequestRunner {
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 1;
+    public static final long MAX_RETRY_DELAY_MILLIS = 30000L;
+
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int TOO_MANY_REQUESTS_CODE = 20429;
+
+    private final ExecutorService executor;
+    private final int maxInFlight;
+    private final Semaphore window;
+    private int maxWaiting;
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    private long retryDelayMillis;
+    private Predicate<ApiException> retryable = BulkRequestRunner::isThrottled;
+    private boolean retryConnectionErrors;
+
+    /**
+     * Create a runner.
+     *
+     * @param executor    executor running the requests
+     * @param maxInFlight max number of requests on the wire at once
+     */
+    public BulkRequestRunner(final ExecutorService executor, final int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("In-flight window must be at least 1");
+        }
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.maxInFlight = maxInFlight;
+        this.maxWaiting = maxInFlight;
+        this.window = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Set the max number of items waiting for their rate limiter or a retry, in addition to those on
+     * the wire; defaults to {@code maxInFlight}.
+     *
+     * @param maxWaiting items read ahead of the in-flight window
+     * @return this
+     */
+    public BulkRequestRunner maxWaiting(final int maxWaiting) {
+        if (maxWaiting < 0) {
+            throw new IllegalArgumentException("Max waiting must not be negative");
+        }
+        this.maxWaiting = maxWaiting;
+        return this;
+    }
+
+    /**
+     * Set the max number of attempts for each request, including the first.
+     *
+     * @param maxAttempts attempts per request
+     * @return this
+     */
+    public BulkRequestRunner maxAttempts(final int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be at least 1");
+        }
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * Set the delay before the first retry; it doubles on each further retry, up to
+     * {@link #MAX_RETRY_DELAY_MILLIS}.
+     *
+     * @param retryDelayMillis delay in milliseconds
+     * @return this
+     */
+    public BulkRequestRunner retryDelayMillis(final long retryDelayMillis) {
+        if (retryDelayMillis < 0) {
+            throw new IllegalArgumentException("Retry delay must not be negative");
+        }
+        this.retryDelayMillis = retryDelayMillis;
+        return this;
+    }
+
+    /**
+     * Set which API errors are retried; defaults to {@link #isThrottled}.
+     *
+     * @param retryable returns true for errors the API returned before acting on the request
+     * @return this
+     */
+    public BulkRequestRunner retryOn(final Predicate<ApiException> retryable) {
+        this.retryable = Objects.requireNonNull(retryable, "retryable");
+        return this;
+    }
+
+    /**
+     * Set whether requests whose connection failed are retried, which is only safe for idempotent
+     * requests as the outcome of the attempt is unknown.
+     *
+     * @param retryConnectionErrors whether to retry connection failures
+     * @return this
+     */
+    public BulkRequestRunner retryConnectionErrors(final boolean retryConnectionErrors) {
+        this.retryConnectionErrors = retryConnectionErrors;
+        return this;
+    }
+
+    /**
+     * Check whether the API throttled a request.
+     *
+     * @param e error of the request
+     * @return true on a 429 response or a 20429 error
+     */
+    public static boolean isThrottled(final ApiException e) {
+        Integer status = e.getStatusCode();
+        Integer code = e.getCode();
+        return (status != null && status == TOO_MANY_REQUESTS) || (code != null && code == TOO_MANY_REQUESTS_CODE);
+    }
+
+    /**
+     * Process each item, reading the next one only once fewer than {@code maxInFlight + maxWaiting}
+     * are being processed, and return once all are done.
+     *
+     * @param items    items to process
+     * @param task     processes an item
+     * @param rejected handles an item the executor did not accept
+     * @param <T>      type of the items
+     * @throws IllegalStateException if interrupted while waiting
+     */
+    public <T> void run(final Iterator<T> items, final Consumer<T> task, final BiConsumer<T, ApiException> rejected) {
+        int maxProcessing = maxInFlight + maxWaiting;
+        Semaphore processing = new Semaphore(maxProcessing);
+
+        try {
+            while (items.hasNext()) {
+                T item = items.next();
+                processing.acquire();
+
+                try {
+                    executor.execute(() -> {
+                        try {
+                            task.accept(item);
+                        } finally {
+                            processing.release();
+                        }
+                    });
+                } catch (final RejectedExecutionException e) {
+                    processing.release();
+                    rejected.accept(item, new ApiException("Request rejected by executor", e));
+                }
+            }
+
+            // Wait for every item to finish
+            processing.acquire(maxProcessing);
+            processing.release(maxProcessing);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Bulk operation interrupted", e);
+        }
+    }
+
+    /**
+     * Make a request, retrying while it is throttled.
+     *
+     * <p>
+     * Each attempt takes a permit from the limiter before it takes a slot in the in-flight window, and
+     * gives the slot back before backing off.
+     * </p>
+     *
+     * @param rateLimiter limiter to take a permit from before each attempt, or null
+     * @param request     makes the request
+     * @param retried     called before each retry
+     * @param <R>         type of the response
+     * @return response
+     * @throws ApiException once the request failed for good, including unexpected errors and interrupts
+     */
+    public <R> R call(final RateLimiter rateLimiter, final Supplier<R> request, final Runnable retried) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                if (rateLimiter != null) {
+                    rateLimiter.acquire();
+                }
+                window.acquire();
+                try {
+                    return request.get();
+                } finally {
+                    window.release();
+                }
+            } catch (final ApiException e) {
+                if (attempt >= maxAttempts || !retryable.test(e)) {
+                    throw e;
+                }
+            } catch (final ApiConnectionException e) {
+                if (attempt >= maxAttempts || !retryConnectionErrors) {
+                    throw new ApiException(e.getMessage(), e);
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ApiException("Request interrupted", e);
+            } catch (final RuntimeException e) {
+                throw new ApiException(e.getMessage(), e);
+            }
+
+            retried.run();
+            backOff(attempt);
+        }
+    }
+
+    /**
+     * Wait before the next attempt, with jitter so throttled requests do not retry in lockstep.
+     */
+    private void backOff(final int attempt) {
+        long delay = Math.min(MAX_RETRY_DELAY_MILLIS, retryDelayMillis << Math.min(attempt - 1, 16));
+        if (delay <= 0) {
+            return;
+        }
+
+        try {
+            TimeUnit.MILLISECONDS.sleep(delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException("Request interrupted", e);
+        }
+    }
+}
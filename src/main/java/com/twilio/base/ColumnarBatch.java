@@ -0,0 +1,478 @@
+package com.twilio.base;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column oriented store for mostly numeric records such as usage records and statistics.
+ *
+ * <p>
+ * Values are decoded straight from the JSON stream into growable primitive arrays: doubles,
+ * longs, and dictionary encoded strings for low cardinality properties such as categories.
+ * Numbers sent as strings (for example prices) are parsed directly into the column. Nested
+ * properties are addressed with dotted paths, such as {@code cumulative.tasks_created}.
+ * </p>
+ *
+ * <p>
+ * Each record read through {@link Reader#readInto(ColumnarBatch)} or fetch through
+ * {@link Fetcher#fetchInto(ColumnarBatch)} appends one row. A batch is not thread safe.
+ * </p>
+ */
+public class ColumnarBatch {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private enum Type {
+        DOUBLE,
+        LONG,
+        CATEGORY
+    }
+
+    private final Map<String, Column> columns;
+    private final PathNode root;
+    private final Projection<ColumnarBatch> projection;
+    private int size;
+    private int capacity;
+
+    private ColumnarBatch(final Builder b) {
+        this.columns = new LinkedHashMap<>();
+        this.root = new PathNode();
+        this.capacity = INITIAL_CAPACITY;
+
+        for (Map.Entry<String, Type> entry : b.columns.entrySet()) {
+            Column column = new Column(entry.getValue(), capacity);
+            columns.put(entry.getKey(), column);
+
+            PathNode node = root;
+            for (String segment : entry.getKey().split("\\.")) {
+                node = node.children.computeIfAbsent(segment, k -> new PathNode());
+            }
+            node.column = column;
+        }
+
+        this.projection = new Projection<ColumnarBatch>() {
+            @Override
+            protected ColumnarBatch decode(final JsonParser parser, final ObjectMapper mapper) throws IOException {
+                append(parser);
+                return ColumnarBatch.this;
+            }
+        };
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Get the number of rows in the batch.
+     *
+     * @return number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    public List<String> getColumnNames() {
+        return Collections.unmodifiableList(new ArrayList<>(columns.keySet()));
+    }
+
+    /**
+     * Check whether a value was missing, null or not parseable.
+     *
+     * @param column column name
+     * @param row    row index
+     * @return true if the cell has no value
+     */
+    public boolean isNull(final String column, final int row) {
+        checkRow(row);
+        return column(column, null).nulls.get(row);
+    }
+
+    /**
+     * Get a value of a double column.
+     *
+     * @param column column name
+     * @param row    row index
+     * @return the value, or NaN if null
+     */
+    public double getDouble(final String column, final int row) {
+        checkRow(row);
+        return column(column, Type.DOUBLE).doubles[row];
+    }
+
+    /**
+     * Get a value of a long column.
+     *
+     * @param column column name
+     * @param row    row index
+     * @return the value, or 0 if null
+     */
+    public long getLong(final String column, final int row) {
+        checkRow(row);
+        return column(column, Type.LONG).longs[row];
+    }
+
+    /**
+     * Get a value of a category column.
+     *
+     * @param column column name
+     * @param row    row index
+     * @return the value, or null if null
+     */
+    public String getCategory(final String column, final int row) {
+        checkRow(row);
+        Column c = column(column, Type.CATEGORY);
+        int code = c.codes[row];
+        return code < 0 ? null : c.dictionary.get(code);
+    }
+
+    /**
+     * Get the values of a double column.
+     *
+     * @param column column name
+     * @return copy of the column, NaN for nulls
+     */
+    public double[] getDoubles(final String column) {
+        return Arrays.copyOf(column(column, Type.DOUBLE).doubles, size);
+    }
+
+    /**
+     * Get the values of a long column.
+     *
+     * @param column column name
+     * @return copy of the column, 0 for nulls
+     */
+    public long[] getLongs(final String column) {
+        return Arrays.copyOf(column(column, Type.LONG).longs, size);
+    }
+
+    /**
+     * Get the dictionary codes of a category column.
+     *
+     * @param column column name
+     * @return copy of the codes, indexes into {@link #getDictionary(String)}; -1 for nulls
+     */
+    public int[] getCategoryCodes(final String column) {
+        return Arrays.copyOf(column(column, Type.CATEGORY).codes, size);
+    }
+
+    /**
+     * Get the distinct values of a category column in order of first appearance.
+     *
+     * @param column column name
+     * @return the dictionary
+     */
+    public List<String> getDictionary(final String column) {
+        return Collections.unmodifiableList(column(column, Type.CATEGORY).dictionary);
+    }
+
+    /**
+     * Sum a double column, skipping nulls.
+     *
+     * @param column column name
+     * @return the sum
+     */
+    public double sum(final String column) {
+        Column c = column(column, Type.DOUBLE);
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            if (!c.nulls.get(i)) {
+                sum += c.doubles[i];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Remove all rows, keeping the allocated arrays and dictionaries.
+     */
+    public void clear() {
+        for (Column column : columns.values()) {
+            column.nulls.clear();
+        }
+        size = 0;
+    }
+
+    Projection<ColumnarBatch> projection() {
+        return projection;
+    }
+
+    void truncate(final int rows) {
+        if (rows < size) {
+            for (Column column : columns.values()) {
+                column.nulls.clear(rows, size);
+            }
+            size = rows;
+        }
+    }
+
+    /**
+     * Append a row from a parser positioned on the START_OBJECT of a record.
+     *
+     * @param parser parser to read from; left on the END_OBJECT of the record
+     * @throws IOException if the record can not be parsed
+     */
+    void append(final JsonParser parser) throws IOException {
+        if (size == capacity) {
+            capacity = capacity * 2;
+            for (Column column : columns.values()) {
+                column.grow(capacity);
+            }
+        }
+
+        for (Column column : columns.values()) {
+            column.nulls.set(size);
+        }
+
+        readObject(parser, root, size);
+        size++;
+    }
+
+    private void readObject(final JsonParser parser, final PathNode node, final int row) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            PathNode child = node.children.get(parser.getCurrentName());
+            JsonToken token = parser.nextToken();
+
+            if (child == null) {
+                parser.skipChildren();
+            } else if (child.column != null) {
+                child.column.read(parser, token, row);
+            } else if (token == JsonToken.START_OBJECT) {
+                readObject(parser, child, row);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void checkRow(final int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of " + size);
+        }
+    }
+
+    private Column column(final String name, final Type type) {
+        Column column = columns.get(name);
+        if (column == null) {
+            throw new IllegalArgumentException("Unknown column: " + name);
+        }
+        if (type != null && column.type != type) {
+            throw new IllegalArgumentException("Column " + name + " is not a " + type.name().toLowerCase() + " column");
+        }
+        return column;
+    }
+
+    private static class PathNode {
+        private final Map<String, PathNode> children = new HashMap<>();
+        private Column column;
+    }
+
+    private static class Column {
+        private final Type type;
+        private final BitSet nulls = new BitSet();
+        private double[] doubles;
+        private long[] longs;
+        private int[] codes;
+        private List<String> dictionary;
+        private Map<String, Integer> dictionaryIndex;
+
+        private Column(final Type type, final int capacity) {
+            this.type = type;
+            switch (type) {
+                case DOUBLE:
+                    doubles = new double[capacity];
+                    break;
+                case LONG:
+                    longs = new long[capacity];
+                    break;
+                default:
+                    codes = new int[capacity];
+                    dictionary = new ArrayList<>();
+                    dictionaryIndex = new HashMap<>();
+                    break;
+            }
+        }
+
+        private void grow(final int capacity) {
+            switch (type) {
+                case DOUBLE:
+                    doubles = Arrays.copyOf(doubles, capacity);
+                    break;
+                case LONG:
+                    longs = Arrays.copyOf(longs, capacity);
+                    break;
+                default:
+                    codes = Arrays.copyOf(codes, capacity);
+                    break;
+            }
+        }
+
+        private void read(final JsonParser parser, final JsonToken token, final int row) throws IOException {
+            switch (type) {
+                case DOUBLE:
+                    doubles[row] = Double.NaN;
+                    break;
+                case LONG:
+                    longs[row] = 0;
+                    break;
+                default:
+                    codes[row] = -1;
+                    break;
+            }
+
+            if (token == JsonToken.VALUE_NULL) {
+                return;
+            }
+
+            if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                return;
+            }
+
+            switch (type) {
+                case DOUBLE:
+                    readDouble(parser, token, row);
+                    break;
+                case LONG:
+                    readLong(parser, token, row);
+                    break;
+                default:
+                    readCategory(parser, row);
+                    break;
+            }
+        }
+
+        private void readDouble(final JsonParser parser, final JsonToken token, final int row) throws IOException {
+            if (token.isNumeric()) {
+                doubles[row] = parser.getDoubleValue();
+                nulls.clear(row);
+                return;
+            }
+
+            try {
+                doubles[row] = Double.parseDouble(parser.getText().trim());
+                nulls.clear(row);
+            } catch (final NumberFormatException e) {
+                doubles[row] = Double.NaN;
+            }
+        }
+
+        private void readLong(final JsonParser parser, final JsonToken token, final int row) throws IOException {
+            if (token == JsonToken.VALUE_NUMBER_INT) {
+                longs[row] = parser.getLongValue();
+                nulls.clear(row);
+                return;
+            }
+
+            if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+                longs[row] = (long) parser.getDoubleValue();
+                nulls.clear(row);
+                return;
+            }
+
+            String text = parser.getText().trim();
+            try {
+                longs[row] = Long.parseLong(text);
+                nulls.clear(row);
+            } catch (final NumberFormatException e) {
+                try {
+                    longs[row] = (long) Double.parseDouble(text);
+                    nulls.clear(row);
+                } catch (final NumberFormatException ignored) {
+                    longs[row] = 0;
+                }
+            }
+        }
+
+        private void readCategory(final JsonParser parser, final int row) throws IOException {
+            String text = parser.getText();
+            Integer code = dictionaryIndex.get(text);
+            if (code == null) {
+                code = dictionary.size();
+                dictionary.add(text);
+                dictionaryIndex.put(text, code);
+            }
+            codes[row] = code;
+            nulls.clear(row);
+        }
+    }
+
+    public static class Builder {
+        private final Map<String, Type> columns = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Add a column of doubles.
+         *
+         * @param path JSON property name or dotted path
+         * @return this
+         */
+        public Builder doubleColumn(final String path) {
+            return add(path, Type.DOUBLE);
+        }
+
+        /**
+         * Add a column of longs.
+         *
+         * @param path JSON property name or dotted path
+         * @return this
+         */
+        public Builder longColumn(final String path) {
+            return add(path, Type.LONG);
+        }
+
+        /**
+         * Add a dictionary encoded string column.
+         *
+         * @param path JSON property name or dotted path
+         * @return this
+         */
+        public Builder categoryColumn(final String path) {
+            return add(path, Type.CATEGORY);
+        }
+
+        private Builder add(final String path, final Type type) {
+            if (path == null || path.isEmpty()) {
+                throw new IllegalArgumentException("Column path must not be empty");
+            }
+            if (path.startsWith(".") || path.endsWith(".") || path.contains("..")) {
+                throw new IllegalArgumentException("Column path has an empty segment: " + path);
+            }
+            for (String existing : columns.keySet()) {
+                // A value column would hide the object holding the nested column, or the other way round
+                if (path.startsWith(existing + ".") || existing.startsWith(path + ".")) {
+                    throw new IllegalArgumentException("Column " + path + " overlaps column " + existing);
+                }
+            }
+            if (columns.put(path, type) != null) {
+                throw new IllegalArgumentException("Duplicate column: " + path);
+            }
+            return this;
+        }
+
+        /**
+         * Build the empty batch.
+         *
+         * @return ColumnarBatch instance
+         */
+        public ColumnarBatch build() {
+            if (columns.isEmpty()) {
+                throw new IllegalArgumentException("ColumnarBatch must have at least one column");
+            }
+            return new ColumnarBatch(this);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.twilio.base;
+
+import com.twilio.Twilio;
+import com.twilio.http.TwilioRestClient;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads the same resource list across many accounts concurrently.
+ *
+ * <p>
+ * A reader is built per account, for example {@code sid -> Message.reader(sid)}, and its pages are
+ * fetched by at most {@code maxConcurrency} workers at once, each account paced to a number of pages
+ * per second. Records from all accounts are merged into one stream tagged with their account. A failure
+ * in one account ends only that account, and is reported in the stream as an error entry.
+ * </p>
+ *
+ * <p>
+ * The stream should be closed if it is not fully consumed, so that workers stop fetching.
+ * </p>
+ *
+ * @param <T> type of the resource
+ */
+public class FanOutReader<T extends Resource> {
+
+    public static final int DEFAULT_MAX_CONCURRENCY = 8;
+    public static final int DEFAULT_BUFFER_SIZE = 1000;
+
+    private static final long OFFER_TIMEOUT_MILLIS = 100L;
+
+    private final List<String> accountSids;
+    private final Function<String, Reader<T>> readerFactory;
+    private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+    private double pagesPerSecondPerAccount = 0;
+    private ExecutorService executorService;
+
+    /**
+     * Create a fan out reader.
+     *
+     * @param accountSids   accounts to read
+     * @param readerFactory builds the reader for an account
+     */
+    public FanOutReader(final Collection<String> accountSids, final Function<String, Reader<T>> readerFactory) {
+        this.accountSids = new ArrayList<>(new LinkedHashSet<>(Objects.requireNonNull(accountSids, "accountSids")));
+        this.readerFactory = Objects.requireNonNull(readerFactory, "readerFactory");
+    }
+
+    /**
+     * Set the max number of accounts read at once.
+     *
+     * @param maxConcurrency global concurrency cap
+     * @return this
+     */
+    public FanOutReader<T> maxConcurrency(final int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1");
+        }
+        this.maxConcurrency = maxConcurrency;
+        return this;
+    }
+
+    /**
+     * Set the number of records buffered ahead of the consumer.
+     *
+     * @param bufferSize buffer size
+     * @return this
+     */
+    public FanOutReader<T> bufferSize(final int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be at least 1");
+        }
+        this.bufferSize = bufferSize;
+        return this;
+    }
+
+    /**
+     * Limit the rate of page fetches for each account.
+     *
+     * @param pagesPerSecond pages per second per account; 0 for no limit
+     * @return this
+     */
+    public FanOutReader<T> pagesPerSecondPerAccount(final double pagesPerSecond) {
+        if (pagesPerSecond < 0) {
+            throw new IllegalArgumentException("Rate must not be negative");
+        }
+        this.pagesPerSecondPerAccount = pagesPerSecond;
+        return this;
+    }
+
+    /**
+     * Use a specific executor for the workers; defaults to the Twilio executor service.
+     *
+     * @param executorService executor running the workers
+     * @return this
+     */
+    public FanOutReader<T> executorService(final ExecutorService executorService) {
+        this.executorService = executorService;
+        return this;
+    }
+
+    /**
+     * Read all accounts using default client.
+     *
+     * @return merged stream of records tagged by account
+     */
+    public Stream<AccountRecord<T>> stream() {
+        return stream(Twilio.getRestClient());
+    }
+
+    /**
+     * Read all accounts using specified client.
+     *
+     * @param client client used to make requests
+     * @return merged stream of records tagged by account
+     */
+    public Stream<AccountRecord<T>> stream(final TwilioRestClient client) {
+        Run run = new Run(client);
+        run.start(executorService == null ? Twilio.getExecutorService() : executorService);
+        return StreamSupport
+            .stream(Spliterators.spliteratorUnknownSize(run, Spliterator.NONNULL), false)
+            .onClose(run::cancel);
+    }
+
+    private class Run implements Iterator<AccountRecord<T>> {
+        private final TwilioRestClient client;
+        private final Queue<String> pending;
+        private final BlockingQueue<AccountRecord<T>> buffer;
+        private final AtomicInteger active = new AtomicInteger();
+        private volatile boolean cancelled;
+        private AccountRecord<T> next;
+
+        private Run(final TwilioRestClient client) {
+            this.client = client;
+            this.pending = new ConcurrentLinkedQueue<>(accountSids);
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        private void start(final ExecutorService executor) {
+            int workers = Math.min(maxConcurrency, accountSids.size());
+            active.set(workers);
+            for (int i = 0; i < workers; i++) {
+                executor.execute(this::work);
+            }
+        }
+
+        private void cancel() {
+            cancelled = true;
+            buffer.clear();
+        }
+
+        private void work() {
+            try {
+                String accountSid;
+                while (!cancelled && (accountSid = pending.poll()) != null) {
+                    readAccount(accountSid);
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                active.decrementAndGet();
+            }
+        }
+
+        private void readAccount(final String accountSid) throws InterruptedException {
+            RateLimiter limiter = pagesPerSecondPerAccount > 0 ? new RateLimiter(pagesPerSecondPerAccount) : null;
+
+            try {
+                Reader<T> reader = readerFactory.apply(accountSid);
+                Long limit = reader.getLimit();
+                long emitted = 0;
+
+                acquire(limiter);
+                Page<T> page = reader.firstPage(client);
+
+                while (true) {
+                    for (T record : page.getRecords()) {
+                        if (limit != null && emitted >= limit) {
+                            return;
+                        }
+                        if (!put(AccountRecord.of(accountSid, record))) {
+                            return;
+                        }
+                        emitted++;
+                    }
+
+                    if (!page.hasNextPage() || (limit != null && emitted >= limit) || cancelled) {
+                        return;
+                    }
+
+                    acquire(limiter);
+                    page = reader.nextPage(page, client);
+                }
+            } catch (final RuntimeException e) {
+                put(AccountRecord.<T>failed(accountSid, e));
+            }
+        }
+
+        private void acquire(final RateLimiter limiter) throws InterruptedException {
+            if (limiter != null) {
+                limiter.acquire();
+            }
+        }
+
+        private boolean put(final AccountRecord<T> item) throws InterruptedException {
+            while (!cancelled) {
+                if (buffer.offer(item, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !cancelled) {
+                try {
+                    next = buffer.poll(OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (final InterruptedException e) {
+                    cancel();
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+
+                // Workers publish before finishing, so once none are active an empty buffer is final
+                if (next == null && active.get() == 0 && buffer.isEmpty()) {
+                    return false;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public AccountRecord<T> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            AccountRecord<T> item = next;
+            next = null;
+            return item;
+        }
+    }
+}
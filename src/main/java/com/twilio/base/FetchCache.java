@@ -0,0 +1,467 @@
+package com.twilio.base;
+
+import com.twilio.http.Request;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of fetched resources, for configuration such as services and workspaces which is
+ * fetched on every request path but rarely changes.
+ *
+ * <p>
+ * A cache is attached to a client with {@code TwilioRestClient.Builder.fetchCache};
+ * {@link Fetcher#fetchCached(com.twilio.http.TwilioRestClient)} then looks results up by their normalized
+ * request before calling the API, for any fetcher. Each resource type is kept for its own time to live. Any other request through the same client, such as an
+ * update or delete, drops the cached results for its url once it completes.
+ * </p>
+ *
+ * <p>
+ * The cache holds a bounded number of entries. New entries pass through a small window; to enter the
+ * main area, an entry must have been requested more often recently than the entry it would replace,
+ * as estimated by a {@link FrequencySketch}. Bursts of one-off fetches therefore do not flush out the
+ * hot entries.
+ * </p>
+ *
+ * <p>
+ * Results stored with an entity tag, the {@code ETag} header of their response or a revision registered
+ * with {@link #revision}, such as that of a Sync document, are kept past their time to live and revalidated with a conditional request: a {@code 304 Not Modified} response renews the
+ * cached result without transferring or parsing it again. A time to live of 0 revalidates such results
+ * on every fetch.
+ * </p>
+ */
+public class FetchCache {
+
+    public static final long DEFAULT_TTL_SECONDS = 60L;
+
+    private enum Queue {
+        WINDOW, PROBATION, PROTECTED
+    }
+
+    private final int windowMax;
+    private final int mainMax;
+    private final int protectedMax;
+    private final Map<Class<?>, Long> ttlNanos = new HashMap<>();
+    private final Map<Class<?>, Function<Object, String>> revisions = new HashMap<>();
+    private final LinkedHashMap<String, Entry> window = new LinkedHashMap<>();
+    private final LinkedHashMap<String, Entry> probation = new LinkedHashMap<>();
+    private final LinkedHashMap<String, Entry> protectedEntries = new LinkedHashMap<>();
+    private final Map<String, Set<String>> keysByUrl = new HashMap<>();
+    private final FrequencySketch sketch;
+    private long defaultTtlNanos = TimeUnit.SECONDS.toNanos(DEFAULT_TTL_SECONDS);
+    private long generation;
+    private long hitCount;
+    private long missCount;
+    private long revalidationCount;
+    private long evictionCount;
+
+    /**
+     * Create a cache.
+     *
+     * @param maximumSize max number of cached resources
+     */
+    public FetchCache(final int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be at least 1");
+        }
+
+        this.windowMax = Math.max(1, maximumSize / 100);
+        this.mainMax = maximumSize - windowMax;
+        this.protectedMax = mainMax * 4 / 5;
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    /**
+     * Set how long resources without a time to live of their own are kept.
+     *
+     * @param duration time to live; 0 to only cache types with their own time to live
+     * @param unit     unit of the duration
+     * @return this
+     */
+    public synchronized FetchCache defaultTtl(final long duration, final TimeUnit unit) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("Time to live must not be negative");
+        }
+        this.defaultTtlNanos = unit.toNanos(duration);
+        return this;
+    }
+
+    /**
+     * Set how long resources of a type are kept.
+     *
+     * @param type     resource type, such as {@code Service.class}
+     * @param duration time to live; 0 to not cache the type, except results with an entity tag, which are
+     *                 then revalidated on every fetch
+     * @param unit     unit of the duration
+     * @return this
+     */
+    public synchronized FetchCache ttl(final Class<? extends Resource> type, final long duration, final TimeUnit unit) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("Time to live must not be negative");
+        }
+        this.ttlNanos.put(Objects.requireNonNull(type, "type"), unit.toNanos(duration));
+        return this;
+    }
+
+    /**
+     * Use the revision of a resource type as the entity tag of its results when the response has no
+     * {@code ETag} header, such as {@code cache.revision(Document.class, Document::getRevision)}.
+     *
+     * @param type     resource type
+     * @param revision gets the revision of a resource
+     * @param <T>      resource type
+     * @return this
+     */
+    public synchronized <T extends Resource> FetchCache revision(final Class<T> type,
+                                                                 final Function<? super T, String> revision) {
+        Objects.requireNonNull(revision, "revision");
+        this.revisions.put(Objects.requireNonNull(type, "type"), resource -> revision.apply(type.cast(resource)));
+        return this;
+    }
+
+    /**
+     * Drop the cached results of the resource a request acts on.
+     *
+     * @param request request, with the region and edge it is made to
+     */
+    public void invalidate(final Request request) {
+        invalidate(resourceUrl(request));
+    }
+
+    /**
+     * Drop the cached results of a url.
+     *
+     * <p>
+     * Fetches of the url which are in flight are not stored either, even if nothing was cached yet.
+     * </p>
+     *
+     * @param url url of the resource, with its region and edge, without a query
+     */
+    public synchronized void invalidate(final String url) {
+        generation++;
+
+        Set<String> keys = keysByUrl.remove(url);
+        if (keys == null) {
+            return;
+        }
+
+        for (String key : keys) {
+            Entry entry = find(key);
+            if (entry != null) {
+                queue(entry.queue).remove(key);
+            }
+        }
+    }
+
+    /**
+     * Drop every cached result.
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        window.clear();
+        probation.clear();
+        protectedEntries.clear();
+        keysByUrl.clear();
+    }
+
+    public synchronized int size() {
+        return window.size() + probation.size() + protectedEntries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Get the number of stale results renewed by a {@code 304 Not Modified} response; these are also
+     * counted as hits.
+     *
+     * @return number of revalidations
+     */
+    public synchronized long getRevalidationCount() {
+        return revalidationCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Get the share of lookups which were served from the cache.
+     *
+     * @return hits over lookups, from 0 to 1
+     */
+    public synchronized double getHitRate() {
+        long lookups = hitCount + missCount;
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+
+    /**
+     * Look up a fresh result.
+     *
+     * @param key normalized request
+     * @return cached resource, or null
+     */
+    synchronized Object get(final String key) {
+        sketch.increment(key);
+
+        Entry entry = find(key);
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAt >= 0) {
+            // Keep stale results which can be revalidated
+            if (entry.etag == null) {
+                remove(entry);
+            }
+            missCount++;
+            return null;
+        }
+
+        hitCount++;
+        touch(entry);
+        return entry.value;
+    }
+
+    /**
+     * Get the entity tag of a cached result, for a conditional request.
+     *
+     * @param key normalized request
+     * @return entity tag, or null if the result is not cached or has none
+     */
+    synchronized String etag(final String key) {
+        Entry entry = find(key);
+        return entry == null ? null : entry.etag;
+    }
+
+    /**
+     * Renew a cached result after the API answered a conditional request with {@code 304 Not Modified}.
+     *
+     * @param key        normalized request
+     * @param etag       entity tag sent in the request
+     * @param type       resource type, for its time to live
+     * @param generation generation read before the request
+     * @return cached resource, or null if it changed or was dropped meanwhile
+     */
+    synchronized Object revalidate(final String key, final String etag, final Class<?> type, final long generation) {
+        Entry entry = find(key);
+        if (entry == null || !etag.equals(entry.etag) || generation != this.generation) {
+            return null;
+        }
+
+        missCount--;
+        hitCount++;
+        revalidationCount++;
+        entry.expiresAt = System.nanoTime() + ttlNanos(type);
+        touch(entry);
+        return entry.value;
+    }
+
+    /**
+     * Get the revision registered for the type of a resource.
+     *
+     * @param resource resource
+     * @return revision, or null if none is registered for its type
+     */
+    synchronized String revision(final Object resource) {
+        Function<Object, String> revision = revisions.get(resource.getClass());
+        return revision == null ? null : revision.apply(resource);
+    }
+
+    /**
+     * Get the generation, which changes on every invalidation; results loaded across an invalidation
+     * may be stale and are not stored.
+     *
+     * @return current generation
+     */
+    synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Store a loaded result.
+     *
+     * @param key        normalized request
+     * @param url        url of the resource, for invalidation
+     * @param type       resource type, for its time to live
+     * @param value      resource
+     * @param generation generation read before loading
+     */
+    synchronized void put(final String key, final String url, final Class<?> type, final Object value,
+                          final long generation) {
+        put(key, url, type, value, generation, null);
+    }
+
+    /**
+     * Store a loaded result with the entity tag it can be revalidated with.
+     *
+     * @param key        normalized request
+     * @param url        url of the resource, for invalidation
+     * @param type       resource type, for its time to live
+     * @param value      resource
+     * @param generation generation read before loading
+     * @param etag       entity tag, or null
+     */
+    synchronized void put(final String key, final String url, final Class<?> type, final Object value,
+                          final long generation, final String etag) {
+        long ttl = ttlNanos(type);
+        if ((ttl <= 0 && etag == null) || value == null || generation != this.generation) {
+            return;
+        }
+
+        Entry existing = find(key);
+        if (existing != null) {
+            existing.value = value;
+            existing.etag = etag;
+            existing.expiresAt = System.nanoTime() + ttl;
+            touch(existing);
+            return;
+        }
+
+        Entry entry = new Entry(key, url, value, etag, System.nanoTime() + ttl);
+        keysByUrl.computeIfAbsent(url, u -> new HashSet<>()).add(key);
+        admit(entry);
+    }
+
+    /**
+     * Get the url a request is made to, with its region and edge applied and without its query, which
+     * cached results are stored and invalidated by.
+     *
+     * @param request request
+     * @return url of the resource
+     */
+    static String resourceUrl(final Request request) {
+        String url = request.constructURL().toString();
+        int query = url.indexOf('?');
+        return query == -1 ? url : url.substring(0, query);
+    }
+
+    private long ttlNanos(final Class<?> type) {
+        Long ttl = ttlNanos.get(type);
+        return ttl == null ? defaultTtlNanos : ttl;
+    }
+
+    private Entry find(final String key) {
+        Entry entry = window.get(key);
+        if (entry == null) {
+            entry = probation.get(key);
+        }
+        if (entry == null) {
+            entry = protectedEntries.get(key);
+        }
+        return entry;
+    }
+
+    private LinkedHashMap<String, Entry> queue(final Queue queue) {
+        switch (queue) {
+            case WINDOW:
+                return window;
+            case PROBATION:
+                return probation;
+            default:
+                return protectedEntries;
+        }
+    }
+
+    /**
+     * Move an entry to the most recently used end of its queue, promoting it out of probation.
+     */
+    private void touch(final Entry entry) {
+        queue(entry.queue).remove(entry.key);
+
+        if (entry.queue == Queue.PROBATION) {
+            entry.queue = Queue.PROTECTED;
+            if (protectedEntries.size() >= protectedMax && !protectedEntries.isEmpty()) {
+                Entry demoted = first(protectedEntries);
+                protectedEntries.remove(demoted.key);
+                demoted.queue = Queue.PROBATION;
+                probation.put(demoted.key, demoted);
+            }
+        }
+
+        queue(entry.queue).put(entry.key, entry);
+    }
+
+    /**
+     * Add an entry to the window; the entry it pushes out is kept only if it is more popular than the
+     * entry it would replace.
+     */
+    private void admit(final Entry entry) {
+        entry.queue = Queue.WINDOW;
+        window.put(entry.key, entry);
+        if (window.size() <= windowMax) {
+            return;
+        }
+
+        Entry candidate = first(window);
+        window.remove(candidate.key);
+
+        if (probation.size() + protectedEntries.size() < mainMax) {
+            candidate.queue = Queue.PROBATION;
+            probation.put(candidate.key, candidate);
+            return;
+        }
+
+        Entry victim = probation.isEmpty() ? first(protectedEntries) : first(probation);
+        if (victim != null && sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+            evict(victim);
+            candidate.queue = Queue.PROBATION;
+            probation.put(candidate.key, candidate);
+        } else {
+            candidate.queue = Queue.WINDOW;
+            evict(candidate);
+        }
+    }
+
+    private void evict(final Entry entry) {
+        remove(entry);
+        evictionCount++;
+    }
+
+    private void remove(final Entry entry) {
+        queue(entry.queue).remove(entry.key);
+
+        Set<String> keys = keysByUrl.get(entry.url);
+        if (keys != null) {
+            keys.remove(entry.key);
+            if (keys.isEmpty()) {
+                keysByUrl.remove(entry.url);
+            }
+        }
+    }
+
+    private static Entry first(final LinkedHashMap<String, Entry> queue) {
+        Iterator<Entry> iterator = queue.values().iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    private static class Entry {
+        private final String key;
+        private final String url;
+        private Object value;
+        private String etag;
+        private long expiresAt;
+        private Queue queue;
+
+        private Entry(final String key, final String url, final Object value, final String etag,
+                      final long expiresAt) {
+            this.key = key;
+            this.url = url;
+            this.value = value;
+            this.etag = etag;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
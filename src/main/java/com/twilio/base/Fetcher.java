@@ -1,8 +1,18 @@
 package com.twilio.base;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.twilio.Twilio;
+import com.twilio.exception.ApiConnectionException;
+import com.twilio.http.Request;
+import com.twilio.http.Response;
 import com.twilio.http.TwilioRestClient;
+import org.apache.http.Header;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -12,6 +22,10 @@ import java.util.concurrent.CompletableFuture;
  */
 public abstract class Fetcher<T extends Resource> {
 
+    private static final String IF_NONE_MATCH = "If-None-Match";
+    private static final String ETAG = "ETag";
+    private static final int HTTP_STATUS_CODE_NOT_MODIFIED = 304;
+
     /**
      * Execute an async request using default client.
      *
@@ -47,4 +61,165 @@ public abstract class Fetcher<T extends Resource> {
      * @return Requested object
      */
     public abstract T fetch(final TwilioRestClient client);
+
+    /**
+     * Execute a request using default client, through its {@link FetchCache} if it has one.
+     *
+     * @return Requested object
+     */
+    public T fetchCached() {
+        return fetchCached(Twilio.getRestClient());
+    }
+
+    /**
+     * Execute a request using specified client, through its {@link FetchCache} if it has one.
+     *
+     * <p>
+     * The request is the one {@link #fetch(TwilioRestClient)} makes, and the response is parsed with
+     * the {@code fromJson} of the resource class, so every generated fetcher can be cached. The entity
+     * tag of a result is the {@code ETag} header of its response, or else the revision registered for its
+     * type with {@link FetchCache#revision}. Once the result is stale, it is sent as
+     * {@code If-None-Match}; a {@code 304 Not Modified} response returns the cached object.
+     * </p>
+     *
+     * @param client client used to make request
+     * @return Requested object
+     */
+    public T fetchCached(final TwilioRestClient client) {
+        FetchCache cache = client.getFetchCache();
+        ResourceParser parser = ResourceParser.of(getClass());
+        if (cache == null || parser == null) {
+            return fetch(client);
+        }
+
+        Request request = fetchRequest(client);
+        // Resolve the url as the client will, so the key and the stored url match the url invalidated
+        if (client.getRegion() != null) {
+            request.setRegion(client.getRegion());
+        }
+        if (client.getEdge() != null) {
+            request.setEdge(client.getEdge());
+        }
+        String url = FetchCache.resourceUrl(request);
+        String key = cacheKey(client, request, url);
+        Class<?> type = parser.getType();
+        Object cached = cache.get(key);
+        if (type.isInstance(cached)) {
+            return cast(cached);
+        }
+
+        long generation = cache.generation();
+        String etag = cache.etag(key);
+        Response response;
+
+        if (etag != null) {
+            request.addHeaderParam(IF_NONE_MATCH, etag);
+            response = client.request(request);
+            request.getHeaderParams().remove(IF_NONE_MATCH);
+
+            if (response != null && response.getStatusCode() == HTTP_STATUS_CODE_NOT_MODIFIED) {
+                Object revalidated = cache.revalidate(key, etag, type, generation);
+                if (type.isInstance(revalidated)) {
+                    return cast(revalidated);
+                }
+
+                // Dropped while revalidating, so fetch it in full
+                generation = cache.generation();
+                response = client.request(request);
+            }
+        } else {
+            response = client.request(request);
+        }
+
+        Responses.checked(client, response, type.getSimpleName() + " fetch");
+        Object value = parser.parse(response.getStream(), client.getObjectMapper());
+        String newEtag = header(response, ETAG);
+        if (newEtag == null) {
+            newEtag = cache.revision(value);
+        }
+        cache.put(key, url, type, value, generation, newEtag);
+        return cast(value);
+    }
+
+    /**
+     * Build the request for the fetch.
+     *
+     * @param client client used to make request
+     * @return Request for the fetch
+     */
+    protected Request fetchRequest(final TwilioRestClient client) {
+        return RequestCapture.capture(client, this::fetch);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T cast(final Object resource) {
+        return (T) resource;
+    }
+
+    private static String header(final Response response, final String name) {
+        Header[] headers = response.getHeaders();
+        if (headers != null) {
+            for (Header header : headers) {
+                if (name.equalsIgnoreCase(header.getName())) {
+                    return header.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Normalize a request into a cache key: the same resource fetched with its query parameters in
+     * another order has the same key.
+     */
+    private static String cacheKey(final TwilioRestClient client, final Request request, final String url) {
+        StringBuilder key = new StringBuilder(128)
+            .append(request.getMethod()).append(' ')
+            .append(client.getAccountSid()).append(' ')
+            .append(url);
+
+        Map<String, List<String>> params = request.getQueryParams();
+        if (params != null && !params.isEmpty()) {
+            char separator = '?';
+            for (Map.Entry<String, List<String>> param : new TreeMap<>(params).entrySet()) {
+                for (String value : param.getValue()) {
+                    key.append(separator).append(param.getKey()).append('=').append(value);
+                    separator = '&';
+                }
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Fetch the resource into the columns of a batch using default client.
+     *
+     * @param batch batch to append a row to
+     * @return the batch
+     */
+    public ColumnarBatch fetchInto(final ColumnarBatch batch) {
+        return fetchInto(batch, Twilio.getRestClient());
+    }
+
+    /**
+     * Fetch the resource into the columns of a batch using specified client.
+     *
+     * @param batch  batch to append a row to
+     * @param client client used to make request
+     * @return the batch
+     */
+    public ColumnarBatch fetchInto(final ColumnarBatch batch, final TwilioRestClient client) {
+        Response response = Responses.checked(client, client.request(fetchRequest(client)), "Columnar fetch");
+
+        try (JsonParser parser = client.getObjectMapper().getFactory().createParser(response.getStream())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new ApiConnectionException("Unable to deserialize response: expected a JSON object");
+            }
+
+            batch.append(parser);
+            return batch;
+        } catch (final IOException e) {
+            throw new ApiConnectionException("Unable to deserialize response: " + e.getMessage(), e);
+        }
+    }
 }
@@ -0,0 +1,88 @@
+package com.twilio.base;
+
+/**
+ * Approximate count of how often keys were seen recently, used to decide which cache entries to keep.
+ *
+ * <p>
+ * A count-min sketch of 4-bit counters, sixteen to a {@code long}. Each key increments one counter in
+ * each of four rows and its frequency is the smallest of them. All counters are halved once the number
+ * of increments reaches ten times the capacity, so old popularity fades.
+ * </p>
+ */
+class FrequencySketch {
+
+    private static final long[] SEEDS = {
+        0x97cb3127L, 0xbb67ae85L, 0x3c6ef372L, 0xa54ff53aL
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+
+    private final long[] table;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(final int capacity) {
+        int length = Integer.highestOneBit(Math.max(capacity, 8) - 1) << 1;
+        this.table = new long[length];
+        this.sampleSize = (int) Math.min(Integer.MAX_VALUE, 10L * Math.max(capacity, 1));
+    }
+
+    /**
+     * Get the estimated number of times a key was seen.
+     *
+     * @param key key to estimate
+     * @return count, at most 15
+     */
+    int frequency(final Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < SEEDS.length; i++) {
+            frequency = Math.min(frequency, (int) ((table[index(hash, i)] >>> offset(hash, i)) & 0xfL));
+        }
+        return frequency;
+    }
+
+    /**
+     * Record that a key was seen.
+     *
+     * @param key key to count
+     */
+    void increment(final Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            int index = index(hash, i);
+            int offset = offset(hash, i);
+            if (((table[index] >>> offset) & 0xfL) < MAX_COUNT) {
+                table[index] += 1L << offset;
+                added = true;
+            }
+        }
+
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+    }
+
+    private int index(final int hash, final int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return (int) h & (table.length - 1);
+    }
+
+    private static int offset(final int hash, final int row) {
+        return (((hash >>> (row << 3)) & 3) + (row << 2)) << 2;
+    }
+
+    private static int spread(final int hash) {
+        int h = hash * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+}
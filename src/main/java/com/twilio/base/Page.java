@@ -1,14 +1,22 @@
 package com.twilio.base;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.twilio.exception.ApiConnectionException;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class Page<T> {
+    private static final Pattern PAGE_SIZE_PARAM = Pattern.compile("([?&])PageSize=\\d*");
+
     private final List<T> records;
     private final String firstPageUrl;
     private final String firstPageUri;
@@ -19,6 +27,7 @@ public class Page<T> {
     private final String url;
     private final String uri;
     private final int pageSize;
+    private final long bodySize;
 
     private Page(Builder<T> b) {
         this.records = b.records;
@@ -31,6 +40,7 @@ public class Page<T> {
         this.uri = b.uri;
         this.url = b.url;
         this.pageSize = b.pageSize;
+        this.bodySize = b.bodySize;
     }
 
     private String urlFromUri(String domain, String uri) {
@@ -101,6 +111,51 @@ public class Page<T> {
         return urlFromUri(domain, uri);
     }
 
+    /**
+     * Copy this page, requesting a different page size for the following page.
+     *
+     * @param pageSize page size to request
+     * @return copy of the page with the next page link rewritten
+     */
+    Page<T> withNextPageSize(final int pageSize) {
+        return new Builder<T>()
+            .records(records)
+            .firstPageUri(firstPageUri)
+            .firstPageUrl(firstPageUrl)
+            .nextPageUri(replacePageSize(nextPageUri, pageSize))
+            .nextPageUrl(replacePageSize(nextPageUrl, pageSize))
+            .previousPageUri(previousPageUri)
+            .previousPageUrl(previousPageUrl)
+            .uri(uri)
+            .url(url)
+            .pageSize(this.pageSize)
+            .bodySize(this.bodySize)
+            .build();
+    }
+
+    private static String replacePageSize(final String link, final int pageSize) {
+        if (link == null || link.isEmpty()) {
+            return link;
+        }
+
+        Matcher matcher = PAGE_SIZE_PARAM.matcher(link);
+        if (matcher.find()) {
+            return matcher.replaceFirst(matcher.group(1) + "PageSize=" + pageSize);
+        }
+
+        return link + (link.indexOf('?') == -1 ? "?" : "&") + "PageSize=" + pageSize;
+    }
+
+    /**
+     * Get the size of the response body this page was read from.
+     *
+     * @return size in characters, or -1 if unknown; not its size in bytes, which is larger if the body holds
+     *     characters outside ASCII
+     */
+    public long getBodySize() {
+        return bodySize;
+    }
+
     public boolean hasNextPage() {
         return (nextPageUri != null && !nextPageUri.isEmpty()) || (nextPageUrl != null && !nextPageUrl.isEmpty());
     }
@@ -126,9 +181,9 @@ public class Page<T> {
 
             JsonNode uriNode = root.get("uri");
             if (uriNode != null) {
-                return buildPage(root, results);
+                return buildPage(root, results, json.length());
             } else {
-                return buildNextGenPage(root, results);
+                return buildNextGenPage(root, results, json.length());
             }
 
         } catch (final IOException e) {
@@ -138,9 +193,65 @@ public class Page<T> {
         }
     }
 
-    private static <T> Page<T> buildPage(JsonNode root, List<T> results) {
+    /**
+     * Create a new page of data by streaming a json blob through a projection.
+     *
+     * <p>
+     * Only the paging properties are kept as a tree; records are handed to the projection one at a time
+     * straight from the parser, so properties the projection does not need are skipped without being bound.
+     * </p>
+     *
+     * @param recordKey  key which holds the records; if null, the first top level array is used
+     * @param json       json stream
+     * @param projection decoder for each record
+     * @param mapper     json parser
+     * @param <T>        record class type
+     * @return a page of records of type T
+     */
+    public static <T> Page<T> fromJson(String recordKey, InputStream json, Projection<T> projection,
+                                       ObjectMapper mapper) {
+        try (JsonParser parser = mapper.getFactory().createParser(json)) {
+            List<T> results = new ArrayList<>();
+            ObjectNode root = mapper.createObjectNode();
+            boolean recordsSeen = false;
+
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new ApiConnectionException("Unable to deserialize response: expected a JSON object");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                boolean isRecords = token == JsonToken.START_ARRAY && !recordsSeen
+                    && (recordKey == null ? !"meta".equals(name) : recordKey.equals(name));
+
+                if (isRecords) {
+                    recordsSeen = true;
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        results.add(projection.decode(parser, mapper));
+                    }
+                } else if (token == JsonToken.VALUE_NULL) {
+                    root.putNull(name);
+                } else {
+                    root.set(name, parser.readValueAsTree());
+                }
+            }
+
+            if (root.get("uri") != null) {
+                return buildPage(root, results, -1);
+            } else {
+                return buildNextGenPage(root, results, -1);
+            }
+
+        } catch (final IOException e) {
+            throw new ApiConnectionException("Unable to deserialize response: " + e.getMessage(), e);
+        }
+    }
+
+    private static <T> Page<T> buildPage(JsonNode root, List<T> results, long bodySize) {
         Builder<T> builder = new Builder<T>()
-            .uri(root.get("uri").asText());
+            .uri(root.get("uri").asText())
+            .bodySize(bodySize);
 
         JsonNode nextPageNode = root.get("next_page_uri");
         if (nextPageNode != null && !nextPageNode.isNull()) {
@@ -167,9 +278,9 @@ public class Page<T> {
         return builder.records(results).build();
     }
 
-    private static <T> Page<T> buildNextGenPage(JsonNode root, List<T> results) {
+    private static <T> Page<T> buildNextGenPage(JsonNode root, List<T> results, long bodySize) {
         JsonNode meta = root.get("meta");
-        Builder<T> builder = new Builder<T>().url(meta.get("url").asText());
+        Builder<T> builder = new Builder<T>().url(meta.get("url").asText()).bodySize(bodySize);
 
         JsonNode nextPageNode = meta.get("next_page_url");
         if (!nextPageNode.isNull()) {
@@ -207,6 +318,7 @@ public class Page<T> {
         private String uri;
         private String url;
         private int pageSize;
+        private long bodySize = -1;
 
         public Builder<T> records(List<T> records) {
             this.records = records;
@@ -258,6 +370,11 @@ public class Page<T> {
             return this;
         }
 
+        public Builder<T> bodySize(long bodySize) {
+            this.bodySize = bodySize;
+            return this;
+        }
+
         public Page<T> build() {
             return new Page<>(this);
         }
@@ -0,0 +1,23 @@
+package com.twilio.base;
+
+/**
+ * Strategy for choosing the page size of the next page while auto paging a {@link ResourceSet}.
+ */
+@FunctionalInterface
+public interface PageSizePolicy {
+
+    /**
+     * Choose the page size for the following page.
+     *
+     * @param pageSize      page size of the page just fetched
+     * @param records       number of records in the page just fetched
+     * @param elapsedMillis time taken by the HTTP request for the page, including retries, without decoding
+     *                      the body; or, for an HTTP client which does not measure requests, the time to fetch
+     *                      and decode the page; -1 if not measured
+     * @param bodySize      size of the response body in characters, or -1 if unknown; characters outside ASCII
+     *                      take more than one byte on the wire
+     * @param remaining     records still allowed by the limit, or null if unlimited
+     * @return page size to request next
+     */
+    int nextPageSize(int pageSize, int records, long elapsedMillis, long bodySize, Long remaining);
+}
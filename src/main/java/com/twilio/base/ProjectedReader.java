@@ -0,0 +1,153 @@
+package com.twilio.base;
+
+import com.twilio.Twilio;
+import com.twilio.http.HttpMethod;
+import com.twilio.http.Request;
+import com.twilio.http.Response;
+import com.twilio.http.TwilioRestClient;
+
+import java.net.URI;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Executor for listing a subset of the properties of a resource.
+ *
+ * <p>
+ * Uses the filters, page size and limit of the wrapped reader, but decodes each page through a
+ * {@link Projection} instead of binding the full resource class.
+ * </p>
+ *
+ * @param <P> type of the projected record
+ */
+public class ProjectedReader<P> {
+
+    private static final String TWILIO_DOMAIN_SUFFIX = ".twilio.com";
+
+    private final Reader<?> reader;
+    private final Projection<P> projection;
+    private String domain;
+
+    /**
+     * Create a projected reader.
+     *
+     * @param reader     reader providing the filters, page size and limit
+     * @param projection decoder for each record
+     */
+    public ProjectedReader(final Reader<?> reader, final Projection<P> projection) {
+        this.reader = reader;
+        this.projection = projection;
+    }
+
+    /**
+     * Execute a request using default client.
+     *
+     * @return projected records, fetching further pages as they are iterated
+     */
+    public Iterable<P> read() {
+        return read(Twilio.getRestClient());
+    }
+
+    /**
+     * Execute a request using specified client.
+     *
+     * @param client client used to make requests
+     * @return projected records, fetching further pages as they are iterated
+     */
+    public Iterable<P> read(final TwilioRestClient client) {
+        final Page<P> first = firstPage(client);
+        return () -> new ProjectedIterator(client, first);
+    }
+
+    /**
+     * Fetch the first page of projected records.
+     *
+     * @param client client used to fetch
+     * @return Page containing the first pageSize of records
+     */
+    public Page<P> firstPage(final TwilioRestClient client) {
+        Request request = reader.firstPageRequest(client);
+        return pageForRequest(client, request);
+    }
+
+    /**
+     * Retrieve the target page of projected records.
+     *
+     * @param targetUrl API-generated URL for the requested results page
+     * @param client    client used to fetch
+     * @return Page containing the target pageSize of records
+     */
+    public Page<P> getPage(final String targetUrl, final TwilioRestClient client) {
+        return pageForRequest(client, new Request(HttpMethod.GET, targetUrl));
+    }
+
+    /**
+     * Fetch the following page of projected records.
+     *
+     * @param page   current page of records
+     * @param client client used to fetch
+     * @return Page containing the next pageSize of records
+     */
+    public Page<P> nextPage(final Page<P> page, final TwilioRestClient client) {
+        return getPage(page.getNextPageUrl(domain), client);
+    }
+
+    private Page<P> pageForRequest(final TwilioRestClient client, final Request request) {
+        if (domain == null) {
+            domain = domainOf(request.getUrl());
+        }
+
+        Response response = Responses.checked(client, client.request(request), "Projected read");
+
+        return Page.fromJson(null, response.getStream(), projection, client.getObjectMapper());
+    }
+
+    private static String domainOf(final String url) {
+        String host = URI.create(url).getHost();
+        if (host != null && host.endsWith(TWILIO_DOMAIN_SUFFIX)) {
+            String subdomain = host.substring(0, host.length() - TWILIO_DOMAIN_SUFFIX.length());
+            int dot = subdomain.indexOf('.');
+            return dot == -1 ? subdomain : subdomain.substring(0, dot);
+        }
+        return host;
+    }
+
+    private class ProjectedIterator implements Iterator<P> {
+        private final TwilioRestClient client;
+        private final Long limit;
+        private Page<P> page;
+        private Iterator<P> iterator;
+        private long processed = 0;
+
+        ProjectedIterator(final TwilioRestClient client, final Page<P> page) {
+            this.client = client;
+            this.limit = reader.getLimit();
+            this.page = page;
+            this.iterator = page.getRecords().iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (limit != null && processed >= limit) {
+                return false;
+            }
+
+            while (!iterator.hasNext() && page.hasNextPage()) {
+                page = nextPage(page, client);
+                iterator = page.getRecords().iterator();
+            }
+
+            return iterator.hasNext();
+        }
+
+        @Override
+        public P next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            processed++;
+            return iterator.next();
+        }
+    }
+}
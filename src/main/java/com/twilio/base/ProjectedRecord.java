@@ -0,0 +1,109 @@
+package com.twilio.base;
+
+import com.twilio.converter.DateConverter;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A record holding only the properties requested by a {@link Projection}.
+ *
+ * <p>
+ * Values are kept as decoded by the parser: strings, numbers, booleans, or trees for nested
+ * properties. Conversions such as date parsing happen only when a getter asks for them.
+ * </p>
+ */
+public class ProjectedRecord {
+
+    private final String[] names;
+    private final Map<String, Integer> index;
+    private final Object[] values;
+
+    ProjectedRecord(final String[] names, final Map<String, Integer> index, final Object[] values) {
+        this.names = names;
+        this.index = index;
+        this.values = values;
+    }
+
+    /**
+     * Get the raw value of a property.
+     *
+     * @param field property name, either as JSON name or camel case
+     * @return the value, or null if the property was null or absent
+     * @throws IllegalArgumentException if the property is not part of the projection
+     */
+    public Object get(final String field) {
+        Integer position = index.get(field);
+        if (position == null) {
+            throw new IllegalArgumentException("Field is not part of the projection: " + field);
+        }
+
+        return values[position];
+    }
+
+    /**
+     * Get a property as a String.
+     *
+     * @param field property name
+     * @return the value as a String, or null
+     */
+    public String getString(final String field) {
+        Object value = get(field);
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Get a property as a timestamp, accepting both RFC 2822 and ISO 8601 formats.
+     *
+     * @param field property name
+     * @return the parsed timestamp, or null if absent or unparseable
+     */
+    public ZonedDateTime getDateTime(final String field) {
+        String value = getString(field);
+        if (value == null) {
+            return null;
+        }
+
+        ZonedDateTime parsed = DateConverter.rfc2822DateTimeFromString(value);
+        return parsed != null ? parsed : DateConverter.iso8601DateTimeFromString(value);
+    }
+
+    /**
+     * Get the projected properties keyed by JSON name, in projection order.
+     *
+     * @return map of the properties
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            map.put(names[i], values[i]);
+        }
+        return map;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        ProjectedRecord other = (ProjectedRecord) o;
+        return Arrays.equals(names, other.names) && Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(names) + Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+        return "ProjectedRecord" + toMap();
+    }
+}
@@ -0,0 +1,176 @@
+package com.twilio.base;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Decoder for a subset of the properties of a record.
+ *
+ * <p>
+ * A projection reads one record at a time from a streaming parser and skips every property it was
+ * not asked for, so dates, URIs and prices of unused properties are never parsed or allocated.
+ * </p>
+ *
+ * @param <P> type of the projected record
+ */
+public abstract class Projection<P> {
+
+    /**
+     * Create a projection that decodes the given properties into a {@link ProjectedRecord}.
+     *
+     * @param fields properties to decode, either as JSON names (date_updated) or camel case (dateUpdated)
+     * @return the projection
+     */
+    public static Projection<ProjectedRecord> of(final String... fields) {
+        if (fields == null || fields.length == 0) {
+            throw new IllegalArgumentException("Projection must have at least one field");
+        }
+
+        return new FieldProjection(fields);
+    }
+
+    /**
+     * Create a projection that binds records into a caller supplied class.
+     *
+     * <p>
+     * Only the properties declared by the class are bound; all others are skipped in the parser.
+     * </p>
+     *
+     * @param viewType class to bind into
+     * @param <P> type of the view
+     * @return the projection
+     */
+    public static <P> Projection<P> into(final Class<P> viewType) {
+        return new ClassProjection<>(viewType);
+    }
+
+    /**
+     * Decode a single record.
+     *
+     * @param parser parser positioned on the START_OBJECT of the record; must be left on its END_OBJECT
+     * @param mapper json mapper of the client
+     * @return the projected record
+     * @throws IOException if the record can not be parsed
+     */
+    protected abstract P decode(final JsonParser parser, final ObjectMapper mapper) throws IOException;
+
+    /**
+     * Convert a camel case property name into the snake case used by the API.
+     *
+     * @param field property name
+     * @return snake case property name
+     */
+    static String toJsonName(final String field) {
+        StringBuilder builder = new StringBuilder(field.length() + 4);
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (Character.isUpperCase(c)) {
+                if (i > 0) {
+                    builder.append('_');
+                }
+                builder.append(Character.toLowerCase(c));
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static class FieldProjection extends Projection<ProjectedRecord> {
+        private final String[] names;
+        private final Map<String, Integer> index;
+
+        private FieldProjection(final String[] fields) {
+            this.names = new String[fields.length];
+            Map<String, Integer> lookup = new HashMap<>();
+
+            for (int i = 0; i < fields.length; i++) {
+                names[i] = toJsonName(fields[i]);
+                lookup.put(names[i], i);
+                lookup.put(fields[i], i);
+            }
+
+            this.index = Collections.unmodifiableMap(lookup);
+        }
+
+        @Override
+        protected ProjectedRecord decode(final JsonParser parser, final ObjectMapper mapper) throws IOException {
+            Object[] values = new Object[names.length];
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                Integer position = index.get(parser.getCurrentName());
+                JsonToken token = parser.nextToken();
+
+                if (position == null) {
+                    parser.skipChildren();
+                    continue;
+                }
+
+                switch (token) {
+                    case VALUE_STRING:
+                        values[position] = parser.getText();
+                        break;
+                    case VALUE_NUMBER_INT:
+                    case VALUE_NUMBER_FLOAT:
+                        values[position] = parser.getNumberValue();
+                        break;
+                    case VALUE_TRUE:
+                    case VALUE_FALSE:
+                        values[position] = parser.getBooleanValue();
+                        break;
+                    case VALUE_NULL:
+                        break;
+                    default:
+                        values[position] = parser.readValueAsTree();
+                        break;
+                }
+            }
+
+            return new ProjectedRecord(names, index, values);
+        }
+    }
+
+    private static class ClassProjection<P> extends Projection<P> {
+        private final Class<P> viewType;
+        private volatile BoundReader bound;
+
+        private ClassProjection(final Class<P> viewType) {
+            this.viewType = viewType;
+        }
+
+        @Override
+        protected P decode(final JsonParser parser, final ObjectMapper mapper) throws IOException {
+            BoundReader current = bound;
+            if (current == null || current.mapper != mapper) {
+                current = new BoundReader(
+                    mapper,
+                    mapper.readerFor(viewType).without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                );
+                bound = current;
+            }
+
+            return current.reader.readValue(parser);
+        }
+    }
+
+    /**
+     * A reader with the mapper it was made from, published together.
+     */
+    private static final class BoundReader {
+        private final ObjectMapper mapper;
+        private final ObjectReader reader;
+
+        private BoundReader(final ObjectMapper mapper, final ObjectReader reader) {
+            this.mapper = mapper;
+            this.reader = reader;
+        }
+    }
+}
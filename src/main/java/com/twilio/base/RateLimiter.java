@@ -0,0 +1,99 @@
+package com.twilio.base;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket rate limiter used to pace requests.
+ *
+ * <p>
+ * Permits are issued at a fixed rate; up to {@code burst} unused permits accumulate while idle and are
+ * handed out at once, after which permits are spaced by the interval. Callers reserve a permit under a
+ * lock, going into debt for permits not yet issued, and sleep outside it, so waiting threads do not block
+ * each other.
+ * </p>
+ */
+public class RateLimiter {
+
+    private final long intervalNanos;
+    private final double burst;
+    private double permits;
+    private long refilledNanos;
+
+    /**
+     * Create a rate limiter which allows no bursts.
+     *
+     * @param permitsPerSecond permits issued per second
+     */
+    public RateLimiter(final double permitsPerSecond) {
+        this(permitsPerSecond, 1);
+    }
+
+    /**
+     * Create a rate limiter.
+     *
+     * @param permitsPerSecond permits issued per second
+     * @param burst            max number of permits stored while idle
+     */
+    public RateLimiter(final double permitsPerSecond, final int burst) {
+        if (!(permitsPerSecond > 0) || Double.isInfinite(permitsPerSecond)) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+
+        if (burst < 1) {
+            throw new IllegalArgumentException("Burst must be at least 1");
+        }
+
+        this.intervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burst = burst;
+        this.permits = burst;
+        this.refilledNanos = System.nanoTime();
+    }
+
+    /**
+     * Wait until a permit is available.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Take a permit if one is available right away, that is if {@link #acquire()} would not wait.
+     *
+     * @return true if a permit was taken
+     */
+    public synchronized boolean tryAcquire() {
+        refill(System.nanoTime());
+        if (permits >= 1) {
+            permits -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    public double getPermitsPerSecond() {
+        return (double) TimeUnit.SECONDS.toNanos(1) / intervalNanos;
+    }
+
+    /**
+     * Take a permit, which may not be issued yet.
+     *
+     * @return time until the permit is issued
+     */
+    private synchronized long reserve() {
+        refill(System.nanoTime());
+        permits -= 1;
+        return permits >= 0 ? 0 : (long) Math.ceil(-permits * intervalNanos);
+    }
+
+    private void refill(final long now) {
+        if (now > refilledNanos) {
+            permits = Math.min(burst, permits + (double) (now - refilledNanos) / intervalNanos);
+            refilledNanos = now;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.twilio.base;
 
 import com.twilio.Twilio;
+import com.twilio.http.Request;
 import com.twilio.http.TwilioRestClient;
 
 import java.util.concurrent.CompletableFuture;
@@ -12,6 +13,9 @@ import java.util.concurrent.CompletableFuture;
  */
 public abstract class Reader<T extends Resource> {
 
+    /** Largest page size the API serves. */
+    public static final int MAX_PAGE_SIZE = 1000;
+
     private Integer pageSize;
     private Long limit;
 
@@ -125,6 +129,67 @@ public abstract class Reader<T extends Resource> {
      */
     public abstract Page<T> previousPage(final Page<T> page, final TwilioRestClient client);
 
+    /**
+     * Build the request for the first page of resources, including all filters and the page size.
+     *
+     * @param client client used to fetch
+     * @return Request for the first page
+     */
+    protected Request firstPageRequest(final TwilioRestClient client) {
+        return RequestCapture.capture(client, this::firstPage);
+    }
+
+    /**
+     * Read only the given properties of each record.
+     *
+     * @param fields properties to decode, either as JSON names (date_updated) or camel case (dateUpdated)
+     * @return reader producing lightweight records
+     */
+    public ProjectedReader<ProjectedRecord> project(final String... fields) {
+        return new ProjectedReader<>(this, Projection.of(fields));
+    }
+
+    /**
+     * Read each record into a caller supplied view class.
+     *
+     * @param viewType class to bind the properties it declares into
+     * @param <P> type of the view
+     * @return reader producing view instances
+     */
+    public <P> ProjectedReader<P> project(final Class<P> viewType) {
+        return new ProjectedReader<>(this, Projection.into(viewType));
+    }
+
+    /**
+     * Read all records into the columns of a batch using default client.
+     *
+     * @param batch batch to append a row per record to
+     * @return the batch
+     */
+    public ColumnarBatch readInto(final ColumnarBatch batch) {
+        return readInto(batch, Twilio.getRestClient());
+    }
+
+    /**
+     * Read all records into the columns of a batch using specified client.
+     *
+     * @param batch  batch to append a row per record to
+     * @param client client used to make requests
+     * @return the batch
+     */
+    public ColumnarBatch readInto(final ColumnarBatch batch, final TwilioRestClient client) {
+        int start = batch.size();
+        int rows = 0;
+
+        for (ColumnarBatch ignored : new ProjectedReader<>(this, batch.projection()).read(client)) {
+            rows++;
+        }
+
+        // The last page may hold more records than the limit allows
+        batch.truncate(start + rows);
+        return batch;
+    }
+
     public Integer getPageSize() {
         return pageSize;
     }
@@ -141,6 +206,10 @@ public abstract class Reader<T extends Resource> {
     /**
      * Sets the max number of records to read.
      *
+     * <p>
+     * Without a page size, pages of up to {@value #MAX_PAGE_SIZE} records are read.
+     * </p>
+     *
      * @param limit max number of records to read
      * @return this reader
      */
@@ -148,7 +217,7 @@ public abstract class Reader<T extends Resource> {
         this.limit = limit;
 
         if (this.pageSize == null) {
-            this.pageSize = this.limit.intValue();
+            this.pageSize = (int) Math.min(limit, MAX_PAGE_SIZE);
         }
 
         return this;
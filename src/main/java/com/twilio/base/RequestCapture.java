@@ -0,0 +1,94 @@
+package com.twilio.base;
+
+import com.twilio.http.HttpClient;
+import com.twilio.http.Request;
+import com.twilio.http.Response;
+import com.twilio.http.TwilioRestClient;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Builds the request a generated reader or fetcher would make, without making it.
+ *
+ * <p>
+ * Generated readers and fetchers build their request and hand it straight to the client. Running them
+ * against a client whose transport stops at the first request gives that request, with every filter
+ * and path parameter applied, so any reader or fetcher can be used without changes to generated code.
+ * The request is made later through the real client, which sets its credentials, region and edge.
+ * </p>
+ */
+final class RequestCapture {
+
+    /** Max number of capturing clients kept, so an application using many accounts does not grow the cache. */
+    static final int MAX_CLIENTS = 64;
+
+    /**
+     * Capturing clients by account sid, as generated code reads the account from the client, least recently
+     * used first.
+     */
+    private static final LinkedHashMap<String, TwilioRestClient> CLIENTS =
+        new LinkedHashMap<String, TwilioRestClient>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, TwilioRestClient> eldest) {
+                return size() > MAX_CLIENTS;
+            }
+        };
+
+    private static final HttpClient CAPTURING_HTTP_CLIENT = new HttpClient() {
+        @Override
+        public Response makeRequest(final Request request) {
+            throw new Captured(request);
+        }
+    };
+
+    private RequestCapture() {
+    }
+
+    /**
+     * Build the request made by a call.
+     *
+     * @param client client the call would be made with
+     * @param call   call making a single request with the client given to it
+     * @return the request
+     * @throws IllegalStateException if the call made no request
+     */
+    static Request capture(final TwilioRestClient client, final Consumer<TwilioRestClient> call) {
+        TwilioRestClient capturing = capturingClient(client.getAccountSid());
+        try {
+            call.accept(capturing);
+        } catch (final Captured captured) {
+            return captured.request;
+        }
+        throw new IllegalStateException("No request was made");
+    }
+
+    private static TwilioRestClient capturingClient(final String accountSid) {
+        synchronized (CLIENTS) {
+            return CLIENTS.computeIfAbsent(
+                accountSid,
+                key -> new TwilioRestClient.Builder(key, "").httpClient(CAPTURING_HTTP_CLIENT).build()
+            );
+        }
+    }
+
+    static int clientCount() {
+        synchronized (CLIENTS) {
+            return CLIENTS.size();
+        }
+    }
+
+    private static final class Captured extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Request request;
+
+        private Captured(final Request request) {
+            super(null, null, false, false);
+            this.request = request;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.twilio.base;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.twilio.exception.ApiException;
+
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+/**
+ * Parses the resource of a generated fetcher with the {@code fromJson} of the resource class, found
+ * through the type parameter of the fetcher, so fetches can be made outside generated code.
+ */
+final class ResourceParser {
+
+    private static final ClassValue<ResourceParser> PARSERS = new ClassValue<ResourceParser>() {
+        @Override
+        protected ResourceParser computeValue(final Class<?> fetcherType) {
+            Class<?> type = resourceType(fetcherType);
+            if (type == null) {
+                return null;
+            }
+
+            try {
+                Method fromJson = type.getMethod("fromJson", InputStream.class, ObjectMapper.class);
+                if (!Modifier.isStatic(fromJson.getModifiers()) || !type.isAssignableFrom(fromJson.getReturnType())) {
+                    return null;
+                }
+                return new ResourceParser(type, fromJson);
+            } catch (final NoSuchMethodException e) {
+                return null;
+            }
+        }
+    };
+
+    private final Class<?> type;
+    private final Method fromJson;
+
+    private ResourceParser(final Class<?> type, final Method fromJson) {
+        this.type = type;
+        this.fromJson = fromJson;
+    }
+
+    /**
+     * Get the parser of the resource of a fetcher.
+     *
+     * @param fetcherType class of the fetcher
+     * @return parser, or null if the resource type is not a class with a {@code fromJson} method
+     */
+    static ResourceParser of(final Class<?> fetcherType) {
+        return PARSERS.get(fetcherType);
+    }
+
+    Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Parse a resource.
+     *
+     * @param json   body of the response
+     * @param mapper json mapper of the client
+     * @return resource
+     */
+    Object parse(final InputStream json, final ObjectMapper mapper) {
+        try {
+            return fromJson.invoke(null, json, mapper);
+        } catch (final InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new ApiException(e.getCause().getMessage(), e.getCause());
+        } catch (final IllegalAccessException e) {
+            throw new IllegalStateException("Unable to parse " + type.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Find the class bound to the type parameter of {@link Fetcher} by a fetcher class or its superclasses.
+     */
+    private static Class<?> resourceType(final Class<?> fetcherType) {
+        for (Class<?> c = fetcherType; c != null && c != Fetcher.class; c = c.getSuperclass()) {
+            Type superclass = c.getGenericSuperclass();
+            if (superclass instanceof ParameterizedType
+                && ((ParameterizedType) superclass).getRawType() == Fetcher.class) {
+                Type argument = ((ParameterizedType) superclass).getActualTypeArguments()[0];
+                return argument instanceof Class ? (Class<?>) argument : null;
+            }
+        }
+        return null;
+    }
+}
@@ -1,5 +1,6 @@
 package com.twilio.base;
 
+import com.twilio.http.HttpClient;
 import com.twilio.http.TwilioRestClient;
 
 import java.util.Iterator;
@@ -19,6 +20,8 @@ public class ResourceSet<E extends Resource> implements Iterable<E> {
     private long pages = 1;
     private long pageLimit = Long.MAX_VALUE;
     private long processed = 0;
+    private PageSizePolicy pageSizePolicy;
+    private long lastElapsedMillis = -1;
     private Page<E> page;
     private Iterator<E> iterator;
 
@@ -35,6 +38,8 @@ public class ResourceSet<E extends Resource> implements Iterable<E> {
         this.page = page;
         this.iterator = page.getRecords().iterator();
         this.autoPaging = true;
+        // The first page was fetched by this thread just before the set was made
+        this.lastElapsedMillis = lastRequestMillis();
 
         if (reader.getLimit() != null) {
             this.pageLimit = (long)(Math.ceil((double)reader.getLimit() / (double)page.getPageSize()));
@@ -72,12 +77,36 @@ public class ResourceSet<E extends Resource> implements Iterable<E> {
         return pageLimit;
     }
 
+    public PageSizePolicy getPageSizePolicy() {
+        return pageSizePolicy;
+    }
+
+    /**
+     * Adjust the page size between pages while auto paging.
+     *
+     * <p>
+     * With a policy set, paging stops on the limit rather than on a page count computed from the first page.
+     * </p>
+     *
+     * @param pageSizePolicy policy choosing the next page size, or null to keep the page size fixed
+     * @return this
+     */
+    public ResourceSet<E> setPageSizePolicy(final PageSizePolicy pageSizePolicy) {
+        this.pageSizePolicy = pageSizePolicy;
+        return this;
+    }
+
     @Override
     public Iterator<E> iterator() {
         return new ResourceSetIterator<>(this);
     }
 
     private void fetchNextPage() {
+        if (pageSizePolicy != null) {
+            fetchNextAdaptivePage();
+            return;
+        }
+
         if (!page.hasNextPage() || pages >= pageLimit) {
             return;
         }
@@ -87,6 +116,37 @@ public class ResourceSet<E extends Resource> implements Iterable<E> {
         iterator = page.getRecords().iterator();
     }
 
+    private void fetchNextAdaptivePage() {
+        // Called before the current element is counted as processed
+        Long remaining = getLimit() == null ? null : getLimit() - processed - 1;
+        if (!page.hasNextPage() || (remaining != null && remaining <= 0)) {
+            return;
+        }
+
+        int pageSize = pageSizePolicy.nextPageSize(
+            page.getPageSize(),
+            page.getRecords().size(),
+            lastElapsedMillis,
+            page.getBodySize(),
+            remaining
+        );
+
+        long start = System.nanoTime();
+        pages++;
+        page = reader.nextPage(page.withNextPageSize(pageSize), client);
+        iterator = page.getRecords().iterator();
+
+        lastElapsedMillis = lastRequestMillis();
+        if (lastElapsedMillis < 0) {
+            lastElapsedMillis = (System.nanoTime() - start) / 1000000L;
+        }
+    }
+
+    private long lastRequestMillis() {
+        HttpClient httpClient = client == null ? null : client.getHttpClient();
+        return httpClient == null ? -1 : httpClient.getLastElapsedMillis();
+    }
+
     private class ResourceSetIterator<E extends Resource> implements Iterator<E> {
         private final ResourceSet<E> resourceSet;
 
@@ -0,0 +1,41 @@
+package com.twilio.base;
+
+import com.twilio.exception.ApiConnectionException;
+import com.twilio.exception.ApiException;
+import com.twilio.exception.RestException;
+import com.twilio.http.Response;
+import com.twilio.http.TwilioRestClient;
+
+/**
+ * Error handling of responses for requests made outside generated code, matching the generated
+ * fetchers and readers.
+ */
+final class Responses {
+
+    private Responses() {
+    }
+
+    /**
+     * Check that a request succeeded.
+     *
+     * @param client   client the request was made with
+     * @param response response to the request, or null if it failed to connect
+     * @param action   what the request did, such as {@code Service fetch}, for the connection error
+     * @return the response
+     * @throws ApiConnectionException if the request failed to connect
+     * @throws ApiException           if the API returned an error
+     */
+    static Response checked(final TwilioRestClient client, final Response response, final String action) {
+        if (response == null) {
+            throw new ApiConnectionException(action + " failed: Unable to connect to server");
+        } else if (!TwilioRestClient.SUCCESS.test(response.getStatusCode())) {
+            RestException restException = RestException.fromJson(response.getStream(), client.getObjectMapper());
+            if (restException == null) {
+                throw new ApiException("Server Error, no content");
+            }
+            throw new ApiException(restException);
+        }
+
+        return response;
+    }
+}
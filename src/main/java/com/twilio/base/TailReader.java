@@ -0,0 +1,140 @@
+package com.twilio.base;
+
+import com.twilio.Twilio;
+import com.twilio.http.TwilioRestClient;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Incremental reader which returns only records newer than the last poll.
+ *
+ * <p>
+ * Each poll builds a reader filtered from the current high watermark, for example
+ * {@code w -> Message.reader().setDateSentAfter(w)}, {@code w -> Call.reader().setStartTimeAfter(w)}
+ * or {@code w -> Event.reader().setStartDate(w)}. Date filters are inclusive, so records stamped exactly
+ * at the watermark come back on every poll; their SIDs are remembered in a bounded set and filtered out.
+ * Records are returned oldest first.
+ * </p>
+ *
+ * @param <T> type of the resource
+ */
+public class TailReader<T extends Resource> {
+
+    public static final int DEFAULT_BOUNDARY_CAPACITY = 1000;
+
+    private final Function<ZonedDateTime, Reader<T>> readerFactory;
+    private final Function<T, ZonedDateTime> timestamp;
+    private final Function<T, String> sid;
+    private final int boundaryCapacity;
+    private final LinkedHashSet<String> boundarySids = new LinkedHashSet<>();
+    private ZonedDateTime watermark;
+
+    /**
+     * Create a tail reader with the default boundary capacity.
+     *
+     * @param readerFactory builds a reader filtered to records at or after the given watermark
+     * @param timestamp     extracts the timestamp the filter applies to
+     * @param sid           extracts the unique id of a record
+     * @param watermark     records before this timestamp are never returned
+     */
+    public TailReader(final Function<ZonedDateTime, Reader<T>> readerFactory,
+                      final Function<T, ZonedDateTime> timestamp,
+                      final Function<T, String> sid,
+                      final ZonedDateTime watermark) {
+        this(readerFactory, timestamp, sid, watermark, DEFAULT_BOUNDARY_CAPACITY);
+    }
+
+    /**
+     * Create a tail reader.
+     *
+     * @param readerFactory    builds a reader filtered to records at or after the given watermark
+     * @param timestamp        extracts the timestamp the filter applies to
+     * @param sid              extracts the unique id of a record
+     * @param watermark        records before this timestamp are never returned
+     * @param boundaryCapacity max number of SIDs remembered at the watermark timestamp
+     */
+    public TailReader(final Function<ZonedDateTime, Reader<T>> readerFactory,
+                      final Function<T, ZonedDateTime> timestamp,
+                      final Function<T, String> sid,
+                      final ZonedDateTime watermark,
+                      final int boundaryCapacity) {
+        if (boundaryCapacity < 1) {
+            throw new IllegalArgumentException("Boundary capacity must be positive");
+        }
+
+        this.readerFactory = Objects.requireNonNull(readerFactory, "readerFactory");
+        this.timestamp = Objects.requireNonNull(timestamp, "timestamp");
+        this.sid = Objects.requireNonNull(sid, "sid");
+        this.watermark = Objects.requireNonNull(watermark, "watermark");
+        this.boundaryCapacity = boundaryCapacity;
+    }
+
+    /**
+     * Fetch the records added since the last poll using default client.
+     *
+     * @return new records, oldest first
+     */
+    public List<T> poll() {
+        return poll(Twilio.getRestClient());
+    }
+
+    /**
+     * Fetch the records added since the last poll using specified client.
+     *
+     * @param client client used to make requests
+     * @return new records, oldest first
+     */
+    public synchronized List<T> poll(final TwilioRestClient client) {
+        List<T> fresh = new ArrayList<>();
+
+        for (T record : readerFactory.apply(watermark).read(client)) {
+            ZonedDateTime stamp = timestamp.apply(record);
+            if (stamp == null || stamp.isBefore(watermark)) {
+                continue;
+            }
+
+            if (stamp.isEqual(watermark) && boundarySids.contains(sid.apply(record))) {
+                continue;
+            }
+
+            fresh.add(record);
+        }
+
+        fresh.sort(Comparator.comparing(timestamp, ZonedDateTime::compareTo));
+        advance(fresh);
+        return fresh;
+    }
+
+    public synchronized ZonedDateTime getWatermark() {
+        return watermark;
+    }
+
+    private void advance(final List<T> fresh) {
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        ZonedDateTime newest = timestamp.apply(fresh.get(fresh.size() - 1));
+        if (newest.isAfter(watermark)) {
+            watermark = newest;
+            boundarySids.clear();
+        }
+
+        for (int i = fresh.size() - 1; i >= 0 && timestamp.apply(fresh.get(i)).isEqual(watermark); i--) {
+            boundarySids.add(sid.apply(fresh.get(i)));
+        }
+
+        Iterator<String> eldest = boundarySids.iterator();
+        while (boundarySids.size() > boundaryCapacity) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+}
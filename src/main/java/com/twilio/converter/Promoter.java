@@ -1,5 +1,6 @@
 package com.twilio.converter;
 
+import com.twilio.type.E164Number;
 import com.twilio.type.PhoneNumber;
 import com.twilio.type.Twiml;
 
@@ -34,6 +35,16 @@ public class Promoter {
         return new PhoneNumber(pn);
     }
 
+    /**
+     * Create a @see com.twilio.types.E164Number from a string
+     *
+     * @param pn phone number to convert
+     * @return built @see com.twilio.types.E164Number, or null if the string is not an E.164 number
+     */
+    public static E164Number e164NumberFromString(final String pn) {
+        return E164Number.tryParse(pn);
+    }
+
     /**
      * Create a @see com.twilio.types.Twiml from a string
      *
@@ -20,6 +20,8 @@ public abstract class HttpClient {
 
     private Response lastResponse;
     private Request lastRequest;
+    /** Elapsed time of the last request of each thread; threads sharing the client do not see each other's. */
+    private final ThreadLocal<long[]> lastElapsedMillis = ThreadLocal.withInitial(() -> new long[] {-1L});
 
     /**
      * Make a request.
@@ -43,6 +45,7 @@ public abstract class HttpClient {
     public Response reliableRequest(final Request request, final int[] retryCodes, int retries,
                                     final long delayMillis) {
         lastRequest = request;
+        long start = System.nanoTime();
         Response response = null;
         while (retries > 0) {
             response = makeRequest(request);
@@ -62,6 +65,7 @@ public abstract class HttpClient {
         }
 
         lastResponse = response;
+        lastElapsedMillis.get()[0] = (System.nanoTime() - start) / 1000000L;
 
         return response;
     }
@@ -74,6 +78,15 @@ public abstract class HttpClient {
         return lastRequest;
     }
 
+    /**
+     * Get the time taken by the last request made by the calling thread, including retries.
+     *
+     * @return elapsed milliseconds, or -1 if the thread has made no request
+     */
+    public long getLastElapsedMillis() {
+        return lastElapsedMillis.get()[0];
+    }
+
     protected boolean shouldRetry(final Response response, final int[] retryCodes) {
         if (response == null) {
             return true;
@@ -2,6 +2,7 @@ package com.twilio.http;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.twilio.base.FetchCache;
 
 import java.util.function.Predicate;
 
@@ -19,6 +20,7 @@ public class TwilioRestClient {
     private final String region;
     private final String edge;
     private final HttpClient httpClient;
+    private final FetchCache fetchCache;
 
     private TwilioRestClient(Builder b) {
         this.username = b.username;
@@ -27,6 +29,7 @@ public class TwilioRestClient {
         this.region = b.region;
         this.edge = b.edge;
         this.httpClient = b.httpClient;
+        this.fetchCache = b.fetchCache;
         this.objectMapper = new ObjectMapper();
 
         // This module configures the ObjectMapper to use
@@ -50,7 +53,14 @@ public class TwilioRestClient {
         if (edge != null)
             request.setEdge(edge);
 
-        return httpClient.reliableRequest(request);
+        Response response = httpClient.reliableRequest(request);
+
+        // Updates and deletes change the resource at their url, so drop any cached fetch of it
+        if (fetchCache != null && request.getMethod() != HttpMethod.GET) {
+            fetchCache.invalidate(request);
+        }
+
+        return response;
     }
 
     public String getAccountSid() {
@@ -73,6 +83,10 @@ public class TwilioRestClient {
         return httpClient;
     }
 
+    public FetchCache getFetchCache() {
+        return fetchCache;
+    }
+
     public static class Builder {
         private String username;
         private String password;
@@ -80,6 +94,7 @@ public class TwilioRestClient {
         private String region;
         private String edge;
         private HttpClient httpClient;
+        private FetchCache fetchCache;
 
         /**
          * Create a new Twilio Rest Client.
@@ -113,6 +128,17 @@ public class TwilioRestClient {
             return this;
         }
 
+        /**
+         * Cache results of fetchers which support caching.
+         *
+         * @param fetchCache cache used by this client only
+         * @return this
+         */
+        public Builder fetchCache(final FetchCache fetchCache) {
+            this.fetchCache = fetchCache;
+            return this;
+        }
+
         /**
          * Build new TwilioRestClient.
          *
@@ -1,8 +1,11 @@
 package com.twilio.jwt.accesstoken;
 
 import com.twilio.jwt.Jwt;
+import com.twilio.security.KeyRing;
 import io.jsonwebtoken.SignatureAlgorithm;
 
+import javax.crypto.spec.SecretKeySpec;
+import java.security.Key;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
@@ -23,6 +26,7 @@ import java.util.Set;
 public class AccessToken extends Jwt {
 
     private static final String CTY = "twilio-fpa;v=1";
+    private static final String HMAC = SignatureAlgorithm.HS256.getJcaName();
 
     private final String id;
     private final String accountSid;
@@ -30,16 +34,16 @@ public class AccessToken extends Jwt {
     private final Date nbf;
     private final Set<Grant> grants;
 
-    private AccessToken(Builder b) {
+    private AccessToken(Builder b, String keySid, Key secretKey) {
         super(
             SignatureAlgorithm.HS256,
-            b.secret,
-            b.keySid,
+            secretKey,
+            keySid,
             new Date(new Date().getTime() + b.ttl * 1000)
         );
 
         Date now = new Date();
-        this.id = b.keySid + "-" + (int)(Math.floor(now.getTime() / 1000.0f));
+        this.id = keySid + "-" + (int)(Math.floor(now.getTime() / 1000.0f));
         this.accountSid = b.accountSid;
         this.identity = b.identity;
         this.nbf = b.nbf;
@@ -90,6 +94,7 @@ public class AccessToken extends Jwt {
         private String accountSid;
         private String keySid;
         private String secret;
+        private KeyRing keyRing;
         private String identity;
         private Date nbf = null;
         private int ttl = 3600;
@@ -108,6 +113,21 @@ public class AccessToken extends Jwt {
             this.secret = secret;
         }
 
+        /**
+         * Create a new builder for a Access Token signed with the primary key of a ring.
+         *
+         * <p>
+         * The primary key is read when the token is built, and its id is used as the key sid.
+         * </p>
+         *
+         * @param accountSid account to use
+         * @param keyRing API keys, with their sids as ids
+         */
+        public Builder(String accountSid, KeyRing keyRing) {
+            this.accountSid = accountSid;
+            this.keyRing = keyRing;
+        }
+
         public Builder identity(String identity) {
             this.identity = identity;
             return this;
@@ -134,7 +154,15 @@ public class AccessToken extends Jwt {
         }
 
         public AccessToken build() {
-            return new AccessToken(this);
+            if (keyRing == null) {
+                return new AccessToken(this, keySid, new SecretKeySpec(secret.getBytes(), HMAC));
+            }
+
+            KeyRing.SigningKey key = keyRing.getPrimary();
+            if (key.getId() == null) {
+                throw new IllegalArgumentException("Primary key must have the API key sid as its id");
+            }
+            return new AccessToken(this, key.getId(), key.getSecretKeySpec(HMAC));
         }
     }
 }
@@ -0,0 +1,200 @@
+package com.twilio.jwt.accesstoken;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.twilio.jwt.JwtEncodingException;
+import com.twilio.security.KeyRing;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Mints Access Tokens for one key and set of grants at high rates.
+ *
+ * <p>
+ * The encoded header and the JSON of the grants are computed once when the minter is built; minting a
+ * token only serializes the claims which change per token ({@code jti}, {@code identity}, {@code exp}
+ * and {@code nbf}) and signs with the per-thread HS256 {@code Mac} of the signing key. Tokens carry the
+ * same claims as tokens built with {@link AccessToken.Builder}.
+ * </p>
+ *
+ * <p>
+ * A minter built with a {@link KeyRing} signs each token with the primary key of the ring at the time,
+ * so rotating the ring takes effect without building a new minter. Grants are serialized when the
+ * minter is built, so later changes to them are not reflected. Minters are safe to share between
+ * threads.
+ * </p>
+ */
+public class AccessTokenMinter {
+
+    private static final String HEADER = "{\"typ\":\"JWT\",\"cty\":\"twilio-fpa;v=1\",\"alg\":\"HS256\"}";
+    private static final Base64.Encoder BASE64 = Base64.getUrlEncoder().withoutPadding();
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String accountSid;
+    private final KeyRing keyRing;
+    private final int ttl;
+    private final String encodedHeader;
+    private final String grantsJson;
+
+    private AccessTokenMinter(Builder b) {
+        this.accountSid = b.accountSid;
+        this.keyRing = b.keyRing;
+        this.ttl = b.ttl;
+        this.encodedHeader = BASE64.encodeToString(HEADER.getBytes(StandardCharsets.UTF_8));
+        this.grantsJson = serializeGrants(b.grants);
+
+        // Fail on a bad key when building rather than when minting
+        sign(primaryKey(), "");
+    }
+
+    private static String serializeGrants(Set<Grant> grants) {
+        Map<String, Object> payloads = new LinkedHashMap<>();
+        for (Grant grant : grants) {
+            payloads.put(grant.getGrantKey(), grant.getPayload());
+        }
+
+        try {
+            String json = MAPPER.writeValueAsString(payloads);
+            // Strip the braces so the identity can be prepended
+            return json.substring(1, json.length() - 1);
+        } catch (JsonProcessingException e) {
+            throw new JwtEncodingException(e);
+        }
+    }
+
+    private KeyRing.SigningKey primaryKey() {
+        KeyRing.SigningKey key = keyRing.getPrimary();
+        if (key.getId() == null) {
+            throw new IllegalArgumentException("Primary key must have the API key sid as its id");
+        }
+        return key;
+    }
+
+    private static byte[] sign(KeyRing.SigningKey key, String signingInput) {
+        try {
+            return key.getMac(KeyRing.HMAC_SHA256).doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new JwtEncodingException(e);
+        }
+    }
+
+    /**
+     * Mint a token without identity.
+     *
+     * @return encoded JWT
+     */
+    public String mint() {
+        return mint(null, null);
+    }
+
+    /**
+     * Mint a token.
+     *
+     * @param identity identity of the client, or null
+     * @return encoded JWT
+     */
+    public String mint(String identity) {
+        return mint(identity, null);
+    }
+
+    /**
+     * Mint a token.
+     *
+     * @param identity identity of the client, or null
+     * @param nbf      time before which the token is not valid, or null
+     * @return encoded JWT
+     */
+    public String mint(String identity, Date nbf) {
+        long now = System.currentTimeMillis();
+        KeyRing.SigningKey key = primaryKey();
+        String keySid = key.getId();
+
+        StringBuilder claims = new StringBuilder(64 + grantsJson.length());
+        claims.append("{\"iss\":");
+        appendString(claims, keySid);
+        claims.append(",\"exp\":").append((now + ttl * 1000L) / 1000);
+        claims.append(",\"grants\":{");
+        if (identity != null) {
+            claims.append("\"identity\":");
+            appendString(claims, identity);
+            if (!grantsJson.isEmpty()) {
+                claims.append(',');
+            }
+        }
+        claims.append(grantsJson).append('}');
+        claims.append(",\"jti\":");
+        appendString(claims, keySid + "-" + (int) (Math.floor(now / 1000.0f)));
+        claims.append(",\"sub\":");
+        appendString(claims, accountSid);
+        if (nbf != null) {
+            claims.append(",\"nbf\":").append(nbf.getTime() / 1000);
+        }
+        claims.append('}');
+
+        String signingInput = encodedHeader + '.'
+            + BASE64.encodeToString(claims.toString().getBytes(StandardCharsets.UTF_8));
+        return signingInput + '.' + BASE64.encodeToString(sign(key, signingInput));
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"').append(JsonStringEncoder.getInstance().quoteAsString(value)).append('"');
+    }
+
+    /** Builder used to construct an Access Token minter. */
+    public static class Builder {
+        private final String accountSid;
+        private final KeyRing keyRing;
+        private int ttl = 3600;
+        private Set<Grant> grants = new LinkedHashSet<>();
+
+        /**
+         * Create a new builder for an Access Token minter.
+         *
+         * @param accountSid account to use
+         * @param keySid key to use
+         * @param secret secret key
+         */
+        public Builder(String accountSid, String keySid, String secret) {
+            this(accountSid, new KeyRing(new KeyRing.SigningKey(keySid, secret)));
+        }
+
+        /**
+         * Create a new builder for an Access Token minter signing with the primary key of a ring.
+         *
+         * @param accountSid account to use
+         * @param keyRing API keys, with their sids as ids
+         */
+        public Builder(String accountSid, KeyRing keyRing) {
+            this.accountSid = accountSid;
+            this.keyRing = keyRing;
+        }
+
+        public Builder ttl(int ttl) {
+            this.ttl = ttl;
+            return this;
+        }
+
+        public Builder grant(Grant grant) {
+            this.grants.add(grant);
+            return this;
+        }
+
+        public Builder grants(Collection<Grant> grants) {
+            this.grants.addAll(grants);
+            return this;
+        }
+
+        public AccessTokenMinter build() {
+            return new AccessTokenMinter(this);
+        }
+    }
+}
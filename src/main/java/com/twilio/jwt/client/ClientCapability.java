@@ -2,9 +2,12 @@ package com.twilio.jwt.client;
 
 import com.twilio.jwt.Jwt;
 import com.twilio.jwt.JwtEncodingException;
+import com.twilio.security.KeyRing;
 import io.jsonwebtoken.SignatureAlgorithm;
 
+import javax.crypto.spec.SecretKeySpec;
 import java.io.UnsupportedEncodingException;
+import java.security.Key;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
@@ -19,10 +22,10 @@ public class ClientCapability extends Jwt {
 
     private final List<Scope> scopes;
 
-    private ClientCapability(Builder b) {
+    private ClientCapability(Builder b, Key secretKey) {
         super(
             SignatureAlgorithm.HS256,
-            b.authToken,
+            secretKey,
             b.accountSid,
             new Date(new Date().getTime() + b.ttl * 1000)
         );
@@ -58,6 +61,7 @@ public class ClientCapability extends Jwt {
     public static class Builder {
         private String accountSid;
         private String authToken;
+        private KeyRing keyRing;
         private int ttl = 3600;
         private List<Scope> scopes = new ArrayList<>();
 
@@ -72,6 +76,18 @@ public class ClientCapability extends Jwt {
             this.authToken = authToken;
         }
 
+        /**
+         * Create a new builder for a Client Capability signed with the primary key of a ring, which is
+         * read when the capability is built.
+         *
+         * @param accountSid account to use
+         * @param keyRing    auth tokens for account
+         */
+        public Builder(String accountSid, KeyRing keyRing) {
+            this.accountSid = accountSid;
+            this.keyRing = keyRing;
+        }
+
         public Builder ttl(int ttl) {
             this.ttl = ttl;
             return this;
@@ -83,7 +99,10 @@ public class ClientCapability extends Jwt {
         }
 
         public ClientCapability build() {
-            return new ClientCapability(this);
+            Key secretKey = keyRing == null
+                ? new SecretKeySpec(authToken.getBytes(), SignatureAlgorithm.HS256.getJcaName())
+                : keyRing.getPrimary().getSecretKeySpec(SignatureAlgorithm.HS256.getJcaName());
+            return new ClientCapability(this, secretKey);
         }
     }
 }
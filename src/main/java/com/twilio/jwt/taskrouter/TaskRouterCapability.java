@@ -1,8 +1,11 @@
 package com.twilio.jwt.taskrouter;
 
 import com.twilio.jwt.Jwt;
+import com.twilio.security.KeyRing;
 import io.jsonwebtoken.SignatureAlgorithm;
 
+import javax.crypto.spec.SecretKeySpec;
+import java.security.Key;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
@@ -20,10 +23,10 @@ public class TaskRouterCapability extends Jwt {
     private final String channelId;
     private final List<Policy> policies;
 
-    private TaskRouterCapability(Builder b) {
+    private TaskRouterCapability(Builder b, Key secretKey) {
         super(
             SignatureAlgorithm.HS256,
-            b.authToken,
+            secretKey,
             b.accountSid,
             new Date(new Date().getTime() + b.ttl * 1000)
         );
@@ -67,6 +70,7 @@ public class TaskRouterCapability extends Jwt {
 
         private String accountSid;
         private String authToken;
+        private KeyRing keyRing;
         private String workspaceSid;
         private String channelId;
         private String friendlyName;
@@ -88,6 +92,22 @@ public class TaskRouterCapability extends Jwt {
             this.channelId = channelId;
         }
 
+        /**
+         * Create a new builder for a TaskRouter Capability signed with the primary key of a ring, which
+         * is read when the capability is built.
+         *
+         * @param accountSid   account to use
+         * @param keyRing      auth tokens for account
+         * @param workspaceSid workspace sid to use
+         * @param channelId    channel ID to use
+         */
+        public Builder(String accountSid, KeyRing keyRing, String workspaceSid, String channelId) {
+            this.accountSid = accountSid;
+            this.keyRing = keyRing;
+            this.workspaceSid = workspaceSid;
+            this.channelId = channelId;
+        }
+
         public Builder friendlyName(String friendlyName) {
             this.friendlyName = friendlyName;
             return this;
@@ -104,7 +124,10 @@ public class TaskRouterCapability extends Jwt {
         }
 
         public TaskRouterCapability build() {
-            return new TaskRouterCapability(this);
+            Key secretKey = keyRing == null
+                ? new SecretKeySpec(authToken.getBytes(), SignatureAlgorithm.HS256.getJcaName())
+                : keyRing.getPrimary().getSecretKeySpec(SignatureAlgorithm.HS256.getJcaName());
+            return new TaskRouterCapability(this, secretKey);
         }
     }
 }
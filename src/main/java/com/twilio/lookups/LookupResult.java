@@ -0,0 +1,71 @@
+package com.twilio.lookups;
+
+import com.twilio.exception.ApiException;
+import com.twilio.rest.lookups.v1.PhoneNumber;
+
+/**
+ * Outcome of looking up one number as part of {@link LookupService#lookupAll}.
+ */
+public final class LookupResult {
+
+    private final com.twilio.type.PhoneNumber number;
+    private final PhoneNumber phoneNumber;
+    private final ApiException error;
+
+    private LookupResult(final com.twilio.type.PhoneNumber number, final PhoneNumber phoneNumber,
+                         final ApiException error) {
+        this.number = number;
+        this.phoneNumber = phoneNumber;
+        this.error = error;
+    }
+
+    static LookupResult of(final com.twilio.type.PhoneNumber number, final PhoneNumber phoneNumber) {
+        return new LookupResult(number, phoneNumber, null);
+    }
+
+    static LookupResult failed(final com.twilio.type.PhoneNumber number, final ApiException error) {
+        return new LookupResult(number, null, error);
+    }
+
+    /**
+     * Get the number as it was given.
+     *
+     * @return number looked up
+     */
+    public com.twilio.type.PhoneNumber getNumber() {
+        return number;
+    }
+
+    /**
+     * Get the lookup.
+     *
+     * @return lookup, or null if the number does not exist or the lookup failed
+     */
+    public PhoneNumber getPhoneNumber() {
+        return phoneNumber;
+    }
+
+    /**
+     * Check whether the number exists; false both for unknown numbers and failed lookups.
+     *
+     * @return true if the lookup found the number
+     */
+    public boolean isFound() {
+        return phoneNumber != null;
+    }
+
+    /**
+     * Get the error the lookup failed with; unknown numbers are not errors.
+     *
+     * @return error, or null
+     */
+    public ApiException getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "LookupResult(number=" + number + ", found=" + isFound()
+            + (error == null ? "" : ", error=" + error.getMessage()) + ")";
+    }
+}
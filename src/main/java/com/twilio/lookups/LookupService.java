@@ -0,0 +1,525 @@
+package com.twilio.lookups;
+
+import com.twilio.Twilio;
+import com.twilio.base.RateLimiter;
+import com.twilio.exception.ApiException;
+import com.twilio.http.TwilioRestClient;
+import com.twilio.rest.lookups.v1.PhoneNumber;
+import com.twilio.rest.lookups.v1.PhoneNumberFetcher;
+import com.twilio.type.E164Number;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Looks up phone numbers through {@link PhoneNumberFetcher}, caching the results.
+ *
+ * <p>
+ * Carrier and caller name data rarely changes, so results are kept for a day by default, in a cache of
+ * bounded size which drops the least recently used numbers first. Numbers are cached by their E.164
+ * form together with the requested types, add-ons and country code, so the same number written
+ * differently is looked up once. Numbers which do not exist (404) are cached too, for a shorter time.
+ * Concurrent lookups of the same uncached number share one request.
+ * </p>
+ *
+ * <p>
+ * {@link #lookupAll} looks up many numbers concurrently, at most {@code maxInFlight} at once and paced by
+ * the request rate, and streams the results in the order they complete. Only requests to the API count
+ * against the rate; cached numbers are returned immediately.
+ * </p>
+ */
+public class LookupService {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+    public static final long DEFAULT_TTL_HOURS = 24L;
+    public static final long DEFAULT_NOT_FOUND_TTL_HOURS = 1L;
+    public static final int DEFAULT_MAX_IN_FLIGHT = 16;
+
+    private static final int NOT_FOUND = 404;
+    /** Cached in place of a lookup for numbers which do not exist. */
+    private static final Object MISSING = new Object();
+
+    private final int maximumSize;
+    private final LinkedHashMap<String, Entry> cache;
+    private final ConcurrentMap<String, CompletableFuture<PhoneNumber>> inFlight = new ConcurrentHashMap<>();
+    private volatile List<String> types = Collections.emptyList();
+    private volatile List<String> addOns = Collections.emptyList();
+    private volatile String countryCode;
+    private volatile String keySuffix = "||";
+    private volatile long ttlNanos = TimeUnit.HOURS.toNanos(DEFAULT_TTL_HOURS);
+    private volatile long notFoundTtlNanos = TimeUnit.HOURS.toNanos(DEFAULT_NOT_FOUND_TTL_HOURS);
+    private volatile RateLimiter rateLimiter;
+    private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+    private ExecutorService executorService;
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * Create a service with the default cache size.
+     */
+    public LookupService() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Create a service.
+     *
+     * @param maximumSize max number of cached lookups
+     */
+    public LookupService(final int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be at least 1");
+        }
+        this.maximumSize = maximumSize;
+        this.cache = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                return size() > LookupService.this.maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Set the types of data to look up, such as {@code carrier} and {@code caller-name}.
+     *
+     * @param types lookup types
+     * @return this
+     */
+    public LookupService types(final String... types) {
+        this.types = sorted(types);
+        updateKeySuffix();
+        return this;
+    }
+
+    /**
+     * Set the add-ons to run for each lookup.
+     *
+     * @param addOns unique names of the add-ons
+     * @return this
+     */
+    public LookupService addOns(final String... addOns) {
+        this.addOns = sorted(addOns);
+        updateKeySuffix();
+        return this;
+    }
+
+    /**
+     * Set the country of numbers given in national format.
+     *
+     * @param countryCode ISO country code, or null
+     * @return this
+     */
+    public LookupService countryCode(final String countryCode) {
+        this.countryCode = countryCode;
+        updateKeySuffix();
+        return this;
+    }
+
+    /**
+     * Set how long lookups are cached.
+     *
+     * @param duration time to live; 0 to not cache lookups
+     * @param unit     unit of the duration
+     * @return this
+     */
+    public LookupService ttl(final long duration, final TimeUnit unit) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("Time to live must not be negative");
+        }
+        this.ttlNanos = unit.toNanos(duration);
+        return this;
+    }
+
+    /**
+     * Set how long numbers which do not exist are cached.
+     *
+     * @param duration time to live; 0 to not cache them
+     * @param unit     unit of the duration
+     * @return this
+     */
+    public LookupService notFoundTtl(final long duration, final TimeUnit unit) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("Time to live must not be negative");
+        }
+        this.notFoundTtlNanos = unit.toNanos(duration);
+        return this;
+    }
+
+    /**
+     * Limit the rate of requests to the API.
+     *
+     * @param requestsPerSecond requests per second; 0 for no limit
+     * @return this
+     */
+    public LookupService requestsPerSecond(final double requestsPerSecond) {
+        if (requestsPerSecond < 0) {
+            throw new IllegalArgumentException("Rate must not be negative");
+        }
+        this.rateLimiter = requestsPerSecond == 0 ? null : new RateLimiter(requestsPerSecond);
+        return this;
+    }
+
+    /**
+     * Set the max number of lookups running at once in {@link #lookupAll}.
+     *
+     * @param maxInFlight size of the in-flight window
+     * @return this
+     */
+    public LookupService maxInFlight(final int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("In-flight window must be at least 1");
+        }
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    /**
+     * Use a specific executor for {@link #lookupAll}; defaults to the Twilio executor service.
+     *
+     * @param executorService executor running the lookups
+     * @return this
+     */
+    public LookupService executorService(final ExecutorService executorService) {
+        this.executorService = executorService;
+        return this;
+    }
+
+    /**
+     * Look up a number using default client.
+     *
+     * @param number number to look up
+     * @return lookup, or null if the number does not exist
+     * @throws ApiException if the lookup failed
+     */
+    public PhoneNumber lookup(final com.twilio.type.PhoneNumber number) {
+        return lookup(Twilio.getRestClient(), number);
+    }
+
+    /**
+     * Look up a number using specified client.
+     *
+     * @param client client used to make requests
+     * @param number number to look up
+     * @return lookup, or null if the number does not exist
+     * @throws ApiException if the lookup failed
+     */
+    public PhoneNumber lookup(final TwilioRestClient client, final com.twilio.type.PhoneNumber number) {
+        String e164 = normalize(Objects.requireNonNull(number, "number").getEndpoint());
+        String key = e164 + keySuffix;
+
+        Object cached = get(key, true);
+        if (cached != null) {
+            return cached == MISSING ? null : (PhoneNumber) cached;
+        }
+
+        CompletableFuture<PhoneNumber> flight = new CompletableFuture<>();
+        CompletableFuture<PhoneNumber> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            return await(leader);
+        }
+
+        try {
+            // The previous request for the number may have completed since the cache was checked
+            cached = get(key, false);
+            PhoneNumber result = cached != null
+                ? (cached == MISSING ? null : (PhoneNumber) cached)
+                : load(client, key, e164);
+            flight.complete(result);
+            return result;
+        } catch (final RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Look up numbers concurrently using default client.
+     *
+     * @param numbers numbers to look up
+     * @return results in the order they complete; closing the stream cancels the lookups not yet started
+     */
+    public Stream<LookupResult> lookupAll(final Collection<com.twilio.type.PhoneNumber> numbers) {
+        return lookupAll(Twilio.getRestClient(), numbers);
+    }
+
+    /**
+     * Look up numbers concurrently using specified client.
+     *
+     * @param client  client used to make requests
+     * @param numbers numbers to look up
+     * @return results in the order they complete; closing the stream cancels the lookups not yet started
+     */
+    public Stream<LookupResult> lookupAll(final TwilioRestClient client,
+                                          final Collection<com.twilio.type.PhoneNumber> numbers) {
+        Run run = new Run(client, new ArrayList<>(numbers).iterator());
+        run.start();
+        return StreamSupport
+            .stream(Spliterators.spliteratorUnknownSize(run, Spliterator.NONNULL), false)
+            .onClose(run::cancel);
+    }
+
+    /**
+     * Drop the cached lookups of a number.
+     *
+     * @param number number to forget
+     */
+    public void invalidate(final com.twilio.type.PhoneNumber number) {
+        String prefix = normalize(number.getEndpoint()) + "|";
+        synchronized (cache) {
+            cache.keySet().removeIf(key -> key.startsWith(prefix));
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public long getHitCount() {
+        synchronized (cache) {
+            return hitCount;
+        }
+    }
+
+    public long getMissCount() {
+        synchronized (cache) {
+            return missCount;
+        }
+    }
+
+    /**
+     * Bring a number to E.164 form by dropping spaces, punctuation and other formatting; numbers in
+     * national format keep only their digits.
+     */
+    static String normalize(final String number) {
+        long digits = E164Number.pack(number);
+        if (digits >= 0) {
+            return "+" + digits;
+        }
+
+        StringBuilder e164 = new StringBuilder(number.length());
+        for (int i = 0; i < number.length(); i++) {
+            char c = number.charAt(i);
+            if ((c >= '0' && c <= '9') || (c == '+' && e164.length() == 0)) {
+                e164.append(c);
+            }
+        }
+        return e164.toString();
+    }
+
+    private static List<String> sorted(final String[] values) {
+        List<String> list = new ArrayList<>(Arrays.asList(values));
+        Collections.sort(list);
+        return Collections.unmodifiableList(list);
+    }
+
+    private void updateKeySuffix() {
+        keySuffix = "|" + (countryCode == null ? "" : countryCode)
+            + "|" + String.join(",", types)
+            + "|" + String.join(",", addOns);
+    }
+
+    private Object get(final String key, final boolean count) {
+        synchronized (cache) {
+            Entry entry = cache.get(key);
+            if (entry != null && System.nanoTime() - entry.expiresAt >= 0) {
+                cache.remove(key);
+                entry = null;
+            }
+
+            if (count) {
+                if (entry == null) {
+                    missCount++;
+                } else {
+                    hitCount++;
+                }
+            }
+            return entry == null ? null : entry.value;
+        }
+    }
+
+    private PhoneNumber load(final TwilioRestClient client, final String key, final String e164) {
+        RateLimiter limiter = rateLimiter;
+        if (limiter != null) {
+            try {
+                limiter.acquire();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ApiException("Lookup interrupted", e);
+            }
+        }
+
+        PhoneNumberFetcher fetcher = PhoneNumber.fetcher(new com.twilio.type.PhoneNumber(e164));
+        if (!types.isEmpty()) {
+            fetcher.setType(types);
+        }
+        if (!addOns.isEmpty()) {
+            fetcher.setAddOns(addOns);
+        }
+        if (countryCode != null) {
+            fetcher.setCountryCode(countryCode);
+        }
+
+        PhoneNumber result;
+        try {
+            result = fetcher.fetch(client);
+        } catch (final ApiException e) {
+            if (!Objects.equals(e.getStatusCode(), NOT_FOUND)) {
+                throw e;
+            }
+            result = null;
+        }
+
+        long ttl = result == null ? notFoundTtlNanos : ttlNanos;
+        if (ttl > 0) {
+            synchronized (cache) {
+                cache.put(key, new Entry(result == null ? MISSING : result, System.nanoTime() + ttl));
+            }
+        }
+        return result;
+    }
+
+    private static PhoneNumber await(final CompletableFuture<PhoneNumber> flight) {
+        try {
+            return flight.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException("Lookup interrupted", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new ApiException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long expiresAt;
+
+        private Entry(final Object value, final long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Keeps up to {@code maxInFlight} lookups running, starting the next one as each result is taken.
+     */
+    private class Run implements Iterator<LookupResult> {
+        private final TwilioRestClient client;
+        private final Iterator<com.twilio.type.PhoneNumber> pending;
+        private final CompletionService<LookupResult> completion;
+        private final Set<Future<LookupResult>> outstanding = ConcurrentHashMap.newKeySet();
+        private volatile boolean cancelled;
+
+        private Run(final TwilioRestClient client, final Iterator<com.twilio.type.PhoneNumber> pending) {
+            this.client = client;
+            this.pending = pending;
+            this.completion = new ExecutorCompletionService<>(
+                executorService == null ? Twilio.getExecutorService() : executorService
+            );
+        }
+
+        private void start() {
+            for (int i = 0; i < maxInFlight && submitNext(); i++) {
+                // Fill the window
+            }
+        }
+
+        /**
+         * Stop starting lookups. Those running are left to complete rather than interrupted, as a running
+         * lookup may be the one request which lookups of the same number by other callers are waiting for.
+         */
+        private void cancel() {
+            cancelled = true;
+            for (Future<LookupResult> future : outstanding) {
+                future.cancel(false);
+            }
+            outstanding.clear();
+        }
+
+        private boolean submitNext() {
+            if (cancelled || !pending.hasNext()) {
+                return false;
+            }
+
+            com.twilio.type.PhoneNumber number = pending.next();
+            Future<LookupResult> future = completion.submit(() -> {
+                if (cancelled) {
+                    return LookupResult.failed(number, new ApiException("Lookup cancelled"));
+                }
+                try {
+                    return LookupResult.of(number, lookup(client, number));
+                } catch (final ApiException e) {
+                    return LookupResult.failed(number, e);
+                } catch (final RuntimeException e) {
+                    return LookupResult.failed(number, new ApiException(e.getMessage(), e));
+                }
+            });
+            outstanding.add(future);
+            return true;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !cancelled && !outstanding.isEmpty();
+        }
+
+        @Override
+        public LookupResult next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            Future<LookupResult> done;
+            try {
+                done = completion.take();
+            } catch (final InterruptedException e) {
+                cancel();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Lookup interrupted", e);
+            }
+            outstanding.remove(done);
+            submitNext();
+
+            try {
+                return done.get();
+            } catch (final InterruptedException | ExecutionException e) {
+                // Lookups catch their own failures, and the future is already done
+                throw new IllegalStateException("Lookup failed", e);
+            }
+        }
+    }
+}
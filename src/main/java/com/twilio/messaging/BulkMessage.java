@@ -0,0 +1,136 @@
+package com.twilio.messaging;
+
+import com.twilio.rest.api.v2010.account.MessageCreator;
+import com.twilio.type.PhoneNumber;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * One message of a bulk send, addressed to a recipient from either a sender number or a Messaging
+ * Service.
+ */
+public class BulkMessage {
+
+    private final PhoneNumber to;
+    private final PhoneNumber from;
+    private final String messagingServiceSid;
+    private final String body;
+    private List<URI> mediaUrl = Collections.emptyList();
+    private URI statusCallback;
+    private Object tag;
+
+    private BulkMessage(final PhoneNumber to, final PhoneNumber from, final String messagingServiceSid,
+                        final String body) {
+        this.to = Objects.requireNonNull(to, "to");
+        this.from = from;
+        this.messagingServiceSid = messagingServiceSid;
+        this.body = body;
+    }
+
+    /**
+     * Create a message sent from a phone number.
+     *
+     * @param to   recipient
+     * @param from sender number
+     * @param body text of the message
+     * @return message
+     */
+    public static BulkMessage fromNumber(final PhoneNumber to, final PhoneNumber from, final String body) {
+        return new BulkMessage(to, Objects.requireNonNull(from, "from"), null, body);
+    }
+
+    /**
+     * Create a message sent through a Messaging Service.
+     *
+     * @param to                  recipient
+     * @param messagingServiceSid service choosing the sender
+     * @param body                text of the message
+     * @return message
+     */
+    public static BulkMessage fromService(final PhoneNumber to, final String messagingServiceSid, final String body) {
+        return new BulkMessage(to, null, Objects.requireNonNull(messagingServiceSid, "messagingServiceSid"), body);
+    }
+
+    public BulkMessage mediaUrl(final List<URI> mediaUrl) {
+        this.mediaUrl = new ArrayList<>(mediaUrl);
+        return this;
+    }
+
+    public BulkMessage statusCallback(final URI statusCallback) {
+        this.statusCallback = statusCallback;
+        return this;
+    }
+
+    /**
+     * Attach a value, such as a recipient id, which is handed back to the listener.
+     *
+     * @param tag caller value
+     * @return this
+     */
+    public BulkMessage tag(final Object tag) {
+        this.tag = tag;
+        return this;
+    }
+
+    public PhoneNumber getTo() {
+        return to;
+    }
+
+    public PhoneNumber getFrom() {
+        return from;
+    }
+
+    public String getMessagingServiceSid() {
+        return messagingServiceSid;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public List<URI> getMediaUrl() {
+        return Collections.unmodifiableList(mediaUrl);
+    }
+
+    public URI getStatusCallback() {
+        return statusCallback;
+    }
+
+    public Object getTag() {
+        return tag;
+    }
+
+    /**
+     * Get the key sends are paced by: the sender number, or the Messaging Service sid.
+     *
+     * @return sender key
+     */
+    public String getSender() {
+        return from != null ? from.toString() : messagingServiceSid;
+    }
+
+    MessageCreator toCreator(final String pathAccountSid) {
+        MessageCreator creator = pathAccountSid == null
+            ? new MessageCreator(to, from, body)
+            : new MessageCreator(pathAccountSid, to, from, body);
+        if (messagingServiceSid != null) {
+            creator.setMessagingServiceSid(messagingServiceSid);
+        }
+        if (!mediaUrl.isEmpty()) {
+            creator.setMediaUrl(mediaUrl);
+        }
+        if (statusCallback != null) {
+            creator.setStatusCallback(statusCallback);
+        }
+        return creator;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkMessage(to=" + to + ", sender=" + getSender() + ")";
+    }
+}
@@ -0,0 +1,31 @@
+package com.twilio.messaging;
+
+import com.twilio.exception.ApiException;
+
+/**
+ * Receives the outcome of each message of a bulk send.
+ *
+ * <p>
+ * Methods are called from the sending threads, concurrently and in completion order, and should return
+ * quickly. An exception thrown by a method does not stop the send; the first one is rethrown once every
+ * message is done.
+ * </p>
+ */
+public interface BulkMessageListener {
+
+    /**
+     * Called when a message was created.
+     *
+     * @param message message sent
+     * @param sid     sid of the created message
+     */
+    void onSent(BulkMessage message, String sid);
+
+    /**
+     * Called when a message failed after its last attempt.
+     *
+     * @param message   message not sent
+     * @param exception cause of the failure
+     */
+    void onFailed(BulkMessage message, ApiException exception);
+}
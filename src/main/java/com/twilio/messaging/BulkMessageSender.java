@@ -0,0 +1,311 @@
+package com.twilio.messaging;
+
+import com.twilio.Twilio;
+import com.twilio.base.BulkRequestRunner;
+import com.twilio.base.RateLimiter;
+import com.twilio.exception.ApiException;
+import com.twilio.http.TwilioRestClient;
+import com.twilio.rest.api.v2010.account.Message;
+import com.twilio.rest.api.v2010.account.MessageCreator;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Sends large numbers of messages through {@link MessageCreator} concurrently.
+ *
+ * <p>
+ * Sends can be paced per sender number or Messaging Service, since each has its own throughput limit.
+ * At most {@code maxInFlight} requests are on the wire at once; a message waiting for its sender's
+ * pace or to be retried does not hold a slot, so a slow sender does not hold up the others. Messages
+ * are read from the input only as fast as they are sent, at most {@code maxInFlight} ahead of the
+ * requests on the wire.
+ * </p>
+ *
+ * <p>
+ * A message is only retried when the API throttled it, with a 429 response, as it was then rejected
+ * before being created, so retries never send a message twice. Other server errors and connection
+ * failures are reported rather than retried, as the message may have been created. The outcome of each
+ * message is handed to a {@link BulkMessageListener}, and the counters of the running send are
+ * available from {@link #getStats()}.
+ * </p>
+ */
+public class BulkMessageSender {
+
+    public static final int DEFAULT_MAX_IN_FLIGHT = 32;
+    public static final int DEFAULT_MAX_ATTEMPTS = 4;
+    public static final long DEFAULT_RETRY_DELAY_MILLIS = 500L;
+
+    private final Map<String, Double> senderRates = new ConcurrentHashMap<>();
+    private String pathAccountSid;
+    private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+    private double messagesPerSecondPerSender = 0;
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    private long retryDelayMillis = DEFAULT_RETRY_DELAY_MILLIS;
+    private ExecutorService executorService;
+    private volatile BulkSendStats stats;
+
+    /**
+     * Send from a specific account, such as a subaccount; defaults to the account of the client.
+     *
+     * @param pathAccountSid account creating the messages
+     * @return this
+     */
+    public BulkMessageSender accountSid(final String pathAccountSid) {
+        this.pathAccountSid = pathAccountSid;
+        return this;
+    }
+
+    /**
+     * Set the max number of send requests on the wire at once.
+     *
+     * @param maxInFlight size of the in-flight window
+     * @return this
+     */
+    public BulkMessageSender maxInFlight(final int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("In-flight window must be at least 1");
+        }
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    /**
+     * Limit the rate of sends from each sender number or Messaging Service.
+     *
+     * @param messagesPerSecond messages per second per sender; 0 for no limit
+     * @return this
+     */
+    public BulkMessageSender messagesPerSecondPerSender(final double messagesPerSecond) {
+        if (messagesPerSecond < 0) {
+            throw new IllegalArgumentException("Rate must not be negative");
+        }
+        this.messagesPerSecondPerSender = messagesPerSecond;
+        return this;
+    }
+
+    /**
+     * Limit the rate of sends from one sender, such as a short code allowed a higher rate than long codes.
+     *
+     * @param sender            sender number in E.164 format, or Messaging Service sid
+     * @param messagesPerSecond messages per second for the sender; 0 for no limit
+     * @return this
+     */
+    public BulkMessageSender senderRate(final String sender, final double messagesPerSecond) {
+        if (messagesPerSecond < 0) {
+            throw new IllegalArgumentException("Rate must not be negative");
+        }
+        this.senderRates.put(Objects.requireNonNull(sender, "sender"), messagesPerSecond);
+        return this;
+    }
+
+    /**
+     * Set the max number of attempts for each message, including the first.
+     *
+     * @param maxAttempts attempts per message
+     * @return this
+     */
+    public BulkMessageSender maxAttempts(final int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be at least 1");
+        }
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * Set the delay before the first retry; it doubles on each further retry.
+     *
+     * @param retryDelayMillis delay in milliseconds
+     * @return this
+     */
+    public BulkMessageSender retryDelayMillis(final long retryDelayMillis) {
+        if (retryDelayMillis < 0) {
+            throw new IllegalArgumentException("Retry delay must not be negative");
+        }
+        this.retryDelayMillis = retryDelayMillis;
+        return this;
+    }
+
+    /**
+     * Use a specific executor for the sends; defaults to the Twilio executor service.
+     *
+     * @param executorService executor running the sends
+     * @return this
+     */
+    public BulkMessageSender executorService(final ExecutorService executorService) {
+        this.executorService = executorService;
+        return this;
+    }
+
+    /**
+     * Get the counters of the running send, or of the last one once it is done.
+     *
+     * @return stats of the current send, or null if nothing was sent yet
+     */
+    public BulkSendStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Send messages using default client, returning once all are done.
+     *
+     * @param messages messages to send
+     * @param listener receives the outcome of each message
+     * @return final counters of the send
+     */
+    public BulkSendStats send(final Stream<BulkMessage> messages, final BulkMessageListener listener) {
+        return send(Twilio.getRestClient(), messages, listener);
+    }
+
+    /**
+     * Send a message built from a template to each recipient using specified client, returning once
+     * all are done.
+     *
+     * @param client     client used to make requests
+     * @param recipients recipients to send to
+     * @param template   builds the message for a recipient
+     * @param listener   receives the outcome of each message
+     * @param <T>        type of the recipients
+     * @return final counters of the send
+     */
+    public <T> BulkSendStats send(
+        final TwilioRestClient client,
+        final Stream<T> recipients,
+        final Function<? super T, BulkMessage> template,
+        final BulkMessageListener listener
+    ) {
+        return send(client, recipients.<BulkMessage>map(template), listener);
+    }
+
+    /**
+     * Send messages using specified client, returning once all are done.
+     *
+     * @param client   client used to make requests
+     * @param messages messages to send
+     * @param listener receives the outcome of each message
+     * @return final counters of the send
+     * @throws RuntimeException the first exception thrown by the listener, once every message is done
+     */
+    public BulkSendStats send(
+        final TwilioRestClient client,
+        final Stream<BulkMessage> messages,
+        final BulkMessageListener listener
+    ) {
+        Objects.requireNonNull(listener, "listener");
+        BulkRequestRunner runner = new BulkRequestRunner(
+            executorService == null ? Twilio.getExecutorService() : executorService,
+            maxInFlight
+        )
+            .maxAttempts(maxAttempts)
+            .retryDelayMillis(retryDelayMillis);
+        Map<String, RateLimiter> limiters = new ConcurrentHashMap<>();
+        BulkSendStats run = new BulkSendStats();
+        this.stats = run;
+        Outcomes outcomes = new Outcomes(listener);
+
+        try {
+            runner.run(
+                messages.peek(message -> run.started()).iterator(),
+                message -> deliver(client, runner, message, limiters, run, outcomes),
+                (message, e) -> {
+                    run.failed();
+                    outcomes.onFailed(message, e);
+                }
+            );
+        } finally {
+            run.finished();
+        }
+
+        outcomes.rethrow();
+        return run;
+    }
+
+    private void deliver(
+        final TwilioRestClient client,
+        final BulkRequestRunner runner,
+        final BulkMessage message,
+        final Map<String, RateLimiter> limiters,
+        final BulkSendStats run,
+        final BulkMessageListener listener
+    ) {
+        MessageCreator creator = message.toCreator(pathAccountSid);
+        Message created;
+        try {
+            created = runner.call(limiter(message.getSender(), limiters), () -> {
+                // Only called while the request holds a slot of the in-flight window
+                run.requesting();
+                try {
+                    return creator.create(client);
+                } finally {
+                    run.requested();
+                }
+            }, run::retried);
+        } catch (final ApiException e) {
+            run.failed();
+            listener.onFailed(message, e);
+            return;
+        }
+
+        run.sent();
+        listener.onSent(message, created.getSid());
+    }
+
+    private RateLimiter limiter(final String sender, final Map<String, RateLimiter> limiters) {
+        Double rate = senderRates.get(sender);
+        double messagesPerSecond = rate == null ? messagesPerSecondPerSender : rate;
+        if (messagesPerSecond <= 0) {
+            return null;
+        }
+        return limiters.computeIfAbsent(sender, key -> new RateLimiter(messagesPerSecond));
+    }
+
+    /**
+     * Hands outcomes to the listener of a send, keeping what it throws until every message is done, so a
+     * failing listener neither abandons messages nor leaves them uncounted.
+     */
+    private static final class Outcomes implements BulkMessageListener {
+        private final BulkMessageListener listener;
+        private RuntimeException error;
+
+        private Outcomes(final BulkMessageListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void onSent(final BulkMessage message, final String sid) {
+            try {
+                listener.onSent(message, sid);
+            } catch (final RuntimeException e) {
+                failed(e);
+            }
+        }
+
+        @Override
+        public void onFailed(final BulkMessage message, final ApiException exception) {
+            try {
+                listener.onFailed(message, exception);
+            } catch (final RuntimeException e) {
+                failed(e);
+            }
+        }
+
+        private synchronized void failed(final RuntimeException e) {
+            if (error == null) {
+                error = e;
+            } else {
+                error.addSuppressed(e);
+            }
+        }
+
+        private synchronized void rethrow() {
+            if (error != null) {
+                throw error;
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.twilio.messaging;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live counters of a bulk send, which can be read from any thread while the send runs.
+ */
+public class BulkSendStats {
+
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile long endNanos;
+
+    BulkSendStats() {
+    }
+
+    void started() {
+        pending.incrementAndGet();
+    }
+
+    void requesting() {
+        inFlight.incrementAndGet();
+    }
+
+    void requested() {
+        inFlight.decrementAndGet();
+    }
+
+    void retried() {
+        retried.incrementAndGet();
+    }
+
+    void sent() {
+        sent.incrementAndGet();
+        pending.decrementAndGet();
+    }
+
+    void failed() {
+        failed.incrementAndGet();
+        pending.decrementAndGet();
+    }
+
+    void finished() {
+        endNanos = System.nanoTime();
+    }
+
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getCompletedCount() {
+        return sent.get() + failed.get();
+    }
+
+    /**
+     * Get the number of retries made, in addition to the first attempt of each message.
+     *
+     * @return number of retries
+     */
+    public long getRetryCount() {
+        return retried.get();
+    }
+
+    /**
+     * Get the number of requests on the wire, each holding a slot of the in-flight window.
+     *
+     * @return requests in flight
+     */
+    public int getInFlightCount() {
+        return inFlight.get();
+    }
+
+    /**
+     * Get the number of messages read from the input but not completed, including those waiting for their
+     * sender's pace, for a slot of the in-flight window or to retry.
+     *
+     * @return messages pending
+     */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    public boolean isDone() {
+        return endNanos != 0;
+    }
+
+    /**
+     * Get the time since the send started, or its duration once done.
+     *
+     * @return elapsed milliseconds
+     */
+    public long getElapsedMillis() {
+        long end = endNanos != 0 ? endNanos : System.nanoTime();
+        return TimeUnit.NANOSECONDS.toMillis(end - startNanos);
+    }
+
+    /**
+     * Get the average number of messages completed per second since the send started.
+     *
+     * @return completed messages per second
+     */
+    public double getThroughput() {
+        long end = endNanos != 0 ? endNanos : System.nanoTime();
+        long nanos = end - startNanos;
+        return nanos <= 0 ? 0 : getCompletedCount() * (double) TimeUnit.SECONDS.toNanos(1) / nanos;
+    }
+
+    /**
+     * Get the share of completed messages which failed.
+     *
+     * @return failures over completed messages, from 0 to 1
+     */
+    public double getErrorRate() {
+        long completed = getCompletedCount();
+        return completed == 0 ? 0 : (double) failed.get() / completed;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkSendStats(sent=" + getSentCount()
+            + ", failed=" + getFailedCount()
+            + ", pending=" + getPendingCount()
+            + ", inFlight=" + getInFlightCount()
+            + ", retries=" + getRetryCount() + ")";
+    }
+}
@@ -0,0 +1,80 @@
+package com.twilio.notify;
+
+import com.twilio.rest.notify.v1.service.Binding;
+import com.twilio.rest.notify.v1.service.BindingCreator;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A binding to create as part of a bulk import.
+ */
+public class BindingImport {
+
+    private final String identity;
+    private final Binding.BindingType bindingType;
+    private final String address;
+    private List<String> tags = Collections.emptyList();
+    private String credentialSid;
+
+    /**
+     * Create a binding to import.
+     *
+     * @param identity    identity of the user the binding belongs to
+     * @param bindingType channel of the binding
+     * @param address     channel-specific address, such as a device token or phone number
+     */
+    public BindingImport(final String identity, final Binding.BindingType bindingType, final String address) {
+        this.identity = Objects.requireNonNull(identity, "identity");
+        this.bindingType = Objects.requireNonNull(bindingType, "bindingType");
+        this.address = Objects.requireNonNull(address, "address");
+    }
+
+    public BindingImport tags(final String... tags) {
+        this.tags = Arrays.asList(tags);
+        return this;
+    }
+
+    public BindingImport credentialSid(final String credentialSid) {
+        this.credentialSid = credentialSid;
+        return this;
+    }
+
+    public String getIdentity() {
+        return identity;
+    }
+
+    public Binding.BindingType getBindingType() {
+        return bindingType;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public String getCredentialSid() {
+        return credentialSid;
+    }
+
+    BindingCreator toCreator(final String serviceSid) {
+        BindingCreator creator = Binding.creator(serviceSid, identity, bindingType, address);
+        if (!tags.isEmpty()) {
+            creator.setTag(tags);
+        }
+        if (credentialSid != null) {
+            creator.setCredentialSid(credentialSid);
+        }
+        return creator;
+    }
+
+    @Override
+    public String toString() {
+        return "BindingImport(identity=" + identity + ", bindingType=" + bindingType + ", address=" + address + ")";
+    }
+}
@@ -0,0 +1,34 @@
+package com.twilio.notify;
+
+import com.twilio.exception.ApiException;
+import com.twilio.rest.notify.v1.service.Binding;
+
+/**
+ * Receives the outcome of each binding of a bulk import; called from the threads doing the import.
+ */
+public interface BindingImportListener {
+
+    /**
+     * Called when a binding was created.
+     *
+     * @param binding binding that was imported
+     * @param created created binding
+     */
+    void onCreated(BindingImport binding, Binding created);
+
+    /**
+     * Called when a binding was skipped because the import already contained one with the same type and
+     * address, which Notify would have overwritten.
+     *
+     * @param binding binding that was skipped
+     */
+    void onDuplicate(BindingImport binding);
+
+    /**
+     * Called when a binding could not be created.
+     *
+     * @param binding binding that was imported
+     * @param error   last error
+     */
+    void onFailed(BindingImport binding, ApiException error);
+}
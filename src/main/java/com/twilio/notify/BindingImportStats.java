@@ -0,0 +1,83 @@
+package com.twilio.notify;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live counters of a bulk binding import, which can be read from any thread while the import runs.
+ */
+public class BindingImportStats {
+
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private volatile long endNanos;
+
+    BindingImportStats() {
+    }
+
+    void created() {
+        created.incrementAndGet();
+    }
+
+    void duplicate() {
+        duplicates.incrementAndGet();
+    }
+
+    void failed() {
+        failed.incrementAndGet();
+    }
+
+    void retried() {
+        retried.incrementAndGet();
+    }
+
+    void finished() {
+        endNanos = System.nanoTime();
+    }
+
+    public long getCreatedCount() {
+        return created.get();
+    }
+
+    public long getDuplicateCount() {
+        return duplicates.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * Get the number of retried requests, after being throttled or losing the connection.
+     *
+     * @return number of retries
+     */
+    public long getRetryCount() {
+        return retried.get();
+    }
+
+    public boolean isDone() {
+        return endNanos != 0;
+    }
+
+    /**
+     * Get the time the import ran for, so far if it is still running.
+     *
+     * @return elapsed time in milliseconds
+     */
+    public long getElapsedMillis() {
+        long end = isDone() ? endNanos : System.nanoTime();
+        return TimeUnit.NANOSECONDS.toMillis(end - startNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "BindingImportStats(created=" + getCreatedCount()
+            + ", duplicates=" + getDuplicateCount()
+            + ", failed=" + getFailedCount()
+            + ", retries=" + getRetryCount() + ")";
+    }
+}
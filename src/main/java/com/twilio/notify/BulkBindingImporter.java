@@ -0,0 +1,245 @@
+package com.twilio.notify;
+
+import com.twilio.Twilio;
+import com.twilio.base.BulkRequestRunner;
+import com.twilio.base.RateLimiter;
+import com.twilio.exception.ApiException;
+import com.twilio.http.TwilioRestClient;
+import com.twilio.rest.notify.v1.service.Binding;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
+
+/**
+ * Creates large numbers of Notify bindings concurrently.
+ *
+ * <p>
+ * Bindings are read from the input only as fast as they are created, with at most {@code maxInFlight}
+ * being created at once, and requests can be paced to stay under the rate limit of the account.
+ * Creating a binding is idempotent, as Notify overwrites the binding with the same type and address, so
+ * throttled requests, requests which failed with a 503, and requests whose connection failed are all
+ * retried.
+ * </p>
+ *
+ * <p>
+ * For the same reason, a binding whose type and address already appeared earlier in the import would
+ * silently replace the earlier one; such duplicates are skipped and reported instead. They are
+ * detected with a 64-bit fingerprint of the type and address, so importing millions of bindings only
+ * keeps a small number per binding in memory.
+ * </p>
+ */
+public class BulkBindingImporter {
+
+    public static final int DEFAULT_MAX_IN_FLIGHT = 32;
+    public static final int DEFAULT_MAX_ATTEMPTS = 4;
+    public static final long DEFAULT_RETRY_DELAY_MILLIS = 500L;
+
+    private static final int SERVICE_UNAVAILABLE = 503;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final String serviceSid;
+    private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+    private double requestsPerSecond = 0;
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    private long retryDelayMillis = DEFAULT_RETRY_DELAY_MILLIS;
+    private boolean skipDuplicates = true;
+    private ExecutorService executorService;
+    private volatile BindingImportStats stats;
+
+    /**
+     * Create an importer for a Notify service.
+     *
+     * @param serviceSid sid of the service to create the bindings in
+     */
+    public BulkBindingImporter(final String serviceSid) {
+        this.serviceSid = Objects.requireNonNull(serviceSid, "serviceSid");
+    }
+
+    /**
+     * Set the max number of bindings being created at once.
+     *
+     * @param maxInFlight size of the in-flight window
+     * @return this
+     */
+    public BulkBindingImporter maxInFlight(final int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("In-flight window must be at least 1");
+        }
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    /**
+     * Limit the rate of requests.
+     *
+     * @param requestsPerSecond requests per second; 0 for no limit
+     * @return this
+     */
+    public BulkBindingImporter requestsPerSecond(final double requestsPerSecond) {
+        if (requestsPerSecond < 0) {
+            throw new IllegalArgumentException("Rate must not be negative");
+        }
+        this.requestsPerSecond = requestsPerSecond;
+        return this;
+    }
+
+    /**
+     * Set the max number of attempts for each binding, including the first.
+     *
+     * @param maxAttempts attempts per binding
+     * @return this
+     */
+    public BulkBindingImporter maxAttempts(final int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be at least 1");
+        }
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * Set the delay before the first retry; it doubles on each further retry.
+     *
+     * @param retryDelayMillis delay in milliseconds
+     * @return this
+     */
+    public BulkBindingImporter retryDelayMillis(final long retryDelayMillis) {
+        if (retryDelayMillis < 0) {
+            throw new IllegalArgumentException("Retry delay must not be negative");
+        }
+        this.retryDelayMillis = retryDelayMillis;
+        return this;
+    }
+
+    /**
+     * Set whether bindings with the same type and address as an earlier binding are skipped; enabled by
+     * default.
+     *
+     * @param skipDuplicates whether to skip duplicates
+     * @return this
+     */
+    public BulkBindingImporter skipDuplicates(final boolean skipDuplicates) {
+        this.skipDuplicates = skipDuplicates;
+        return this;
+    }
+
+    /**
+     * Use a specific executor for the requests; defaults to the Twilio executor service.
+     *
+     * @param executorService executor running the requests
+     * @return this
+     */
+    public BulkBindingImporter executorService(final ExecutorService executorService) {
+        this.executorService = executorService;
+        return this;
+    }
+
+    /**
+     * Get the counters of the running import, or of the last one once it is done.
+     *
+     * @return stats of the current import, or null if nothing was imported yet
+     */
+    public BindingImportStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Import bindings using default client, returning once all are done.
+     *
+     * @param bindings bindings to create
+     * @param listener receives the outcome of each binding
+     * @return final counters of the import
+     */
+    public BindingImportStats importBindings(final Stream<BindingImport> bindings,
+                                             final BindingImportListener listener) {
+        return importBindings(Twilio.getRestClient(), bindings, listener);
+    }
+
+    /**
+     * Import bindings using specified client, returning once all are done.
+     *
+     * @param client   client used to make requests
+     * @param bindings bindings to create
+     * @param listener receives the outcome of each binding
+     * @return final counters of the import
+     */
+    public BindingImportStats importBindings(final TwilioRestClient client,
+                                             final Stream<BindingImport> bindings,
+                                             final BindingImportListener listener) {
+        Objects.requireNonNull(listener, "listener");
+        BulkRequestRunner runner = new BulkRequestRunner(
+            executorService == null ? Twilio.getExecutorService() : executorService,
+            maxInFlight
+        )
+            .maxAttempts(maxAttempts)
+            .retryDelayMillis(retryDelayMillis)
+            .retryOn(e -> BulkRequestRunner.isThrottled(e) || Objects.equals(e.getStatusCode(), SERVICE_UNAVAILABLE))
+            .retryConnectionErrors(true);
+        RateLimiter rateLimiter = requestsPerSecond > 0 ? new RateLimiter(requestsPerSecond) : null;
+        Set<Long> seen = skipDuplicates ? ConcurrentHashMap.<Long>newKeySet() : null;
+        BindingImportStats run = new BindingImportStats();
+        this.stats = run;
+
+        try {
+            runner.run(
+                bindings.filter(binding -> {
+                    if (seen == null || seen.add(fingerprint(binding))) {
+                        return true;
+                    }
+                    run.duplicate();
+                    listener.onDuplicate(binding);
+                    return false;
+                }).iterator(),
+                binding -> create(client, runner, rateLimiter, binding, run, listener),
+                (binding, e) -> {
+                    run.failed();
+                    listener.onFailed(binding, e);
+                }
+            );
+        } finally {
+            run.finished();
+        }
+        return run;
+    }
+
+    private void create(final TwilioRestClient client, final BulkRequestRunner runner, final RateLimiter rateLimiter,
+                        final BindingImport binding, final BindingImportStats run,
+                        final BindingImportListener listener) {
+        Binding created;
+        try {
+            created = runner.call(rateLimiter, () -> binding.toCreator(serviceSid).create(client), run::retried);
+        } catch (final ApiException e) {
+            run.failed();
+            listener.onFailed(binding, e);
+            return;
+        }
+
+        run.created();
+        listener.onCreated(binding, created);
+    }
+
+    /**
+     * Hash the type and address of a binding with 64-bit FNV-1a.
+     */
+    private static long fingerprint(final BindingImport binding) {
+        long hash = FNV_OFFSET;
+        hash = hash(hash, binding.getBindingType().toString());
+        // Separate the fields so the type cannot run into the address
+        hash = (hash ^ 0x1f) * FNV_PRIME;
+        return hash(hash, binding.getAddress());
+    }
+
+    private static long hash(final long seed, final String value) {
+        long hash = seed;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,107 @@
+package com.twilio.notify;
+
+import com.twilio.exception.ApiException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outcome of a notification sent to many recipients in chunks.
+ */
+public class NotificationFanOutResult {
+
+    private final List<String> notificationSids = Collections.synchronizedList(new ArrayList<>());
+    private final List<FailedChunk> failedChunks = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicLong sentRecipients = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+
+    NotificationFanOutResult() {
+    }
+
+    void sent(final String sid, final int recipients) {
+        notificationSids.add(sid);
+        sentRecipients.addAndGet(recipients);
+    }
+
+    void failed(final List<String> recipients, final ApiException error) {
+        failedChunks.add(new FailedChunk(recipients, error));
+    }
+
+    void retried() {
+        retried.incrementAndGet();
+    }
+
+    /**
+     * Get the sids of the notifications created, one per chunk sent, in no particular order.
+     *
+     * @return notification sids
+     */
+    public List<String> getNotificationSids() {
+        synchronized (notificationSids) {
+            return Collections.unmodifiableList(new ArrayList<>(notificationSids));
+        }
+    }
+
+    public List<FailedChunk> getFailedChunks() {
+        synchronized (failedChunks) {
+            return Collections.unmodifiableList(new ArrayList<>(failedChunks));
+        }
+    }
+
+    public long getSentRecipientCount() {
+        return sentRecipients.get();
+    }
+
+    public long getFailedRecipientCount() {
+        long count = 0;
+        synchronized (failedChunks) {
+            for (FailedChunk chunk : failedChunks) {
+                count += chunk.getRecipients().size();
+            }
+        }
+        return count;
+    }
+
+    public long getRetryCount() {
+        return retried.get();
+    }
+
+    /**
+     * Check whether every chunk was sent.
+     *
+     * @return true if no chunk failed
+     */
+    public boolean isComplete() {
+        return failedChunks.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "NotificationFanOutResult(notifications=" + notificationSids.size()
+            + ", sentRecipients=" + getSentRecipientCount()
+            + ", failedChunks=" + failedChunks.size() + ")";
+    }
+
+    /**
+     * Recipients of a chunk which could not be sent, so they can be retried later.
+     */
+    public static final class FailedChunk {
+        private final List<String> recipients;
+        private final ApiException error;
+
+        private FailedChunk(final List<String> recipients, final ApiException error) {
+            this.recipients = Collections.unmodifiableList(recipients);
+            this.error = error;
+        }
+
+        public List<String> getRecipients() {
+            return recipients;
+        }
+
+        public ApiException getError() {
+            return error;
+        }
+    }
+}
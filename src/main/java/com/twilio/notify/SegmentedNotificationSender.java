@@ -0,0 +1,294 @@
+package com.twilio.notify;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.twilio.Twilio;
+import com.twilio.base.BulkRequestRunner;
+import com.twilio.base.RateLimiter;
+import com.twilio.exception.ApiException;
+import com.twilio.http.TwilioRestClient;
+import com.twilio.rest.notify.v1.service.Binding;
+import com.twilio.rest.notify.v1.service.Notification;
+import com.twilio.rest.notify.v1.service.NotificationCreator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.function.UnaryOperator;
+
+/**
+ * Sends one notification to more recipients than a single request can address.
+ *
+ * <p>
+ * A notification request accepts at most 20 identities, and as many {@code toBinding} addresses as fit
+ * in a 1MB request. The recipients are split into chunks of that size, and one notification is created
+ * per chunk; chunks are sent in parallel, at most {@code maxInFlight} at once and optionally paced.
+ * </p>
+ *
+ * <p>
+ * Only throttled requests (429) are retried, as the API rejected them before creating the
+ * notification, so no recipient is notified twice. Requests which failed with another server error or
+ * whose connection failed are not, since their recipients may already have been notified; their
+ * chunks are reported in the result instead, along with chunks which failed for good.
+ * </p>
+ */
+public class SegmentedNotificationSender {
+
+    public static final int MAX_IDENTITIES_PER_REQUEST = 20;
+    public static final int DEFAULT_MAX_BINDINGS_PER_REQUEST = 10000;
+    public static final int DEFAULT_MAX_IN_FLIGHT = 8;
+    public static final int DEFAULT_MAX_ATTEMPTS = 4;
+    public static final long DEFAULT_RETRY_DELAY_MILLIS = 500L;
+
+    /** Encoded size allowed for the recipients, leaving room for the rest of the 1MB request. */
+    private static final int MAX_RECIPIENT_BYTES = 900 * 1024;
+    private static final String IDENTITY = "Identity";
+    private static final String TO_BINDING = "ToBinding";
+
+    private final String serviceSid;
+    private int maxBindingsPerRequest = DEFAULT_MAX_BINDINGS_PER_REQUEST;
+    private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+    private double requestsPerSecond = 0;
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    private long retryDelayMillis = DEFAULT_RETRY_DELAY_MILLIS;
+    private ExecutorService executorService;
+
+    /**
+     * Create a sender for a Notify service.
+     *
+     * @param serviceSid sid of the service sending the notifications
+     */
+    public SegmentedNotificationSender(final String serviceSid) {
+        this.serviceSid = Objects.requireNonNull(serviceSid, "serviceSid");
+    }
+
+    /**
+     * Build the {@code toBinding} value addressing a channel directly.
+     *
+     * @param bindingType channel of the address
+     * @param address     channel-specific address, such as a phone number
+     * @return binding as a JSON string
+     */
+    public static String toBinding(final Binding.BindingType bindingType, final String address) {
+        JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+        return "{\"binding_type\":\"" + new String(encoder.quoteAsString(bindingType.toString()))
+            + "\",\"address\":\"" + new String(encoder.quoteAsString(address)) + "\"}";
+    }
+
+    /**
+     * Set the max number of {@code toBinding} addresses per request; chunks are also kept under the
+     * request size limit.
+     *
+     * @param maxBindingsPerRequest addresses per request
+     * @return this
+     */
+    public SegmentedNotificationSender maxBindingsPerRequest(final int maxBindingsPerRequest) {
+        if (maxBindingsPerRequest < 1) {
+            throw new IllegalArgumentException("Max bindings per request must be at least 1");
+        }
+        this.maxBindingsPerRequest = maxBindingsPerRequest;
+        return this;
+    }
+
+    /**
+     * Set the max number of chunks being sent at once.
+     *
+     * @param maxInFlight size of the in-flight window
+     * @return this
+     */
+    public SegmentedNotificationSender maxInFlight(final int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("In-flight window must be at least 1");
+        }
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    /**
+     * Limit the rate of requests.
+     *
+     * @param requestsPerSecond requests per second; 0 for no limit
+     * @return this
+     */
+    public SegmentedNotificationSender requestsPerSecond(final double requestsPerSecond) {
+        if (requestsPerSecond < 0) {
+            throw new IllegalArgumentException("Rate must not be negative");
+        }
+        this.requestsPerSecond = requestsPerSecond;
+        return this;
+    }
+
+    /**
+     * Set the max number of attempts for each chunk, including the first.
+     *
+     * @param maxAttempts attempts per chunk
+     * @return this
+     */
+    public SegmentedNotificationSender maxAttempts(final int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be at least 1");
+        }
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * Set the delay before the first retry; it doubles on each further retry.
+     *
+     * @param retryDelayMillis delay in milliseconds
+     * @return this
+     */
+    public SegmentedNotificationSender retryDelayMillis(final long retryDelayMillis) {
+        if (retryDelayMillis < 0) {
+            throw new IllegalArgumentException("Retry delay must not be negative");
+        }
+        this.retryDelayMillis = retryDelayMillis;
+        return this;
+    }
+
+    /**
+     * Use a specific executor for the requests; defaults to the Twilio executor service.
+     *
+     * @param executorService executor running the requests
+     * @return this
+     */
+    public SegmentedNotificationSender executorService(final ExecutorService executorService) {
+        this.executorService = executorService;
+        return this;
+    }
+
+    /**
+     * Notify users by identity using default client, returning once all chunks are done.
+     *
+     * @param identities   identities to notify
+     * @param notification sets the content of the notification on a creator
+     * @return outcome of the chunks
+     */
+    public NotificationFanOutResult sendToIdentities(final Collection<String> identities,
+                                                     final UnaryOperator<NotificationCreator> notification) {
+        return sendToIdentities(Twilio.getRestClient(), identities, notification);
+    }
+
+    /**
+     * Notify users by identity using specified client, returning once all chunks are done.
+     *
+     * @param client       client used to make requests
+     * @param identities   identities to notify
+     * @param notification sets the content of the notification on a creator
+     * @return outcome of the chunks
+     */
+    public NotificationFanOutResult sendToIdentities(final TwilioRestClient client,
+                                                     final Collection<String> identities,
+                                                     final UnaryOperator<NotificationCreator> notification) {
+        return send(client, chunk(identities, IDENTITY, MAX_IDENTITIES_PER_REQUEST), notification,
+            NotificationCreator::setIdentity);
+    }
+
+    /**
+     * Notify addresses directly using default client, returning once all chunks are done.
+     *
+     * @param toBindings   bindings as JSON strings, as built by {@link #toBinding}
+     * @param notification sets the content of the notification on a creator
+     * @return outcome of the chunks
+     */
+    public NotificationFanOutResult sendToBindings(final Collection<String> toBindings,
+                                                   final UnaryOperator<NotificationCreator> notification) {
+        return sendToBindings(Twilio.getRestClient(), toBindings, notification);
+    }
+
+    /**
+     * Notify addresses directly using specified client, returning once all chunks are done.
+     *
+     * @param client       client used to make requests
+     * @param toBindings   bindings as JSON strings, as built by {@link #toBinding}
+     * @param notification sets the content of the notification on a creator
+     * @return outcome of the chunks
+     */
+    public NotificationFanOutResult sendToBindings(final TwilioRestClient client,
+                                                   final Collection<String> toBindings,
+                                                   final UnaryOperator<NotificationCreator> notification) {
+        return send(client, chunk(toBindings, TO_BINDING, maxBindingsPerRequest), notification,
+            NotificationCreator::setToBinding);
+    }
+
+    private NotificationFanOutResult send(
+        final TwilioRestClient client,
+        final List<List<String>> chunks,
+        final UnaryOperator<NotificationCreator> notification,
+        final RecipientSetter recipients
+    ) {
+        Objects.requireNonNull(notification, "notification");
+        BulkRequestRunner runner = new BulkRequestRunner(
+            executorService == null ? Twilio.getExecutorService() : executorService,
+            maxInFlight
+        )
+            .maxAttempts(maxAttempts)
+            .retryDelayMillis(retryDelayMillis);
+        RateLimiter rateLimiter = requestsPerSecond > 0 ? new RateLimiter(requestsPerSecond) : null;
+        NotificationFanOutResult result = new NotificationFanOutResult();
+
+        runner.run(
+            chunks.iterator(),
+            chunk -> {
+                try {
+                    Notification sent = runner.call(
+                        rateLimiter,
+                        () -> recipients.set(notification.apply(Notification.creator(serviceSid)), chunk)
+                            .create(client),
+                        result::retried
+                    );
+                    result.sent(sent.getSid(), chunk.size());
+                } catch (final ApiException e) {
+                    result.failed(chunk, e);
+                }
+            },
+            result::failed
+        );
+        return result;
+    }
+
+    /**
+     * Split recipients into chunks of at most {@code maxPerChunk} which also fit in a request once
+     * form-encoded.
+     */
+    private static List<List<String>> chunk(final Collection<String> recipients, final String parameter,
+                                            final int maxPerChunk) {
+        List<List<String>> chunks = new ArrayList<>();
+        List<String> chunk = new ArrayList<>();
+        long bytes = 0;
+
+        for (String recipient : recipients) {
+            long size = encodedSize(parameter, Objects.requireNonNull(recipient, "recipient"));
+            if (!chunk.isEmpty() && (chunk.size() >= maxPerChunk || bytes + size > MAX_RECIPIENT_BYTES)) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                bytes = 0;
+            }
+            chunk.add(recipient);
+            bytes += size;
+        }
+
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    /**
+     * Estimate the size of a form parameter, counting characters other than letters and digits as
+     * percent-encoded.
+     */
+    private static long encodedSize(final String parameter, final String value) {
+        long size = parameter.length() + 2;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            size += Character.isLetterOrDigit(c) && c < 0x80 ? 1 : c < 0x80 ? 3 : 9;
+        }
+        return size;
+    }
+
+    private interface RecipientSetter {
+        NotificationCreator set(NotificationCreator creator, List<String> recipients);
+    }
+}
@@ -0,0 +1,224 @@
+package com.twilio.security;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Validates large batches of webhook requests, such as archived requests being audited, on several
+ * threads.
+ *
+ * <p>
+ * Requests are read from the input in chunks, so the input is never held in memory as a whole, and
+ * each chunk is split across the threads. The next chunk is read while the threads validate the
+ * current one, so a slow input, such as an archive being decompressed, overlaps with signing. Each
+ * thread signs with its own {@code Mac} instance. The result records only the positions of the
+ * requests which failed.
+ * </p>
+ */
+public class BatchRequestValidator {
+
+    public static final int DEFAULT_CHUNK_SIZE = 4096;
+
+    private final RequestValidator validator;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private ExecutorService executorService;
+
+    /**
+     * Create a batch validator.
+     *
+     * @param authToken auth token the requests were signed with
+     */
+    public BatchRequestValidator(String authToken) {
+        this(new RequestValidator(authToken));
+    }
+
+    /**
+     * Create a batch validator.
+     *
+     * @param validator validator used for each request
+     */
+    public BatchRequestValidator(RequestValidator validator) {
+        this.validator = validator;
+    }
+
+    /**
+     * Set the number of threads validating at once; defaults to the number of processors.
+     *
+     * @param parallelism number of threads
+     * @return this
+     */
+    public BatchRequestValidator parallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Set the number of requests read from the input before they are validated.
+     *
+     * @param chunkSize requests per chunk
+     * @return this
+     */
+    public BatchRequestValidator chunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1");
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * Run validation on a specific executor; by default a pool of {@code parallelism} threads is
+     * created for each batch.
+     *
+     * @param executorService executor running the validation
+     * @return this
+     */
+    public BatchRequestValidator executorService(ExecutorService executorService) {
+        this.executorService = executorService;
+        return this;
+    }
+
+    /**
+     * Validate a stream of requests.
+     *
+     * @param requests requests to validate
+     * @return positions of the failed requests
+     */
+    public BatchValidationResult validate(Stream<SignedRequest> requests) {
+        return validate(requests::iterator);
+    }
+
+    /**
+     * Validate a sequence of requests.
+     *
+     * @param requests requests to validate
+     * @return positions of the failed requests
+     */
+    public BatchValidationResult validate(Iterable<SignedRequest> requests) {
+        ExecutorService executor = executorService;
+        boolean ownExecutor = executor == null && parallelism > 1;
+        if (ownExecutor) {
+            executor = Executors.newFixedThreadPool(parallelism);
+        }
+
+        BitSet failures = new BitSet();
+        SignedRequest[][] buffers = {new SignedRequest[chunkSize], new SignedRequest[chunkSize]};
+        PendingChunk pending = null;
+
+        try {
+            Iterator<SignedRequest> iterator = requests.iterator();
+            int count = 0;
+
+            while (iterator.hasNext()) {
+                // Fill the buffer not being validated, then wait for the other before starting this one
+                SignedRequest[] chunk = pending != null && pending.chunk == buffers[0] ? buffers[1] : buffers[0];
+                int size = 0;
+                while (size < chunkSize && iterator.hasNext()) {
+                    chunk[size++] = iterator.next();
+                }
+
+                if (pending != null) {
+                    pending.finish(failures);
+                }
+                pending = startChunk(executor, chunk, size, count);
+                count += size;
+            }
+
+            if (pending != null) {
+                pending.finish(failures);
+                pending = null;
+            }
+            return new BatchValidationResult(count, failures);
+        } finally {
+            if (pending != null) {
+                pending.cancel();
+            }
+            if (ownExecutor) {
+                executor.shutdown();
+            }
+        }
+    }
+
+    private PendingChunk startChunk(ExecutorService executor, SignedRequest[] chunk, int size, int offset) {
+        PendingChunk pending = new PendingChunk(chunk, size, offset);
+        int slices = executor == null ? 1 : Math.min(parallelism, size);
+
+        if (slices == 1) {
+            validateSlice(chunk, pending.valid, 0, size);
+            return pending;
+        }
+
+        for (int i = 0; i < slices; i++) {
+            int from = (int) ((long) size * i / slices);
+            int to = (int) ((long) size * (i + 1) / slices);
+            pending.futures.add(executor.submit(() -> validateSlice(chunk, pending.valid, from, to)));
+        }
+        return pending;
+    }
+
+    private void validateSlice(SignedRequest[] chunk, boolean[] valid, int from, int to) {
+        for (int i = from; i < to; i++) {
+            SignedRequest request = chunk[i];
+            valid[i] = request != null
+                && validator.validate(request.getUrl(), request.getParams(), request.getSignature());
+        }
+    }
+
+    /**
+     * A chunk handed to the threads, whose results are collected once the next chunk has been read.
+     */
+    private static final class PendingChunk {
+        private final SignedRequest[] chunk;
+        private final int size;
+        private final int offset;
+        private final boolean[] valid;
+        private final List<Future<?>> futures = new ArrayList<>();
+
+        private PendingChunk(SignedRequest[] chunk, int size, int offset) {
+            this.chunk = chunk;
+            this.size = size;
+            this.offset = offset;
+            this.valid = new boolean[size];
+        }
+
+        private void finish(BitSet failures) {
+            try {
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Batch validation interrupted", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException("Batch validation failed", e.getCause());
+            }
+
+            for (int i = 0; i < size; i++) {
+                if (!valid[i]) {
+                    failures.set(offset + i);
+                }
+                chunk[i] = null;
+            }
+        }
+
+        private void cancel() {
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.twilio.security;
+
+import java.util.BitSet;
+
+/**
+ * Outcome of validating a batch of requests, indexed by the position of each request in the batch.
+ */
+public class BatchValidationResult {
+
+    private final int count;
+    private final BitSet failures;
+
+    BatchValidationResult(int count, BitSet failures) {
+        this.count = count;
+        this.failures = failures;
+    }
+
+    /**
+     * Get the number of requests validated.
+     *
+     * @return number of requests
+     */
+    public int getCount() {
+        return count;
+    }
+
+    public int getValidCount() {
+        return count - failures.cardinality();
+    }
+
+    public int getFailureCount() {
+        return failures.cardinality();
+    }
+
+    /**
+     * Check whether a request was valid.
+     *
+     * @param index position of the request in the batch
+     * @return true if its signature matched
+     */
+    public boolean isValid(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of " + count);
+        }
+        return !failures.get(index);
+    }
+
+    /**
+     * Get the positions of the requests which failed validation.
+     *
+     * @return failed indexes in ascending order
+     */
+    public int[] getFailures() {
+        return failures.stream().toArray();
+    }
+
+    /**
+     * Get the failed requests as a bit set.
+     *
+     * @return copy of the set with a bit set for every failed index
+     */
+    public BitSet getFailureSet() {
+        return (BitSet) failures.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "BatchValidationResult(count=" + count + ", failures=" + getFailureCount() + ")";
+    }
+}
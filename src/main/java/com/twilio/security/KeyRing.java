@@ -0,0 +1,330 @@
+package com.twilio.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+/**
+ * Holds the secrets used to sign and validate, so they can be rotated without rebuilding the
+ * validators and token builders which use them.
+ *
+ * <p>
+ * A ring has one primary key, used for signing, and any number of secondary keys which are still
+ * accepted when validating. The keys are replaced together as one immutable snapshot, so readers see
+ * either the keys before or after a rotation and never a mix. Each key prepares its
+ * {@code SecretKeySpec} once and initializes a {@code Mac} once per thread.
+ * </p>
+ *
+ * <p>
+ * Validation tries the key which matched last first, which is the primary unless requests signed with
+ * an older key are still arriving, so a mismatch against every other key is only paid for when the
+ * signing key changes.
+ * </p>
+ */
+public class KeyRing {
+
+    public static final String HMAC_SHA1 = "HmacSHA1";
+    public static final String HMAC_SHA256 = "HmacSHA256";
+    public static final int DEFAULT_MAX_SECONDARIES = 2;
+
+    private final AtomicReference<Keys> keys;
+    private volatile int maxSecondaries = DEFAULT_MAX_SECONDARIES;
+
+    /**
+     * Create a key ring from secrets.
+     *
+     * @param primarySecret      secret used to sign
+     * @param secondarySecrets   secrets still accepted when validating
+     */
+    public KeyRing(String primarySecret, String... secondarySecrets) {
+        this(new SigningKey(primarySecret), toKeys(secondarySecrets));
+    }
+
+    /**
+     * Create a key ring; secondary keys past {@link #DEFAULT_MAX_SECONDARIES} are dropped.
+     *
+     * @param primary     key used to sign
+     * @param secondaries keys still accepted when validating, newest first
+     */
+    public KeyRing(SigningKey primary, SigningKey... secondaries) {
+        this.keys = new AtomicReference<>(new Keys(primary, Arrays.asList(secondaries), maxSecondaries));
+    }
+
+    private static SigningKey[] toKeys(String[] secrets) {
+        SigningKey[] keys = new SigningKey[secrets.length];
+        for (int i = 0; i < secrets.length; i++) {
+            keys[i] = new SigningKey(secrets[i]);
+        }
+        return keys;
+    }
+
+    /**
+     * Set the number of secondary keys kept; the oldest keys are dropped beyond it, both from the keys
+     * held now and when keys are later set or rotated.
+     *
+     * @param maxSecondaries number of secondary keys to keep
+     * @return this
+     */
+    public KeyRing maxSecondaries(int maxSecondaries) {
+        if (maxSecondaries < 0) {
+            throw new IllegalArgumentException("Max secondaries must not be negative");
+        }
+        this.maxSecondaries = maxSecondaries;
+
+        Keys current;
+        do {
+            current = keys.get();
+            if (current.keys.length - 1 <= maxSecondaries) {
+                break;
+            }
+        } while (!keys.compareAndSet(current, new Keys(current.keys[0], current.secondaries(), maxSecondaries)));
+        return this;
+    }
+
+    public SigningKey getPrimary() {
+        return keys.get().keys[0];
+    }
+
+    public List<SigningKey> getSecondaries() {
+        SigningKey[] current = keys.get().keys;
+        return Collections.unmodifiableList(Arrays.asList(current).subList(1, current.length));
+    }
+
+    /**
+     * Get every key, primary first.
+     *
+     * @return keys in the ring
+     */
+    public List<SigningKey> getKeys() {
+        return Collections.unmodifiableList(Arrays.asList(keys.get().keys));
+    }
+
+    /**
+     * Make a secret the primary key; the current primary becomes the newest secondary key.
+     *
+     * @param secret new signing secret
+     */
+    public void rotate(String secret) {
+        rotate(new SigningKey(secret));
+    }
+
+    /**
+     * Make a key the primary key; the current primary becomes the newest secondary key.
+     *
+     * @param primary new signing key
+     */
+    public void rotate(SigningKey primary) {
+        Objects.requireNonNull(primary, "Primary key must not be null");
+
+        Keys current;
+        Keys next;
+        do {
+            current = keys.get();
+            List<SigningKey> secondaries = new ArrayList<>(current.keys.length);
+            for (SigningKey key : current.keys) {
+                if (!key.equals(primary)) {
+                    secondaries.add(key);
+                }
+            }
+            next = new Keys(primary, secondaries, maxSecondaries);
+        } while (!keys.compareAndSet(current, next));
+    }
+
+    /**
+     * Stop accepting a secondary key; the primary key cannot be retired.
+     *
+     * @param key key to remove
+     * @return true if the key was removed
+     */
+    public boolean retire(SigningKey key) {
+        Keys current;
+        Keys next;
+        do {
+            current = keys.get();
+            List<SigningKey> secondaries = new ArrayList<>(current.keys.length);
+            for (int i = 1; i < current.keys.length; i++) {
+                if (!current.keys[i].equals(key)) {
+                    secondaries.add(current.keys[i]);
+                }
+            }
+            if (secondaries.size() == current.keys.length - 1) {
+                return false;
+            }
+            next = new Keys(current.keys[0], secondaries, maxSecondaries);
+        } while (!keys.compareAndSet(current, next));
+        return true;
+    }
+
+    /**
+     * Replace every key at once; secondary keys past the max are dropped.
+     *
+     * @param primary     key used to sign
+     * @param secondaries keys still accepted when validating, newest first
+     */
+    public void set(SigningKey primary, SigningKey... secondaries) {
+        keys.set(new Keys(primary, Arrays.asList(secondaries), maxSecondaries));
+    }
+
+    /**
+     * Check whether any key in the ring passes a check, trying the key which passed last first.
+     *
+     * @param check check run against a key, such as comparing a signature made with it
+     * @return true if a key passed
+     */
+    public boolean anyMatch(Predicate<SigningKey> check) {
+        Keys current = keys.get();
+        SigningKey[] ring = current.keys;
+        int preferred = current.preferred;
+
+        if (check.test(ring[preferred])) {
+            return true;
+        }
+
+        for (int i = 0; i < ring.length; i++) {
+            if (i != preferred && check.test(ring[i])) {
+                current.preferred = i;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "KeyRing(keys=" + keys.get().keys.length + ")";
+    }
+
+    /**
+     * Immutable set of keys, primary first, and the position of the key which last matched.
+     */
+    private static class Keys {
+        private final SigningKey[] keys;
+        private volatile int preferred;
+
+        private Keys(SigningKey primary, List<SigningKey> secondaries, int maxSecondaries) {
+            Objects.requireNonNull(primary, "Primary key must not be null");
+
+            int kept = Math.min(secondaries.size(), maxSecondaries);
+            this.keys = new SigningKey[kept + 1];
+            this.keys[0] = primary;
+            for (int i = 0; i < kept; i++) {
+                this.keys[i + 1] = Objects.requireNonNull(secondaries.get(i), "Secondary key must not be null");
+            }
+        }
+
+        private List<SigningKey> secondaries() {
+            return Arrays.asList(keys).subList(1, keys.length);
+        }
+    }
+
+    /**
+     * A secret, with an optional id such as the sid of an API key, and its prepared signing state.
+     */
+    public static final class SigningKey {
+        private final String id;
+        private final String secret;
+        private final byte[] bytes;
+        private final ConcurrentMap<String, SecretKeySpec> specs = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, ThreadLocal<Mac>> macs = new ConcurrentHashMap<>();
+
+        public SigningKey(String secret) {
+            this(null, secret);
+        }
+
+        /**
+         * Create a signing key.
+         *
+         * @param id     id of the key, such as the sid of an API key, or null
+         * @param secret secret of the key, signed with as UTF-8
+         */
+        public SigningKey(String id, String secret) {
+            this.id = id;
+            this.secret = Objects.requireNonNull(secret, "Secret must not be null");
+            this.bytes = secret.getBytes(StandardCharsets.UTF_8);
+
+            // Prepare the algorithms used for webhooks and tokens up front
+            getSecretKeySpec(HMAC_SHA1);
+            getSecretKeySpec(HMAC_SHA256);
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        String getSecret() {
+            return secret;
+        }
+
+        /**
+         * Get the key for an algorithm.
+         *
+         * @param algorithm JCA name of the algorithm, such as {@code HmacSHA256}
+         * @return key spec for the algorithm
+         */
+        public SecretKeySpec getSecretKeySpec(String algorithm) {
+            SecretKeySpec spec = specs.get(algorithm);
+            if (spec == null) {
+                spec = specs.computeIfAbsent(algorithm, name -> new SecretKeySpec(bytes, name));
+            }
+            return spec;
+        }
+
+        /**
+         * Get a {@code Mac} initialized with this key for the calling thread; it must not be shared
+         * with other threads.
+         *
+         * @param algorithm JCA name of the algorithm, such as {@code HmacSHA1}
+         * @return initialized mac, reset
+         * @throws GeneralSecurityException if the algorithm is not available
+         */
+        public Mac getMac(String algorithm) throws GeneralSecurityException {
+            ThreadLocal<Mac> local = macs.get(algorithm);
+            if (local == null) {
+                local = macs.computeIfAbsent(algorithm, name -> new ThreadLocal<>());
+            }
+
+            Mac mac = local.get();
+            if (mac == null) {
+                mac = Mac.getInstance(algorithm);
+                mac.init(getSecretKeySpec(algorithm));
+                local.set(mac);
+            } else {
+                // Drop anything left by a caller which failed part way through
+                mac.reset();
+            }
+            return mac;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            SigningKey other = (SigningKey) o;
+            return Objects.equals(id, other.id) && secret.equals(other.secret);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, secret);
+        }
+
+        @Override
+        public String toString() {
+            return "SigningKey(id=" + id + ")";
+        }
+    }
+}
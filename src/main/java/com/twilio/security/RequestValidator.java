@@ -4,96 +4,327 @@ import org.apache.http.NameValuePair;
 import org.apache.http.client.utils.URLEncodedUtils;
 
 import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 import javax.xml.bind.DatatypeConverter;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
 
+/**
+ * Validates the signatures of webhook requests.
+ *
+ * <p>
+ * Signing state is cached per thread: each thread initializes its own {@code Mac} once, and the URL
+ * and parameters are encoded into a reused buffer and fed to it directly.
+ * </p>
+ *
+ * <p>
+ * Requests with a JSON or other raw body are signed over the URL only, which carries the SHA-256 of
+ * the body in its {@code bodySHA256} parameter. The body can be given as a string, bytes, a buffer or
+ * a stream, which is hashed as it is read.
+ * </p>
+ *
+ * <p>
+ * Validators built on a {@link KeyRing} accept signatures made with any key in the ring, so the auth
+ * token can be rotated while requests signed with the previous one are still arriving.
+ * </p>
+ */
 public class RequestValidator {
 
-    private static final String HMAC = "HmacSHA1";
+    private static final String HMAC = KeyRing.HMAC_SHA1;
+    private static final int BODY_CHUNK_SIZE = 8192;
 
-    private final SecretKeySpec signingKey;
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+    });
+
+    private final KeyRing keyRing;
 
     public RequestValidator(String authToken) {
-        this.signingKey = new SecretKeySpec(authToken.getBytes(), HMAC);
+        this(new KeyRing(authToken));
+    }
+
+    /**
+     * Create a validator accepting signatures made with any key in a ring.
+     *
+     * @param keyRing auth tokens the requests may be signed with
+     */
+    public RequestValidator(KeyRing keyRing) {
+        this.keyRing = keyRing;
     }
 
     public boolean validate(String url, Map<String, String> params, String expectedSignature) {
-        // check signature of url with and without port, since sig generation on back
-        // end is inconsistent
-        String signatureWithPort = getValidationSignature(addPort(url), params);
-        String signatureWithoutPort = getValidationSignature(removePort(url), params);
-        // If either url produces a valid signature, we accept the request as valid
-        return secureCompare(signatureWithPort, expectedSignature) || 
-            secureCompare(signatureWithoutPort, expectedSignature);
+        SignatureBuffer buffer = SignatureBuffer.get();
+        if (params != null) {
+            for (String key : sortedKeys(params)) {
+                buffer.append(key);
+                buffer.append(params.get(key));
+            }
+        }
+        return validateSigned(buffer, url, expectedSignature);
     }
 
-    public boolean validate(String url, String body, String expectedSignature) throws URISyntaxException {
-        Map<String, String> empty = new HashMap<>();
-        List<NameValuePair> params = URLEncodedUtils.parse(new URI(url), Charset.forName("UTF-8"));
+    /**
+     * Validate a request with form parameters which may have several values, for example from
+     * {@code Map<String, List<String>>} query decoders; values of a parameter are signed in sorted order.
+     *
+     * @param url               full request url
+     * @param params            values by parameter name
+     * @param expectedSignature value of the {@code X-Twilio-Signature} header
+     * @return true if the signature matches
+     */
+    public boolean validateMultiValued(
+        String url,
+        Map<String, ? extends Collection<String>> params,
+        String expectedSignature
+    ) {
+        SignatureBuffer buffer = SignatureBuffer.get();
+        if (params != null) {
+            for (String key : sortedKeys(params)) {
+                Collection<String> values = params.get(key);
+                appendValues(buffer, key, values == null ? null : values.toArray(new String[0]));
+            }
+        }
+        return validateSigned(buffer, url, expectedSignature);
+    }
 
-        NameValuePair bodySHA256 = null;
-        for (NameValuePair param : params) {
-            if (param.getName().equals("bodySHA256")) {
-                bodySHA256 = param;
-                break;
+    /**
+     * Validate a request with form parameters as given by {@code ServletRequest.getParameterMap()};
+     * values of a parameter are signed in sorted order.
+     *
+     * @param url               full request url
+     * @param params            values by parameter name
+     * @param expectedSignature value of the {@code X-Twilio-Signature} header
+     * @return true if the signature matches
+     */
+    public boolean validateParameterMap(String url, Map<String, String[]> params, String expectedSignature) {
+        SignatureBuffer buffer = SignatureBuffer.get();
+        if (params != null) {
+            for (String key : sortedKeys(params)) {
+                String[] values = params.get(key);
+                appendValues(buffer, key, values == null ? null : values.clone());
             }
         }
+        return validateSigned(buffer, url, expectedSignature);
+    }
 
-        if (bodySHA256 != null) {
-            return validate(url, empty, expectedSignature) && validateBody(body, bodySHA256.getValue());
-        } else {
+    public boolean validate(String url, String body, String expectedSignature) throws URISyntaxException {
+        String bodySHA256 = getBodySHA256(url);
+        return bodySHA256 != null
+            && validate(url, Collections.<String, String>emptyMap(), expectedSignature)
+            && validateBody(body, bodySHA256);
+    }
+
+    /**
+     * Validate a request with a raw body.
+     *
+     * @param url               full request url, including the {@code bodySHA256} parameter
+     * @param body              request body
+     * @param expectedSignature value of the {@code X-Twilio-Signature} header
+     * @return true if the signature and body hash match
+     * @throws URISyntaxException if the url cannot be parsed
+     */
+    public boolean validate(String url, byte[] body, String expectedSignature) throws URISyntaxException {
+        String bodySHA256 = getBodySHA256(url);
+        return bodySHA256 != null
+            && validate(url, Collections.<String, String>emptyMap(), expectedSignature)
+            && validateBody(body, bodySHA256);
+    }
+
+    /**
+     * Validate a request with a raw body; the position of the buffer is not changed.
+     *
+     * @param url               full request url, including the {@code bodySHA256} parameter
+     * @param body              request body, from its position to its limit
+     * @param expectedSignature value of the {@code X-Twilio-Signature} header
+     * @return true if the signature and body hash match
+     * @throws URISyntaxException if the url cannot be parsed
+     */
+    public boolean validate(String url, ByteBuffer body, String expectedSignature) throws URISyntaxException {
+        String bodySHA256 = getBodySHA256(url);
+        return bodySHA256 != null
+            && validate(url, Collections.<String, String>emptyMap(), expectedSignature)
+            && validateBody(body, bodySHA256);
+    }
+
+    /**
+     * Validate a request with a raw body, hashing the body as it is read.
+     *
+     * <p>
+     * The stream is read to its end, but only if the signature of the url matches; it is not closed.
+     * </p>
+     *
+     * @param url               full request url, including the {@code bodySHA256} parameter
+     * @param body              request body
+     * @param expectedSignature value of the {@code X-Twilio-Signature} header
+     * @return true if the signature and body hash match
+     * @throws URISyntaxException if the url cannot be parsed
+     * @throws IOException if the body cannot be read
+     */
+    public boolean validate(String url, InputStream body, String expectedSignature)
+            throws URISyntaxException, IOException {
+        String bodySHA256 = getBodySHA256(url);
+        return bodySHA256 != null
+            && validate(url, Collections.<String, String>emptyMap(), expectedSignature)
+            && validateBody(body, bodySHA256);
+    }
+
+    public boolean validateBody(String body, String expectedSHA) {
+        return validateBody(body.getBytes(StandardCharsets.UTF_8), expectedSHA);
+    }
+
+    /**
+     * Check the SHA-256 of a body.
+     *
+     * @param body        request body
+     * @param expectedSHA hex encoded SHA-256
+     * @return true if the hash matches
+     */
+    public boolean validateBody(byte[] body, String expectedSHA) {
+        MessageDigest digest = SHA256.get();
+        if (digest == null) {
             return false;
         }
+
+        digest.reset();
+        return secureCompare(expectedSHA, toHex(digest.digest(body)));
     }
 
-    public boolean validateBody(String body, String expectedSHA) {
-        MessageDigest digest;
-        try {
-            digest = MessageDigest.getInstance("SHA-256");
-        } catch (NoSuchAlgorithmException e) {
+    /**
+     * Check the SHA-256 of a body; the position of the buffer is not changed.
+     *
+     * @param body        request body, from its position to its limit
+     * @param expectedSHA hex encoded SHA-256
+     * @return true if the hash matches
+     */
+    public boolean validateBody(ByteBuffer body, String expectedSHA) {
+        MessageDigest digest = SHA256.get();
+        if (digest == null) {
+            return false;
+        }
+
+        digest.reset();
+        digest.update(body.duplicate());
+        return secureCompare(expectedSHA, toHex(digest.digest()));
+    }
+
+    /**
+     * Check the SHA-256 of a body, hashing it as it is read to its end; the stream is not closed.
+     *
+     * @param body        request body
+     * @param expectedSHA hex encoded SHA-256
+     * @return true if the hash matches
+     * @throws IOException if the body cannot be read
+     */
+    public boolean validateBody(InputStream body, String expectedSHA) throws IOException {
+        MessageDigest digest = SHA256.get();
+        if (digest == null) {
             return false;
         }
 
-        byte[] hash = digest.digest(body.getBytes(StandardCharsets.UTF_8));
-        String hexString = DatatypeConverter.printHexBinary(hash).toLowerCase();
+        digest.reset();
+        byte[] chunk = new byte[BODY_CHUNK_SIZE];
+        int read;
+        while ((read = body.read(chunk)) != -1) {
+            digest.update(chunk, 0, read);
+        }
+        return secureCompare(expectedSHA, toHex(digest.digest()));
+    }
 
-        return secureCompare(expectedSHA, hexString);
+    private static String getBodySHA256(String url) throws URISyntaxException {
+        List<NameValuePair> params = URLEncodedUtils.parse(new URI(url), Charset.forName("UTF-8"));
+        for (NameValuePair param : params) {
+            if (param.getName().equals("bodySHA256")) {
+                return param.getValue();
+            }
+        }
+        return null;
     }
 
-    private String getValidationSignature(String url, Map<String, String> params) {
-        try {
+    private static String toHex(byte[] hash) {
+        return DatatypeConverter.printHexBinary(hash).toLowerCase();
+    }
 
-            StringBuilder builder = new StringBuilder(url);
-            if (params != null) {
-                List<String> sortedKeys = new ArrayList<>(params.keySet());
-                Collections.sort(sortedKeys);
+    private static Collection<String> sortedKeys(Map<String, ?> params) {
+        if (params instanceof SortedMap && ((SortedMap<?, ?>) params).comparator() == null) {
+            return params.keySet();
+        }
 
-                for (String key : sortedKeys) {
-                    builder.append(key);
+        List<String> keys = new ArrayList<>(params.keySet());
+        Collections.sort(keys);
+        return keys;
+    }
 
-                    String value = params.get(key);
-                    builder.append(value == null ? "" : value);
-                }
-            }
+    private static void appendValues(SignatureBuffer buffer, String key, String[] values) {
+        if (values == null || values.length == 0) {
+            buffer.append(key);
+            return;
+        }
 
-            Mac mac = Mac.getInstance(HMAC);
-            mac.init(signingKey);
+        if (values.length > 1) {
+            Arrays.sort(values, Comparator.nullsFirst(Comparator.<String>naturalOrder()));
+        }
+        for (String value : values) {
+            buffer.append(key);
+            buffer.append(value);
+        }
+    }
 
-            byte[] rawHmac = mac.doFinal(builder.toString().getBytes(StandardCharsets.UTF_8));
-            return DatatypeConverter.printBase64Binary(rawHmac);
+    /**
+     * Check the signature of the url, with and without port, followed by the encoded parameters,
+     * against each key in the ring.
+     */
+    private boolean validateSigned(SignatureBuffer buffer, String url, String expectedSignature) {
+        // check signature of url with and without port, since sig generation on back
+        // end is inconsistent
+        String[] urls = portVariants(url);
 
-        } catch (Exception e) {
+        // If either url produces a valid signature with any key, we accept the request as valid
+        return keyRing.anyMatch(key -> {
+            Mac instance = getMac(key);
+            return secureCompare(getValidationSignature(buffer, urls[0], instance), expectedSignature) ||
+                secureCompare(getValidationSignature(buffer, urls[1], instance), expectedSignature);
+        });
+    }
+
+    private static Mac getMac(KeyRing.SigningKey key) {
+        try {
+            return key.getMac(HMAC);
+        } catch (GeneralSecurityException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Sign a URL followed by the parameters already encoded in the buffer.
+     */
+    private String getValidationSignature(SignatureBuffer buffer, String url, Mac instance) {
+        if (instance == null) {
             return null;
         }
+
+        // Encode the url after the parameters, sign, then drop it again so the parameters can be reused
+        int paramsLength = buffer.length();
+        buffer.append(url);
+
+        instance.update(buffer.bytes(), paramsLength, buffer.length() - paramsLength);
+        instance.update(buffer.bytes(), 0, paramsLength);
+        buffer.truncate(paramsLength);
+
+        return DatatypeConverter.printBase64Binary(instance.doFinal());
     }
 
     private boolean secureCompare(String a, String b) {
@@ -113,25 +344,19 @@ public class RequestValidator {
         return mismatch == 0;
     }
 
-    private String removePort(String url) {
-        try {
-            URI parsedUrl = new URI(url);
-            return (parsedUrl.getPort() == -1) ? url : updatePort(parsedUrl, -1);
-        } catch (Exception e) {
-            return url;
-        }
-    }
-    
-    private String addPort(String url) {
+    /**
+     * Get the url with its default port added and with its port removed, from a single parse.
+     */
+    private String[] portVariants(String url) {
         try {
             URI parsedUrl = new URI(url);
             if (parsedUrl.getPort() != -1) {
-                return url;
+                return new String[] {url, updatePort(parsedUrl, -1)};
             }
             int port = Objects.equals(parsedUrl.getScheme(), "https") ? 443 : 80;
-            return updatePort(parsedUrl, port);
+            return new String[] {updatePort(parsedUrl, port), url};
         } catch (Exception e) {
-            return url;
+            return new String[] {url, url};
         }
     }
 
@@ -0,0 +1,84 @@
+package com.twilio.security;
+
+import java.util.Arrays;
+
+/**
+ * Reusable byte buffer which UTF-8 encodes strings for signing without allocating per string.
+ *
+ * <p>
+ * Encoding matches {@code String.getBytes(StandardCharsets.UTF_8)}, including the replacement of
+ * unpaired surrogates with {@code '?'}.
+ * </p>
+ */
+final class SignatureBuffer {
+
+    private static final ThreadLocal<SignatureBuffer> BUFFERS = ThreadLocal.withInitial(SignatureBuffer::new);
+
+    private byte[] bytes = new byte[1024];
+    private int length;
+
+    /**
+     * Get the buffer of the current thread, emptied.
+     *
+     * @return empty buffer
+     */
+    static SignatureBuffer get() {
+        SignatureBuffer buffer = BUFFERS.get();
+        buffer.length = 0;
+        return buffer;
+    }
+
+    byte[] bytes() {
+        return bytes;
+    }
+
+    int length() {
+        return length;
+    }
+
+    void truncate(final int length) {
+        this.length = length;
+    }
+
+    void append(final String s) {
+        if (s == null) {
+            return;
+        }
+
+        int size = s.length();
+        ensureCapacity(length + size * 3);
+
+        byte[] b = bytes;
+        int n = length;
+        for (int i = 0; i < size; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                b[n++] = (byte) c;
+            } else if (c < 0x800) {
+                b[n++] = (byte) (0xC0 | (c >> 6));
+                b[n++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < size && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, s.charAt(++i));
+                    b[n++] = (byte) (0xF0 | (codePoint >> 18));
+                    b[n++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    b[n++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    b[n++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else {
+                    b[n++] = '?';
+                }
+            } else {
+                b[n++] = (byte) (0xE0 | (c >> 12));
+                b[n++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                b[n++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        length = n;
+    }
+
+    private void ensureCapacity(final int capacity) {
+        if (capacity > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+        }
+    }
+}
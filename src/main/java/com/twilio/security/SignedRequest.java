@@ -0,0 +1,66 @@
+package com.twilio.security;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A webhook request to validate: its url, form parameters and {@code X-Twilio-Signature}.
+ */
+public class SignedRequest {
+
+    private final String url;
+    private final Map<String, String> params;
+    private final String signature;
+
+    /**
+     * Create a signed request.
+     *
+     * @param url       full request url
+     * @param params    form parameters; null or empty for requests with a raw body
+     * @param signature value of the {@code X-Twilio-Signature} header
+     */
+    public SignedRequest(String url, Map<String, String> params, String signature) {
+        this.url = url;
+        this.params = params == null ? Collections.<String, String>emptyMap() : params;
+        this.signature = signature;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public Map<String, String> getParams() {
+        return params;
+    }
+
+    public String getSignature() {
+        return signature;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        SignedRequest other = (SignedRequest) o;
+        return Objects.equals(url, other.url)
+            && Objects.equals(params, other.params)
+            && Objects.equals(signature, other.signature);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(url, params, signature);
+    }
+
+    @Override
+    public String toString() {
+        return "SignedRequest(url=" + url + ", params=" + params + ", signature=" + signature + ")";
+    }
+}
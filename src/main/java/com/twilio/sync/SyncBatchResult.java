@@ -0,0 +1,160 @@
+package com.twilio.sync;
+
+import com.twilio.exception.ApiException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of each mutation in a batch, in the order the mutations were given.
+ *
+ * <p>
+ * Only the outcome and new revision of each item are kept, not the updated items, so the result of a
+ * large batch stays small.
+ * </p>
+ *
+ * @param <K> type of the item keys
+ */
+public class SyncBatchResult<K> {
+
+    public enum Outcome {
+        /** The item was updated. */
+        APPLIED,
+        /** The item was not at the expected revision and was left unchanged. */
+        CONFLICT,
+        /** The update failed for another reason, such as a missing item. */
+        FAILED
+    }
+
+    private final List<K> keys;
+    private final Outcome[] outcomes;
+    private final String[] revisions;
+    private final ApiException[] errors;
+
+    SyncBatchResult(final List<K> keys) {
+        this.keys = keys;
+        this.outcomes = new Outcome[keys.size()];
+        this.revisions = new String[keys.size()];
+        this.errors = new ApiException[keys.size()];
+    }
+
+    void applied(final int index, final String revision) {
+        outcomes[index] = Outcome.APPLIED;
+        revisions[index] = revision;
+        errors[index] = null;
+    }
+
+    void conflict(final int index, final ApiException error) {
+        outcomes[index] = Outcome.CONFLICT;
+        errors[index] = error;
+    }
+
+    void failed(final int index, final ApiException error) {
+        outcomes[index] = Outcome.FAILED;
+        errors[index] = error;
+    }
+
+    /**
+     * Get the number of mutations in the batch.
+     *
+     * @return number of items
+     */
+    public int size() {
+        return outcomes.length;
+    }
+
+    public K getKey(final int index) {
+        return keys.get(index);
+    }
+
+    public Outcome getOutcome(final int index) {
+        return outcomes[index];
+    }
+
+    /**
+     * Get the revision of an item after it was updated.
+     *
+     * @param index position of the mutation in the batch
+     * @return new revision, or null if the item was not updated
+     */
+    public String getRevision(final int index) {
+        return outcomes[index] == Outcome.APPLIED ? revisions[index] : null;
+    }
+
+    /**
+     * Get the error an item was not updated with.
+     *
+     * @param index position of the mutation in the batch
+     * @return error, or null if the item was updated
+     */
+    public ApiException getError(final int index) {
+        return errors[index];
+    }
+
+    public int getAppliedCount() {
+        return count(Outcome.APPLIED);
+    }
+
+    public int getConflictCount() {
+        return count(Outcome.CONFLICT);
+    }
+
+    public int getFailedCount() {
+        return count(Outcome.FAILED);
+    }
+
+    /**
+     * Check whether every item was updated.
+     *
+     * @return true if there were no conflicts or failures
+     */
+    public boolean isComplete() {
+        return getAppliedCount() == size();
+    }
+
+    /**
+     * Get the keys of the items left unchanged because of a revision conflict.
+     *
+     * @return keys in batch order
+     */
+    public List<K> getConflicts() {
+        return keysWith(Outcome.CONFLICT);
+    }
+
+    /**
+     * Get the keys of the items which failed for another reason than a conflict.
+     *
+     * @return keys in batch order
+     */
+    public List<K> getFailures() {
+        return keysWith(Outcome.FAILED);
+    }
+
+    private int count(final Outcome outcome) {
+        int count = 0;
+        for (Outcome o : outcomes) {
+            if (o == outcome) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private List<K> keysWith(final Outcome outcome) {
+        List<K> matching = new ArrayList<>();
+        for (int i = 0; i < outcomes.length; i++) {
+            if (outcomes[i] == outcome) {
+                matching.add(keys.get(i));
+            }
+        }
+        return Collections.unmodifiableList(matching);
+    }
+
+    @Override
+    public String toString() {
+        return "SyncBatchResult(applied=" + getAppliedCount()
+            + ", conflicts=" + getConflictCount()
+            + ", failed=" + getFailedCount() + ")";
+    }
+}
@@ -0,0 +1,270 @@
+package com.twilio.sync;
+
+import com.twilio.Twilio;
+import com.twilio.base.BulkRequestRunner;
+import com.twilio.base.RateLimiter;
+import com.twilio.base.Resource;
+import com.twilio.exception.ApiException;
+import com.twilio.http.TwilioRestClient;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiFunction;
+
+/**
+ * Updates many items of a Sync collection concurrently.
+ *
+ * <p>
+ * At most {@code maxInFlight} requests are on the wire at once, and requests can be paced with a
+ * {@link RateLimiter}; a request waiting for the limiter does not hold a slot of that window. Sync
+ * limits the request rate of each service, so updaters writing to the same service should share one
+ * limiter. Each mutation is sent with its own {@code If-Match} revision, if any.
+ * </p>
+ *
+ * <p>
+ * Mutations rejected with a 412 because the item changed are collected as conflicts rather than
+ * failing the batch. When a conflict resolver is set, those items alone are then fetched again and the
+ * resolver computes their new data from the current item, which is written conditionally on the
+ * revision just read; this repeats up to {@code maxConflictRetries} times per item.
+ * </p>
+ *
+ * @param <K> type of the item keys
+ * @param <T> type of the items
+ */
+public abstract class SyncBatchUpdater<K, T extends Resource> {
+
+    public static final int DEFAULT_MAX_IN_FLIGHT = 16;
+    public static final int DEFAULT_MAX_CONFLICT_RETRIES = 3;
+
+    private static final int PRECONDITION_FAILED = 412;
+    private static final Runnable NO_RETRY = () -> { };
+
+    private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+    private int maxConflictRetries = DEFAULT_MAX_CONFLICT_RETRIES;
+    private RateLimiter rateLimiter;
+    private ExecutorService executorService;
+    private BiFunction<? super T, SyncItemMutation<K>, Map<String, Object>> conflictResolver;
+
+    /**
+     * Set the max number of requests on the wire at once.
+     *
+     * @param maxInFlight size of the in-flight window
+     * @return this
+     */
+    public SyncBatchUpdater<K, T> maxInFlight(final int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("In-flight window must be at least 1");
+        }
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    /**
+     * Limit the rate of requests made by this updater.
+     *
+     * @param requestsPerSecond requests per second; 0 for no limit
+     * @return this
+     */
+    public SyncBatchUpdater<K, T> requestsPerSecond(final double requestsPerSecond) {
+        if (requestsPerSecond < 0) {
+            throw new IllegalArgumentException("Rate must not be negative");
+        }
+        this.rateLimiter = requestsPerSecond == 0 ? null : new RateLimiter(requestsPerSecond);
+        return this;
+    }
+
+    /**
+     * Pace requests with a limiter, which can be shared with other updaters of the same service.
+     *
+     * @param rateLimiter limiter to acquire a permit from before each request, or null for no limit
+     * @return this
+     */
+    public SyncBatchUpdater<K, T> rateLimiter(final RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+        return this;
+    }
+
+    /**
+     * Use a specific executor for the updates; defaults to the Twilio executor service.
+     *
+     * @param executorService executor running the updates
+     * @return this
+     */
+    public SyncBatchUpdater<K, T> executorService(final ExecutorService executorService) {
+        this.executorService = executorService;
+        return this;
+    }
+
+    /**
+     * Re-read and retry conflicting items.
+     *
+     * @param conflictResolver computes the data to write from the current item and the original
+     *                         mutation; returns null to leave the item as a conflict
+     * @return this
+     */
+    public SyncBatchUpdater<K, T> onConflict(
+        final BiFunction<? super T, SyncItemMutation<K>, Map<String, Object>> conflictResolver
+    ) {
+        this.conflictResolver = conflictResolver;
+        return this;
+    }
+
+    /**
+     * Set the max number of times a conflicting item is re-read and retried.
+     *
+     * @param maxConflictRetries retries per item
+     * @return this
+     */
+    public SyncBatchUpdater<K, T> maxConflictRetries(final int maxConflictRetries) {
+        if (maxConflictRetries < 0) {
+            throw new IllegalArgumentException("Max conflict retries must not be negative");
+        }
+        this.maxConflictRetries = maxConflictRetries;
+        return this;
+    }
+
+    /**
+     * Update an item.
+     *
+     * @param client  client used to make requests
+     * @param key     key of the item
+     * @param data    new data of the item
+     * @param ifMatch revision the item must be at, or null
+     * @return updated item
+     */
+    protected abstract T update(TwilioRestClient client, K key, Map<String, Object> data, String ifMatch);
+
+    /**
+     * Fetch the current value of an item.
+     *
+     * @param client client used to make requests
+     * @param key    key of the item
+     * @return item
+     */
+    protected abstract T fetch(TwilioRestClient client, K key);
+
+    /**
+     * Get the revision of an item.
+     *
+     * @param item item
+     * @return revision
+     */
+    protected abstract String revision(T item);
+
+    /**
+     * Apply mutations using default client, returning once all are done.
+     *
+     * @param mutations mutations to apply
+     * @return outcome of each mutation
+     */
+    public SyncBatchResult<K> update(final Collection<SyncItemMutation<K>> mutations) {
+        return update(Twilio.getRestClient(), mutations);
+    }
+
+    /**
+     * Apply mutations using specified client, returning once all are done.
+     *
+     * @param client    client used to make requests
+     * @param mutations mutations to apply
+     * @return outcome of each mutation
+     */
+    public SyncBatchResult<K> update(final TwilioRestClient client,
+                                     final Collection<SyncItemMutation<K>> mutations) {
+        List<SyncItemMutation<K>> batch = new ArrayList<>(mutations);
+        List<K> keys = new ArrayList<>(batch.size());
+        List<Integer> all = new ArrayList<>(batch.size());
+        for (SyncItemMutation<K> mutation : batch) {
+            keys.add(mutation.getKey());
+            all.add(all.size());
+        }
+
+        SyncBatchResult<K> result = new SyncBatchResult<>(keys);
+        BulkRequestRunner runner = new BulkRequestRunner(
+            executorService == null ? Twilio.getExecutorService() : executorService,
+            maxInFlight
+        );
+        run(runner, all, index -> apply(client, runner, batch.get(index), index, result), result);
+
+        if (conflictResolver != null && maxConflictRetries > 0) {
+            List<Integer> conflicts = new ArrayList<>();
+            for (int i = 0; i < result.size(); i++) {
+                if (result.getOutcome(i) == SyncBatchResult.Outcome.CONFLICT) {
+                    conflicts.add(i);
+                }
+            }
+            run(runner, conflicts, index -> resolve(client, runner, batch.get(index), index, result), result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Run a task for each index within the in-flight window, returning once all are done.
+     */
+    private void run(final BulkRequestRunner runner, final List<Integer> indices, final IndexTask task,
+                     final SyncBatchResult<K> result) {
+        runner.run(indices.iterator(), task::run, result::failed);
+    }
+
+    private void apply(final TwilioRestClient client, final BulkRequestRunner runner,
+                       final SyncItemMutation<K> mutation, final int index, final SyncBatchResult<K> result) {
+        try {
+            T item = runner.call(
+                rateLimiter,
+                () -> update(client, mutation.getKey(), mutation.getData(), mutation.getIfMatch()),
+                NO_RETRY
+            );
+            result.applied(index, revision(item));
+        } catch (final ApiException e) {
+            if (isConflict(e)) {
+                result.conflict(index, e);
+            } else {
+                result.failed(index, e);
+            }
+        }
+    }
+
+    private void resolve(final TwilioRestClient client, final BulkRequestRunner runner,
+                         final SyncItemMutation<K> mutation, final int index, final SyncBatchResult<K> result) {
+        try {
+            for (int retry = 0; retry < maxConflictRetries; retry++) {
+                T current = runner.call(rateLimiter, () -> fetch(client, mutation.getKey()), NO_RETRY);
+                Map<String, Object> data = conflictResolver.apply(current, mutation);
+                if (data == null) {
+                    return;
+                }
+
+                try {
+                    T item = runner.call(
+                        rateLimiter,
+                        () -> update(client, mutation.getKey(), data, revision(current)),
+                        NO_RETRY
+                    );
+                    result.applied(index, revision(item));
+                    return;
+                } catch (final ApiException e) {
+                    if (!isConflict(e)) {
+                        throw e;
+                    }
+                    result.conflict(index, e);
+                }
+            }
+        } catch (final ApiException e) {
+            result.failed(index, e);
+        } catch (final RuntimeException e) {
+            result.failed(index, new ApiException(e.getMessage(), e));
+        }
+    }
+
+    private static boolean isConflict(final ApiException e) {
+        return Objects.equals(e.getStatusCode(), PRECONDITION_FAILED);
+    }
+
+    private interface IndexTask {
+        void run(int index);
+    }
+}
@@ -0,0 +1,64 @@
+package com.twilio.sync;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * New data for one Sync item, optionally conditional on the revision it was computed from.
+ *
+ * @param <K> type of the item key
+ */
+public final class SyncItemMutation<K> {
+
+    private final K key;
+    private final Map<String, Object> data;
+    private final String ifMatch;
+
+    private SyncItemMutation(final K key, final Map<String, Object> data, final String ifMatch) {
+        this.key = Objects.requireNonNull(key, "key");
+        this.data = Objects.requireNonNull(data, "data");
+        this.ifMatch = ifMatch;
+    }
+
+    /**
+     * Replace the data of an item regardless of its revision.
+     *
+     * @param key  key or index of the item
+     * @param data new data of the item
+     * @param <K>  type of the item key
+     * @return mutation
+     */
+    public static <K> SyncItemMutation<K> of(final K key, final Map<String, Object> data) {
+        return new SyncItemMutation<>(key, data, null);
+    }
+
+    /**
+     * Replace the data of an item only if it is still at a revision.
+     *
+     * @param key     key or index of the item
+     * @param data    new data of the item
+     * @param ifMatch revision the item must be at, or null for any
+     * @param <K>     type of the item key
+     * @return mutation
+     */
+    public static <K> SyncItemMutation<K> of(final K key, final Map<String, Object> data, final String ifMatch) {
+        return new SyncItemMutation<>(key, data, ifMatch);
+    }
+
+    public K getKey() {
+        return key;
+    }
+
+    public Map<String, Object> getData() {
+        return data;
+    }
+
+    public String getIfMatch() {
+        return ifMatch;
+    }
+
+    @Override
+    public String toString() {
+        return "SyncItemMutation(key=" + key + ", ifMatch=" + ifMatch + ")";
+    }
+}
@@ -0,0 +1,43 @@
+package com.twilio.sync;
+
+import com.twilio.http.TwilioRestClient;
+import com.twilio.rest.sync.v1.service.synclist.SyncListItem;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Updates many items of a Sync list concurrently.
+ */
+public class SyncListBatchUpdater extends SyncBatchUpdater<Integer, SyncListItem> {
+
+    private final String serviceSid;
+    private final String listSid;
+
+    /**
+     * Create an updater for a list.
+     *
+     * @param serviceSid sid or unique name of the Sync service
+     * @param listSid    sid or unique name of the list
+     */
+    public SyncListBatchUpdater(final String serviceSid, final String listSid) {
+        this.serviceSid = Objects.requireNonNull(serviceSid, "serviceSid");
+        this.listSid = Objects.requireNonNull(listSid, "listSid");
+    }
+
+    @Override
+    protected SyncListItem update(final TwilioRestClient client, final Integer index,
+                                  final Map<String, Object> data, final String ifMatch) {
+        return SyncListItem.updater(serviceSid, listSid, index).setData(data).setIfMatch(ifMatch).update(client);
+    }
+
+    @Override
+    protected SyncListItem fetch(final TwilioRestClient client, final Integer index) {
+        return SyncListItem.fetcher(serviceSid, listSid, index).fetch(client);
+    }
+
+    @Override
+    protected String revision(final SyncListItem item) {
+        return item.getRevision();
+    }
+}
@@ -0,0 +1,129 @@
+package com.twilio.sync;
+
+import com.twilio.base.Reader;
+import com.twilio.exception.ApiException;
+import com.twilio.http.TwilioRestClient;
+import com.twilio.rest.sync.v1.service.SyncList;
+import com.twilio.rest.sync.v1.service.synclist.SyncListItem;
+import com.twilio.rest.sync.v1.service.synclist.SyncListItemReader;
+
+import java.util.Map;
+
+/**
+ * In-memory copy of a Sync List; see {@link SyncMirror}.
+ *
+ * <pre>
+ * SyncListMirror mirror = new SyncListMirror("IS123", "ES123");
+ * mirror.load();
+ * ...
+ * mirror.refresh();
+ * SyncListItem item = mirror.get(0);
+ * </pre>
+ */
+public class SyncListMirror extends SyncMirror<Integer, SyncListItem> {
+
+    private final String serviceSid;
+    private final String listSid;
+
+    /**
+     * Create a mirror of a Sync List; nothing is read until it is loaded.
+     *
+     * @param serviceSid Sync Service of the list
+     * @param listSid    sid or unique name of the list
+     */
+    public SyncListMirror(final String serviceSid, final String listSid) {
+        this.serviceSid = serviceSid;
+        this.listSid = listSid;
+    }
+
+    @Override
+    protected Reader<SyncListItem> reader(final Integer from, final boolean descending) {
+        SyncListItemReader reader = SyncListItem.reader(serviceSid, listSid)
+            .setOrder(descending ? SyncListItem.QueryResultOrder.DESC : SyncListItem.QueryResultOrder.ASC);
+        if (from != null) {
+            reader.setFrom(from.toString()).setBounds(SyncListItem.QueryFromBoundType.INCLUSIVE);
+        }
+        return reader;
+    }
+
+    @Override
+    protected Integer key(final SyncListItem item) {
+        return item.getIndex();
+    }
+
+    @Override
+    protected String revision(final SyncListItem item) {
+        return item.getRevision();
+    }
+
+    @Override
+    protected String fetchRevision(final TwilioRestClient client) {
+        return SyncList.fetcher(serviceSid, listSid).fetch(client).getRevision();
+    }
+
+    @Override
+    protected SyncListItem fetchItem(final TwilioRestClient client, final Integer index) {
+        return SyncListItem.fetcher(serviceSid, listSid, index).fetch(client);
+    }
+
+    /**
+     * Get the data of a mirrored item.
+     *
+     * @param index index of the item
+     * @return data, or null if the item is not in the list
+     */
+    public Map<String, Object> getData(final Integer index) {
+        SyncListItem item = get(index);
+        return item == null ? null : item.getData();
+    }
+
+    /**
+     * Append an item to the list.
+     *
+     * @param data data of the item
+     * @return created item
+     */
+    public SyncListItem append(final Map<String, Object> data) {
+        return written(SyncListItem.creator(serviceSid, listSid, data).create(getClient()));
+    }
+
+    /**
+     * Update an item, if it has not changed since it was mirrored.
+     *
+     * @param index index of the item
+     * @param data  new data of the item
+     * @return updated item
+     * @throws ApiException with status 412 if the item changed; the mirror then holds its current value
+     */
+    public SyncListItem update(final Integer index, final Map<String, Object> data) {
+        try {
+            return written(
+                SyncListItem.updater(serviceSid, listSid, index)
+                    .setData(data)
+                    .setIfMatch(revisionOf(index))
+                    .update(getClient())
+            );
+        } catch (final ApiException e) {
+            throw failed(index, e);
+        }
+    }
+
+    /**
+     * Delete an item, if it has not changed since it was mirrored.
+     *
+     * @param index index of the item
+     * @return true if the item was deleted
+     * @throws ApiException with status 412 if the item changed; the mirror then holds its current value
+     */
+    public boolean delete(final Integer index) {
+        try {
+            boolean deleted = SyncListItem.deleter(serviceSid, listSid, index)
+                .setIfMatch(revisionOf(index))
+                .delete(getClient());
+            deleted(index);
+            return deleted;
+        } catch (final ApiException e) {
+            throw failed(index, e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.twilio.sync;
+
+import com.twilio.http.TwilioRestClient;
+import com.twilio.rest.sync.v1.service.syncmap.SyncMapItem;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Updates many items of a Sync map concurrently.
+ */
+public class SyncMapBatchUpdater extends SyncBatchUpdater<String, SyncMapItem> {
+
+    private final String serviceSid;
+    private final String mapSid;
+
+    /**
+     * Create an updater for a map.
+     *
+     * @param serviceSid sid or unique name of the Sync service
+     * @param mapSid     sid or unique name of the map
+     */
+    public SyncMapBatchUpdater(final String serviceSid, final String mapSid) {
+        this.serviceSid = Objects.requireNonNull(serviceSid, "serviceSid");
+        this.mapSid = Objects.requireNonNull(mapSid, "mapSid");
+    }
+
+    @Override
+    protected SyncMapItem update(final TwilioRestClient client, final String key,
+                                 final Map<String, Object> data, final String ifMatch) {
+        return SyncMapItem.updater(serviceSid, mapSid, key).setData(data).setIfMatch(ifMatch).update(client);
+    }
+
+    @Override
+    protected SyncMapItem fetch(final TwilioRestClient client, final String key) {
+        return SyncMapItem.fetcher(serviceSid, mapSid, key).fetch(client);
+    }
+
+    @Override
+    protected String revision(final SyncMapItem item) {
+        return item.getRevision();
+    }
+}
@@ -0,0 +1,130 @@
+package com.twilio.sync;
+
+import com.twilio.base.Reader;
+import com.twilio.exception.ApiException;
+import com.twilio.http.TwilioRestClient;
+import com.twilio.rest.sync.v1.service.SyncMap;
+import com.twilio.rest.sync.v1.service.syncmap.SyncMapItem;
+import com.twilio.rest.sync.v1.service.syncmap.SyncMapItemReader;
+
+import java.util.Map;
+
+/**
+ * In-memory copy of a Sync Map; see {@link SyncMirror}.
+ *
+ * <pre>
+ * SyncMapMirror mirror = new SyncMapMirror("IS123", "MP123");
+ * mirror.load();
+ * ...
+ * mirror.refresh();
+ * SyncMapItem item = mirror.get("key");
+ * </pre>
+ */
+public class SyncMapMirror extends SyncMirror<String, SyncMapItem> {
+
+    private final String serviceSid;
+    private final String mapSid;
+
+    /**
+     * Create a mirror of a Sync Map; nothing is read until it is loaded.
+     *
+     * @param serviceSid Sync Service of the map
+     * @param mapSid     sid or unique name of the map
+     */
+    public SyncMapMirror(final String serviceSid, final String mapSid) {
+        this.serviceSid = serviceSid;
+        this.mapSid = mapSid;
+    }
+
+    @Override
+    protected Reader<SyncMapItem> reader(final String from, final boolean descending) {
+        SyncMapItemReader reader = SyncMapItem.reader(serviceSid, mapSid)
+            .setOrder(descending ? SyncMapItem.QueryResultOrder.DESC : SyncMapItem.QueryResultOrder.ASC);
+        if (from != null) {
+            reader.setFrom(from).setBounds(SyncMapItem.QueryFromBoundType.INCLUSIVE);
+        }
+        return reader;
+    }
+
+    @Override
+    protected String key(final SyncMapItem item) {
+        return item.getKey();
+    }
+
+    @Override
+    protected String revision(final SyncMapItem item) {
+        return item.getRevision();
+    }
+
+    @Override
+    protected String fetchRevision(final TwilioRestClient client) {
+        return SyncMap.fetcher(serviceSid, mapSid).fetch(client).getRevision();
+    }
+
+    @Override
+    protected SyncMapItem fetchItem(final TwilioRestClient client, final String key) {
+        return SyncMapItem.fetcher(serviceSid, mapSid, key).fetch(client);
+    }
+
+    /**
+     * Get the data of a mirrored item.
+     *
+     * @param key key of the item
+     * @return data, or null if the item is not in the map
+     */
+    public Map<String, Object> getData(final String key) {
+        SyncMapItem item = get(key);
+        return item == null ? null : item.getData();
+    }
+
+    /**
+     * Add an item to the map.
+     *
+     * @param key  key of the item
+     * @param data data of the item
+     * @return created item
+     */
+    public SyncMapItem create(final String key, final Map<String, Object> data) {
+        return written(SyncMapItem.creator(serviceSid, mapSid, key, data).create(getClient()));
+    }
+
+    /**
+     * Update an item, if it has not changed since it was mirrored.
+     *
+     * @param key  key of the item
+     * @param data new data of the item
+     * @return updated item
+     * @throws ApiException with status 412 if the item changed; the mirror then holds its current value
+     */
+    public SyncMapItem update(final String key, final Map<String, Object> data) {
+        try {
+            return written(
+                SyncMapItem.updater(serviceSid, mapSid, key)
+                    .setData(data)
+                    .setIfMatch(revisionOf(key))
+                    .update(getClient())
+            );
+        } catch (final ApiException e) {
+            throw failed(key, e);
+        }
+    }
+
+    /**
+     * Delete an item, if it has not changed since it was mirrored.
+     *
+     * @param key key of the item
+     * @return true if the item was deleted
+     * @throws ApiException with status 412 if the item changed; the mirror then holds its current value
+     */
+    public boolean delete(final String key) {
+        try {
+            boolean deleted = SyncMapItem.deleter(serviceSid, mapSid, key)
+                .setIfMatch(revisionOf(key))
+                .delete(getClient());
+            deleted(key);
+            return deleted;
+        } catch (final ApiException e) {
+            throw failed(key, e);
+        }
+    }
+}
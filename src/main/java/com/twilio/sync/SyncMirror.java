@@ -0,0 +1,412 @@
+package com.twilio.sync;
+
+import com.twilio.Twilio;
+import com.twilio.base.Reader;
+import com.twilio.base.Resource;
+import com.twilio.exception.ApiException;
+import com.twilio.http.TwilioRestClient;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * In-memory copy of a Sync collection, kept current by refreshing it.
+ *
+ * <p>
+ * The first load reads the collection from both ends at once, in ascending and descending key order,
+ * until the two reads meet. A refresh first fetches the collection itself: if its revision has not
+ * changed, nothing else is read. Sync has no feed of the items changed since a revision, so otherwise
+ * the whole collection is listed again: the key space is split into ranges of similar size, based on
+ * the keys already mirrored, which are read in parallel. Only items whose revision changed are
+ * replaced, so the saving over a full reload is in the refreshes where nothing changed, and in not
+ * rebuilding unchanged items.
+ * </p>
+ *
+ * <p>
+ * Ranges are split and bounded with {@link Comparable#compareTo}, which is assumed to order keys as
+ * the API lists them. Where the two orders differ, a range read may stop early and miss items. A mirrored item which none of the reads listed is therefore fetched on its
+ * own, and only dropped if it no longer exists; a new item missed this way is picked up by the next
+ * {@link #load()}.
+ * </p>
+ *
+ * <p>
+ * Reads are lookups in a concurrent map. Writes made through the mirror send the mirrored revision as
+ * {@code If-Match}, so they fail with a 412 instead of overwriting a change not yet mirrored; the
+ * item is then re-read before the failure is rethrown.
+ * </p>
+ *
+ * @param <K> type of the item keys
+ * @param <T> type of the items
+ */
+public abstract class SyncMirror<K extends Comparable<K>, T extends Resource> {
+
+    public static final int DEFAULT_PARALLELISM = 4;
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    private static final int PRECONDITION_FAILED = 412;
+    private static final int NOT_FOUND = 404;
+
+    private final Map<K, T> items = new ConcurrentHashMap<>();
+    private final Object refreshLock = new Object();
+    private TwilioRestClient client;
+    private ExecutorService executorService;
+    private int parallelism = DEFAULT_PARALLELISM;
+    private int pageSize = DEFAULT_PAGE_SIZE;
+    private volatile String revision;
+
+    /**
+     * Use a specific client; defaults to the default Twilio client.
+     *
+     * @param client client used to make requests
+     * @return this
+     */
+    public SyncMirror<K, T> client(final TwilioRestClient client) {
+        this.client = client;
+        return this;
+    }
+
+    /**
+     * Set the max number of ranges read at once when refreshing.
+     *
+     * @param parallelism number of concurrent reads
+     * @return this
+     */
+    public SyncMirror<K, T> parallelism(final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    public SyncMirror<K, T> pageSize(final int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    /**
+     * Use a specific executor for the reads; defaults to the Twilio executor service.
+     *
+     * @param executorService executor running the reads
+     * @return this
+     */
+    public SyncMirror<K, T> executorService(final ExecutorService executorService) {
+        this.executorService = executorService;
+        return this;
+    }
+
+    /**
+     * Build a reader of the items in key order.
+     *
+     * @param from       first key to read, inclusive, or null to read from the start
+     * @param descending true to read in descending key order
+     * @return reader
+     */
+    protected abstract Reader<T> reader(K from, boolean descending);
+
+    protected abstract K key(T item);
+
+    protected abstract String revision(T item);
+
+    /**
+     * Fetch the current revision of the collection, which changes whenever an item changes.
+     *
+     * @param client client used to make requests
+     * @return collection revision
+     */
+    protected abstract String fetchRevision(TwilioRestClient client);
+
+    /**
+     * Fetch a single item.
+     *
+     * @param client client used to make requests
+     * @param key    key of the item
+     * @return item
+     */
+    protected abstract T fetchItem(TwilioRestClient client, K key);
+
+    protected TwilioRestClient getClient() {
+        return client == null ? Twilio.getRestClient() : client;
+    }
+
+    /**
+     * Read the whole collection, replacing the mirrored items.
+     *
+     * @return number of items
+     */
+    public int load() {
+        synchronized (refreshLock) {
+            items.clear();
+            revision = null;
+            refresh();
+            return items.size();
+        }
+    }
+
+    /**
+     * Bring the mirror up to date with the collection.
+     *
+     * @return number of items added, changed or removed
+     */
+    public int refresh() {
+        synchronized (refreshLock) {
+            TwilioRestClient client = getClient();
+            String current = fetchRevision(client);
+            if (current != null && current.equals(revision)) {
+                return 0;
+            }
+
+            Map<K, T> snapshot = new HashMap<>(items);
+            Set<K> seen = ConcurrentHashMap.newKeySet();
+            AtomicInteger changes = new AtomicInteger();
+
+            Consumer<T> sink = item -> {
+                K key = key(item);
+                seen.add(key);
+
+                // Compare against the snapshot, so writes made during the refresh are not overwritten
+                T previous = snapshot.get(key);
+                if (previous == null) {
+                    if (items.putIfAbsent(key, item) == null) {
+                        changes.incrementAndGet();
+                    }
+                } else if (!Objects.equals(revision(previous), revision(item)) && items.replace(key, previous, item)) {
+                    changes.incrementAndGet();
+                }
+            };
+
+            List<K> splits = splits(snapshot.keySet());
+            if (splits.isEmpty()) {
+                readBothEnds(client, sink);
+            } else {
+                readRanges(client, splits, sink);
+            }
+
+            for (Map.Entry<K, T> entry : snapshot.entrySet()) {
+                if (seen.contains(entry.getKey())) {
+                    continue;
+                }
+
+                // Not listed, either deleted or missed by a range read, so check before dropping it
+                T item = fetchIfExists(client, entry.getKey());
+                if (item != null) {
+                    sink.accept(item);
+                } else if (items.remove(entry.getKey(), entry.getValue())) {
+                    changes.incrementAndGet();
+                }
+            }
+
+            revision = current;
+            return changes.get();
+        }
+    }
+
+    /**
+     * Get a mirrored item.
+     *
+     * @param key key of the item
+     * @return item, or null if it is not in the collection
+     */
+    public T get(final K key) {
+        return items.get(key);
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Get a read-only view of the mirrored items.
+     *
+     * @return items by key
+     */
+    public Map<K, T> asMap() {
+        return Collections.unmodifiableMap(items);
+    }
+
+    /**
+     * Get the revision of the collection when it was last refreshed.
+     *
+     * @return collection revision, or null before the first load
+     */
+    public String getRevision() {
+        return revision;
+    }
+
+    /**
+     * Get the revision to send as {@code If-Match} when writing an item.
+     *
+     * @param key key of the item
+     * @return mirrored revision, or null if the item is not mirrored
+     */
+    protected String revisionOf(final K key) {
+        T item = items.get(key);
+        return item == null ? null : revision(item);
+    }
+
+    /**
+     * Record the result of a write.
+     *
+     * @param item item returned by the API
+     * @return the item
+     */
+    protected T written(final T item) {
+        items.put(key(item), item);
+        return item;
+    }
+
+    /**
+     * Record that an item was deleted.
+     *
+     * @param key key of the item
+     */
+    protected void deleted(final K key) {
+        items.remove(key);
+    }
+
+    /**
+     * Handle a failed write: on a revision conflict, re-read the item so the next write can succeed.
+     *
+     * @param key key of the item
+     * @param e   failure of the write
+     * @return the failure, to be rethrown
+     */
+    protected ApiException failed(final K key, final ApiException e) {
+        Integer status = e.getStatusCode();
+        if (status != null && status == PRECONDITION_FAILED) {
+            try {
+                written(fetchItem(getClient(), key));
+            } catch (final ApiException reread) {
+                Integer rereadStatus = reread.getStatusCode();
+                if (rereadStatus != null && rereadStatus == NOT_FOUND) {
+                    deleted(key);
+                }
+            }
+        }
+        return e;
+    }
+
+    private T fetchIfExists(final TwilioRestClient client, final K key) {
+        try {
+            return fetchItem(client, key);
+        } catch (final ApiException e) {
+            Integer status = e.getStatusCode();
+            if (status != null && status == NOT_FOUND) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Pick keys splitting the mirrored keys into ranges of similar size, one per parallel read.
+     */
+    private List<K> splits(final Set<K> keys) {
+        int ranges = Math.min(parallelism, keys.size() / pageSize);
+        if (ranges < 2) {
+            return Collections.emptyList();
+        }
+
+        List<K> sorted = new ArrayList<>(keys);
+        Collections.sort(sorted);
+
+        List<K> splits = new ArrayList<>(ranges - 1);
+        for (int i = 1; i < ranges; i++) {
+            splits.add(sorted.get((int) ((long) sorted.size() * i / ranges)));
+        }
+        return splits;
+    }
+
+    /**
+     * Read ascending from the start and descending from the end at once, stopping each read where it
+     * reaches keys the other has already read.
+     */
+    private void readBothEnds(final TwilioRestClient client, final Consumer<T> sink) {
+        AtomicReference<K> ascendingHigh = new AtomicReference<>();
+        AtomicReference<K> descendingLow = new AtomicReference<>();
+        List<Callable<Void>> tasks = new ArrayList<>(2);
+
+        tasks.add(() -> {
+            for (T item : reader(null, false).pageSize(pageSize).read(client)) {
+                K key = key(item);
+                K low = descendingLow.get();
+                if (low != null && key.compareTo(low) >= 0) {
+                    break;
+                }
+                sink.accept(item);
+                ascendingHigh.set(key);
+            }
+            return null;
+        });
+        tasks.add(() -> {
+            for (T item : reader(null, true).pageSize(pageSize).read(client)) {
+                K key = key(item);
+                K high = ascendingHigh.get();
+                if (high != null && key.compareTo(high) <= 0) {
+                    break;
+                }
+                sink.accept(item);
+                descendingLow.set(key);
+            }
+            return null;
+        });
+
+        run(tasks);
+    }
+
+    /**
+     * Read the ranges between split keys in parallel.
+     */
+    private void readRanges(final TwilioRestClient client, final List<K> splits, final Consumer<T> sink) {
+        List<Callable<Void>> tasks = new ArrayList<>(splits.size() + 1);
+        for (int i = 0; i <= splits.size(); i++) {
+            K from = i == 0 ? null : splits.get(i - 1);
+            K to = i == splits.size() ? null : splits.get(i);
+
+            tasks.add(() -> {
+                for (T item : reader(from, false).pageSize(pageSize).read(client)) {
+                    if (to != null && key(item).compareTo(to) >= 0) {
+                        break;
+                    }
+                    sink.accept(item);
+                }
+                return null;
+            });
+        }
+
+        run(tasks);
+    }
+
+    private void run(final List<Callable<Void>> tasks) {
+        ExecutorService executor = executorService == null ? Twilio.getExecutorService() : executorService;
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Sync mirror refresh interrupted", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Sync mirror refresh failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.twilio.taskrouter;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Where a {@link WorkflowEvaluator} routed a task: the workflow rule it matched, and the target, queue
+ * and workers it would be offered to.
+ */
+public final class RoutingDecision {
+
+    private final int ruleIndex;
+    private final WorkflowRule rule;
+    private final List<WorkflowRuleTarget> targets;
+    private final WorkflowRuleTarget target;
+    private final List<String> workerSids;
+
+    RoutingDecision(final int ruleIndex, final WorkflowRule rule, final List<WorkflowRuleTarget> targets,
+                    final WorkflowRuleTarget target, final List<String> workerSids) {
+        this.ruleIndex = ruleIndex;
+        this.rule = rule;
+        this.targets = targets;
+        this.target = target;
+        this.workerSids = workerSids;
+    }
+
+    /**
+     * Get the position of the matched rule in the workflow.
+     *
+     * @return index of the rule, or -1 if the task fell through to the default target
+     */
+    public int getRuleIndex() {
+        return ruleIndex;
+    }
+
+    /**
+     * Get the matched rule.
+     *
+     * @return rule, or null if the task fell through to the default target
+     */
+    public WorkflowRule getRule() {
+        return rule;
+    }
+
+    public boolean isDefault() {
+        return rule == null;
+    }
+
+    /**
+     * Get the targets of the matched rule, in the order they are tried.
+     *
+     * @return targets, or only the default target
+     */
+    public List<WorkflowRuleTarget> getTargets() {
+        return targets;
+    }
+
+    /**
+     * Get the target the task is offered to first; when workers were given, the first target which was
+     * not skipped.
+     *
+     * @return target, or null if the workflow has no default target and no rule matched
+     */
+    public WorkflowRuleTarget getTarget() {
+        return target;
+    }
+
+    /**
+     * Get the queue the task is placed in.
+     *
+     * @return queue sid, or null if there is no target
+     */
+    public String getQueue() {
+        return target == null ? null : target.getQueue();
+    }
+
+    /**
+     * Get the workers eligible for the task in its target, when workers were given.
+     *
+     * @return sids of the eligible workers
+     */
+    public List<String> getWorkerSids() {
+        return workerSids;
+    }
+
+    static RoutingDecision of(final int ruleIndex, final WorkflowRule rule, final List<WorkflowRuleTarget> targets) {
+        return new RoutingDecision(ruleIndex, rule, targets, targets.isEmpty() ? null : targets.get(0),
+            Collections.<String>emptyList());
+    }
+
+    @Override
+    public String toString() {
+        return "RoutingDecision(rule=" + (rule == null ? "default" : rule.getFriendlyName())
+            + ", queue=" + getQueue() + ", workers=" + workerSids.size() + ")";
+    }
+}
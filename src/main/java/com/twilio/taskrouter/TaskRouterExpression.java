@@ -0,0 +1,501 @@
+package com.twilio.taskrouter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A TaskRouter expression, such as a workflow filter or a queue's target workers, compiled once so it can
+ * be evaluated against task and worker attributes without parsing.
+ *
+ * <p>
+ * Supports comparisons ({@code ==}, {@code =}, {@code !=}, {@code >}, {@code >=}, {@code <},
+ * {@code <=}), the list and string operators {@code HAS}, {@code IN}, {@code NOT IN} and
+ * {@code CONTAINS}, {@code AND}, {@code OR}, {@code NOT} and parentheses. Operands are string, number
+ * and boolean literals, list literals such as {@code ['en', 'es']}, and attribute paths. Paths starting
+ * with {@code task.} or {@code worker.} read the task or worker attributes; other paths read the
+ * attributes of the expression's scope, and may reach into nested objects with dots.
+ * </p>
+ *
+ * <p>
+ * As in TaskRouter, a comparison with a missing attribute is false, and keywords are not case
+ * sensitive. Compiled expressions are immutable and safe to share between threads.
+ * </p>
+ */
+public final class TaskRouterExpression {
+
+    /** Which attributes paths without a {@code task.} or {@code worker.} prefix read. */
+    public enum Scope {
+        TASK, WORKER
+    }
+
+    private final String expression;
+    private final Condition condition;
+
+    private TaskRouterExpression(final String expression, final Condition condition) {
+        this.expression = expression;
+        this.condition = condition;
+    }
+
+    /**
+     * Compile an expression whose bare paths read task attributes, such as a workflow filter.
+     *
+     * @param expression expression to compile
+     * @return compiled expression
+     * @throws IllegalArgumentException if the expression is not valid
+     */
+    public static TaskRouterExpression compile(final String expression) {
+        return compile(expression, Scope.TASK);
+    }
+
+    /**
+     * Compile an expression.
+     *
+     * @param expression expression to compile
+     * @param scope      attributes read by paths without a prefix
+     * @return compiled expression
+     * @throws IllegalArgumentException if the expression is not valid
+     */
+    public static TaskRouterExpression compile(final String expression, final Scope scope) {
+        Objects.requireNonNull(expression, "expression");
+        Objects.requireNonNull(scope, "scope");
+        Parser parser = new Parser(expression, scope);
+        return new TaskRouterExpression(expression, parser.parse());
+    }
+
+    /**
+     * Evaluate the expression against task attributes.
+     *
+     * @param task task attributes
+     * @return true if the expression matches
+     */
+    public boolean matches(final Map<String, ?> task) {
+        return condition.test(task, Collections.<String, Object>emptyMap());
+    }
+
+    /**
+     * Evaluate the expression against task and worker attributes.
+     *
+     * @param task   task attributes
+     * @param worker worker attributes
+     * @return true if the expression matches
+     */
+    public boolean matches(final Map<String, ?> task, final Map<String, ?> worker) {
+        return condition.test(task, worker);
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    private interface Condition {
+        boolean test(final Map<String, ?> task, final Map<String, ?> worker);
+    }
+
+    private interface Operand {
+        Object get(final Map<String, ?> task, final Map<String, ?> worker);
+    }
+
+    private static final class Literal implements Operand {
+        private final Object value;
+
+        private Literal(final Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public Object get(final Map<String, ?> task, final Map<String, ?> worker) {
+            return value;
+        }
+    }
+
+    private static final class Path implements Operand {
+        private final boolean worker;
+        private final String[] segments;
+
+        private Path(final boolean worker, final String[] segments) {
+            this.worker = worker;
+            this.segments = segments;
+        }
+
+        @Override
+        public Object get(final Map<String, ?> task, final Map<String, ?> worker) {
+            Object value = this.worker ? worker : task;
+            for (String segment : segments) {
+                if (!(value instanceof Map)) {
+                    return null;
+                }
+                value = ((Map<?, ?>) value).get(segment);
+            }
+            return normalize(value);
+        }
+    }
+
+    private enum Operator {
+        EQ, NE, GT, GE, LT, LE, HAS, IN, NOT_IN, CONTAINS
+    }
+
+    private static final class Comparison implements Condition {
+        private final Operand left;
+        private final Operator operator;
+        private final Operand right;
+
+        private Comparison(final Operand left, final Operator operator, final Operand right) {
+            this.left = left;
+            this.operator = operator;
+            this.right = right;
+        }
+
+        @Override
+        public boolean test(final Map<String, ?> task, final Map<String, ?> worker) {
+            Object l = left.get(task, worker);
+            Object r = right.get(task, worker);
+            if (l == null || r == null) {
+                return false;
+            }
+
+            switch (operator) {
+                case EQ:
+                    return l.equals(r);
+                case NE:
+                    return !l.equals(r);
+                case GT:
+                case GE:
+                case LT:
+                case LE:
+                    return ordered(l, r);
+                case HAS:
+                    return l instanceof Collection && contains((Collection<?>) l, r);
+                case IN:
+                    return r instanceof Collection && contains((Collection<?>) r, l);
+                case NOT_IN:
+                    return r instanceof Collection && !contains((Collection<?>) r, l);
+                default:
+                    return l instanceof String && r instanceof String && ((String) l).contains((String) r);
+            }
+        }
+
+        /**
+         * Test an ordering between numbers or strings; other values are not ordered, so the test fails.
+         */
+        private boolean ordered(final Object l, final Object r) {
+            int order;
+            if (l instanceof Double && r instanceof Double) {
+                order = Double.compare((Double) l, (Double) r);
+            } else if (l instanceof String && r instanceof String) {
+                order = ((String) l).compareTo((String) r);
+            } else {
+                return false;
+            }
+
+            switch (operator) {
+                case GT:
+                    return order > 0;
+                case GE:
+                    return order >= 0;
+                case LT:
+                    return order < 0;
+                default:
+                    return order <= 0;
+            }
+        }
+
+        private static boolean contains(final Collection<?> values, final Object value) {
+            for (Object v : values) {
+                if (value.equals(normalize(v))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A path or literal used alone as a condition, true if it is the boolean {@code true}.
+     */
+    private static final class Truthy implements Condition {
+        private final Operand operand;
+
+        private Truthy(final Operand operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        public boolean test(final Map<String, ?> task, final Map<String, ?> worker) {
+            return Boolean.TRUE.equals(operand.get(task, worker));
+        }
+    }
+
+    /**
+     * Bring numbers to one type, so attributes read from JSON compare equal to literals.
+     */
+    private static Object normalize(final Object value) {
+        return value instanceof Number && !(value instanceof Double) ? ((Number) value).doubleValue() : value;
+    }
+
+    /**
+     * Recursive descent parser over the characters of the expression.
+     */
+    private static final class Parser {
+        private final String source;
+        private final Scope scope;
+        private int pos;
+
+        private Parser(final String source, final Scope scope) {
+            this.source = source;
+            this.scope = scope;
+        }
+
+        private Condition parse() {
+            Condition condition = parseOr();
+            skipSpaces();
+            if (pos < source.length()) {
+                throw error("Unexpected '" + source.charAt(pos) + "'");
+            }
+            return condition;
+        }
+
+        private Condition parseOr() {
+            Condition left = parseAnd();
+            while (keyword("OR") || symbol("||")) {
+                Condition l = left;
+                Condition r = parseAnd();
+                left = (task, worker) -> l.test(task, worker) || r.test(task, worker);
+            }
+            return left;
+        }
+
+        private Condition parseAnd() {
+            Condition left = parseUnary();
+            while (keyword("AND") || symbol("&&")) {
+                Condition l = left;
+                Condition r = parseUnary();
+                left = (task, worker) -> l.test(task, worker) && r.test(task, worker);
+            }
+            return left;
+        }
+
+        private Condition parseUnary() {
+            skipSpaces();
+            if (keyword("NOT") || (!peek("!=") && symbol("!"))) {
+                Condition negated = parseUnary();
+                return (task, worker) -> !negated.test(task, worker);
+            }
+            if (symbol("(")) {
+                Condition group = parseOr();
+                expect(")");
+                return group;
+            }
+            return parseComparison();
+        }
+
+        private Condition parseComparison() {
+            Operand left = parseOperand();
+            Operator operator = parseOperator();
+            if (operator == null) {
+                return new Truthy(left);
+            }
+
+            Operand right = parseOperand();
+            if ((operator == Operator.IN || operator == Operator.NOT_IN) && right instanceof Literal
+                && !(((Literal) right).value instanceof Collection)) {
+                throw error(operator + " needs a list");
+            }
+            return new Comparison(left, operator, right);
+        }
+
+        private Operator parseOperator() {
+            if (symbol("==") || symbol("=")) {
+                return Operator.EQ;
+            }
+            if (symbol("!=") || symbol("<>")) {
+                return Operator.NE;
+            }
+            if (symbol(">=")) {
+                return Operator.GE;
+            }
+            if (symbol("<=")) {
+                return Operator.LE;
+            }
+            if (symbol(">")) {
+                return Operator.GT;
+            }
+            if (symbol("<")) {
+                return Operator.LT;
+            }
+            if (keyword("HAS")) {
+                return Operator.HAS;
+            }
+            if (keyword("IN")) {
+                return Operator.IN;
+            }
+            if (keyword("CONTAINS")) {
+                return Operator.CONTAINS;
+            }
+            int mark = pos;
+            if (keyword("NOT")) {
+                if (keyword("IN")) {
+                    return Operator.NOT_IN;
+                }
+                pos = mark;
+            }
+            return null;
+        }
+
+        private Operand parseOperand() {
+            skipSpaces();
+            if (pos >= source.length()) {
+                throw error("Expected a value");
+            }
+
+            char c = source.charAt(pos);
+            if (c == '\'' || c == '"') {
+                return new Literal(parseString(c));
+            }
+            if (c == '[') {
+                return new Literal(parseList());
+            }
+            if (c == '-' || Character.isDigit(c)) {
+                return new Literal(parseNumber());
+            }
+            if (isNameStart(c)) {
+                return parsePath();
+            }
+            throw error("Unexpected '" + c + "'");
+        }
+
+        private Operand parsePath() {
+            int start = pos;
+            while (pos < source.length() && isNamePart(source.charAt(pos))) {
+                pos++;
+            }
+            String name = source.substring(start, pos);
+            if (name.endsWith(".") || name.contains("..")) {
+                throw error("Invalid attribute '" + name + "'");
+            }
+
+            String lower = name.toLowerCase(Locale.ROOT);
+            if ("true".equals(lower) || "false".equals(lower)) {
+                return new Literal(Boolean.valueOf(lower));
+            }
+
+            boolean worker = scope == Scope.WORKER;
+            String[] segments = name.split("\\.");
+            if (segments.length > 1 && ("task".equals(segments[0]) || "worker".equals(segments[0]))) {
+                worker = "worker".equals(segments[0]);
+                String[] rest = new String[segments.length - 1];
+                System.arraycopy(segments, 1, rest, 0, rest.length);
+                segments = rest;
+            }
+            return new Path(worker, segments);
+        }
+
+        private String parseString(final char quote) {
+            StringBuilder value = new StringBuilder();
+            pos++;
+            while (pos < source.length() && source.charAt(pos) != quote) {
+                char c = source.charAt(pos++);
+                if (c == '\\' && pos < source.length()) {
+                    c = source.charAt(pos++);
+                }
+                value.append(c);
+            }
+            if (pos >= source.length()) {
+                throw error("Unterminated string");
+            }
+            pos++;
+            return value.toString();
+        }
+
+        private Double parseNumber() {
+            int start = pos;
+            if (source.charAt(pos) == '-') {
+                pos++;
+            }
+            while (pos < source.length() && (Character.isDigit(source.charAt(pos)) || source.charAt(pos) == '.')) {
+                pos++;
+            }
+            try {
+                return Double.valueOf(source.substring(start, pos));
+            } catch (final NumberFormatException e) {
+                throw error("Invalid number '" + source.substring(start, pos) + "'");
+            }
+        }
+
+        private List<Object> parseList() {
+            List<Object> values = new ArrayList<>();
+            pos++;
+            if (symbol("]")) {
+                return Collections.unmodifiableList(values);
+            }
+            do {
+                Operand value = parseOperand();
+                if (!(value instanceof Literal)) {
+                    throw error("Lists may only hold literals");
+                }
+                values.add(((Literal) value).value);
+            } while (symbol(","));
+            expect("]");
+            return Collections.unmodifiableList(values);
+        }
+
+        private boolean keyword(final String keyword) {
+            skipSpaces();
+            int end = pos + keyword.length();
+            if (end > source.length() || !source.regionMatches(true, pos, keyword, 0, keyword.length())) {
+                return false;
+            }
+            if (end < source.length() && isNamePart(source.charAt(end))) {
+                return false;
+            }
+            pos = end;
+            return true;
+        }
+
+        private boolean symbol(final String symbol) {
+            skipSpaces();
+            if (source.startsWith(symbol, pos)) {
+                pos += symbol.length();
+                return true;
+            }
+            return false;
+        }
+
+        private boolean peek(final String symbol) {
+            return source.startsWith(symbol, pos);
+        }
+
+        private void expect(final String symbol) {
+            if (!symbol(symbol)) {
+                throw error("Expected '" + symbol + "'");
+            }
+        }
+
+        private void skipSpaces() {
+            while (pos < source.length() && Character.isWhitespace(source.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private static boolean isNameStart(final char c) {
+            return Character.isLetter(c) || c == '_';
+        }
+
+        private static boolean isNamePart(final char c) {
+            return Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.';
+        }
+
+        private IllegalArgumentException error(final String message) {
+            return new IllegalArgumentException(message + " at position " + pos + " in expression: " + source);
+        }
+    }
+}
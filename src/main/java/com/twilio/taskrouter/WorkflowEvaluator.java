@@ -0,0 +1,297 @@
+package com.twilio.taskrouter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Routes tasks through a {@link Workflow} locally, to simulate routing decisions or to check a
+ * workflow configuration before it is deployed.
+ *
+ * <p>
+ * Every expression of the workflow is compiled once, when the evaluator is created. Routing a task
+ * tests the rule expressions in order against its attributes; the first match gives the targets, and
+ * when no rule matches, the default target is used. Without workers, no objects are allocated per
+ * task. Given a snapshot of worker attributes, the workers eligible for each target are those
+ * matching the target workers expression of its queue, as registered with {@link #queue}, and the
+ * expression of the target; a target whose {@code skip_if} holds for the number of those workers
+ * which are available, as {@code workers.available}, is skipped.
+ * </p>
+ *
+ * <p>
+ * Register queues before sharing an evaluator; it is then safe to use from any number of threads.
+ * </p>
+ */
+public class WorkflowEvaluator {
+
+    private final Rule[] rules;
+    private final Rule defaultRule;
+    private final Map<String, TaskRouterExpression> queueWorkers = new HashMap<>();
+
+    /**
+     * Create an evaluator for a workflow.
+     *
+     * @param workflow workflow to evaluate
+     * @throws IllegalArgumentException if the workflow is not valid, listing every problem found
+     */
+    public WorkflowEvaluator(final Workflow workflow) {
+        List<String> errors = validate(workflow);
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException("Invalid workflow: " + String.join("; ", errors));
+        }
+
+        List<WorkflowRule> workflowRules = workflowRules(workflow);
+        this.rules = new Rule[workflowRules.size()];
+        for (int i = 0; i < rules.length; i++) {
+            rules[i] = new Rule(i, workflowRules.get(i), workflowRules.get(i).getWorkflowRuleTargets());
+        }
+
+        WorkflowRuleTarget defaultTarget = workflow.getDefaultTarget();
+        this.defaultRule = new Rule(-1, null, defaultTarget == null
+            ? Collections.<WorkflowRuleTarget>emptyList()
+            : Collections.singletonList(defaultTarget));
+    }
+
+    /**
+     * Create an evaluator for a workflow configuration, as passed to {@code WorkflowUpdater}.
+     *
+     * @param configuration workflow configuration JSON
+     * @return evaluator
+     * @throws IllegalArgumentException if the configuration is not valid
+     */
+    public static WorkflowEvaluator fromConfiguration(final String configuration) {
+        try {
+            return new WorkflowEvaluator(Workflow.fromJson(configuration));
+        } catch (final IOException e) {
+            throw new IllegalArgumentException("Invalid workflow configuration: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Check a workflow configuration, as passed to {@code WorkflowUpdater}, without creating an evaluator.
+     *
+     * @param configuration workflow configuration JSON
+     * @return problems found, empty if the configuration is valid
+     */
+    public static List<String> validate(final String configuration) {
+        try {
+            return validate(Workflow.fromJson(configuration));
+        } catch (final IOException e) {
+            return Collections.singletonList("Invalid JSON: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Check a workflow: every expression must compile, every rule needs targets, and every target needs
+     * a queue and a positive timeout, if any.
+     *
+     * @param workflow workflow to check
+     * @return problems found, empty if the workflow is valid
+     */
+    public static List<String> validate(final Workflow workflow) {
+        List<String> errors = new ArrayList<>();
+        List<WorkflowRule> workflowRules = workflowRules(workflow);
+
+        for (int i = 0; i < workflowRules.size(); i++) {
+            WorkflowRule rule = workflowRules.get(i);
+            String where = "filters[" + i + "]"
+                + (rule.getFriendlyName() == null ? "" : " (" + rule.getFriendlyName() + ")");
+
+            if (rule.getExpression() == null || rule.getExpression().trim().isEmpty()) {
+                errors.add(where + ": expression is missing");
+            } else {
+                check(errors, where + ": expression", rule.getExpression(), TaskRouterExpression.Scope.TASK);
+            }
+
+            List<WorkflowRuleTarget> targets = rule.getWorkflowRuleTargets();
+            if (targets == null || targets.isEmpty()) {
+                errors.add(where + ": targets are missing");
+                continue;
+            }
+            for (int t = 0; t < targets.size(); t++) {
+                checkTarget(errors, where + ".targets[" + t + "]", targets.get(t));
+            }
+        }
+
+        if (workflow.getDefaultTarget() != null) {
+            checkTarget(errors, "default_filter", workflow.getDefaultTarget());
+        }
+        return errors;
+    }
+
+    private static List<WorkflowRule> workflowRules(final Workflow workflow) {
+        Objects.requireNonNull(workflow, "workflow");
+        List<WorkflowRule> rules = workflow.getWorkflowRules();
+        return rules == null ? Collections.<WorkflowRule>emptyList() : rules;
+    }
+
+    private static void checkTarget(final List<String> errors, final String where, final WorkflowRuleTarget target) {
+        if (target.getQueue() == null || target.getQueue().isEmpty()) {
+            errors.add(where + ": queue is missing");
+        }
+        if (target.getTimeout() != null && target.getTimeout() <= 0) {
+            errors.add(where + ": timeout must be positive");
+        }
+        if (target.getPriority() != null && target.getPriority() < 0) {
+            errors.add(where + ": priority must not be negative");
+        }
+        if (target.getExpression() != null) {
+            check(errors, where + ": expression", target.getExpression(), TaskRouterExpression.Scope.WORKER);
+        }
+        if (target.getSkipIf() != null) {
+            check(errors, where + ": skip_if", target.getSkipIf(), TaskRouterExpression.Scope.TASK);
+        }
+    }
+
+    private static void check(final List<String> errors, final String where, final String expression,
+                              final TaskRouterExpression.Scope scope) {
+        try {
+            TaskRouterExpression.compile(expression, scope);
+        } catch (final IllegalArgumentException e) {
+            errors.add(where + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Register the target workers expression of a queue, which limits the workers eligible in it; workers
+     * are not limited in queues which are not registered.
+     *
+     * @param queueSid      sid of the queue, as used in the workflow targets
+     * @param targetWorkers target workers expression of the queue
+     * @return this
+     * @throws IllegalArgumentException if the expression is not valid
+     */
+    public WorkflowEvaluator queue(final String queueSid, final String targetWorkers) {
+        queueWorkers.put(
+            Objects.requireNonNull(queueSid, "queueSid"),
+            TaskRouterExpression.compile(targetWorkers, TaskRouterExpression.Scope.WORKER)
+        );
+        return this;
+    }
+
+    /**
+     * Find the rule a task matches.
+     *
+     * @param task task attributes
+     * @return matched rule and its targets; the target is the first of them
+     */
+    public RoutingDecision route(final Map<String, ?> task) {
+        return match(task).decision;
+    }
+
+    /**
+     * Find the rule a task matches, and the first target of it with eligible workers which is not skipped,
+     * counting every worker given as available.
+     *
+     * @param task    task attributes
+     * @param workers attributes of the available workers, by worker sid
+     * @return matched rule, chosen target and its eligible workers
+     */
+    public RoutingDecision route(final Map<String, ?> task, final Map<String, ? extends Map<String, ?>> workers) {
+        return route(task, workers, null);
+    }
+
+    /**
+     * Find the rule a task matches, and the first target of it with eligible workers which is not skipped;
+     * {@code skip_if} counts only the eligible workers which are available.
+     *
+     * @param task             task attributes
+     * @param workers          attributes of the workers to consider, by worker sid
+     * @param availableWorkers sids of the workers whose activity is available, or null if all are
+     * @return matched rule, chosen target and its eligible workers, whether available or not
+     */
+    public RoutingDecision route(final Map<String, ?> task, final Map<String, ? extends Map<String, ?>> workers,
+                                 final Set<String> availableWorkers) {
+        Rule rule = match(task);
+        RoutingDecision decision = rule.select(task, workers, availableWorkers, queueWorkers);
+        if (decision == null && rule != defaultRule) {
+            // Every target was skipped, so the task falls through to the default target
+            decision = defaultRule.select(task, workers, availableWorkers, queueWorkers);
+        }
+        if (decision == null) {
+            return rule.decision;
+        }
+        return decision;
+    }
+
+    private Rule match(final Map<String, ?> task) {
+        for (Rule rule : rules) {
+            if (rule.expression.matches(task)) {
+                return rule;
+            }
+        }
+        return defaultRule;
+    }
+
+    /**
+     * A rule with its expressions compiled.
+     */
+    private static final class Rule {
+        private final int index;
+        private final WorkflowRule rule;
+        private final TaskRouterExpression expression;
+        private final List<WorkflowRuleTarget> targets;
+        private final TaskRouterExpression[] targetExpressions;
+        private final TaskRouterExpression[] skipIfs;
+        private final RoutingDecision decision;
+
+        private Rule(final int index, final WorkflowRule rule, final List<WorkflowRuleTarget> targets) {
+            this.index = index;
+            this.rule = rule;
+            this.expression = rule == null ? null : TaskRouterExpression.compile(rule.getExpression());
+            this.targets = Collections.unmodifiableList(new ArrayList<>(targets));
+            this.targetExpressions = new TaskRouterExpression[targets.size()];
+            this.skipIfs = new TaskRouterExpression[targets.size()];
+            for (int i = 0; i < targets.size(); i++) {
+                WorkflowRuleTarget target = targets.get(i);
+                if (target.getExpression() != null) {
+                    targetExpressions[i] = TaskRouterExpression.compile(
+                        target.getExpression(), TaskRouterExpression.Scope.WORKER
+                    );
+                }
+                if (target.getSkipIf() != null) {
+                    skipIfs[i] = TaskRouterExpression.compile(target.getSkipIf());
+                }
+            }
+            this.decision = RoutingDecision.of(index, rule, this.targets);
+        }
+
+        /**
+         * Choose the first target which is not skipped, or null if all are.
+         */
+        private RoutingDecision select(final Map<String, ?> task, final Map<String, ? extends Map<String, ?>> workers,
+                                       final Set<String> availableWorkers,
+                                       final Map<String, TaskRouterExpression> queueWorkers) {
+            for (int i = 0; i < targets.size(); i++) {
+                TaskRouterExpression queueExpression = queueWorkers.get(targets.get(i).getQueue());
+                List<String> eligible = new ArrayList<>();
+                int available = 0;
+                for (Map.Entry<String, ? extends Map<String, ?>> worker : workers.entrySet()) {
+                    if ((queueExpression == null || queueExpression.matches(task, worker.getValue()))
+                        && (targetExpressions[i] == null || targetExpressions[i].matches(task, worker.getValue()))) {
+                        eligible.add(worker.getKey());
+                        if (availableWorkers == null || availableWorkers.contains(worker.getKey())) {
+                            available++;
+                        }
+                    }
+                }
+
+                if (skipIfs[i] != null && skipIfs[i].matches(available(available))) {
+                    continue;
+                }
+                return new RoutingDecision(index, rule, targets, targets.get(i),
+                    Collections.unmodifiableList(eligible));
+            }
+            return null;
+        }
+
+        private static Map<String, ?> available(final int count) {
+            return Collections.singletonMap("workers", Collections.singletonMap("available", (double) count));
+        }
+    }
+}
@@ -0,0 +1,539 @@
+package com.twilio.taskrouter;
+
+import com.twilio.Twilio;
+import com.twilio.base.Reader;
+import com.twilio.base.Resource;
+import com.twilio.base.TailReader;
+import com.twilio.exception.ApiException;
+import com.twilio.http.TwilioRestClient;
+import com.twilio.rest.taskrouter.v1.workspace.Activity;
+import com.twilio.rest.taskrouter.v1.workspace.Event;
+import com.twilio.rest.taskrouter.v1.workspace.Task;
+import com.twilio.rest.taskrouter.v1.workspace.TaskQueue;
+import com.twilio.rest.taskrouter.v1.workspace.Worker;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * In-memory view of the workers, task queues, activities and active tasks of a TaskRouter workspace,
+ * for dashboards which would otherwise read them every second.
+ *
+ * <p>
+ * {@link #load()} reads the four collections in parallel. {@link #refresh()} then reads the workspace
+ * events since the last refresh, and fetches again only the workers, queues, activities and tasks they
+ * name, in parallel; resources which are gone, and tasks which completed or were canceled, are dropped.
+ * Events are read from just before the load started, so changes made while loading are not missed. If
+ * a fetch fails, the refresh fails, and the resources named by the events it read are fetched again
+ * on the next refresh.
+ * </p>
+ *
+ * <p>
+ * Each load or refresh publishes a new immutable snapshot, with the queue depths and worker counts
+ * computed once, so reads never lock and always see a consistent state. Call {@link #refresh()} on a
+ * schedule, or use {@link #refreshEvery}.
+ * </p>
+ */
+public class WorkspaceStateCache {
+
+    public static final int DEFAULT_PAGE_SIZE = 1000;
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    /** Tasks in these states are kept; others are finished and dropped. */
+    private static final List<String> ACTIVE_STATUSES = Arrays.asList(
+        Task.Status.PENDING.toString(),
+        Task.Status.RESERVED.toString(),
+        Task.Status.ASSIGNED.toString(),
+        Task.Status.WRAPPING.toString()
+    );
+    private static final long EVENT_LOOKBACK_SECONDS = 5L;
+    private static final int NOT_FOUND = 404;
+
+    private final String workspaceSid;
+    private final Object refreshLock = new Object();
+    /** Resources named by events already read, but not yet fetched again. */
+    private final Set<String> pendingWorkerSids = new LinkedHashSet<>();
+    private final Set<String> pendingQueueSids = new LinkedHashSet<>();
+    private final Set<String> pendingActivitySids = new LinkedHashSet<>();
+    private final Set<String> pendingTaskSids = new LinkedHashSet<>();
+    private TwilioRestClient client;
+    private ExecutorService executorService;
+    private int pageSize = DEFAULT_PAGE_SIZE;
+    private int parallelism = DEFAULT_PARALLELISM;
+    private TailReader<Event> events;
+    private volatile Snapshot snapshot = new Snapshot(
+        Collections.<String, Worker>emptyMap(),
+        Collections.<String, TaskQueue>emptyMap(),
+        Collections.<String, Activity>emptyMap(),
+        Collections.<String, Task>emptyMap(),
+        null
+    );
+
+    /**
+     * Create a cache for a workspace; it is empty until loaded.
+     *
+     * @param workspaceSid sid of the workspace
+     */
+    public WorkspaceStateCache(final String workspaceSid) {
+        this.workspaceSid = Objects.requireNonNull(workspaceSid, "workspaceSid");
+    }
+
+    /**
+     * Use a specific client; defaults to the default Twilio client.
+     *
+     * @param client client used to make requests
+     * @return this
+     */
+    public WorkspaceStateCache client(final TwilioRestClient client) {
+        this.client = client;
+        return this;
+    }
+
+    /**
+     * Use a specific executor for the parallel reads; defaults to the Twilio executor service.
+     *
+     * @param executorService executor running the reads
+     * @return this
+     */
+    public WorkspaceStateCache executorService(final ExecutorService executorService) {
+        this.executorService = executorService;
+        return this;
+    }
+
+    /**
+     * Set the page size of the reads.
+     *
+     * @param pageSize records per page
+     * @return this
+     */
+    public WorkspaceStateCache pageSize(final int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    /**
+     * Set the max number of resources fetched at once when refreshing.
+     *
+     * @param parallelism number of concurrent fetches
+     * @return this
+     */
+    public WorkspaceStateCache parallelism(final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Read the whole state of the workspace, replacing anything cached.
+     */
+    public void load() {
+        synchronized (refreshLock) {
+            ZonedDateTime start = ZonedDateTime.now(ZoneOffset.UTC).minusSeconds(EVENT_LOOKBACK_SECONDS);
+            TwilioRestClient restClient = getClient();
+
+            List<Callable<Map<String, ? extends Resource>>> reads = new ArrayList<>();
+            reads.add(() -> readAll(Worker.reader(workspaceSid), Worker::getSid, restClient));
+            reads.add(() -> readAll(TaskQueue.reader(workspaceSid), TaskQueue::getSid, restClient));
+            reads.add(() -> readAll(Activity.reader(workspaceSid), Activity::getSid, restClient));
+            reads.add(() -> readAll(
+                Task.reader(workspaceSid).setAssignmentStatus(ACTIVE_STATUSES), Task::getSid, restClient
+            ));
+            List<Map<String, ? extends Resource>> results = run(reads);
+
+            @SuppressWarnings("unchecked")
+            Snapshot loaded = new Snapshot(
+                (Map<String, Worker>) results.get(0),
+                (Map<String, TaskQueue>) results.get(1),
+                (Map<String, Activity>) results.get(2),
+                (Map<String, Task>) results.get(3),
+                ZonedDateTime.now(ZoneOffset.UTC)
+            );
+            events = new TailReader<>(
+                watermark -> Event.reader(workspaceSid).setStartDate(watermark).pageSize(pageSize),
+                Event::getEventDate,
+                Event::getSid,
+                start
+            );
+            pendingWorkerSids.clear();
+            pendingQueueSids.clear();
+            pendingActivitySids.clear();
+            pendingTaskSids.clear();
+            snapshot = loaded;
+        }
+    }
+
+    /**
+     * Apply the changes since the last load or refresh, loading first if the cache was never loaded.
+     *
+     * @return number of events read
+     */
+    public int refresh() {
+        synchronized (refreshLock) {
+            if (events == null) {
+                load();
+                return 0;
+            }
+
+            TwilioRestClient restClient = getClient();
+
+            // Polling moves the watermark past these events, so keep what they name until it is applied
+            List<Event> fresh = events.poll(restClient);
+            for (Event event : fresh) {
+                collect(event, pendingWorkerSids, pendingQueueSids, pendingActivitySids, pendingTaskSids);
+            }
+            if (pendingWorkerSids.isEmpty() && pendingQueueSids.isEmpty() && pendingActivitySids.isEmpty()
+                && pendingTaskSids.isEmpty()) {
+                return fresh.size();
+            }
+
+            Snapshot current = snapshot;
+            Map<String, Worker> workers = new HashMap<>(current.workers);
+            Map<String, TaskQueue> queues = new HashMap<>(current.queues);
+            Map<String, Activity> activities = new HashMap<>(current.activities);
+            Map<String, Task> tasks = new HashMap<>(current.tasks);
+
+            List<Callable<Runnable>> fetches = new ArrayList<>();
+            for (String sid : pendingWorkerSids) {
+                fetches.add(fetch(sid, workers, () -> Worker.fetcher(workspaceSid, sid).fetch(restClient)));
+            }
+            for (String sid : pendingQueueSids) {
+                fetches.add(fetch(sid, queues, () -> TaskQueue.fetcher(workspaceSid, sid).fetch(restClient)));
+            }
+            for (String sid : pendingActivitySids) {
+                fetches.add(fetch(sid, activities, () -> Activity.fetcher(workspaceSid, sid).fetch(restClient)));
+            }
+            for (String sid : pendingTaskSids) {
+                fetches.add(fetch(sid, tasks, () -> {
+                    Task task = Task.fetcher(workspaceSid, sid).fetch(restClient);
+                    return isActive(task) ? task : null;
+                }));
+            }
+
+            // Fetch in batches of the parallelism, then apply on this thread
+            for (int i = 0; i < fetches.size(); i += parallelism) {
+                for (Runnable apply : run(fetches.subList(i, Math.min(fetches.size(), i + parallelism)))) {
+                    apply.run();
+                }
+            }
+
+            pendingWorkerSids.clear();
+            pendingQueueSids.clear();
+            pendingActivitySids.clear();
+            pendingTaskSids.clear();
+            snapshot = new Snapshot(workers, queues, activities, tasks, ZonedDateTime.now(ZoneOffset.UTC));
+            return fresh.size();
+        }
+    }
+
+    /**
+     * Refresh the cache periodically, loading it first; a failed refresh is retried at the next run.
+     *
+     * @param scheduler schedules the refreshes
+     * @param period    time between refreshes
+     * @param unit      unit of the period
+     * @return future to cancel the refreshes with
+     */
+    public ScheduledFuture<?> refreshEvery(final ScheduledExecutorService scheduler, final long period,
+                                           final TimeUnit unit) {
+        return refreshEvery(scheduler, period, unit, e -> { });
+    }
+
+    /**
+     * Refresh the cache periodically, loading it first, and report failed refreshes; a failed refresh
+     * does not stop the schedule and is retried at the next run.
+     *
+     * @param scheduler schedules the refreshes
+     * @param period    time between refreshes
+     * @param unit      unit of the period
+     * @param onError   called with the failure of a refresh
+     * @return future to cancel the refreshes with
+     */
+    public ScheduledFuture<?> refreshEvery(final ScheduledExecutorService scheduler, final long period,
+                                           final TimeUnit unit, final Consumer<? super RuntimeException> onError) {
+        Objects.requireNonNull(onError, "onError");
+        return scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                refresh();
+            } catch (final RuntimeException e) {
+                // An exception escaping the task would cancel every later run
+                onError.accept(e);
+            }
+        }, 0, period, unit);
+    }
+
+    public Worker getWorker(final String workerSid) {
+        return snapshot.workers.get(workerSid);
+    }
+
+    public Collection<Worker> getWorkers() {
+        return snapshot.workers.values();
+    }
+
+    /**
+     * Get the workers whose current activity is available.
+     *
+     * @return available workers
+     */
+    public List<Worker> getAvailableWorkers() {
+        return snapshot.availableWorkers;
+    }
+
+    public int getAvailableWorkerCount() {
+        return snapshot.availableWorkers.size();
+    }
+
+    /**
+     * Get the number of workers in each activity.
+     *
+     * @return worker count by activity sid
+     */
+    public Map<String, Integer> getWorkerCountByActivity() {
+        return snapshot.workersByActivity;
+    }
+
+    public TaskQueue getTaskQueue(final String taskQueueSid) {
+        return snapshot.queues.get(taskQueueSid);
+    }
+
+    public Collection<TaskQueue> getTaskQueues() {
+        return snapshot.queues.values();
+    }
+
+    public Activity getActivity(final String activitySid) {
+        return snapshot.activities.get(activitySid);
+    }
+
+    public Collection<Activity> getActivities() {
+        return snapshot.activities.values();
+    }
+
+    public Task getTask(final String taskSid) {
+        return snapshot.tasks.get(taskSid);
+    }
+
+    /**
+     * Get the tasks which are not completed or canceled.
+     *
+     * @return active tasks
+     */
+    public Collection<Task> getTasks() {
+        return snapshot.tasks.values();
+    }
+
+    /**
+     * Get the number of tasks waiting in a queue, pending or reserved but not yet accepted.
+     *
+     * @param taskQueueSid sid of the queue
+     * @return number of waiting tasks
+     */
+    public int getQueueDepth(final String taskQueueSid) {
+        Integer depth = snapshot.depthByQueue.get(taskQueueSid);
+        return depth == null ? 0 : depth;
+    }
+
+    /**
+     * Get the number of tasks in a queue with a status.
+     *
+     * @param taskQueueSid sid of the queue
+     * @param status       status of the tasks
+     * @return number of tasks
+     */
+    public int getTaskCount(final String taskQueueSid, final Task.Status status) {
+        Map<Task.Status, Integer> counts = snapshot.countsByQueue.get(taskQueueSid);
+        Integer count = counts == null ? null : counts.get(status);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Get the time the cached state was last read.
+     *
+     * @return time of the last load or refresh, or null if never loaded
+     */
+    public ZonedDateTime getLastUpdated() {
+        return snapshot.updated;
+    }
+
+    private TwilioRestClient getClient() {
+        return client == null ? Twilio.getRestClient() : client;
+    }
+
+    private <T extends Resource> Map<String, T> readAll(final Reader<T> reader, final Function<T, String> sid,
+                                                        final TwilioRestClient restClient) {
+        Map<String, T> resources = new HashMap<>();
+        for (T resource : reader.pageSize(pageSize).read(restClient)) {
+            resources.put(sid.apply(resource), resource);
+        }
+        return resources;
+    }
+
+    /**
+     * Note the resources an event is about; events about reservations also name their task and worker.
+     */
+    private static void collect(final Event event, final Set<String> workerSids, final Set<String> queueSids,
+                                final Set<String> activitySids, final Set<String> taskSids) {
+        String type = event.getResourceType();
+        String sid = event.getResourceSid();
+        if (sid != null && type != null) {
+            switch (type) {
+                case "worker":
+                    workerSids.add(sid);
+                    break;
+                case "taskqueue":
+                case "task_queue":
+                    queueSids.add(sid);
+                    break;
+                case "activity":
+                    activitySids.add(sid);
+                    break;
+                case "task":
+                    taskSids.add(sid);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        Map<String, Object> data = event.getEventData();
+        if (data != null) {
+            addSid(data.get("worker_sid"), workerSids);
+            addSid(data.get("task_queue_sid"), queueSids);
+            addSid(data.get("task_sid"), taskSids);
+        }
+    }
+
+    private static void addSid(final Object sid, final Set<String> sids) {
+        if (sid instanceof String) {
+            sids.add((String) sid);
+        }
+    }
+
+    private static boolean isActive(final Task task) {
+        return task.getAssignmentStatus() != null
+            && ACTIVE_STATUSES.contains(task.getAssignmentStatus().toString());
+    }
+
+    /**
+     * Fetch a resource, returning how to apply it: replace it, or drop it if it is gone.
+     */
+    private static <T> Callable<Runnable> fetch(final String sid, final Map<String, T> resources,
+                                                final Callable<T> fetcher) {
+        return () -> {
+            T resource;
+            try {
+                resource = fetcher.call();
+            } catch (final ApiException e) {
+                if (!Objects.equals(e.getStatusCode(), NOT_FOUND)) {
+                    throw e;
+                }
+                resource = null;
+            }
+
+            T fetched = resource;
+            return () -> {
+                if (fetched == null) {
+                    resources.remove(sid);
+                } else {
+                    resources.put(sid, fetched);
+                }
+            };
+        };
+    }
+
+    private <T> List<T> run(final List<? extends Callable<T>> tasks) {
+        ExecutorService executor = executorService == null ? Twilio.getExecutorService() : executorService;
+        List<T> results = new ArrayList<>(tasks.size());
+        try {
+            for (Future<T> future : executor.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Workspace read interrupted", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Workspace read failed", e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * Immutable state of the workspace, with the counts served to readers computed up front.
+     */
+    private static final class Snapshot {
+        private final Map<String, Worker> workers;
+        private final Map<String, TaskQueue> queues;
+        private final Map<String, Activity> activities;
+        private final Map<String, Task> tasks;
+        private final ZonedDateTime updated;
+        private final List<Worker> availableWorkers;
+        private final Map<String, Integer> workersByActivity;
+        private final Map<String, Integer> depthByQueue;
+        private final Map<String, Map<Task.Status, Integer>> countsByQueue;
+
+        private Snapshot(final Map<String, Worker> workers, final Map<String, TaskQueue> queues,
+                         final Map<String, Activity> activities, final Map<String, Task> tasks,
+                         final ZonedDateTime updated) {
+            this.workers = Collections.unmodifiableMap(workers);
+            this.queues = Collections.unmodifiableMap(queues);
+            this.activities = Collections.unmodifiableMap(activities);
+            this.tasks = Collections.unmodifiableMap(tasks);
+            this.updated = updated;
+
+            List<Worker> available = new ArrayList<>();
+            Map<String, Integer> byActivity = new HashMap<>();
+            for (Worker worker : workers.values()) {
+                if (Boolean.TRUE.equals(worker.getAvailable())) {
+                    available.add(worker);
+                }
+                if (worker.getActivitySid() != null) {
+                    byActivity.merge(worker.getActivitySid(), 1, Integer::sum);
+                }
+            }
+
+            Map<String, Integer> depth = new HashMap<>();
+            Map<String, Map<Task.Status, Integer>> counts = new HashMap<>();
+            for (Task task : tasks.values()) {
+                String queue = task.getTaskQueueSid();
+                Task.Status status = task.getAssignmentStatus();
+                if (queue == null || status == null) {
+                    continue;
+                }
+                counts.computeIfAbsent(queue, q -> new HashMap<>()).merge(status, 1, Integer::sum);
+                if (status == Task.Status.PENDING || status == Task.Status.RESERVED) {
+                    depth.merge(queue, 1, Integer::sum);
+                }
+            }
+
+            this.availableWorkers = Collections.unmodifiableList(available);
+            this.workersByActivity = Collections.unmodifiableMap(byActivity);
+            this.depthByQueue = depth;
+            this.countsByQueue = counts;
+        }
+    }
+}
@@ -3,6 +3,9 @@ package com.twilio.twiml;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 
+import java.io.IOException;
+import java.util.Objects;
+
 public class Text extends TwiML {
     private final String text;
 
@@ -15,4 +18,32 @@ public class Text extends TwiML {
     protected Node buildXmlElement(final Document parentDoc) {
         return parentDoc.createTextNode(this.text);
     }
+
+    @Override
+    protected void writeElement(final TwiMLWriter writer) throws IOException {
+        writer.text(this.text);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        return Objects.equals(this.text, ((Text) o).text);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(this.text);
+    }
+
+    @Override
+    int structuralHash() {
+        return hashCode();
+    }
 }
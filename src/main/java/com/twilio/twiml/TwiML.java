@@ -5,29 +5,43 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
+import java.io.Writer;
 import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 
 @SuppressWarnings("checkstyle:abbreviationaswordinname")
 @ToString
 public abstract class TwiML {
+    private static final String[] NO_ATTRIBUTES = new String[0];
     private final String tagName;
     private final Builder builder;
+    @ToString.Exclude
+    private volatile String[] attributes;
+    @ToString.Exclude
+    private volatile int structuralHash;
     private static final Map<String, String> attrNameMapper = Collections.singletonMap("for_", "for");
+    private static final ClassValue<AttributeOrders> ATTRIBUTE_ORDER = new ClassValue<AttributeOrders>() {
+        @Override
+        protected AttributeOrders computeValue(final Class<?> type) {
+            return new AttributeOrders();
+        }
+    };
 
     /**
      * @param tagName Element tag name
@@ -48,7 +62,7 @@ public abstract class TwiML {
     }
 
     /**
-     * Attributes to set on the generated XML element
+     * Attributes to set on the generated XML element; these must not change once the element is built
      *
      * @return A Map of attribute keys to values
      */
@@ -80,7 +94,7 @@ public abstract class TwiML {
     /**
      * Get transformed attribute name for this Twiml element.
      */
-    private String getTransformedAttrName(final String attrName) {
+    private static String getTransformedAttrName(final String attrName) {
         return attrNameMapper.containsKey(attrName) ? attrNameMapper.get(attrName) : attrName;
     }
 
@@ -109,6 +123,122 @@ public abstract class TwiML {
         return node;
     }
 
+    /**
+     * Get the attributes of the generated XML element as transformed names and values, alternating and
+     * sorted by name.
+     *
+     * <p>
+     * The attributes of an element do not change once it is built, so {@link #getElementAttributes()} is
+     * called on the first render or comparison of the element only, and its result kept. The sorted,
+     * transformed names are worked out once per element class.
+     * </p>
+     *
+     * <p>
+     * This does not make the first render allocation-free: it still builds the map of
+     * {@link #getElementAttributes()} and converts enums with {@code toString()}. Writing attributes
+     * straight from the fields of each verb needs writers produced by the code generator, and generated
+     * code is not changed here.
+     * </p>
+     *
+     * @return names and values of the attributes
+     */
+    String[] elementAttributes() {
+        String[] current = attributes;
+        if (current != null) {
+            return current;
+        }
+
+        Map<String, String> attrs = this.getElementAttributes();
+        if (attrs.isEmpty()) {
+            current = NO_ATTRIBUTES;
+        } else {
+            List<String> pairs = new ArrayList<>(attrs.size() * 2);
+            for (String[] name : ATTRIBUTE_ORDER.get(getClass()).covering(attrs.keySet())) {
+                String value = attrs.get(name[0]);
+                if (value != null) {
+                    pairs.add(name[1]);
+                    pairs.add(value);
+                }
+            }
+            current = pairs.toArray(NO_ATTRIBUTES);
+        }
+
+        // Racing threads compute equal arrays, so either may be kept
+        attributes = current;
+        return current;
+    }
+
+    /**
+     * Write the attributes of the generated XML element, sorted by name.
+     *
+     * @param writer XML writer
+     * @throws IOException if the destination fails
+     */
+    private void writeElementAttributes(final TwiMLWriter writer) throws IOException {
+        String[] attrs = elementAttributes();
+        for (int i = 0; i < attrs.length; i += 2) {
+            writer.attribute(attrs[i], attrs[i + 1]);
+        }
+    }
+
+    /**
+     * Write this element, its attributes and its children.
+     *
+     * @param writer XML writer
+     * @throws IOException if the destination fails
+     */
+    protected void writeElement(final TwiMLWriter writer) throws IOException {
+        writer.startElement(this.getTagName());
+
+        if (this.getOptions().isEmpty()) {
+            this.writeElementAttributes(writer);
+        } else {
+            // Options are merged into the sorted attributes, overriding attributes of the same name
+            Map<String, String> attrs = new TreeMap<>();
+            String[] elementAttrs = elementAttributes();
+            for (int i = 0; i < elementAttrs.length; i += 2) {
+                attrs.put(elementAttrs[i], elementAttrs[i + 1]);
+            }
+            attrs.putAll(this.getOptions());
+            for (Map.Entry<String, String> attr : attrs.entrySet()) {
+                writer.attribute(attr.getKey(), attr.getValue());
+            }
+        }
+
+        writer.text(this.getElementBody());
+
+        for (TwiML child : this.getChildren()) {
+            child.writeElement(writer);
+        }
+
+        writer.endElement(this.getTagName());
+    }
+
+    /**
+     * Write TwiML object as XML.
+     *
+     * @param out destination of the XML
+     * @throws IOException if the destination fails
+     * @throws TwiMLException if cannot generate XML
+     */
+    public void writeTo(final Writer out) throws IOException, TwiMLException {
+        TwiMLWriter writer = new TwiMLWriter(out);
+        writer.declaration();
+        this.writeElement(writer);
+        writer.flush();
+    }
+
+    /**
+     * Write TwiML object as UTF-8 encoded XML.
+     *
+     * @param out destination of the XML; flushed but not closed
+     * @throws IOException if the destination fails
+     * @throws TwiMLException if cannot generate XML
+     */
+    public void writeTo(final OutputStream out) throws IOException, TwiMLException {
+        writeTo(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+    }
+
     /**
      * Convert TwiML object to XML.
      *
@@ -116,25 +246,15 @@ public abstract class TwiML {
      * @throws TwiMLException if cannot generate XML
      */
     public String toXml() throws TwiMLException {
+        StringWriter output = new StringWriter();
         try {
-            Document doc = DocumentBuilderFactory
-                .newInstance()
-                .newDocumentBuilder()
-                .newDocument();
-            doc.setXmlStandalone(true);
-            doc.appendChild(this.buildXmlElement(doc));
-
-            Transformer transformer = TransformerFactory.newInstance().newTransformer();
-            transformer.setOutputProperty(OutputKeys.INDENT, "no");
-            DOMSource source = new DOMSource(doc);
-            StreamResult output = new StreamResult(new StringWriter());
-            transformer.transform(source, output);
-            return output.getWriter().toString().trim();
-        } catch (TransformerException te) {
+            writeTo(output);
+        } catch (TwiMLException te) {
             throw new TwiMLException("Exception serializing TwiML: " + te.getMessage());
         } catch (Exception e) {
             throw new TwiMLException("Unhandled exception: " + e.getMessage());
         }
+        return output.toString();
     }
 
     /**
@@ -164,7 +284,7 @@ public abstract class TwiML {
         TwiML twiml = (TwiML) o;
         return Objects.equals(this.getTagName(), twiml.getTagName()) &&
             Objects.equals(this.getElementBody(), twiml.getElementBody()) &&
-            Objects.equals(this.getElementAttributes(), twiml.getElementAttributes()) &&
+            Arrays.equals(this.elementAttributes(), twiml.elementAttributes()) &&
             Objects.equals(this.getOptions(), twiml.getOptions()) &&
             Objects.equals(this.getChildren(), twiml.getChildren());
     }
@@ -174,12 +294,86 @@ public abstract class TwiML {
         return Objects.hash(
             this.getTagName(),
             this.getElementBody(),
-            this.getElementAttributes(),
+            Arrays.hashCode(this.elementAttributes()),
             this.getChildren(),
             this.getOptions()
         );
     }
 
+    /**
+     * Get a hash of the tree, consistent with {@link #equals}, which is worked out once per element from
+     * the kept attributes and the hashes of its children, and then kept.
+     *
+     * <p>
+     * Unlike {@link #hashCode()}, the hash does not follow changes made to the tree through its builder
+     * after it was first taken, so it is only used for trees which are no longer changed, such as those
+     * rendered through a {@link TwiMLCache}.
+     * </p>
+     *
+     * @return hash of the tree
+     */
+    int structuralHash() {
+        int hash = structuralHash;
+        if (hash != 0) {
+            return hash;
+        }
+
+        hash = Objects.hash(this.getTagName(), this.getElementBody(), this.getOptions());
+        hash = 31 * hash + Arrays.hashCode(this.elementAttributes());
+        for (TwiML child : this.getChildren()) {
+            hash = 31 * hash + child.structuralHash();
+        }
+
+        // 0 marks a hash not worked out yet
+        hash = hash == 0 ? 1 : hash;
+        structuralHash = hash;
+        return hash;
+    }
+
+    /**
+     * Attribute keys seen on an element class, as pairs of key and transformed name sorted by the name.
+     */
+    private static final class AttributeOrder {
+        private final Set<String> keys;
+        private final String[][] names;
+
+        private AttributeOrder(final Set<String> keys) {
+            Map<String, String> sorted = new TreeMap<>();
+            for (String key : keys) {
+                sorted.put(getTransformedAttrName(key), key);
+            }
+
+            this.keys = keys;
+            this.names = new String[sorted.size()][];
+            int i = 0;
+            for (Map.Entry<String, String> name : sorted.entrySet()) {
+                names[i++] = new String[] {name.getValue(), name.getKey()};
+            }
+        }
+    }
+
+    /**
+     * The attribute order of an element class, extended as new attribute keys are seen.
+     */
+    private static final class AttributeOrders {
+        private volatile AttributeOrder order = new AttributeOrder(Collections.<String>emptySet());
+
+        private String[][] covering(final Set<String> attrKeys) {
+            AttributeOrder current = order;
+            if (current.keys.containsAll(attrKeys)) {
+                return current.names;
+            }
+
+            synchronized (this) {
+                Set<String> keys = new HashSet<>(order.keys);
+                keys.addAll(attrKeys);
+                current = new AttributeOrder(Collections.unmodifiableSet(keys));
+                order = current;
+                return current.names;
+            }
+        }
+    }
+
     /**
      * Create a new {@code TwiML} node
      */
@@ -0,0 +1,224 @@
+package com.twilio.twiml;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of rendered TwiML, for responses which are rebuilt per request but rarely change.
+ *
+ * <p>
+ * Trees are looked up by a structural hash which each element works out once, from its attributes and
+ * the hashes of its children, and keeps. Looking up the same tree again costs no walk at all; an equal
+ * tree built anew is hashed once per element and compared with {@code equals}, which reads the kept
+ * attributes of the cached tree. Neither produces any output, so a hit skips serialization entirely.
+ * Entries are evicted least recently used first once the rendered strings exceed the configured number
+ * of bytes.
+ * </p>
+ *
+ * <p>
+ * Cached trees are kept as keys and their hashes are kept in the trees, so a tree must not be changed,
+ * for example through the builder it came from, after being rendered through the cache.
+ * </p>
+ */
+@SuppressWarnings("checkstyle:abbreviationaswordinname")
+public class TwiMLCache {
+
+    private static final long ENTRY_OVERHEAD_BYTES = 64;
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Create a cache.
+     *
+     * @param maxBytes max approximate size of the cached strings
+     */
+    public TwiMLCache(final long maxBytes) {
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Convert TwiML object to XML, reusing the output of an identical tree if cached.
+     *
+     * @param twiml TwiML to render
+     * @return XML string of TwiML object
+     * @throws TwiMLException if cannot generate XML
+     */
+    public String toXml(final TwiML twiml) throws TwiMLException {
+        Entry entry = lookup(twiml);
+        if (entry != null) {
+            return entry.xml;
+        }
+
+        entry = new Entry(twiml.toXml());
+        store(twiml, entry);
+        return entry.xml;
+    }
+
+    /**
+     * Convert TwiML object to URL, reusing the output of an identical tree if cached.
+     *
+     * @param twiml TwiML to render
+     * @return URL string of TwiML object
+     * @throws TwiMLException if cannot generate URL
+     */
+    public String toUrl(final TwiML twiml) throws TwiMLException {
+        Entry entry = lookup(twiml);
+        if (entry == null) {
+            entry = new Entry(twiml.toXml());
+            store(twiml, entry);
+        }
+
+        String url = entry.url;
+        if (url == null) {
+            try {
+                url = URLEncoder.encode(entry.xml, "UTF-8");
+            } catch (UnsupportedEncodingException e) {
+                throw new TwiMLException(e.getMessage());
+            }
+            setUrl(twiml, entry, url);
+        }
+        return url;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Get the share of lookups served from the cache.
+     *
+     * @return hit rate between 0 and 1, or 0 before any lookup
+     */
+    public synchronized double getHitRate() {
+        long lookups = hitCount + missCount;
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+
+    /**
+     * Remove all entries; counters are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    private synchronized Entry lookup(final TwiML twiml) {
+        Entry entry = entries.get(new Key(twiml));
+        if (entry != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return entry;
+    }
+
+    private synchronized void store(final TwiML twiml, final Entry entry) {
+        if (entry.weight() > maxBytes) {
+            return;
+        }
+
+        Entry previous = entries.put(new Key(twiml), entry);
+        if (previous != null) {
+            bytes -= previous.weight();
+        }
+        bytes += entry.weight();
+        evict();
+    }
+
+    private synchronized void setUrl(final TwiML twiml, final Entry entry, final String url) {
+        // Only account for the URL if the entry is still cached
+        if (entries.get(new Key(twiml)) == entry && entry.url == null) {
+            bytes -= entry.weight();
+            entry.url = url;
+            bytes += entry.weight();
+            evict();
+        } else {
+            entry.url = url;
+        }
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().getValue().weight();
+            eldest.remove();
+            evictionCount++;
+        }
+    }
+
+    /**
+     * A tree with its kept structural hash.
+     */
+    private static final class Key {
+        private final TwiML twiml;
+        private final int hash;
+
+        private Key(final TwiML twiml) {
+            this.twiml = twiml;
+            this.hash = twiml.structuralHash();
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) o;
+            return hash == other.hash && (twiml == other.twiml || twiml.equals(other.twiml));
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+        private final String xml;
+        private volatile String url;
+
+        private Entry(final String xml) {
+            this.xml = xml;
+        }
+
+        private long weight() {
+            String u = url;
+            return ENTRY_OVERHEAD_BYTES + 2L * (xml.length() + (u == null ? 0 : u.length()));
+        }
+    }
+}
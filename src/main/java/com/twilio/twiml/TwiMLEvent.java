@@ -0,0 +1,133 @@
+package com.twilio.twiml;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An element start, element end or text read from a TwiML document by a {@link TwiMLEventReader}.
+ */
+@SuppressWarnings("checkstyle:abbreviationaswordinname")
+public final class TwiMLEvent {
+
+    public enum Type {
+        START_ELEMENT,
+        END_ELEMENT,
+        TEXT
+    }
+
+    private final Type type;
+    private final String tagName;
+    private final Map<String, String> attributes;
+    private final String text;
+    private final int depth;
+
+    private TwiMLEvent(
+        final Type type,
+        final String tagName,
+        final Map<String, String> attributes,
+        final String text,
+        final int depth
+    ) {
+        this.type = type;
+        this.tagName = tagName;
+        this.attributes = attributes;
+        this.text = text;
+        this.depth = depth;
+    }
+
+    static TwiMLEvent startElement(final String tagName, final Map<String, String> attributes, final int depth) {
+        return new TwiMLEvent(Type.START_ELEMENT, tagName, Collections.unmodifiableMap(attributes), null, depth);
+    }
+
+    static TwiMLEvent endElement(final String tagName, final int depth) {
+        return new TwiMLEvent(Type.END_ELEMENT, tagName, Collections.<String, String>emptyMap(), null, depth);
+    }
+
+    static TwiMLEvent text(final String text, final int depth) {
+        return new TwiMLEvent(Type.TEXT, null, Collections.<String, String>emptyMap(), text, depth);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Get the tag name of the element.
+     *
+     * @return tag name, or null for text
+     */
+    public String getTagName() {
+        return tagName;
+    }
+
+    /**
+     * Get the attributes of a starting element, in document order, after its namespace declarations
+     * such as {@code xmlns:custom}.
+     *
+     * @return attribute values by name; empty for other events
+     */
+    public Map<String, String> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * Get the text content.
+     *
+     * @return unescaped text, or null for elements
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Get the nesting depth: 0 for the root element, and the depth of the enclosing element plus one
+     * for children and text.
+     *
+     * @return nesting depth
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    public boolean isStartElement() {
+        return type == Type.START_ELEMENT;
+    }
+
+    public boolean isEndElement() {
+        return type == Type.END_ELEMENT;
+    }
+
+    public boolean isText() {
+        return type == Type.TEXT;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        TwiMLEvent other = (TwiMLEvent) o;
+        return type == other.type
+            && depth == other.depth
+            && Objects.equals(tagName, other.tagName)
+            && Objects.equals(attributes, other.attributes)
+            && Objects.equals(text, other.text);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, tagName, attributes, text, depth);
+    }
+
+    @Override
+    public String toString() {
+        return "TwiMLEvent(type=" + type + ", tagName=" + tagName + ", attributes=" + attributes
+            + ", text=" + text + ", depth=" + depth + ")";
+    }
+}
@@ -0,0 +1,146 @@
+package com.twilio.twiml;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Pull reader over the elements and text of a TwiML document.
+ *
+ * <p>
+ * Events are read from the underlying stream as they are requested, so arbitrarily large documents
+ * can be scanned without building a tree. DTDs and external entities are not supported.
+ * </p>
+ */
+@SuppressWarnings("checkstyle:abbreviationaswordinname")
+public class TwiMLEventReader implements Iterator<TwiMLEvent>, AutoCloseable {
+
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private final XMLStreamReader reader;
+    private int depth;
+    private TwiMLEvent next;
+    private boolean finished;
+
+    /**
+     * Create a reader over a character stream.
+     *
+     * @param input TwiML document
+     * @throws TwiMLException if the document cannot be read
+     */
+    public TwiMLEventReader(final Reader input) throws TwiMLException {
+        try {
+            this.reader = FACTORY.createXMLStreamReader(input);
+        } catch (XMLStreamException e) {
+            throw new TwiMLException("Exception parsing TwiML: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Create a reader over a byte stream, detecting its encoding from the XML declaration.
+     *
+     * @param input TwiML document
+     * @throws TwiMLException if the document cannot be read
+     */
+    public TwiMLEventReader(final InputStream input) throws TwiMLException {
+        try {
+            this.reader = FACTORY.createXMLStreamReader(input);
+        } catch (XMLStreamException e) {
+            throw new TwiMLException("Exception parsing TwiML: " + e.getMessage());
+        }
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    @Override
+    public boolean hasNext() throws TwiMLException {
+        if (next == null && !finished) {
+            try {
+                next = advance();
+            } catch (XMLStreamException e) {
+                throw new TwiMLException("Exception parsing TwiML: " + e.getMessage());
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public TwiMLEvent next() throws TwiMLException {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        TwiMLEvent event = next;
+        next = null;
+        return event;
+    }
+
+    @Override
+    public void close() throws TwiMLException {
+        finished = true;
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            throw new TwiMLException("Exception parsing TwiML: " + e.getMessage());
+        }
+    }
+
+    private TwiMLEvent advance() throws XMLStreamException {
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    Map<String, String> attributes = new LinkedHashMap<>();
+                    // Namespace declarations are kept as attributes, so they are written back out
+                    for (int i = 0; i < reader.getNamespaceCount(); i++) {
+                        String prefix = reader.getNamespacePrefix(i);
+                        attributes.put(
+                            prefix == null || prefix.isEmpty() ? "xmlns" : qualifiedName("xmlns", prefix),
+                            reader.getNamespaceURI(i)
+                        );
+                    }
+                    for (int i = 0; i < reader.getAttributeCount(); i++) {
+                        attributes.put(
+                            qualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)),
+                            reader.getAttributeValue(i)
+                        );
+                    }
+                    return TwiMLEvent.startElement(
+                        qualifiedName(reader.getPrefix(), reader.getLocalName()),
+                        attributes,
+                        depth++
+                    );
+                case XMLStreamConstants.END_ELEMENT:
+                    return TwiMLEvent.endElement(qualifiedName(reader.getPrefix(), reader.getLocalName()), --depth);
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if (depth > 0) {
+                        return TwiMLEvent.text(reader.getText(), depth);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        finished = true;
+        return null;
+    }
+
+    private static String qualifiedName(final String prefix, final String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+    }
+}
@@ -0,0 +1,568 @@
+package com.twilio.twiml;
+
+import com.twilio.twiml.video.Room;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parses TwiML documents into the TwiML object model.
+ *
+ * <p>
+ * Elements are built with the generated builders, for example {@code <Say>} inside a voice
+ * {@code <Response>} becomes a {@link com.twilio.twiml.voice.Say}, with attributes set through the
+ * typed builder methods. Elements which are not known in their parent become {@link GenericNode}s, and
+ * attribute values which the typed methods cannot reproduce exactly are kept as options, so the parsed
+ * tree renders back to equivalent XML. Namespace declarations are kept as options. Whitespace between
+ * child elements is ignored.
+ * </p>
+ *
+ * <p>
+ * To scan documents without building trees, use a {@link TwiMLEventReader}.
+ * </p>
+ */
+@SuppressWarnings("checkstyle:abbreviationaswordinname")
+public class TwiMLParser {
+
+    private static final Set<String> JAVA_KEYWORDS = new HashSet<>(Arrays.asList(
+        "break", "case", "class", "default", "do", "else", "for", "if", "new", "return", "switch", "while"
+    ));
+
+    private static final Map<Class<?>, ElementType> ELEMENT_TYPES = new ConcurrentHashMap<>();
+
+    private TwiMLParser() {
+    }
+
+    /**
+     * Parse a TwiML document, detecting the kind of response from its content.
+     *
+     * @param xml TwiML document
+     * @return parsed TwiML
+     * @throws TwiMLException if the document cannot be parsed
+     */
+    public static TwiML parse(final String xml) throws TwiMLException {
+        return parse(new StringReader(xml));
+    }
+
+    /**
+     * Parse a TwiML document, detecting the kind of response from its content.
+     *
+     * <p>
+     * A {@code <Response>} containing {@code <Message>} is a {@link MessagingResponse}, one containing
+     * {@code <Receive>} a {@link FaxResponse}, and any other a {@link VoiceResponse}. Verbs valid in more
+     * than one kind, such as {@code <Redirect>}, do not decide it, so {@code <Redirect>} followed by
+     * {@code <Message>} is a messaging response. A root {@code <Room>} is a video room.
+     * </p>
+     *
+     * @param input TwiML document
+     * @return parsed TwiML
+     * @throws TwiMLException if the document cannot be parsed
+     */
+    public static TwiML parse(final Reader input) throws TwiMLException {
+        try (TwiMLEventReader events = new TwiMLEventReader(input)) {
+            return parse(events, null);
+        }
+    }
+
+    /**
+     * Parse a TwiML document, detecting the kind of response from its content.
+     *
+     * @param input TwiML document
+     * @return parsed TwiML
+     * @throws TwiMLException if the document cannot be parsed
+     */
+    public static TwiML parse(final InputStream input) throws TwiMLException {
+        try (TwiMLEventReader events = new TwiMLEventReader(input)) {
+            return parse(events, null);
+        }
+    }
+
+    /**
+     * Parse a TwiML document with a known root type.
+     *
+     * @param xml  TwiML document
+     * @param type type of the root element, for example {@code VoiceResponse.class}
+     * @param <T>  type of the root element
+     * @return parsed TwiML
+     * @throws TwiMLException if the document cannot be parsed or has a different root element
+     */
+    public static <T extends TwiML> T parse(final String xml, final Class<T> type) throws TwiMLException {
+        return parse(new StringReader(xml), type);
+    }
+
+    /**
+     * Parse a TwiML document with a known root type.
+     *
+     * @param input TwiML document
+     * @param type  type of the root element, for example {@code VoiceResponse.class}
+     * @param <T>   type of the root element
+     * @return parsed TwiML
+     * @throws TwiMLException if the document cannot be parsed or has a different root element
+     */
+    public static <T extends TwiML> T parse(final Reader input, final Class<T> type) throws TwiMLException {
+        try (TwiMLEventReader events = new TwiMLEventReader(input)) {
+            return type.cast(parse(events, Objects.requireNonNull(type, "type")));
+        }
+    }
+
+    /**
+     * Parse a TwiML document with a known root type.
+     *
+     * @param input TwiML document
+     * @param type  type of the root element, for example {@code VoiceResponse.class}
+     * @param <T>   type of the root element
+     * @return parsed TwiML
+     * @throws TwiMLException if the document cannot be parsed or has a different root element
+     */
+    public static <T extends TwiML> T parse(final InputStream input, final Class<T> type) throws TwiMLException {
+        try (TwiMLEventReader events = new TwiMLEventReader(input)) {
+            return type.cast(parse(events, Objects.requireNonNull(type, "type")));
+        }
+    }
+
+    private static TwiML parse(final TwiMLEventReader events, final Class<? extends TwiML> rootType) {
+        Deque<PendingElement> open = new ArrayDeque<>();
+        ResponseDetector detector = null;
+        Deque<TwiMLEvent> replay = new ArrayDeque<>();
+        TwiML root = null;
+
+        while (!replay.isEmpty() || events.hasNext()) {
+            TwiMLEvent event = replay.isEmpty() ? events.next() : replay.poll();
+
+            if (detector != null) {
+                // Hold the content of the response until one of its verbs tells which kind it is
+                Class<? extends TwiML> responseType = detector.accept(event);
+                if (responseType != null) {
+                    open.peek().type = elementType(responseType);
+                    replay.addAll(detector.events);
+                    detector = null;
+                }
+                continue;
+            }
+
+            if (event.isStartElement()) {
+                PendingElement parent = open.peek();
+                ElementType type;
+
+                if (parent == null) {
+                    type = rootType != null ? elementType(rootType) : detectRootType(event.getTagName());
+                    if (rootType == null && "Response".equals(event.getTagName())) {
+                        detector = new ResponseDetector();
+                    }
+                } else {
+                    type = parent.type == null ? null : parent.type.childType(event.getTagName());
+                }
+
+                open.push(new PendingElement(event.getTagName(), type, event.getAttributes()));
+            } else if (event.isText()) {
+                open.peek().content.add(event.getText());
+            } else {
+                PendingElement element = open.pop();
+                TwiML node = element.build();
+                if (open.isEmpty()) {
+                    root = node;
+                } else {
+                    open.peek().content.add(node);
+                    open.peek().hasChildElements = true;
+                }
+            }
+        }
+
+        if (root == null) {
+            throw new TwiMLException("Exception parsing TwiML: no root element");
+        }
+
+        if (rootType != null && !rootType.isInstance(root)) {
+            throw new TwiMLException("Expected " + rootType.getSimpleName() + " but found <" + root.getTagName() + ">");
+        }
+
+        return root;
+    }
+
+    private static ElementType detectRootType(final String tagName) {
+        if ("Room".equals(tagName)) {
+            return elementType(Room.class);
+        }
+        return null;
+    }
+
+    private static ElementType elementType(final Class<?> type) {
+        return ELEMENT_TYPES.computeIfAbsent(type, ElementType::new);
+    }
+
+    /**
+     * Convert an XML name to the name of the builder method, for example {@code say-as} to {@code sayAs}.
+     */
+    private static String methodName(final String xmlName) {
+        StringBuilder name = new StringBuilder(xmlName.length() + 1);
+        boolean upper = false;
+
+        for (int i = 0; i < xmlName.length(); i++) {
+            char c = xmlName.charAt(i);
+            if (c == '-' || c == ':') {
+                upper = true;
+            } else if (name.length() == 0) {
+                name.append(Character.toLowerCase(c));
+            } else {
+                name.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            }
+        }
+
+        if (JAVA_KEYWORDS.contains(name.toString())) {
+            name.append('_');
+        }
+        return name.toString();
+    }
+
+    /**
+     * Works out the kind of a {@code <Response>} from its verbs, holding its events until it knows.
+     *
+     * <p>
+     * Verbs such as {@code <Redirect>} are valid in more than one kind of response, so each verb narrows
+     * the candidates until one is left. A response whose verbs never single one out is a voice response
+     * if they allow it.
+     * </p>
+     */
+    private static final class ResponseDetector {
+        private final List<TwiMLEvent> events = new ArrayList<>();
+        private final List<Class<? extends TwiML>> candidates = new ArrayList<>(Arrays.asList(
+            VoiceResponse.class, MessagingResponse.class, FaxResponse.class
+        ));
+        private int depth;
+
+        /**
+         * Hold an event inside the response.
+         *
+         * @return kind of the response once known, else null
+         */
+        private Class<? extends TwiML> accept(final TwiMLEvent event) {
+            events.add(event);
+
+            if (event.isEndElement() && depth-- == 0) {
+                return candidates.get(0);
+            }
+            if (!event.isStartElement() || depth++ > 0) {
+                return null;
+            }
+
+            List<Class<? extends TwiML>> narrowed = new ArrayList<>(candidates);
+            narrowed.removeIf(candidate -> elementType(candidate).childType(event.getTagName()) == null);
+            if (!narrowed.isEmpty()) {
+                candidates.retainAll(narrowed);
+            }
+            return candidates.size() == 1 ? candidates.get(0) : null;
+        }
+    }
+
+    /**
+     * An element whose start has been read, collecting its content until its end.
+     */
+    private static final class PendingElement {
+        private final String tagName;
+        private final Map<String, String> attributes;
+        private final List<Object> content = new ArrayList<>();
+        private ElementType type;
+        private boolean hasChildElements;
+
+        private PendingElement(final String tagName, final ElementType type, final Map<String, String> attributes) {
+            this.tagName = tagName;
+            this.type = type;
+            this.attributes = attributes;
+        }
+
+        private TwiML build() {
+            List<Object> filtered = new ArrayList<>(content.size());
+            for (Object item : content) {
+                if (!(hasChildElements && item instanceof String && ((String) item).trim().isEmpty())) {
+                    filtered.add(item);
+                }
+            }
+
+            if (type == null || !tagName.equals(type.tagName)) {
+                return buildGeneric(filtered);
+            }
+
+            List<Object> items = new ArrayList<>(filtered);
+
+            String body = null;
+            if (type.bodyConstructor != null && !items.isEmpty() && items.get(0) instanceof String) {
+                if (type.bodyIsText) {
+                    body = (String) items.remove(0);
+                } else if (type.defaultConstructor == null) {
+                    return buildGeneric(filtered);
+                }
+            }
+
+            TwiML node = type.build(body, attributes, items);
+
+            if (body != null && !body.equals(node.getElementBody())) {
+                // Only for text the body cannot hold, such as a malformed url
+                if (type.defaultConstructor == null) {
+                    return buildGeneric(filtered);
+                }
+                items.add(0, body);
+                node = type.build(null, attributes, items);
+            }
+
+            return node;
+        }
+
+        private TwiML buildGeneric(final List<Object> items) {
+            GenericNode.Builder builder = new GenericNode.Builder(tagName);
+            for (Map.Entry<String, String> attr : attributes.entrySet()) {
+                builder.option(attr.getKey(), attr.getValue());
+            }
+            for (Object item : items) {
+                if (item instanceof String) {
+                    builder.addText((String) item);
+                } else {
+                    builder.children.add((TwiML) item);
+                }
+            }
+            return builder.build();
+        }
+    }
+
+    /**
+     * Reflective view of a generated TwiML class and its builder.
+     *
+     * <p>
+     * What the builder does with its input, such as the attribute each setter writes, is worked out once
+     * per class on a throwaway builder, so each parsed element is built once.
+     * </p>
+     */
+    private static final class ElementType {
+        private final Constructor<?> defaultConstructor;
+        private final Constructor<?> bodyConstructor;
+        private final Method build;
+        private final Map<String, List<Method>> setters = new HashMap<>();
+        private final Map<String, Class<?>> children = new HashMap<>();
+        private final Map<Method, String> attributeNames = new ConcurrentHashMap<>();
+        private final String tagName;
+        private final boolean bodyIsText;
+
+        private ElementType(final Class<?> type) {
+            Class<?> builder = null;
+            for (Class<?> nested : type.getDeclaredClasses()) {
+                if ("Builder".equals(nested.getSimpleName()) && TwiML.Builder.class.isAssignableFrom(nested)) {
+                    builder = nested;
+                }
+            }
+
+            if (builder == null) {
+                throw new TwiMLException("No builder for " + type.getName());
+            }
+
+            this.defaultConstructor = constructor(builder);
+            this.bodyConstructor = constructor(builder, String.class);
+
+            try {
+                this.build = builder.getMethod("build");
+            } catch (NoSuchMethodException e) {
+                throw new TwiMLException("No build method for " + type.getName());
+            }
+
+            for (Method method : builder.getMethods()) {
+                if (method.getParameterCount() != 1 || method.getDeclaringClass() != builder
+                        || Modifier.isStatic(method.getModifiers())) {
+                    continue;
+                }
+
+                Class<?> parameter = method.getParameterTypes()[0];
+                if (TwiML.class.isAssignableFrom(parameter) && parameter != GenericNode.class) {
+                    children.put(method.getName(), parameter);
+                } else {
+                    setters.computeIfAbsent(method.getName(), k -> new ArrayList<>()).add(method);
+                }
+            }
+
+            // Only use String overloads of typed setters, which drop values they cannot convert, as a last resort
+            for (List<Method> overloads : setters.values()) {
+                overloads.sort((a, b) -> Boolean.compare(
+                    a.getParameterTypes()[0] == String.class,
+                    b.getParameterTypes()[0] == String.class
+                ));
+            }
+
+            try {
+                this.tagName = ((TwiML) build.invoke(newBuilder(null))).getTagName();
+                this.bodyIsText = bodyConstructor != null
+                    && "body".equals(((TwiML) build.invoke(newBuilder("body"))).getElementBody());
+            } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+                throw new TwiMLException("Unhandled exception: " + e.getMessage());
+            }
+        }
+
+        private static Constructor<?> constructor(final Class<?> builder, final Class<?>... parameters) {
+            try {
+                return builder.getConstructor(parameters);
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+
+        private ElementType childType(final String tagName) {
+            Class<?> child = children.get(methodName(tagName));
+            return child == null ? null : elementType(child);
+        }
+
+        private TwiML.Builder<?> newBuilder(final String body)
+                throws InstantiationException, IllegalAccessException, InvocationTargetException {
+            return (TwiML.Builder<?>) (body != null
+                ? bodyConstructor.newInstance(body)
+                : (defaultConstructor != null ? defaultConstructor.newInstance() : bodyConstructor.newInstance(""))
+            );
+        }
+
+        private TwiML build(final String body, final Map<String, String> attributes, final List<Object> items) {
+            try {
+                TwiML.Builder<?> builder = newBuilder(body);
+
+                // Keep attributes which the typed builder methods do not reproduce exactly as options
+                for (Map.Entry<String, String> attr : attributes.entrySet()) {
+                    if (!set(builder, attr.getKey(), attr.getValue())) {
+                        builder.option(attr.getKey(), attr.getValue());
+                    }
+                }
+
+                for (Object item : items) {
+                    if (item instanceof String) {
+                        builder.addText((String) item);
+                    } else {
+                        builder.children.add((TwiML) item);
+                    }
+                }
+
+                return (TwiML) build.invoke(builder);
+            } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+                throw new TwiMLException("Unhandled exception: " + e.getMessage());
+            }
+        }
+
+        private boolean set(final TwiML.Builder<?> builder, final String name, final String value)
+                throws InstantiationException, IllegalAccessException, InvocationTargetException {
+            String methodName = methodName(name);
+
+            for (String candidate : Arrays.asList(methodName, methodName + "s")) {
+                List<Method> overloads = setters.getOrDefault(candidate, Collections.<Method>emptyList());
+                for (Method setter : overloads) {
+                    if (setter.getParameterTypes()[0] == String.class && overloads.size() > 1) {
+                        continue;
+                    }
+
+                    Object converted = convert(value, setter.getParameterTypes()[0], setter.getGenericParameterTypes()[0]);
+                    if (converted != null && value.equals(render(converted))
+                            && name.equals(attributeName(setter, converted))) {
+                        setter.invoke(builder, converted);
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Get the attribute a setter writes, trying it on a new builder the first time.
+         */
+        private String attributeName(final Method setter, final Object value)
+                throws InstantiationException, IllegalAccessException, InvocationTargetException {
+            String name = attributeNames.get(setter);
+            if (name == null) {
+                TwiML.Builder<?> probe = newBuilder(null);
+                setter.invoke(probe, value);
+                Set<String> written = ((TwiML) build.invoke(probe)).getElementAttributes().keySet();
+
+                name = written.size() == 1 ? written.iterator().next() : "";
+                name = "for_".equals(name) ? "for" : name;
+                attributeNames.put(setter, name);
+            }
+            return name;
+        }
+
+        /**
+         * Render a converted value the way the generated classes write it.
+         */
+        private static String render(final Object value) {
+            if (value instanceof List) {
+                StringBuilder rendered = new StringBuilder();
+                for (Object item : (List<?>) value) {
+                    if (rendered.length() > 0) {
+                        rendered.append(' ');
+                    }
+                    rendered.append(item);
+                }
+                return rendered.toString();
+            }
+            return value.toString();
+        }
+
+        private static Object convert(final String value, final Class<?> type, final Type genericType) {
+            try {
+                if (type == String.class) {
+                    return value;
+                }
+                if (type == Integer.class) {
+                    return Integer.valueOf(value);
+                }
+                if (type == Double.class) {
+                    return Double.valueOf(value);
+                }
+                if (type == Boolean.class) {
+                    return "true".equals(value) ? Boolean.TRUE : ("false".equals(value) ? Boolean.FALSE : null);
+                }
+                if (type == URI.class) {
+                    return new URI(value);
+                }
+                if (type.isEnum()) {
+                    for (Object constant : type.getEnumConstants()) {
+                        if (constant.toString().equals(value)) {
+                            return constant;
+                        }
+                    }
+                    return null;
+                }
+                if (type == List.class && genericType instanceof ParameterizedType) {
+                    Type element = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+                    if (!(element instanceof Class)) {
+                        return null;
+                    }
+
+                    List<Object> values = new ArrayList<>();
+                    for (String part : value.split(" ", -1)) {
+                        Object converted = convert(part, (Class<?>) element, element);
+                        if (converted == null) {
+                            return null;
+                        }
+                        values.add(converted);
+                    }
+                    return values;
+                }
+            } catch (IllegalArgumentException | URISyntaxException e) {
+                return null;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.twilio.twiml;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * TwiML compiled once and rendered many times with different parameter values.
+ *
+ * <p>
+ * Build a response as usual, using {@link #slot(String)} wherever a value changes per request, and
+ * compile it. Rendering copies the pre-escaped UTF-8 segments of the document and escapes only the
+ * parameter values, so the TwiML tree is not walked again. Output matches {@link TwiML#toXml()} of
+ * the same tree built with the values in place, except that an element whose only content is a slot
+ * keeps its end tag when the value is empty.
+ * </p>
+ *
+ * <pre>
+ * TwiMLTemplate template = TwiMLTemplate.compile(new VoiceResponse.Builder()
+ *     .say(new Say.Builder("Hello " + TwiMLTemplate.slot("name")).build())
+ *     .redirect(new Redirect.Builder("/menu?caller=" + TwiMLTemplate.slot("caller")).build())
+ *     .build());
+ *
+ * String xml = template.toXml(params);
+ * </pre>
+ *
+ * <p>
+ * Slots can be used in element text and in string attributes and options. Templates are immutable
+ * and safe to share between threads.
+ * </p>
+ */
+@SuppressWarnings("checkstyle:abbreviationaswordinname")
+public final class TwiMLTemplate {
+
+    private static final char SLOT_START = '\uE000';
+    private static final char SLOT_END = '\uE001';
+
+    private static final ThreadLocal<RenderBuffer> BUFFERS = ThreadLocal.withInitial(RenderBuffer::new);
+
+    private final byte[][] segments;
+    private final String[] slots;
+    private final boolean[] inAttribute;
+    private final Set<String> slotNames;
+
+    private TwiMLTemplate(
+        final byte[][] segments,
+        final String[] slots,
+        final boolean[] inAttribute
+    ) {
+        this.segments = segments;
+        this.slots = slots;
+        this.inAttribute = inAttribute;
+
+        Set<String> names = new LinkedHashSet<>();
+        Collections.addAll(names, slots);
+        this.slotNames = Collections.unmodifiableSet(names);
+    }
+
+    /**
+     * Placeholder for a parameter, to use in text or attribute values of the TwiML being compiled.
+     *
+     * @param name name of the parameter
+     * @return placeholder string
+     */
+    public static String slot(final String name) {
+        if (name == null || name.isEmpty() || name.indexOf(SLOT_START) >= 0 || name.indexOf(SLOT_END) >= 0) {
+            throw new IllegalArgumentException("Invalid TwiML template slot name: " + name);
+        }
+        return SLOT_START + name + SLOT_END;
+    }
+
+    /**
+     * Compile TwiML containing slots into a template.
+     *
+     * @param twiml TwiML to compile
+     * @return compiled template
+     * @throws TwiMLException if cannot generate XML
+     */
+    public static TwiMLTemplate compile(final TwiML twiml) throws TwiMLException {
+        String xml = twiml.toXml();
+
+        List<byte[]> segments = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        List<Boolean> inAttribute = new ArrayList<>();
+
+        int segmentStart = 0;
+        int tagStart = -1;
+        int tagEnd = -1;
+
+        for (int i = 0; i < xml.length(); i++) {
+            char c = xml.charAt(i);
+            if (c == '<') {
+                tagStart = i;
+            } else if (c == '>') {
+                tagEnd = i;
+            } else if (c == SLOT_END) {
+                throw new TwiMLException("Unmatched end of TwiML template slot at " + i);
+            } else if (c == SLOT_START) {
+                int end = xml.indexOf(SLOT_END, i);
+                if (end < 0) {
+                    throw new TwiMLException("Unterminated TwiML template slot at " + i);
+                }
+
+                segments.add(xml.substring(segmentStart, i).getBytes(StandardCharsets.UTF_8));
+                slots.add(xml.substring(i + 1, end));
+                // Markup characters are always escaped in values, so an open tag means an attribute
+                inAttribute.add(tagStart > tagEnd);
+
+                segmentStart = end + 1;
+                i = end;
+            }
+        }
+        segments.add(xml.substring(segmentStart).getBytes(StandardCharsets.UTF_8));
+
+        boolean[] attributes = new boolean[inAttribute.size()];
+        for (int i = 0; i < attributes.length; i++) {
+            attributes[i] = inAttribute.get(i);
+        }
+
+        return new TwiMLTemplate(
+            segments.toArray(new byte[0][]),
+            slots.toArray(new String[0]),
+            attributes
+        );
+    }
+
+    /**
+     * Get the names of the slots in this template.
+     *
+     * @return slot names in document order
+     */
+    public Set<String> getSlotNames() {
+        return slotNames;
+    }
+
+    /**
+     * Render the template as UTF-8 encoded XML.
+     *
+     * @param out    destination of the XML
+     * @param params values for every slot
+     * @throws IOException if the destination fails
+     * @throws TwiMLException if a value cannot be serialized
+     */
+    public void writeTo(final OutputStream out, final Map<String, String> params) throws IOException, TwiMLException {
+        RenderBuffer buffer = BUFFERS.get();
+        for (int i = 0; i < slots.length; i++) {
+            out.write(segments[i]);
+            out.write(buffer.escape(slots[i], params, inAttribute[i]));
+        }
+        out.write(segments[slots.length]);
+    }
+
+    /**
+     * Render the template to UTF-8 encoded XML.
+     *
+     * @param params values for every slot
+     * @return XML bytes
+     * @throws TwiMLException if a value cannot be serialized
+     */
+    public byte[] toBytes(final Map<String, String> params) throws TwiMLException {
+        return render(params).toByteArray();
+    }
+
+    /**
+     * Render the template to XML.
+     *
+     * @param params values for every slot
+     * @return XML string
+     * @throws TwiMLException if a value cannot be serialized
+     */
+    public String toXml(final Map<String, String> params) throws TwiMLException {
+        return new String(render(params).toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private ByteArrayOutputStream render(final Map<String, String> params) {
+        RenderBuffer buffer = BUFFERS.get();
+        ByteArrayOutputStream out = buffer.output;
+        out.reset();
+        try {
+            writeTo(out, params);
+        } catch (IOException e) {
+            throw new TwiMLException(e.getMessage());
+        }
+        return out;
+    }
+
+    /**
+     * Per thread buffers reused across renders.
+     */
+    private static final class RenderBuffer {
+        private final ByteArrayOutputStream output = new ByteArrayOutputStream(1024);
+        private final StringWriter escaped = new StringWriter(64);
+        private final TwiMLWriter writer = new TwiMLWriter(escaped);
+
+        private byte[] escape(
+            final String slot,
+            final Map<String, String> params,
+            final boolean attribute
+        ) throws IOException {
+            String value = params.get(slot);
+            if (value == null) {
+                throw new IllegalArgumentException("Missing value for TwiML template slot: " + slot);
+            }
+
+            escaped.getBuffer().setLength(0);
+            if (attribute) {
+                writer.escapeAttribute(value);
+            } else {
+                writer.escapeText(value);
+            }
+            return escaped.toString().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.twilio.twiml;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Streaming XML writer for TwiML documents.
+ *
+ * <p>
+ * Writes elements straight to a {@link Writer} without building a DOM. Escaping follows the JDK
+ * serializer used by earlier versions of {@link TwiML#toXml()}, so output is byte for byte identical:
+ * character references for control characters, carriage returns and supplementary characters, and
+ * attributes in sorted order (callers pass them sorted).
+ * </p>
+ */
+@SuppressWarnings("checkstyle:abbreviationaswordinname")
+public final class TwiMLWriter {
+
+    public static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>";
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final Writer out;
+    private boolean startTagOpen;
+
+    /**
+     * Create a writer.
+     *
+     * @param out destination of the XML
+     */
+    public TwiMLWriter(final Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * Write the XML declaration.
+     *
+     * @throws IOException if the destination fails
+     */
+    public void declaration() throws IOException {
+        out.write(XML_DECLARATION);
+    }
+
+    /**
+     * Open an element; attributes may follow until content or another element is written.
+     *
+     * @param tagName element name
+     * @throws IOException if the destination fails
+     */
+    public void startElement(final String tagName) throws IOException {
+        closeStartTag();
+        out.write('<');
+        out.write(tagName);
+        startTagOpen = true;
+    }
+
+    /**
+     * Write an attribute of the element just opened.
+     *
+     * @param name  attribute name
+     * @param value attribute value
+     * @throws IOException if the destination fails
+     */
+    public void attribute(final String name, final String value) throws IOException {
+        if (!startTagOpen) {
+            throw new IllegalStateException("Attributes must directly follow the start of an element");
+        }
+
+        out.write(' ');
+        out.write(name);
+        out.write("=\"");
+        if (value != null) {
+            escapeAttribute(value);
+        }
+        out.write('"');
+    }
+
+    /**
+     * Write pre-escaped markup as content of the current element.
+     *
+     * @param markup markup to copy verbatim
+     * @throws IOException if the destination fails
+     */
+    public void raw(final String markup) throws IOException {
+        if (markup.isEmpty()) {
+            return;
+        }
+
+        closeStartTag();
+        out.write(markup);
+    }
+
+    /**
+     * Write text content.
+     *
+     * @param text text to escape and write
+     * @throws IOException if the destination fails
+     */
+    public void text(final String text) throws IOException {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+
+        closeStartTag();
+        escapeText(text);
+    }
+
+    /**
+     * Close an element, as an empty element tag if nothing was written into it.
+     *
+     * @param tagName element name
+     * @throws IOException if the destination fails
+     */
+    public void endElement(final String tagName) throws IOException {
+        if (startTagOpen) {
+            out.write("/>");
+            startTagOpen = false;
+        } else {
+            out.write("</");
+            out.write(tagName);
+            out.write('>');
+        }
+    }
+
+    /**
+     * Flush the destination.
+     *
+     * @throws IOException if the destination fails
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private void closeStartTag() throws IOException {
+        if (startTagOpen) {
+            out.write('>');
+            startTagOpen = false;
+        }
+    }
+
+    void escapeText(final String text) throws IOException {
+        int length = text.length();
+        int start = 0;
+
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            String replacement;
+
+            if (c == '&') {
+                replacement = "&amp;";
+            } else if (c == '<') {
+                replacement = "&lt;";
+            } else if (c == '>') {
+                replacement = "&gt;";
+            } else if (c == '\n') {
+                replacement = LINE_SEPARATOR;
+            } else if (c == '\t' || (c >= 0x20 && c < 0x7F) || (c > 0x9F && !Character.isSurrogate(c))) {
+                continue;
+            } else {
+                replacement = null;
+            }
+
+            out.write(text, start, i - start);
+            if (replacement != null) {
+                out.write(replacement);
+            } else {
+                i = writeCharacterReference(text, i);
+            }
+            start = i + 1;
+        }
+
+        out.write(text, start, length - start);
+    }
+
+    void escapeAttribute(final String value) throws IOException {
+        int length = value.length();
+        int start = 0;
+
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            String replacement;
+
+            if (c == '&') {
+                replacement = "&amp;";
+            } else if (c == '<') {
+                replacement = "&lt;";
+            } else if (c == '>') {
+                replacement = "&gt;";
+            } else if (c == '"') {
+                replacement = "&quot;";
+            } else if (c >= 0x20 && !Character.isSurrogate(c)) {
+                continue;
+            } else {
+                replacement = null;
+            }
+
+            out.write(value, start, i - start);
+            if (replacement != null) {
+                out.write(replacement);
+            } else {
+                i = writeCharacterReference(value, i);
+            }
+            start = i + 1;
+        }
+
+        out.write(value, start, length - start);
+    }
+
+    /**
+     * Write a numeric character reference for the character at the index.
+     *
+     * @return index of the last char consumed
+     */
+    private int writeCharacterReference(final String s, final int index) throws IOException {
+        char c = s.charAt(index);
+        int codePoint = c;
+        int last = index;
+
+        if (Character.isHighSurrogate(c) && index + 1 < s.length() && Character.isLowSurrogate(s.charAt(index + 1))) {
+            codePoint = Character.toCodePoint(c, s.charAt(index + 1));
+            last = index + 1;
+        } else if (Character.isSurrogate(c)) {
+            throw new TwiMLException("Invalid UTF-16 surrogate detected: " + Integer.toHexString(c));
+        }
+
+        out.write("&#");
+        out.write(Integer.toString(codePoint));
+        out.write(';');
+        return last;
+    }
+}
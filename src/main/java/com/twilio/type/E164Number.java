@@ -0,0 +1,298 @@
+package com.twilio.type;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A phone number in E.164 form, held as its digits packed in a {@code long}.
+ *
+ * <p>
+ * Parsing drops spaces, dashes, dots and parentheses, so {@code +1 (415) 555-0100} and
+ * {@code +14155550100} are the same number. Equality and hashing compare the packed digits, so
+ * numbers are cheap to use as map keys. The E.164 string and the {@link PhoneNumber} used by
+ * creators are built when first asked for and kept, which makes numbers shared through a
+ * {@link Pool} free to pass to every request.
+ * </p>
+ */
+public final class E164Number implements Endpoint, Comparable<E164Number> {
+
+    /** Max number of digits of an E.164 number. */
+    public static final int MAX_DIGITS = 15;
+
+    private final long digits;
+    private String endpoint;
+    private volatile PhoneNumber phoneNumber;
+
+    private E164Number(final long digits) {
+        this.digits = digits;
+    }
+
+    /**
+     * Parse a number in E.164 form.
+     *
+     * @param number number starting with {@code +}, optionally formatted
+     * @return parsed number
+     * @throws IllegalArgumentException if the number is not in E.164 form
+     */
+    public static E164Number parse(final CharSequence number) {
+        long digits = pack(number);
+        if (digits < 0) {
+            throw new IllegalArgumentException("Not an E.164 phone number: " + number);
+        }
+        return new E164Number(digits);
+    }
+
+    /**
+     * Parse a number in E.164 form, such as the {@code to} of a message, which may also be a client or
+     * channel address.
+     *
+     * @param number number to parse
+     * @return parsed number, or null if it is not in E.164 form
+     */
+    public static E164Number tryParse(final CharSequence number) {
+        long digits = pack(number);
+        return digits < 0 ? null : new E164Number(digits);
+    }
+
+    /**
+     * Convert a phone number to E.164 form.
+     *
+     * @param phoneNumber phone number to convert
+     * @return converted number
+     * @throws IllegalArgumentException if the number is not in E.164 form
+     */
+    public static E164Number of(final PhoneNumber phoneNumber) {
+        return parse(phoneNumber.getEndpoint());
+    }
+
+    /**
+     * Get a number from digits packed by {@link #pack}.
+     *
+     * @param digits digits of the number, without the {@code +}
+     * @return number
+     * @throws IllegalArgumentException if the digits are not a valid E.164 number
+     */
+    public static E164Number fromDigits(final long digits) {
+        if (digits <= 0 || digits > 999_999_999_999_999L) {
+            throw new IllegalArgumentException("Not an E.164 phone number: +" + digits);
+        }
+        return new E164Number(digits);
+    }
+
+    /**
+     * Pack the digits of a number in E.164 form without creating any objects, to key maps and sets
+     * of primitives.
+     *
+     * @param number number starting with {@code +}, optionally formatted
+     * @return digits of the number, or -1 if it is not in E.164 form
+     */
+    public static long pack(final CharSequence number) {
+        if (number == null) {
+            return -1;
+        }
+
+        int length = number.length();
+        int i = 0;
+        while (i < length && Character.isWhitespace(number.charAt(i))) {
+            i++;
+        }
+        if (i == length || number.charAt(i) != '+') {
+            return -1;
+        }
+
+        long digits = 0;
+        int count = 0;
+        for (i++; i < length; i++) {
+            char c = number.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (count == 0 && c == '0') {
+                    // Country codes never start with 0
+                    return -1;
+                }
+                if (++count > MAX_DIGITS) {
+                    return -1;
+                }
+                digits = digits * 10 + (c - '0');
+            } else if (c != ' ' && c != '-' && c != '.' && c != '(' && c != ')') {
+                return -1;
+            }
+        }
+        return count == 0 ? -1 : digits;
+    }
+
+    /**
+     * Get the digits of the number, without the {@code +}.
+     *
+     * @return packed digits
+     */
+    public long getDigits() {
+        return digits;
+    }
+
+    @Override
+    public String getEndpoint() {
+        String e164 = endpoint;
+        if (e164 == null) {
+            // Racing threads build equal strings, so either may be kept
+            e164 = "+" + digits;
+            endpoint = e164;
+        }
+        return e164;
+    }
+
+    /**
+     * Get the number as a {@link PhoneNumber}, as taken by creators.
+     *
+     * @return phone number in E.164 form, the same instance on every call
+     */
+    public PhoneNumber toPhoneNumber() {
+        PhoneNumber number = phoneNumber;
+        if (number == null) {
+            synchronized (this) {
+                number = phoneNumber;
+                if (number == null) {
+                    number = new PhoneNumber(getEndpoint());
+                    phoneNumber = number;
+                }
+            }
+        }
+        return number;
+    }
+
+    @Override
+    public int compareTo(final E164Number other) {
+        return Long.compare(digits, other.digits);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        return digits == ((E164Number) o).digits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(digits);
+    }
+
+    @Override
+    public String toString() {
+        return getEndpoint();
+    }
+
+    /**
+     * Keeps one instance of each number, such as the sender numbers of an account, so every message
+     * from a number shares its strings and {@link PhoneNumber}.
+     *
+     * <p>
+     * The pool is a table of {@code maximumSize} slots indexed by the packed digits, so looking a number
+     * up creates no objects. A number replaces the one held in its slot, which evicts numbers that are
+     * no longer used and keeps a flood of distinct numbers from growing the pool. Two numbers in use
+     * that share a slot keep replacing each other; they are still correct, just not shared.
+     * </p>
+     */
+    public static final class Pool {
+
+        public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+
+        private final AtomicReferenceArray<E164Number> slots;
+
+        /**
+         * Create a pool with the default maximum size.
+         */
+        public Pool() {
+            this(DEFAULT_MAXIMUM_SIZE);
+        }
+
+        /**
+         * Create a pool.
+         *
+         * @param maximumSize max number of numbers kept
+         */
+        public Pool(final int maximumSize) {
+            if (maximumSize < 1) {
+                throw new IllegalArgumentException("Maximum size must be at least 1");
+            }
+            this.slots = new AtomicReferenceArray<>(maximumSize);
+        }
+
+        /**
+         * Get the shared instance of a number.
+         *
+         * @param number number starting with {@code +}, optionally formatted
+         * @return shared number
+         * @throws IllegalArgumentException if the number is not in E.164 form
+         */
+        public E164Number intern(final CharSequence number) {
+            long digits = pack(number);
+            if (digits < 0) {
+                throw new IllegalArgumentException("Not an E.164 phone number: " + number);
+            }
+            return intern(digits, null);
+        }
+
+        /**
+         * Get the shared instance of a number.
+         *
+         * @param number number to share
+         * @return shared number, which may be the number given
+         */
+        public E164Number intern(final E164Number number) {
+            return intern(number.digits, number);
+        }
+
+        /**
+         * Get the shared {@link PhoneNumber} for a number, to pass as the {@code from} of requests.
+         *
+         * @param number number starting with {@code +}, optionally formatted
+         * @return shared phone number in E.164 form
+         * @throws IllegalArgumentException if the number is not in E.164 form
+         */
+        public PhoneNumber phoneNumber(final CharSequence number) {
+            return intern(number).toPhoneNumber();
+        }
+
+        /**
+         * Count the numbers held, by scanning the slots.
+         *
+         * @return number of numbers held
+         */
+        public int size() {
+            int size = 0;
+            for (int i = 0; i < slots.length(); i++) {
+                if (slots.get(i) != null) {
+                    size++;
+                }
+            }
+            return size;
+        }
+
+        public void clear() {
+            for (int i = 0; i < slots.length(); i++) {
+                slots.set(i, null);
+            }
+        }
+
+        private E164Number intern(final long digits, final E164Number number) {
+            int slot = Math.floorMod(Long.hashCode(digits * 0x9E3779B97F4A7C15L), slots.length());
+            E164Number shared = slots.get(slot);
+            if (shared != null && shared.digits == digits) {
+                return shared;
+            }
+
+            E164Number candidate = number != null ? number : new E164Number(digits);
+            if (slots.compareAndSet(slot, shared, candidate)) {
+                return candidate;
+            }
+
+            // Another thread filled the slot first, possibly with the same number
+            shared = slots.get(slot);
+            return shared != null && shared.digits == digits ? shared : candidate;
+        }
+    }
+}
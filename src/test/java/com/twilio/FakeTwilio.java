@@ -0,0 +1,162 @@
+package com.twilio;
+
+import com.twilio.http.HttpClient;
+import com.twilio.http.Request;
+import com.twilio.http.Response;
+import com.twilio.http.TwilioRestClient;
+import org.junit.rules.ExternalResource;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Fake Twilio API for tests: a client whose requests are answered by a handler, counted by path, and
+ * executors which are shut down after each test.
+ *
+ * <pre>
+ * &#64;Rule
+ * public final FakeTwilio twilio = new FakeTwilio().handler(this::handle);
+ * </pre>
+ */
+public class FakeTwilio extends ExternalResource {
+
+    private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final List<ExecutorService> executors = new ArrayList<>();
+    private volatile Function<Request, Response> handler = request -> error(404, 20404, "Not found");
+    private volatile long latencyMillis;
+    private TwilioRestClient client;
+
+    /**
+     * Answer requests with a handler.
+     *
+     * @param handler makes the response to each request
+     * @return this
+     */
+    public FakeTwilio handler(final Function<Request, Response> handler) {
+        this.handler = handler;
+        return this;
+    }
+
+    /**
+     * Delay every response, so that requests overlap.
+     *
+     * @param latencyMillis delay in milliseconds
+     * @return this
+     */
+    public FakeTwilio latency(final long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+        return this;
+    }
+
+    public synchronized TwilioRestClient client() {
+        if (client == null) {
+            client = new TwilioRestClient.Builder("AC123", "AUTH TOKEN")
+                .httpClient(new HttpClient() {
+                    @Override
+                    public Response makeRequest(final Request request) {
+                        return handle(request);
+                    }
+                })
+                .build();
+        }
+        return client;
+    }
+
+    public ExecutorService executor() {
+        return executor(4);
+    }
+
+    public synchronized ExecutorService executor(final int threads) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        executors.add(executor);
+        return executor;
+    }
+
+    public int getRequestCount(final String path) {
+        AtomicInteger count = requestCounts.get(path);
+        return count == null ? 0 : count.get();
+    }
+
+    public int getRequestCount() {
+        return requestCounts.values().stream().mapToInt(AtomicInteger::get).sum();
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight.get();
+    }
+
+    /**
+     * Forget the requests made so far.
+     */
+    public void resetCounts() {
+        requestCounts.clear();
+        maxInFlight.set(0);
+    }
+
+    /**
+     * Get the decoded path of a request, such as {@code /v1/Services/IS1}, without its domain and query.
+     *
+     * @param request request made
+     * @return path of the request
+     */
+    public static String path(final Request request) {
+        return URI.create(request.getUrl()).getPath();
+    }
+
+    public static Response json(final String json) {
+        return new Response(json, 200);
+    }
+
+    public static Response error(final int status, final int code, final String message) {
+        return new Response("{\"code\": " + code + ", \"message\": \"" + message + "\", \"status\": " + status + "}",
+            status);
+    }
+
+    /**
+     * Make a single page of a list, in the format of the v1 and later APIs.
+     *
+     * @param key     key of the records in the page, such as {@code items}
+     * @param url     url of the list
+     * @param records JSON of the records
+     * @return response holding the page
+     */
+    public static Response page(final String key, final String url, final Collection<String> records) {
+        return json("{\"" + key + "\": [" + String.join(",", records) + "], \"meta\": {\"key\": \"" + key
+            + "\", \"page_size\": 1000, \"url\": \"" + url + "\", \"first_page_url\": \"" + url
+            + "\", \"previous_page_url\": null, \"next_page_url\": null}}");
+    }
+
+    private Response handle(final Request request) {
+        requestCounts.computeIfAbsent(path(request), p -> new AtomicInteger()).incrementAndGet();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+            return handler.apply(request);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    @Override
+    protected synchronized void after() {
+        for (ExecutorService executor : executors) {
+            executor.shutdownNow();
+        }
+        executors.clear();
+    }
+}
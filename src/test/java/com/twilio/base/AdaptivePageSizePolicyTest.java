@@ -0,0 +1,106 @@
+package com.twilio.base;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.twilio.FakeTwilio;
+import com.twilio.http.Request;
+import com.twilio.http.Response;
+import com.twilio.rest.api.v2010.account.Call;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AdaptivePageSizePolicyTest {
+
+    @Rule
+    public final FakeTwilio twilio = new FakeTwilio();
+
+    @Test
+    public void testGrowsFastFullPages() {
+        PageSizePolicy policy = new AdaptivePageSizePolicy(1000, 1024 * 1024, 20);
+        assertEquals(100, policy.nextPageSize(50, 50, 100, -1, null));
+    }
+
+    @Test
+    public void testKeepsSizeWithoutMeasurement() {
+        PageSizePolicy policy = new AdaptivePageSizePolicy();
+        assertEquals(50, policy.nextPageSize(50, 50, -1, -1, null));
+    }
+
+    @Test
+    public void testShrinksSlowPages() {
+        PageSizePolicy policy = new AdaptivePageSizePolicy(1000, 1024 * 1024, 20);
+        assertEquals(200, policy.nextPageSize(400, 400, 3000, -1, null));
+        assertEquals(20, policy.nextPageSize(30, 30, 3000, -1, null));
+    }
+
+    @Test
+    public void testCapsByBodyBudget() {
+        PageSizePolicy policy = new AdaptivePageSizePolicy(1000, 100000, 20);
+        // 1000 bytes per record fits 100 records in the budget
+        assertEquals(100, policy.nextPageSize(200, 200, 100, 200000, null));
+    }
+
+    @Test
+    public void testCapsByApiMaximumAndRemaining() {
+        PageSizePolicy policy = new AdaptivePageSizePolicy();
+        assertEquals(AdaptivePageSizePolicy.MAX_PAGE_SIZE, policy.nextPageSize(800, 800, 10, -1, null));
+        assertEquals(7, policy.nextPageSize(800, 800, 10, -1, 7L));
+    }
+
+    @Test
+    public void testRewritesNextPageSize() {
+        Page<ProjectedRecord> page = Page.fromJson(
+            null,
+            new Response("{\"next_page_uri\": \"/2010-04-01/Accounts/AC123/Calls.json?PageSize=50&Page=1&PageToken=PA1\","
+                + "\"page_size\": 50,\"calls\": [],\"uri\": \"/2010-04-01/Accounts/AC123/Calls.json\"}", 200).getStream(),
+            Projection.of("sid"),
+            new ObjectMapper()
+        );
+
+        assertEquals("https://api.twilio.com/2010-04-01/Accounts/AC123/Calls.json?PageSize=200&Page=1&PageToken=PA1",
+                     page.withNextPageSize(200).getNextPageUrl("api"));
+    }
+
+    @Test
+    public void testResourceSetUsesPolicy() {
+        final String pageOne = "{\"next_page_uri\": \"/2010-04-01/Accounts/AC123/Calls.json?PageSize=2&Page=1&PageToken=PA1\","
+            + "\"page_size\": 2,\"calls\": [{\"sid\": \"CA1\"},{\"sid\": \"CA2\"}],\"uri\": \"/2010-04-01/Accounts/AC123/Calls.json\"}";
+        final String pageTwo = "{\"next_page_uri\": null,\"page_size\": 4,\"calls\": [{\"sid\": \"CA3\"}],"
+            + "\"uri\": \"/2010-04-01/Accounts/AC123/Calls.json\"}";
+
+        List<Request> requests = Collections.synchronizedList(new ArrayList<>());
+        Queue<String> pages = new ConcurrentLinkedQueue<>(Arrays.asList(pageOne, pageTwo));
+        twilio.latency(20).handler(request -> {
+            requests.add(request);
+            return FakeTwilio.json(pages.remove());
+        });
+
+        List<long[]> measured = new ArrayList<>();
+        ResourceSet<Call> calls = Call.reader().pageSize(2).read(twilio.client())
+            .setPageSizePolicy((pageSize, records, elapsed, bytes, remaining) -> {
+                measured.add(new long[] {elapsed, bytes});
+                return pageSize * 2;
+            });
+
+        List<String> sids = new ArrayList<>();
+        for (Call call : calls) {
+            sids.add(call.getSid());
+        }
+
+        assertEquals(3, sids.size());
+        assertTrue(requests.get(1).getUrl().contains("PageSize=4&Page=1&PageToken=PA1"));
+        // The first page is measured too, by its own response rather than the last one of the client
+        assertEquals(1, measured.size());
+        assertTrue(measured.get(0)[0] >= 20);
+        assertEquals(pageOne.length(), measured.get(0)[1]);
+    }
+}
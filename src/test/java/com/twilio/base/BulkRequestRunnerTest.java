@@ -0,0 +1,151 @@
+package com.twilio.base;
+
+import com.twilio.exception.ApiConnectionException;
+import com.twilio.exception.ApiException;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BulkRequestRunnerTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testRunKeepsWindow() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        List<Integer> done = Collections.synchronizedList(new ArrayList<>());
+        BulkRequestRunner runner = new BulkRequestRunner(executor, 3);
+
+        runner.run(
+            IntStream.range(0, 20).boxed().iterator(),
+            item -> done.add(runner.call(null, () -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(2);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                inFlight.decrementAndGet();
+                return item;
+            }, () -> { })),
+            (item, e) -> fail("rejected " + item)
+        );
+
+        assertEquals(20, done.size());
+        assertTrue("max in flight " + maxInFlight.get(), maxInFlight.get() <= 3);
+        assertEquals(IntStream.range(0, 20).boxed().collect(Collectors.toList()),
+            done.stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testPacedRequestsDoNotHoldWindow() {
+        RateLimiter slow = new RateLimiter(2.5);
+        BulkRequestRunner runner = new BulkRequestRunner(executor, 2);
+        long start = System.nanoTime();
+        Map<String, Long> doneMillis = new ConcurrentHashMap<>();
+
+        runner.run(
+            Arrays.asList("slow1", "slow2", "slow3", "slow4", "fast1", "fast2", "fast3", "fast4").iterator(),
+            item -> runner.call(item.startsWith("slow") ? slow : null, () -> {
+                doneMillis.put(item, (System.nanoTime() - start) / 1000000L);
+                return item;
+            }, () -> { }),
+            (item, e) -> fail("rejected " + item)
+        );
+
+        // The slow requests take their permits in any order; all but the first wait for the limiter while
+        // the fast requests use the window
+        long lastSlow = IntStream.rangeClosed(1, 4).mapToLong(i -> doneMillis.get("slow" + i)).max().getAsLong();
+        assertTrue("last slow request took " + lastSlow, lastSlow >= 700);
+        for (int i = 1; i <= 4; i++) {
+            assertTrue("fast" + i + " took " + doneMillis.get("fast" + i), doneMillis.get("fast" + i) < 300);
+        }
+    }
+
+    @Test
+    public void testRetriesThrottled() {
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicInteger retried = new AtomicInteger();
+
+        String response = new BulkRequestRunner(executor, 1).maxAttempts(3).call(null, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ApiException("Too many requests", 20429, null, 429, null);
+            }
+            return "ok";
+        }, retried::incrementAndGet);
+
+        assertEquals("ok", response);
+        assertEquals(3, attempts.get());
+        assertEquals(2, retried.get());
+    }
+
+    @Test
+    public void testDoesNotRetryOtherErrors() {
+        AtomicInteger attempts = new AtomicInteger();
+        BulkRequestRunner runner = new BulkRequestRunner(executor, 1).maxAttempts(3);
+
+        try {
+            runner.call(null, () -> {
+                attempts.incrementAndGet();
+                throw new ApiException("Service unavailable", 20503, null, 503, null);
+            }, () -> { });
+            fail("expected ApiException");
+        } catch (final ApiException e) {
+            assertEquals(Integer.valueOf(503), e.getStatusCode());
+        }
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void testRetriesConnectionErrorsOnlyIfIdempotent() {
+        AtomicInteger attempts = new AtomicInteger();
+        BulkRequestRunner runner = new BulkRequestRunner(executor, 1).maxAttempts(2);
+
+        try {
+            runner.call(null, () -> {
+                attempts.incrementAndGet();
+                throw new ApiConnectionException("Connection reset");
+            }, () -> { });
+            fail("expected ApiException");
+        } catch (final ApiException e) {
+            assertTrue(e.getCause() instanceof ApiConnectionException);
+        }
+        assertEquals(1, attempts.get());
+
+        attempts.set(0);
+        String response = runner.retryConnectionErrors(true).call(null, () -> {
+            if (attempts.incrementAndGet() < 2) {
+                throw new ApiConnectionException("Connection reset");
+            }
+            return "ok";
+        }, () -> { });
+        assertEquals("ok", response);
+        assertEquals(2, attempts.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidWindow() {
+        new BulkRequestRunner(executor, 0);
+    }
+}
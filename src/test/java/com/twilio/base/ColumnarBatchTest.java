@@ -0,0 +1,129 @@
+package com.twilio.base;
+
+import com.twilio.FakeTwilio;
+import com.twilio.rest.api.v2010.account.usage.Record;
+import com.twilio.rest.api.v2010.account.usage.record.Daily;
+import com.twilio.rest.taskrouter.v1.workspace.WorkspaceCumulativeStatistics;
+import com.twilio.rest.taskrouter.v1.workspace.task.Reservation;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ColumnarBatchTest {
+
+    private static final String USAGE_PAGE_ONE = "{\"first_page_uri\": \"/2010-04-01/Accounts/AC123/Usage/Records.json?PageSize=2&Page=0\","
+        + "\"next_page_uri\": \"/2010-04-01/Accounts/AC123/Usage/Records.json?PageSize=2&Page=1\",\"page\": 0,\"page_size\": 2,"
+        + "\"previous_page_uri\": null,\"uri\": \"/2010-04-01/Accounts/AC123/Usage/Records.json?PageSize=2&Page=0\",\"usage_records\": ["
+        + "{\"category\": \"sms\",\"count\": \"10\",\"price\": \"0.075\",\"price_unit\": \"usd\",\"subresource_uris\": {\"daily\": \"/d\"}},"
+        + "{\"category\": \"calls\",\"count\": null,\"price\": \"n/a\",\"price_unit\": \"usd\"}]}";
+
+    private static final String USAGE_PAGE_TWO = "{\"first_page_uri\": \"/2010-04-01/Accounts/AC123/Usage/Records.json?PageSize=2&Page=0\","
+        + "\"next_page_uri\": null,\"page\": 1,\"page_size\": 2,\"previous_page_uri\": null,"
+        + "\"uri\": \"/2010-04-01/Accounts/AC123/Usage/Records.json?PageSize=2&Page=1\",\"usage_records\": ["
+        + "{\"category\": \"sms\",\"count\": 5,\"price\": 0.025,\"price_unit\": \"usd\"},"
+        + "{\"category\": \"mms\",\"count\": \"1\",\"price\": \"0.02\",\"price_unit\": \"usd\"}]}";
+
+    private static final String STATISTICS = "{\"reservations_accepted\": 100,\"tasks_created\": 42,"
+        + "\"wait_duration_until_accepted\": {\"avg\": 3,\"min\": 0,\"max\": 9,\"total\": 30},"
+        + "\"split_by_wait_time\": {\"5\": {\"above\": {\"tasks_canceled\": 1}}},\"workspace_sid\": \"WS123\"}";
+
+    @Rule
+    public final FakeTwilio twilio = new FakeTwilio();
+
+    private void respond(final String... bodies) {
+        Queue<String> queue = new ConcurrentLinkedQueue<>(Arrays.asList(bodies));
+        twilio.handler(request -> FakeTwilio.json(queue.remove()));
+    }
+
+    private ColumnarBatch usageBatch() {
+        return ColumnarBatch.builder()
+            .categoryColumn("category")
+            .longColumn("count")
+            .doubleColumn("price")
+            .build();
+    }
+
+    @Test
+    public void testReadIntoAcrossPages() {
+        respond(USAGE_PAGE_ONE, USAGE_PAGE_TWO);
+
+        ColumnarBatch batch = Record.reader().readInto(usageBatch(), twilio.client());
+
+        assertEquals(4, batch.size());
+        assertArrayEquals(new long[] {10, 0, 5, 1}, batch.getLongs("count"));
+        assertTrue(batch.isNull("count", 1));
+        assertTrue(batch.isNull("price", 1));
+        assertTrue(Double.isNaN(batch.getDouble("price", 1)));
+        assertEquals(0.12, batch.sum("price"), 1e-9);
+        assertArrayEquals(new int[] {0, 1, 0, 2}, batch.getCategoryCodes("category"));
+        assertEquals(Arrays.asList("sms", "calls", "mms"), batch.getDictionary("category"));
+        assertEquals("mms", batch.getCategory("category", 3));
+    }
+
+    @Test
+    public void testReadIntoRespectsLimit() {
+        respond(USAGE_PAGE_ONE, USAGE_PAGE_TWO);
+
+        ColumnarBatch batch = Record.reader().limit(3).readInto(usageBatch(), twilio.client());
+
+        assertEquals(3, batch.size());
+        assertEquals(5, batch.getLong("count", 2));
+    }
+
+    @Test
+    public void testFetchIntoNestedPaths() {
+        respond(STATISTICS, STATISTICS);
+
+        ColumnarBatch batch = ColumnarBatch.builder()
+            .longColumn("tasks_created")
+            .doubleColumn("wait_duration_until_accepted.avg")
+            .longColumn("split_by_wait_time.5.above.tasks_canceled")
+            .longColumn("tasks_moved")
+            .build();
+
+        WorkspaceCumulativeStatistics.fetcher("WS123").fetchInto(batch, twilio.client());
+        WorkspaceCumulativeStatistics.fetcher("WS123").fetchInto(batch, twilio.client());
+
+        assertEquals(2, batch.size());
+        assertEquals(42, batch.getLong("tasks_created", 1));
+        assertEquals(3.0, batch.getDouble("wait_duration_until_accepted.avg", 0), 0);
+        assertEquals(1, batch.getLong("split_by_wait_time.5.above.tasks_canceled", 0));
+        assertTrue(batch.isNull("tasks_moved", 0));
+        assertFalse(batch.isNull("tasks_created", 0));
+        assertEquals(2, twilio.getRequestCount("/v1/Workspaces/WS123/CumulativeStatistics"));
+    }
+
+    @Test
+    public void testAnyReaderAndFetcher() {
+        respond(USAGE_PAGE_TWO, "{\"sid\": \"WR1\", \"reservation_status\": \"accepted\"}");
+
+        ColumnarBatch usage = Daily.reader().readInto(usageBatch(), twilio.client());
+        ColumnarBatch reservations = Reservation.fetcher("WS1", "WT1", "WR1")
+            .fetchInto(ColumnarBatch.builder().categoryColumn("reservation_status").build(), twilio.client());
+
+        assertEquals(2, usage.size());
+        assertEquals(1, twilio.getRequestCount("/2010-04-01/Accounts/AC123/Usage/Records/Daily.json"));
+        assertEquals("accepted", reservations.getCategory("reservation_status", 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOverlappingPaths() {
+        ColumnarBatch.builder()
+            .doubleColumn("cumulative.avg")
+            .longColumn("cumulative")
+            .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongColumnType() {
+        usageBatch().getDoubles("count");
+    }
+}
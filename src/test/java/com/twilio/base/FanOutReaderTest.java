@@ -0,0 +1,118 @@
+package com.twilio.base;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.twilio.Twilio;
+import com.twilio.exception.ApiException;
+import com.twilio.http.Request;
+import com.twilio.http.Response;
+import com.twilio.http.TwilioRestClient;
+import com.twilio.rest.api.v2010.account.Message;
+import mockit.Delegate;
+import mockit.Mocked;
+import mockit.NonStrictExpectations;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FanOutReaderTest {
+
+    @Mocked
+    private TwilioRestClient twilioRestClient;
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws Exception {
+        Twilio.init("AC123", "AUTH TOKEN");
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static Response page(final String accountSid) {
+        return new Response("{\"next_page_uri\": null,\"page_size\": 50,"
+            + "\"uri\": \"/2010-04-01/Accounts/" + accountSid + "/Messages.json\",\"messages\": ["
+            + "{\"sid\": \"SM1\",\"account_sid\": \"" + accountSid + "\"},"
+            + "{\"sid\": \"SM2\",\"account_sid\": \"" + accountSid + "\"}]}", 200);
+    }
+
+    @Test
+    public void testMergesAccountsAndIsolatesErrors() {
+        new NonStrictExpectations() {{
+            twilioRestClient.request((Request) any);
+            result = new Delegate<Response>() {
+                @SuppressWarnings("unused")
+                Response request(final Request request) {
+                    if (request.getUrl().contains("/ACbad/")) {
+                        return new Response("{\"code\": 20003,\"message\": \"Authenticate\",\"status\": 401}", 401);
+                    }
+                    return page(request.getUrl().contains("/AC1/") ? "AC1" : "AC2");
+                }
+            };
+            twilioRestClient.getObjectMapper();
+            result = new ObjectMapper();
+        }};
+
+        List<AccountRecord<Message>> results;
+        try (Stream<AccountRecord<Message>> stream = new FanOutReader<>(Arrays.asList("AC1", "ACbad", "AC2"), Message::reader)
+                .maxConcurrency(2)
+                .pagesPerSecondPerAccount(100)
+                .executorService(executor)
+                .stream()) {
+            results = stream.collect(Collectors.toList());
+        }
+
+        assertEquals(5, results.size());
+
+        List<AccountRecord<Message>> errors = results.stream().filter(AccountRecord::isError).collect(Collectors.toList());
+        assertEquals(1, errors.size());
+        assertEquals("ACbad", errors.get(0).getAccountSid());
+        assertTrue(errors.get(0).getError() instanceof ApiException);
+
+        Set<String> tagged = new HashSet<>();
+        for (AccountRecord<Message> result : results) {
+            if (!result.isError()) {
+                assertEquals(result.getAccountSid(), result.getRecord().getAccountSid());
+                tagged.add(result.getAccountSid() + "/" + result.getRecord().getSid());
+            }
+        }
+        assertEquals(new HashSet<>(Arrays.asList("AC1/SM1", "AC1/SM2", "AC2/SM1", "AC2/SM2")), tagged);
+    }
+
+    @Test
+    public void testRespectsReaderLimit() {
+        new NonStrictExpectations() {{
+            twilioRestClient.request((Request) any);
+            result = page("AC1");
+            twilioRestClient.getObjectMapper();
+            result = new ObjectMapper();
+        }};
+
+        long count = new FanOutReader<>(Arrays.asList("AC1", "AC1"), sid -> Message.reader(sid).limit(1))
+            .executorService(executor)
+            .stream()
+            .count();
+
+        assertEquals(1, count);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidConcurrency() {
+        new FanOutReader<>(Arrays.asList("AC1"), Message::reader).maxConcurrency(0);
+    }
+}
@@ -0,0 +1,243 @@
+package com.twilio.base;
+
+import com.twilio.http.HttpClient;
+import com.twilio.http.HttpMethod;
+import com.twilio.http.Request;
+import com.twilio.http.Response;
+import com.twilio.http.TwilioRestClient;
+import com.twilio.rest.api.v2010.account.Call;
+import com.twilio.rest.messaging.v1.Service;
+import com.twilio.rest.sync.v1.service.Document;
+import com.twilio.rest.sync.v1.service.syncmap.SyncMapItem;
+import com.twilio.rest.taskrouter.v1.Workspace;
+import org.apache.http.Header;
+import org.apache.http.message.BasicHeader;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class FetchCacheTest {
+
+    private final List<Request> requests = new ArrayList<>();
+    private final List<String> ifNoneMatch = new ArrayList<>();
+    private String revision = "1";
+    private String etag;
+    private Runnable duringFetch;
+    private FetchCache cache;
+    private TwilioRestClient client;
+
+    @Before
+    public void setUp() {
+        cache = new FetchCache(100);
+        client = new TwilioRestClient.Builder("AC123", "AUTH TOKEN")
+            .httpClient(new HttpClient() {
+                @Override
+                public Response makeRequest(final Request request) {
+                    requests.add(request);
+                    if (request.getMethod() == HttpMethod.DELETE) {
+                        return new Response("", 204);
+                    }
+
+                    if (duringFetch != null) {
+                        Runnable run = duringFetch;
+                        duringFetch = null;
+                        run.run();
+                    }
+
+                    List<String> conditions = request.getHeaderParams().get("If-None-Match");
+                    String condition = conditions == null ? null : conditions.get(0);
+                    ifNoneMatch.add(condition);
+                    String current = etag != null ? etag : revision;
+                    if (current.equals(condition)) {
+                        return new Response((String) null, 304);
+                    }
+
+                    String sid = request.getUrl().substring(request.getUrl().lastIndexOf('/') + 1);
+                    Header[] headers = etag == null ? new Header[0] : new Header[] {new BasicHeader("ETag", etag)};
+                    return new Response("{\"sid\": \"" + sid + "\", \"key\": \"" + sid + "\", \"revision\": \""
+                        + revision + "\"}", 200, headers);
+                }
+            })
+            .fetchCache(cache)
+            .build();
+    }
+
+    @Test
+    public void testReadThroughAndInvalidateOnDelete() {
+        Service first = Service.fetcher("MG1").fetchCached(client);
+        Service second = Service.fetcher("MG1").fetchCached(client);
+
+        assertSame(first, second);
+        assertEquals(1, requests.size());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        Service.deleter("MG1").delete(client);
+        Service third = Service.fetcher("MG1").fetchCached(client);
+
+        assertNotSame(first, third);
+        assertEquals(3, requests.size());
+    }
+
+    @Test
+    public void testCachesAnyFetcher() {
+        Call first = Call.fetcher("CA1").fetchCached(client);
+
+        assertSame(first, Call.fetcher("CA1").fetchCached(client));
+        assertEquals(1, requests.size());
+        assertEquals("https://api.twilio.com/2010-04-01/Accounts/AC123/Calls/CA1.json", requests.get(0).getUrl());
+    }
+
+    @Test
+    public void testFetchBypassesCache() {
+        Service.fetcher("MG1").fetchCached(client);
+        Service fetched = Service.fetcher("MG1").fetch(client);
+
+        assertEquals("MG1", fetched.getSid());
+        assertEquals(2, requests.size());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void testFetchStraddlingInvalidationNotStored() {
+        duringFetch = () -> Service.deleter("MG1").delete(client);
+        Service.fetcher("MG1").fetchCached(client);
+
+        assertEquals(0, cache.size());
+        Service.fetcher("MG1").fetchCached(client);
+        assertEquals(3, requests.size());
+    }
+
+    @Test
+    public void testInvalidatesResolvedUrl() {
+        TwilioRestClient regional = new TwilioRestClient.Builder("AC123", "AUTH TOKEN")
+            .region("ie1")
+            .edge("dublin")
+            .httpClient(client.getHttpClient())
+            .fetchCache(cache)
+            .build();
+
+        Service first = Service.fetcher("MG1").fetchCached(regional);
+        assertEquals(1, cache.size());
+
+        cache.invalidate("https://messaging.dublin.ie1.twilio.com/v1/Services/MG1");
+        assertEquals(0, cache.size());
+
+        Service.fetcher("MG1").fetchCached(regional);
+        Service.fetcher("MG1").fetchCached(client);
+        assertEquals(2, cache.size());
+
+        Service.deleter("MG1").delete(regional);
+        assertEquals(1, cache.size());
+        assertNotSame(first, Service.fetcher("MG1").fetchCached(regional));
+        assertEquals(5, requests.size());
+    }
+
+    @Test
+    public void testOtherResourcesNotInvalidated() {
+        Service.fetcher("MG1").fetchCached(client);
+        Service.fetcher("MG2").fetchCached(client);
+        Service.deleter("MG2").delete(client);
+        Service.fetcher("MG1").fetchCached(client);
+
+        assertEquals(3, requests.size());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testTtlPerType() throws InterruptedException {
+        cache.ttl(Workspace.class, 0, TimeUnit.SECONDS).ttl(Service.class, 20, TimeUnit.MILLISECONDS);
+
+        Workspace.fetcher("WS1").fetchCached(client);
+        Workspace.fetcher("WS1").fetchCached(client);
+        assertEquals(2, requests.size());
+
+        Service.fetcher("MG1").fetchCached(client);
+        Service.fetcher("MG1").fetchCached(client);
+        assertEquals(3, requests.size());
+
+        Thread.sleep(40);
+        Service.fetcher("MG1").fetchCached(client);
+        assertEquals(4, requests.size());
+    }
+
+    @Test
+    public void testRevalidatesWithRevision() {
+        cache.ttl(Document.class, 0, TimeUnit.SECONDS).revision(Document.class, Document::getRevision);
+
+        Document first = Document.fetcher("IS1", "ET1").fetchCached(client);
+        Document second = Document.fetcher("IS1", "ET1").fetchCached(client);
+
+        assertSame(first, second);
+        assertEquals(2, requests.size());
+        assertNull(ifNoneMatch.get(0));
+        assertEquals("1", ifNoneMatch.get(1));
+        assertEquals(1, cache.getRevalidationCount());
+
+        revision = "2";
+        Document third = Document.fetcher("IS1", "ET1").fetchCached(client);
+
+        assertNotSame(first, third);
+        assertEquals("2", third.getRevision());
+        assertEquals(1, cache.getRevalidationCount());
+    }
+
+    @Test
+    public void testNoRevalidationWithoutEntityTag() {
+        cache.ttl(Document.class, 0, TimeUnit.SECONDS);
+
+        Document.fetcher("IS1", "ET1").fetchCached(client);
+        Document.fetcher("IS1", "ET1").fetchCached(client);
+
+        assertNull(ifNoneMatch.get(1));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testRevalidatesWithEtagHeader() {
+        cache.ttl(SyncMapItem.class, 0, TimeUnit.SECONDS);
+        etag = "\"abc\"";
+
+        SyncMapItem first = SyncMapItem.fetcher("IS1", "MP1", "key").fetchCached(client);
+        SyncMapItem second = SyncMapItem.fetcher("IS1", "MP1", "key").fetchCached(client);
+
+        assertSame(first, second);
+        assertEquals("\"abc\"", ifNoneMatch.get(1));
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testFrequentEntriesSurviveScan() {
+        FetchCache small = new FetchCache(10);
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 5; i++) {
+                lookup(small, "hot" + i);
+            }
+        }
+
+        for (int i = 0; i < 100; i++) {
+            lookup(small, "cold" + i);
+        }
+
+        for (int i = 0; i < 5; i++) {
+            long hits = small.getHitCount();
+            lookup(small, "hot" + i);
+            assertEquals("hot" + i + " should still be cached", hits + 1, small.getHitCount());
+        }
+        assertEquals(10, small.size());
+    }
+
+    private static void lookup(final FetchCache cache, final String key) {
+        if (cache.get(key) == null) {
+            cache.put(key, "https://example.com/" + key, Service.class, key, cache.generation());
+        }
+    }
+}
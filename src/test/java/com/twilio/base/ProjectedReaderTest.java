@@ -0,0 +1,145 @@
+package com.twilio.base;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.twilio.FakeTwilio;
+import com.twilio.http.Request;
+import com.twilio.http.Response;
+import com.twilio.rest.api.v2010.account.Message;
+import com.twilio.rest.messaging.v1.Service;
+import com.twilio.type.PhoneNumber;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ProjectedReaderTest {
+
+    private static final String PAGE_ONE = "{\"first_page_uri\": \"/2010-04-01/Accounts/AC123/Messages.json?PageSize=2&Page=0\","
+        + "\"next_page_uri\": \"/2010-04-01/Accounts/AC123/Messages.json?PageSize=2&Page=1\",\"page\": 0,\"page_size\": 2,"
+        + "\"previous_page_uri\": null,\"messages\": ["
+        + "{\"sid\": \"SM1\",\"status\": \"sent\",\"body\": \"one\",\"price\": \"-0.00750\",\"num_segments\": 1,"
+        + "\"subresource_uris\": {\"media\": \"/media\"},\"date_updated\": \"Fri, 24 May 2019 17:44:50 +0000\"},"
+        + "{\"sid\": \"SM2\",\"status\": \"failed\",\"body\": null,\"date_updated\": null}],"
+        + "\"uri\": \"/2010-04-01/Accounts/AC123/Messages.json?PageSize=2&Page=0\"}";
+
+    private static final String PAGE_TWO = "{\"first_page_uri\": \"/2010-04-01/Accounts/AC123/Messages.json?PageSize=2&Page=0\","
+        + "\"next_page_uri\": null,\"page\": 1,\"page_size\": 2,\"previous_page_uri\": null,\"messages\": ["
+        + "{\"sid\": \"SM3\",\"status\": \"delivered\",\"date_updated\": \"2019-05-24T17:44:50Z\"}],"
+        + "\"uri\": \"/2010-04-01/Accounts/AC123/Messages.json?PageSize=2&Page=1\"}";
+
+    private static final String NEXT_GEN_PAGE = "{\"services\": [{\"sid\": \"MG1\",\"friendly_name\": \"one\"}],"
+        + "\"meta\": {\"page\": 0,\"page_size\": 50,\"first_page_url\": \"https://messaging.twilio.com/v1/Services?PageSize=50&Page=0\","
+        + "\"previous_page_url\": null,\"url\": \"https://messaging.twilio.com/v1/Services?PageSize=50&Page=0\","
+        + "\"next_page_url\": null,\"key\": \"services\"}}";
+
+    private final List<Request> requests = Collections.synchronizedList(new ArrayList<>());
+
+    @Rule
+    public final FakeTwilio twilio = new FakeTwilio();
+
+    private void respond(final String... pages) {
+        Queue<String> queue = new ConcurrentLinkedQueue<>(Arrays.asList(pages));
+        twilio.handler(request -> {
+            requests.add(request);
+            return FakeTwilio.json(queue.remove());
+        });
+    }
+
+    public static class MessageStatus {
+        @JsonProperty("sid")
+        public String sid;
+
+        @JsonProperty("status")
+        public Message.Status status;
+    }
+
+    @Test
+    public void testProjectFields() {
+        respond(PAGE_ONE, PAGE_TWO);
+
+        List<ProjectedRecord> records = new ArrayList<>();
+        for (ProjectedRecord record : Message.reader()
+                .setTo(new PhoneNumber("+15558675310"))
+                .project("sid", "status", "dateUpdated")
+                .read(twilio.client())) {
+            records.add(record);
+        }
+
+        assertEquals(3, records.size());
+        assertEquals("SM1", records.get(0).getString("sid"));
+        assertEquals("sent", records.get(0).get("status"));
+        assertEquals(ZonedDateTime.of(2019, 5, 24, 17, 44, 50, 0, ZoneOffset.UTC),
+                     records.get(0).getDateTime("date_updated").withZoneSameInstant(ZoneOffset.UTC));
+        assertNull(records.get(1).getDateTime("dateUpdated"));
+        assertEquals("SM3", records.get(2).getString("sid"));
+        assertEquals(ZonedDateTime.of(2019, 5, 24, 17, 44, 50, 0, ZoneOffset.UTC),
+                     records.get(2).getDateTime("dateUpdated").withZoneSameInstant(ZoneOffset.UTC));
+        assertEquals(3, records.get(0).toMap().size());
+
+        // The filters of the reader are sent, and only the first page is built from them
+        assertEquals(2, requests.size());
+        assertEquals("/2010-04-01/Accounts/AC123/Messages.json", FakeTwilio.path(requests.get(0)));
+        assertEquals(Collections.singletonList("+15558675310"), requests.get(0).getQueryParams().get("To"));
+    }
+
+    @Test
+    public void testProjectAnyReader() {
+        respond(NEXT_GEN_PAGE);
+
+        List<ProjectedRecord> records = new ArrayList<>();
+        for (ProjectedRecord record : Service.reader().project("sid", "friendlyName").read(twilio.client())) {
+            records.add(record);
+        }
+
+        assertEquals(1, records.size());
+        assertEquals("one", records.get(0).getString("friendly_name"));
+        assertEquals("/v1/Services", FakeTwilio.path(requests.get(0)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnprojectedField() {
+        respond(PAGE_TWO);
+
+        Message.reader().project("sid").firstPage(twilio.client()).getRecords().get(0).get("body");
+    }
+
+    @Test
+    public void testProjectIntoClassRespectsLimit() {
+        respond(PAGE_ONE, PAGE_TWO);
+
+        List<MessageStatus> statuses = new ArrayList<>();
+        for (MessageStatus status : Message.reader().limit(2).project(MessageStatus.class).read(twilio.client())) {
+            statuses.add(status);
+        }
+
+        assertEquals(2, statuses.size());
+        assertEquals("SM2", statuses.get(1).sid);
+        assertEquals(Message.Status.FAILED, statuses.get(1).status);
+    }
+
+    @Test
+    public void testNextGenPage() {
+        Page<ProjectedRecord> page = Page.fromJson(
+            null,
+            new Response(NEXT_GEN_PAGE, 200).getStream(),
+            Projection.of("sid"),
+            new ObjectMapper()
+        );
+
+        assertEquals(1, page.getRecords().size());
+        assertEquals("MG1", page.getRecords().get(0).getString("sid"));
+        assertEquals(50, page.getPageSize());
+        assertEquals("https://messaging.twilio.com/v1/Services?PageSize=50&Page=0", page.getUrl("messaging"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.twilio.base;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RateLimiterTest {
+
+    @Test
+    public void testBurstThenThrottle() {
+        RateLimiter limiter = new RateLimiter(1, 3);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    public void testAcquirePacesCalls() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(50);
+        long start = System.nanoTime();
+        for (int i = 0; i < 6; i++) {
+            limiter.acquire();
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1000000L;
+        // One stored permit, then five spaced by 20ms
+        assertTrue("elapsed " + elapsedMillis, elapsedMillis >= 100);
+    }
+
+    @Test
+    public void testNoBurstByDefault() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(1);
+        limiter.acquire();
+        assertFalse(limiter.tryAcquire());
+
+        long start = System.nanoTime();
+        limiter.acquire();
+        long elapsedMillis = (System.nanoTime() - start) / 1000000L;
+        assertTrue("elapsed " + elapsedMillis, elapsedMillis >= 900);
+    }
+
+    @Test
+    public void testTryAcquireAgreesWithAcquire() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(20, 2);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        // Idle for more than two intervals refills the burst, and no more
+        Thread.sleep(150);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    public void testPermitsPerSecond() {
+        assertEquals(20.0, new RateLimiter(20).getPermitsPerSecond(), 0.001);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidRate() {
+        new RateLimiter(0);
+    }
+}
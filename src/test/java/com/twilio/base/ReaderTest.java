@@ -44,7 +44,7 @@ public class ReaderTest {
     public void testSetLimitMaxPageSize() {
         Reader<Call> reader = new CallReader().limit(Integer.MAX_VALUE);
         Assert.assertEquals(Integer.MAX_VALUE, reader.getLimit().intValue());
-        Assert.assertEquals(Integer.MAX_VALUE, reader.getPageSize().intValue());
+        Assert.assertEquals(Reader.MAX_PAGE_SIZE, reader.getPageSize().intValue());
     }
 
     @Test
@@ -0,0 +1,25 @@
+package com.twilio.base;
+
+import com.twilio.http.Request;
+import com.twilio.http.TwilioRestClient;
+import com.twilio.rest.api.v2010.account.Call;
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+public class RequestCaptureTest {
+
+    @Test
+    public void testCapturesRequestOfEachAccount() {
+        for (int i = 0; i < RequestCapture.MAX_CLIENTS * 2; i++) {
+            String accountSid = String.format("AC%032d", i);
+            TwilioRestClient client = new TwilioRestClient.Builder(accountSid, "AUTH TOKEN").build();
+
+            Request request = RequestCapture.capture(client, c -> Call.fetcher("CA123").fetch(c));
+            assertTrue(request.getUrl(), request.getUrl().contains("/Accounts/" + accountSid + "/Calls/CA123"));
+        }
+
+        // Capturing clients of accounts not used lately are dropped
+        assertTrue(RequestCapture.clientCount() <= RequestCapture.MAX_CLIENTS);
+    }
+}
@@ -0,0 +1,90 @@
+package com.twilio.base;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.twilio.Twilio;
+import com.twilio.http.Request;
+import com.twilio.http.Response;
+import com.twilio.http.TwilioRestClient;
+import com.twilio.rest.api.v2010.account.Message;
+import mockit.Mocked;
+import mockit.NonStrictExpectations;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TailReaderTest {
+
+    @Mocked
+    private TwilioRestClient twilioRestClient;
+
+    @Before
+    public void setUp() throws Exception {
+        Twilio.init("AC123", "AUTH TOKEN");
+    }
+
+    private static Response page(final String... messages) {
+        return new Response("{\"first_page_uri\": \"/2010-04-01/Accounts/AC123/Messages.json?PageSize=50&Page=0\","
+            + "\"next_page_uri\": null,\"page\": 0,\"page_size\": 50,\"previous_page_uri\": null,"
+            + "\"uri\": \"/2010-04-01/Accounts/AC123/Messages.json?PageSize=50&Page=0\","
+            + "\"messages\": [" + String.join(",", messages) + "]}", 200);
+    }
+
+    private static String message(final String sid, final String dateSent) {
+        return "{\"sid\": \"" + sid + "\",\"date_sent\": \"" + dateSent + "\"}";
+    }
+
+    @Test
+    public void testPollReturnsOnlyNewRecords() {
+        final String early = "Fri, 24 May 2019 17:44:40 +0000";
+        final String late = "Fri, 24 May 2019 17:44:50 +0000";
+
+        new NonStrictExpectations() {{
+            twilioRestClient.request((Request) any);
+            returns(
+                page(message("SM2", late), message("SM1", early)),
+                page(message("SM3", late), message("SM2", late)),
+                page(message("SM3", late), message("SM2", late))
+            );
+            twilioRestClient.getObjectMapper();
+            result = new ObjectMapper();
+            twilioRestClient.getAccountSid();
+            result = "AC123";
+        }};
+
+        TailReader<Message> tail = new TailReader<>(
+            watermark -> Message.reader().setDateSentAfter(watermark),
+            Message::getDateSent,
+            Message::getSid,
+            ZonedDateTime.of(2019, 5, 24, 0, 0, 0, 0, ZoneOffset.UTC)
+        );
+
+        List<Message> first = tail.poll();
+        assertEquals(2, first.size());
+        assertEquals("SM1", first.get(0).getSid());
+        assertEquals("SM2", first.get(1).getSid());
+        assertEquals(ZonedDateTime.of(2019, 5, 24, 17, 44, 50, 0, ZoneOffset.UTC), tail.getWatermark().withZoneSameInstant(ZoneOffset.UTC));
+
+        List<Message> second = tail.poll();
+        assertEquals(1, second.size());
+        assertEquals("SM3", second.get(0).getSid());
+
+        assertTrue(tail.poll().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        new TailReader<Message>(
+            watermark -> Message.reader().setDateSentAfter(watermark),
+            Message::getDateSent,
+            Message::getSid,
+            ZonedDateTime.now(),
+            0
+        );
+    }
+}
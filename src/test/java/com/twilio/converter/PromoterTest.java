@@ -1,5 +1,6 @@
 package com.twilio.converter;
 
+import com.twilio.type.E164Number;
 import com.twilio.type.PhoneNumber;
 import com.twilio.type.Twiml;
 import org.junit.Assert;
@@ -28,6 +29,13 @@ public class PromoterTest {
         Assert.assertEquals(new PhoneNumber("+12345678910"), pn);
     }
 
+    @Test
+    public void testE164NumberFromString() {
+        E164Number number = Promoter.e164NumberFromString("+1 234-567-8910");
+        Assert.assertEquals(E164Number.parse("+12345678910"), number);
+        Assert.assertNull(Promoter.e164NumberFromString("client:alice"));
+    }
+
     @Test
     public void testTwimlFromString() {
         Twiml twiml = Promoter.twimlFromString("<Response><Say>Ahoy!</Say></Response>");
@@ -0,0 +1,109 @@
+package com.twilio.jwt.accesstoken;
+
+import com.twilio.security.KeyRing;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.Jwts;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Test class for {@link AccessTokenMinter}.
+ */
+public class AccessTokenMinterTest {
+
+    private static final String ACCOUNT_SID = "AC123";
+    private static final String SIGNING_KEY_SID = "SK123";
+    private static final String SECRET = "secretsecretsecretsecretsecret00";
+
+    private static Jws<Claims> parse(String token) {
+        return Jwts.parser().setSigningKey(SECRET.getBytes()).parseClaimsJws(token);
+    }
+
+    @Test
+    public void testMatchesAccessToken() {
+        Map<String, Object> params = new HashMap<>();
+        params.put("foo", "bar");
+
+        VoiceGrant voiceGrant = new VoiceGrant().setOutgoingApplication("AP123", params).setIncomingAllow(true);
+        VideoGrant videoGrant = new VideoGrant().setRoom("RM123");
+        Date nbf = new Date(1500000000000L);
+
+        AccessTokenMinter minter = new AccessTokenMinter.Builder(ACCOUNT_SID, SIGNING_KEY_SID, SECRET)
+            .grant(voiceGrant)
+            .grant(videoGrant)
+            .ttl(600)
+            .build();
+
+        Jws<Claims> minted = parse(minter.mint("alice \"the\" caller é", nbf));
+        Claims expected = parse(
+            new AccessToken.Builder(ACCOUNT_SID, SIGNING_KEY_SID, SECRET)
+                .identity("alice \"the\" caller é")
+                .grant(voiceGrant)
+                .grant(videoGrant)
+                .ttl(600)
+                .nbf(nbf)
+                .build()
+                .toJwt()
+        ).getBody();
+
+        Claims claims = minted.getBody();
+        Assert.assertEquals("JWT", minted.getHeader().getType());
+        Assert.assertEquals("twilio-fpa;v=1", minted.getHeader().get("cty"));
+        Assert.assertEquals(expected.getIssuer(), claims.getIssuer());
+        Assert.assertEquals(expected.getSubject(), claims.getSubject());
+        Assert.assertEquals(expected.getNotBefore(), claims.getNotBefore());
+        Assert.assertEquals(expected.get("grants"), claims.get("grants"));
+        Assert.assertTrue(claims.getId().startsWith(SIGNING_KEY_SID + "-"));
+        Assert.assertTrue(Math.abs(expected.getExpiration().getTime() - claims.getExpiration().getTime()) <= 1000);
+    }
+
+    @Test
+    public void testWithoutIdentityOrGrants() {
+        AccessTokenMinter minter = new AccessTokenMinter.Builder(ACCOUNT_SID, SIGNING_KEY_SID, SECRET).build();
+
+        Claims claims = parse(minter.mint()).getBody();
+
+        Assert.assertEquals(new HashMap<String, Object>(), claims.get("grants"));
+        Assert.assertNull(claims.getNotBefore());
+        Assert.assertTrue(claims.getExpiration().getTime() > new Date().getTime());
+    }
+
+    @Test
+    public void testIdentityOnly() {
+        AccessTokenMinter minter = new AccessTokenMinter.Builder(ACCOUNT_SID, SIGNING_KEY_SID, SECRET).build();
+
+        Map<?, ?> grants = (Map<?, ?>) parse(minter.mint("bob")).getBody().get("grants");
+
+        Assert.assertEquals("bob", grants.get("identity"));
+        Assert.assertEquals(1, grants.size());
+    }
+
+    @Test
+    public void testSignsWithPrimaryOfKeyRing() {
+        KeyRing ring = new KeyRing(new KeyRing.SigningKey(SIGNING_KEY_SID, SECRET));
+        AccessTokenMinter minter = new AccessTokenMinter.Builder(ACCOUNT_SID, ring).build();
+
+        Assert.assertEquals(SIGNING_KEY_SID, parse(minter.mint()).getBody().getIssuer());
+
+        String rotated = "rotatedsecretrotatedsecret\u00e9\u00e9\u00e9\u00e9\u00e9";
+        ring.rotate(new KeyRing.SigningKey("SK456", rotated));
+
+        Claims claims = Jwts.parser()
+            .setSigningKey(rotated.getBytes(StandardCharsets.UTF_8))
+            .parseClaimsJws(minter.mint("bob"))
+            .getBody();
+        Assert.assertEquals("SK456", claims.getIssuer());
+        Assert.assertTrue(claims.getId().startsWith("SK456-"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testKeyRingNeedsKeySid() {
+        new AccessTokenMinter.Builder(ACCOUNT_SID, new KeyRing(SECRET)).build();
+    }
+}
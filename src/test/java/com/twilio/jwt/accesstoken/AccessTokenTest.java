@@ -1,6 +1,7 @@
 package com.twilio.jwt.accesstoken;
 
 import com.twilio.jwt.Jwt;
+import com.twilio.security.KeyRing;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import org.junit.Assert;
@@ -79,6 +80,25 @@ public class AccessTokenTest {
         validateToken(claims);
     }
 
+    @Test
+    public void testKeyRing() {
+        KeyRing keyRing = new KeyRing(new KeyRing.SigningKey("SK000", "previoussecretpreviousecret00000"));
+        keyRing.rotate(new KeyRing.SigningKey(SIGNING_KEY_SID, SECRET));
+
+        Jwt token =
+            new AccessToken.Builder(ACCOUNT_SID, keyRing)
+                .build();
+
+        Claims claims = getClaimFromJwtToken(token);
+
+        validateToken(claims);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testKeyRingWithoutKeySid() {
+        new AccessToken.Builder(ACCOUNT_SID, new KeyRing(SECRET)).build();
+    }
+
     @Test
     public void testOptionalValues() {
         Jwt token =
@@ -1,6 +1,7 @@
 package com.twilio.jwt.client;
 
 import com.twilio.jwt.Jwt;
+import com.twilio.security.KeyRing;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import org.junit.Assert;
@@ -32,6 +33,22 @@ public class ClientCapabilityTest {
         Assert.assertTrue(claims.getExpiration().getTime() > new Date().getTime());
     }
 
+    @Test
+    public void testKeyRingSignsWithPrimary() {
+        KeyRing keyRing = new KeyRing("previoussecretpreviousecret00000", SECRET);
+        keyRing.rotate(SECRET);
+
+        Jwt jwt = new ClientCapability.Builder(ACCOUNT_SID, keyRing).build();
+
+        Claims claims =
+            Jwts.parser()
+                .setSigningKey(SECRET.getBytes())
+                .parseClaimsJws(jwt.toJwt())
+                .getBody();
+
+        Assert.assertEquals(ACCOUNT_SID, claims.getIssuer());
+    }
+
     @Test
     public void testToken() {
         List<Scope> scopes = Arrays.asList(
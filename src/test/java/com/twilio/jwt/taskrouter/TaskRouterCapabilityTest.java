@@ -11,6 +11,7 @@ import org.junit.Test;
 
 import com.twilio.http.HttpMethod;
 import com.twilio.jwt.Jwt;
+import com.twilio.security.KeyRing;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
@@ -47,6 +48,21 @@ public class TaskRouterCapabilityTest {
         Assert.assertTrue(claims.getExpiration().getTime() > new Date().getTime());
     }
 
+    @Test
+    public void testKeyRingToken() {
+        final Jwt jwt =
+                new TaskRouterCapability.Builder(ACCOUNT_SID, new KeyRing(AUTH_TOKEN), WORKSPACE_SID, WORKER_SID)
+                .build();
+        Claims claims =
+            Jwts.parser()
+                .setSigningKey(AUTH_TOKEN.getBytes())
+                .parseClaimsJws(jwt.toJwt())
+                .getBody();
+
+        Assert.assertEquals(WORKSPACE_SID, claims.get("workspace_sid"));
+        Assert.assertEquals(ACCOUNT_SID, claims.getIssuer());
+    }
+
     @Test
     public void testWorkerToken() {
         final List<Policy> policies = PolicyUtils.defaultWorkerPolicies(WORKSPACE_SID, WORKER_SID);
@@ -0,0 +1,255 @@
+package com.twilio.lookups;
+
+import com.twilio.FakeTwilio;
+import com.twilio.exception.ApiException;
+import com.twilio.http.HttpMethod;
+import com.twilio.http.Request;
+import com.twilio.http.Response;
+import com.twilio.http.TwilioRestClient;
+import com.twilio.rest.lookups.v1.PhoneNumber;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LookupServiceTest {
+
+    private static final String LOOKUPS = "/v1/PhoneNumbers/";
+
+    private final List<String> types = Collections.synchronizedList(new ArrayList<>());
+    private volatile CountDownLatch release;
+    private ExecutorService executor;
+    private TwilioRestClient client;
+
+    @Rule
+    public final FakeTwilio twilio = new FakeTwilio().handler(this::handle);
+
+    @Before
+    public void setUp() {
+        client = twilio.client();
+        executor = twilio.executor();
+    }
+
+    private static com.twilio.type.PhoneNumber number(final String number) {
+        return new com.twilio.type.PhoneNumber(number);
+    }
+
+    private int requestCount(final String number) {
+        return twilio.getRequestCount(LOOKUPS + number);
+    }
+
+    private Response handle(final Request request) {
+        assertEquals(HttpMethod.GET, request.getMethod());
+        String number = FakeTwilio.path(request).substring(LOOKUPS.length());
+        List<String> type = request.getQueryParams().get("Type");
+        if (type != null) {
+            types.addAll(type);
+        }
+
+        CountDownLatch latch = release;
+        if (latch != null) {
+            try {
+                latch.await(5, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (number.endsWith("0000")) {
+            return FakeTwilio.error(404, 20404, "Not found");
+        }
+        if (number.endsWith("9999")) {
+            return FakeTwilio.error(400, 21211, "Invalid number");
+        }
+        return FakeTwilio.json("{\"phone_number\": \"" + number + "\", \"country_code\": \"US\", "
+            + "\"national_format\": \"(415) 555-" + number.substring(number.length() - 4) + "\", "
+            + "\"carrier\": {\"name\": \"Carrier\", \"type\": \"mobile\"}, "
+            + "\"url\": \"https://lookups.twilio.com" + LOOKUPS + number + "\"}");
+    }
+
+    @Test
+    public void testNormalize() {
+        assertEquals("+14155550100", LookupService.normalize(" +1 (415) 555-0100"));
+        assertEquals("4155550100", LookupService.normalize("(415) 555-0100"));
+    }
+
+    @Test
+    public void testCachesByNormalizedNumber() {
+        LookupService service = new LookupService().types("carrier");
+
+        PhoneNumber first = service.lookup(client, number("+1 (415) 555-0100"));
+        PhoneNumber second = service.lookup(client, number("+1.415.555.0100"));
+
+        assertEquals("US", first.getCountryCode());
+        assertSame(first, second);
+        assertEquals(1, requestCount("+14155550100"));
+        assertEquals(Collections.singletonList("carrier"), types);
+        assertEquals(1, service.getHitCount());
+        assertEquals(1, service.getMissCount());
+
+        // Another type of lookup is cached separately
+        service.types("caller-name");
+        service.lookup(client, number("+14155550100"));
+        assertEquals(2, requestCount("+14155550100"));
+
+        service.invalidate(number("+14155550100"));
+        assertEquals(0, service.size());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        LookupService service = new LookupService(2);
+
+        service.lookup(client, number("+14155550101"));
+        service.lookup(client, number("+14155550102"));
+        service.lookup(client, number("+14155550101"));
+        service.lookup(client, number("+14155550103"));
+        assertEquals(2, service.size());
+
+        service.lookup(client, number("+14155550101"));
+        service.lookup(client, number("+14155550102"));
+        assertEquals(1, requestCount("+14155550101"));
+        assertEquals(2, requestCount("+14155550102"));
+    }
+
+    @Test
+    public void testCachesNotFound() {
+        LookupService service = new LookupService();
+
+        assertNull(service.lookup(client, number("+14155550000")));
+        assertNull(service.lookup(client, number("+14155550000")));
+        assertEquals(1, requestCount("+14155550000"));
+
+        // Other failures are not cached
+        for (int i = 0; i < 2; i++) {
+            try {
+                service.lookup(client, number("+14155559999"));
+                fail("Expected ApiException");
+            } catch (final ApiException e) {
+                assertEquals(Integer.valueOf(400), e.getStatusCode());
+            }
+        }
+        assertEquals(2, requestCount("+14155559999"));
+    }
+
+    @Test
+    public void testConcurrentLookupsShareOneRequest() throws Exception {
+        LookupService service = new LookupService();
+        release = new CountDownLatch(1);
+
+        List<Future<PhoneNumber>> lookups = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            lookups.add(executor.submit(() -> service.lookup(client, number("+14155550100"))));
+        }
+        while (service.getMissCount() < 4) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(50);
+        release.countDown();
+
+        PhoneNumber first = lookups.get(0).get(5, TimeUnit.SECONDS);
+        for (Future<PhoneNumber> lookup : lookups) {
+            assertSame(first, lookup.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, requestCount("+14155550100"));
+    }
+
+    @Test
+    public void testLookupAll() {
+        LookupService service = new LookupService().maxInFlight(2).executorService(executor);
+        service.lookup(client, number("+14155550101"));
+
+        List<com.twilio.type.PhoneNumber> numbers = Arrays.asList(
+            number("+14155550101"),
+            number("+14155550102"),
+            number("+14155550000"),
+            number("+14155559999"),
+            number("+14155550103")
+        );
+
+        List<LookupResult> results;
+        try (Stream<LookupResult> stream = service.lookupAll(client, numbers)) {
+            results = stream.collect(Collectors.toList());
+        }
+
+        assertEquals(5, results.size());
+        assertEquals(3, results.stream().filter(LookupResult::isFound).count());
+        List<LookupResult> failed = results.stream()
+            .filter(r -> r.getError() != null)
+            .collect(Collectors.toList());
+        assertEquals(1, failed.size());
+        assertEquals("+14155559999", failed.get(0).getNumber().getEndpoint());
+
+        LookupResult missing = results.stream()
+            .filter(r -> r.getNumber().getEndpoint().equals("+14155550000"))
+            .findFirst()
+            .get();
+        assertFalse(missing.isFound());
+        assertNull(missing.getError());
+        assertEquals(1, requestCount("+14155550101"));
+        assertTrue(service.getHitCount() >= 1);
+    }
+
+    @Test
+    public void testCloseCancelsOutstandingLookups() throws InterruptedException {
+        LookupService service = new LookupService().maxInFlight(4).requestsPerSecond(1)
+            .executorService(twilio.executor(1));
+        List<com.twilio.type.PhoneNumber> numbers = Arrays.asList(
+            number("+14155550101"),
+            number("+14155550102"),
+            number("+14155550103"),
+            number("+14155550104")
+        );
+
+        try (Stream<LookupResult> stream = service.lookupAll(client, numbers)) {
+            assertTrue(stream.findFirst().isPresent());
+        }
+
+        // The lookup waiting for the rate completes, the ones queued behind it were dropped rather than sent
+        Thread.sleep(1200);
+        assertTrue("requests " + twilio.getRequestCount(), twilio.getRequestCount() <= 2);
+    }
+
+    @Test
+    public void testCloseLeavesSharedLookupsRunning() throws Exception {
+        LookupService service = new LookupService().requestsPerSecond(1).executorService(executor);
+        service.lookup(client, number("+14155550101"));
+
+        // The run leads the lookup of the number, waiting for the rate, when another caller asks for it
+        Stream<LookupResult> stream = service.lookupAll(client, Collections.singletonList(number("+14155550102")));
+        Thread.sleep(100);
+        Future<PhoneNumber> follower = executor.submit(() -> service.lookup(client, number("+14155550102")));
+        Thread.sleep(100);
+        stream.close();
+
+        PhoneNumber result = follower.get(5, TimeUnit.SECONDS);
+        assertEquals("+14155550102", result.getPhoneNumber().getEndpoint());
+        assertEquals(1, requestCount("+14155550102"));
+    }
+
+    @Test
+    public void testLookupAllIsNotSized() {
+        LookupService service = new LookupService().executorService(executor);
+        try (Stream<LookupResult> stream = service.lookupAll(client, Collections.singletonList(number("+14155550101")))) {
+            assertFalse(stream.spliterator().hasCharacteristics(Spliterator.SIZED));
+        }
+    }
+}
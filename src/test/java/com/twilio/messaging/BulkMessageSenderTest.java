@@ -0,0 +1,228 @@
+package com.twilio.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.twilio.Twilio;
+import com.twilio.exception.ApiException;
+import com.twilio.http.Request;
+import com.twilio.http.Response;
+import com.twilio.http.TwilioRestClient;
+import com.twilio.type.PhoneNumber;
+import mockit.Delegate;
+import mockit.Mocked;
+import mockit.NonStrictExpectations;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BulkMessageSenderTest {
+
+    private static final PhoneNumber FROM = new PhoneNumber("+15017122661");
+
+    @Mocked
+    private TwilioRestClient twilioRestClient;
+
+    private ExecutorService executor;
+    private final Map<String, String> sent = new ConcurrentHashMap<>();
+    private final Map<String, ApiException> failed = new ConcurrentHashMap<>();
+
+    private final BulkMessageListener listener = new BulkMessageListener() {
+        @Override
+        public void onSent(final BulkMessage message, final String sid) {
+            sent.put(message.getTo().toString(), sid);
+        }
+
+        @Override
+        public void onFailed(final BulkMessage message, final ApiException exception) {
+            failed.put(message.getTo().toString(), exception);
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        Twilio.init("AC123", "AUTH TOKEN");
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static String to(final int i) {
+        return "+1415555" + String.format("%04d", i);
+    }
+
+    @Test
+    public void testSendsWithinWindowAndRetriesThrottled() {
+        final AtomicInteger concurrent = new AtomicInteger();
+        final AtomicInteger maxConcurrent = new AtomicInteger();
+        final AtomicInteger maxReported = new AtomicInteger();
+        final Map<String, Boolean> throttled = new ConcurrentHashMap<>();
+        final BulkMessageSender sender = new BulkMessageSender()
+            .maxInFlight(3)
+            .retryDelayMillis(1)
+            .executorService(executor);
+
+        new NonStrictExpectations() {{
+            twilioRestClient.request((Request) any);
+            result = new Delegate<Response>() {
+                @SuppressWarnings("unused")
+                Response request(final Request request) throws InterruptedException {
+                    int now = concurrent.incrementAndGet();
+                    maxConcurrent.accumulateAndGet(now, Math::max);
+                    maxReported.accumulateAndGet(sender.getStats().getInFlightCount(), Math::max);
+                    try {
+                        Thread.sleep(2);
+                        String to = request.getPostParams().get("To").get(0);
+                        if (to.endsWith("13")) {
+                            return new Response("{\"code\": 21211,\"message\": \"Invalid To\",\"status\": 400}", 400);
+                        }
+                        if (to.endsWith("7") && throttled.putIfAbsent(to, true) == null) {
+                            return new Response("{\"code\": 20429,\"message\": \"Too Many Requests\",\"status\": 429}", 429);
+                        }
+                        return new Response("{\"sid\": \"SM" + to.substring(1) + "\"}", 201);
+                    } finally {
+                        concurrent.decrementAndGet();
+                    }
+                }
+            };
+            twilioRestClient.getObjectMapper();
+            result = new ObjectMapper();
+        }};
+
+        BulkSendStats stats = sender.send(
+            twilioRestClient,
+            IntStream.range(0, 40).boxed(),
+            i -> BulkMessage.fromNumber(new PhoneNumber(to(i)), FROM, "Hello " + i),
+            listener
+        );
+
+        assertTrue(maxConcurrent.get() <= 3);
+        // Messages waiting for a slot or to retry are pending, not in flight
+        assertTrue("In flight " + maxReported.get(), maxReported.get() >= 1 && maxReported.get() <= 3);
+        assertEquals(39, sent.size());
+        assertEquals("SM14155550007", sent.get(to(7)));
+        assertEquals(1, failed.size());
+        assertEquals(Integer.valueOf(21211), failed.get(to(13)).getCode());
+        assertEquals(39, stats.getSentCount());
+        assertEquals(1, stats.getFailedCount());
+        assertEquals(4, stats.getRetryCount());
+        assertEquals(0, stats.getInFlightCount());
+        assertEquals(0, stats.getPendingCount());
+        assertEquals(1.0 / 40, stats.getErrorRate(), 1e-9);
+        assertTrue(stats.isDone());
+        assertTrue(stats == sender.getStats());
+    }
+
+    @Test
+    public void testGivesUpAfterMaxAttempts() {
+        new NonStrictExpectations() {{
+            twilioRestClient.request((Request) any);
+            result = new Response("{\"code\": 20429,\"message\": \"Too Many Requests\",\"status\": 429}", 429);
+            twilioRestClient.getObjectMapper();
+            result = new ObjectMapper();
+        }};
+
+        BulkSendStats stats = new BulkMessageSender()
+            .maxAttempts(2)
+            .retryDelayMillis(0)
+            .executorService(executor)
+            .send(
+                twilioRestClient,
+                IntStream.range(0, 3).mapToObj(i -> BulkMessage.fromService(new PhoneNumber(to(i)), "MG123", "Hi")),
+                listener
+            );
+
+        assertEquals(3, failed.size());
+        assertEquals(Integer.valueOf(429), failed.get(to(0)).getStatusCode());
+        assertEquals(3, stats.getRetryCount());
+        assertEquals(1.0, stats.getErrorRate(), 1e-9);
+    }
+
+    @Test
+    public void testPacesPerSender() {
+        new NonStrictExpectations() {{
+            twilioRestClient.request((Request) any);
+            result = new Delegate<Response>() {
+                @SuppressWarnings("unused")
+                Response request(final Request request) {
+                    assertEquals("MG123", request.getPostParams().get("MessagingServiceSid").get(0));
+                    return new Response("{\"sid\": \"SM123\"}", 201);
+                }
+            };
+            twilioRestClient.getObjectMapper();
+            result = new ObjectMapper();
+        }};
+
+        BulkSendStats stats = new BulkMessageSender()
+            .senderRate("MG123", 50)
+            .executorService(executor)
+            .send(
+                twilioRestClient,
+                IntStream.range(0, 6).mapToObj(i -> BulkMessage.fromService(new PhoneNumber(to(i)), "MG123", "Hi")),
+                listener
+            );
+
+        assertEquals(6, stats.getSentCount());
+        // The limiter starts with one stored permit, then spaces the other five by 20ms
+        assertTrue("Sends should be paced, took " + stats.getElapsedMillis(), stats.getElapsedMillis() >= 100);
+    }
+
+    @Test
+    public void testThrowingListenerDoesNotStopSend() {
+        new NonStrictExpectations() {{
+            twilioRestClient.request((Request) any);
+            result = new Response("{\"sid\": \"SM123\"}", 201);
+            twilioRestClient.getObjectMapper();
+            result = new ObjectMapper();
+        }};
+
+        BulkMessageSender sender = new BulkMessageSender().maxInFlight(2).executorService(executor);
+        try {
+            sender.send(
+                twilioRestClient,
+                IntStream.range(0, 10).mapToObj(i -> BulkMessage.fromService(new PhoneNumber(to(i)), "MG123", "Hi")),
+                new BulkMessageListener() {
+                    @Override
+                    public void onSent(final BulkMessage message, final String sid) {
+                        listener.onSent(message, sid);
+                        if (message.getTo().toString().endsWith("3")) {
+                            throw new IllegalStateException("Listener failed");
+                        }
+                    }
+
+                    @Override
+                    public void onFailed(final BulkMessage message, final ApiException exception) {
+                        listener.onFailed(message, exception);
+                    }
+                }
+            );
+            fail("Expected the listener failure");
+        } catch (final IllegalStateException e) {
+            assertEquals("Listener failed", e.getMessage());
+        }
+
+        BulkSendStats stats = sender.getStats();
+        assertEquals(10, sent.size());
+        assertEquals(10, stats.getSentCount());
+        assertEquals(0, stats.getPendingCount());
+        assertEquals(0, stats.getInFlightCount());
+        assertTrue(stats.isDone());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidWindow() {
+        new BulkMessageSender().maxInFlight(0);
+    }
+}
@@ -0,0 +1,110 @@
+package com.twilio.notify;
+
+import com.twilio.FakeTwilio;
+import com.twilio.exception.ApiException;
+import com.twilio.http.HttpClient;
+import com.twilio.http.Request;
+import com.twilio.http.Response;
+import com.twilio.rest.notify.v1.service.Binding;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BulkBindingImporterTest {
+
+    private final Map<String, String> created = new ConcurrentHashMap<>();
+    private final Map<String, String> duplicates = new ConcurrentHashMap<>();
+    private final Map<String, ApiException> failures = new ConcurrentHashMap<>();
+    private final AtomicBoolean throttled = new AtomicBoolean();
+    private final AtomicInteger unavailable = new AtomicInteger();
+
+    @Rule
+    public final FakeTwilio twilio = new FakeTwilio().handler(this::handle);
+
+    private final BindingImportListener listener = new BindingImportListener() {
+        @Override
+        public void onCreated(final BindingImport binding, final Binding result) {
+            created.put(binding.getAddress(), result.getSid());
+        }
+
+        @Override
+        public void onDuplicate(final BindingImport binding) {
+            duplicates.put(binding.getAddress(), binding.getIdentity());
+        }
+
+        @Override
+        public void onFailed(final BindingImport binding, final ApiException error) {
+            failures.put(binding.getAddress(), error);
+        }
+    };
+
+    private Response handle(final Request request) {
+        String address = request.getPostParams().get("Address").get(0);
+        List<String> tags = request.getPostParams().get("Tag");
+        if ("+15550000003".equals(address) && throttled.compareAndSet(false, true)) {
+            return FakeTwilio.error(429, 20429, "Too many requests");
+        }
+        // The client retries a 503 on its own, so only a 503 on each of its attempts reaches the importer
+        if ("+15550000004".equals(address) && unavailable.incrementAndGet() <= HttpClient.RETRIES) {
+            return FakeTwilio.error(503, 20503, "Service unavailable");
+        }
+        if ("bad".equals(address)) {
+            return FakeTwilio.error(400, 20001, "Invalid address");
+        }
+        return FakeTwilio.json("{\"sid\": \"BS" + address.substring(1) + "\", \"address\": \"" + address
+            + "\", \"tags\": [\"" + tags.get(0) + "\"]}");
+    }
+
+    private static Stream<BindingImport> bindings() {
+        return Stream.concat(
+            IntStream.range(0, 20).mapToObj(i ->
+                new BindingImport("user" + i, Binding.BindingType.SMS, String.format("+1555000%04d", i % 15))
+                    .tags("import")
+            ),
+            Stream.of(
+                new BindingImport("user99", Binding.BindingType.APN, "+15550000001").tags("import"),
+                new BindingImport("user100", Binding.BindingType.SMS, "bad").tags("import")
+            )
+        );
+    }
+
+    @Test
+    public void testImport() {
+        BindingImportStats stats = new BulkBindingImporter("IS1")
+            .maxInFlight(4)
+            .retryDelayMillis(1)
+            .executorService(twilio.executor(8))
+            .importBindings(twilio.client(), bindings(), listener);
+
+        assertTrue(stats.isDone());
+        assertEquals(16, stats.getCreatedCount());
+        assertEquals(5, stats.getDuplicateCount());
+        assertEquals(1, stats.getFailedCount());
+        assertEquals(2, stats.getRetryCount());
+        assertEquals("BS15550000003", created.get("+15550000003"));
+        assertEquals("user15", duplicates.get("+15550000000"));
+        assertEquals(Integer.valueOf(400), failures.get("bad").getStatusCode());
+    }
+
+    @Test
+    public void testKeepDuplicates() {
+        BindingImportStats stats = new BulkBindingImporter("IS1")
+            .skipDuplicates(false)
+            .retryDelayMillis(1)
+            .executorService(twilio.executor(8))
+            .importBindings(twilio.client(), bindings(), listener);
+
+        assertEquals(21, stats.getCreatedCount());
+        assertEquals(0, stats.getDuplicateCount());
+    }
+}
@@ -0,0 +1,117 @@
+package com.twilio.notify;
+
+import com.twilio.FakeTwilio;
+import com.twilio.http.HttpClient;
+import com.twilio.http.Request;
+import com.twilio.http.Response;
+import com.twilio.rest.notify.v1.service.Binding;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SegmentedNotificationSenderTest {
+
+    private final List<List<String>> identities = Collections.synchronizedList(new ArrayList<>());
+    private final List<List<String>> toBindings = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile String unavailableIdentity;
+
+    @Rule
+    public final FakeTwilio twilio = new FakeTwilio().handler(this::handle);
+
+    private Response handle(final Request request) {
+        List<String> identity = request.getPostParams().get("Identity");
+        if (unavailableIdentity != null) {
+            if (identity.contains(unavailableIdentity)) {
+                return FakeTwilio.error(503, 20503, "Service unavailable");
+            }
+        } else if (requests.incrementAndGet() == 2) {
+            return FakeTwilio.error(429, 20429, "Too many requests");
+        }
+        assertEquals("Hello", request.getPostParams().get("Body").get(0));
+        if (identity != null) {
+            identities.add(request.getPostParams().get("Identity"));
+        } else {
+            toBindings.add(request.getPostParams().get("ToBinding"));
+        }
+        return FakeTwilio.json("{\"sid\": \"NT" + requests.get() + "\"}");
+    }
+
+    @Test
+    public void testChunksIdentities() {
+        List<String> users = new ArrayList<>();
+        for (int i = 0; i < 45; i++) {
+            users.add("user" + i);
+        }
+
+        NotificationFanOutResult result = new SegmentedNotificationSender("IS1")
+            .retryDelayMillis(1)
+            .executorService(twilio.executor())
+            .sendToIdentities(twilio.client(), users, notification -> notification.setBody("Hello"));
+
+        assertTrue(result.isComplete());
+        assertEquals(3, result.getNotificationSids().size());
+        assertEquals(45, result.getSentRecipientCount());
+        assertEquals(1, result.getRetryCount());
+
+        List<String> notified = new ArrayList<>();
+        for (List<String> chunk : identities) {
+            assertTrue(chunk.size() <= SegmentedNotificationSender.MAX_IDENTITIES_PER_REQUEST);
+            notified.addAll(chunk);
+        }
+        Collections.sort(notified);
+        Collections.sort(users);
+        assertEquals(users, notified);
+    }
+
+    @Test
+    public void testChunksBindings() {
+        List<String> bindings = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            bindings.add(SegmentedNotificationSender.toBinding(Binding.BindingType.SMS, "+1555000" + i));
+        }
+
+        NotificationFanOutResult result = new SegmentedNotificationSender("IS1")
+            .maxBindingsPerRequest(100)
+            .maxAttempts(1)
+            .executorService(twilio.executor())
+            .sendToBindings(twilio.client(), bindings, notification -> notification.setBody("Hello"));
+
+        assertFalse(result.isComplete());
+        assertEquals(1, result.getFailedChunks().size());
+        assertEquals(Integer.valueOf(429), result.getFailedChunks().get(0).getError().getStatusCode());
+        assertEquals(250, result.getSentRecipientCount() + result.getFailedRecipientCount());
+        assertEquals(2, toBindings.size());
+        assertEquals("{\"binding_type\":\"sms\",\"address\":\"+15550000\"}", bindings.get(0));
+    }
+
+    @Test
+    public void testDoesNotRetryUnavailable() {
+        unavailableIdentity = "user20";
+        List<String> users = new ArrayList<>();
+        for (int i = 0; i < 45; i++) {
+            users.add("user" + i);
+        }
+
+        NotificationFanOutResult result = new SegmentedNotificationSender("IS1")
+            .retryDelayMillis(1)
+            .executorService(twilio.executor())
+            .sendToIdentities(twilio.client(), users, notification -> notification.setBody("Hello"));
+
+        assertFalse(result.isComplete());
+        assertEquals(0, result.getRetryCount());
+        // The client retries the 503 on its own; the sender must not send the chunk again on top of that
+        assertEquals(2 + HttpClient.RETRIES, twilio.getRequestCount());
+        assertEquals(1, result.getFailedChunks().size());
+        assertEquals(Integer.valueOf(503), result.getFailedChunks().get(0).getError().getStatusCode());
+        assertEquals(45, result.getSentRecipientCount() + result.getFailedRecipientCount());
+    }
+}
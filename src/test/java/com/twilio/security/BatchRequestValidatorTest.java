@@ -0,0 +1,104 @@
+package com.twilio.security;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Test class for {@link BatchRequestValidator}.
+ */
+public class BatchRequestValidatorTest {
+
+    private static final String URL = "https://mycompany.com/myapp.php?foo=1&bar=2";
+    private static final String SIGNATURE = "RSOYDt4T1cUTdK1PDd93/VVr8B8=";
+
+    private static SignedRequest request(final int i) {
+        Map<String, String> params = new HashMap<>();
+        params.put("Digits", "1234");
+        params.put("CallSid", "CA1234567890ABCDE");
+        params.put("To", "+18005551212");
+        params.put("Caller", "+14158675309");
+        params.put("From", "+14158675309");
+        return new SignedRequest(URL, params, i % 7 == 3 ? "NOT" + SIGNATURE : SIGNATURE);
+    }
+
+    @Test
+    public void testValidatesInParallel() {
+        List<SignedRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            requests.add(request(i));
+        }
+
+        BatchValidationResult result = new BatchRequestValidator("12345")
+            .parallelism(4)
+            .chunkSize(97)
+            .validate(requests);
+
+        int[] expected = IntStream.range(0, 1000).filter(i -> i % 7 == 3).toArray();
+        Assert.assertEquals(1000, result.getCount());
+        Assert.assertArrayEquals(expected, result.getFailures());
+        Assert.assertEquals(1000 - expected.length, result.getValidCount());
+        Assert.assertTrue(result.isValid(0));
+        Assert.assertFalse(result.isValid(3));
+    }
+
+    @Test
+    public void testValidatesStreamOnCallerThread() {
+        BatchValidationResult result = new BatchRequestValidator(new RequestValidator("12345"))
+            .parallelism(1)
+            .validate(IntStream.range(0, 10).mapToObj(BatchRequestValidatorTest::request));
+
+        Assert.assertEquals(10, result.getCount());
+        Assert.assertArrayEquals(new int[] {3}, result.getFailures());
+    }
+
+    @Test
+    public void testReadsNextChunkWhileValidating() {
+        CountDownLatch secondChunkRead = new CountDownLatch(1);
+        RequestValidator waitingValidator = new RequestValidator("12345") {
+            @Override
+            public boolean validate(final String url, final Map<String, String> params, final String signature) {
+                try {
+                    // Requests of the first chunk only pass once the second chunk is being read
+                    return secondChunkRead.await(5, TimeUnit.SECONDS) && super.validate(url, params, signature);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        };
+
+        BatchValidationResult result = new BatchRequestValidator(waitingValidator)
+            .parallelism(2)
+            .chunkSize(2)
+            .validate(IntStream.range(0, 4).mapToObj(i -> {
+                if (i == 2) {
+                    secondChunkRead.countDown();
+                }
+                return request(i);
+            }));
+
+        Assert.assertEquals(4, result.getCount());
+        Assert.assertArrayEquals(new int[] {3}, result.getFailures());
+    }
+
+    @Test
+    public void testEmpty() {
+        BatchValidationResult result = new BatchRequestValidator("12345").validate(new ArrayList<SignedRequest>());
+
+        Assert.assertEquals(0, result.getCount());
+        Assert.assertEquals(0, result.getFailureCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidParallelism() {
+        new BatchRequestValidator("12345").parallelism(0);
+    }
+}
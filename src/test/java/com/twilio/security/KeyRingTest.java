@@ -0,0 +1,118 @@
+package com.twilio.security;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.crypto.Mac;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Test class for {@link KeyRing}.
+ */
+public class KeyRingTest {
+
+    @Test
+    public void testRotateDemotesPrimary() {
+        KeyRing ring = new KeyRing("one").maxSecondaries(2);
+
+        ring.rotate("two");
+        ring.rotate("three");
+        ring.rotate("four");
+
+        Assert.assertEquals("four", ring.getPrimary().getSecret());
+        Assert.assertEquals(
+            Arrays.asList(new KeyRing.SigningKey("three"), new KeyRing.SigningKey("two")),
+            ring.getSecondaries()
+        );
+    }
+
+    @Test
+    public void testMaxSecondariesOnEveryChange() {
+        KeyRing ring = new KeyRing("four", "three", "two", "one");
+        Assert.assertEquals(KeyRing.DEFAULT_MAX_SECONDARIES, ring.getSecondaries().size());
+        Assert.assertEquals(Arrays.asList(new KeyRing.SigningKey("three"), new KeyRing.SigningKey("two")),
+            ring.getSecondaries());
+
+        ring.maxSecondaries(1);
+        Assert.assertEquals(Arrays.asList(new KeyRing.SigningKey("three")), ring.getSecondaries());
+
+        ring.set(new KeyRing.SigningKey("b"), new KeyRing.SigningKey("a"), new KeyRing.SigningKey("z"));
+        Assert.assertEquals("b", ring.getPrimary().getSecret());
+        Assert.assertEquals(Arrays.asList(new KeyRing.SigningKey("a")), ring.getSecondaries());
+    }
+
+    @Test
+    public void testGetMacIsReset() throws Exception {
+        KeyRing.SigningKey key = new KeyRing.SigningKey("secret");
+        byte[] expected = key.getMac(KeyRing.HMAC_SHA256).doFinal(new byte[] {1, 2, 3});
+
+        key.getMac(KeyRing.HMAC_SHA256).update(new byte[] {9, 9});
+
+        Assert.assertArrayEquals(expected, key.getMac(KeyRing.HMAC_SHA256).doFinal(new byte[] {1, 2, 3}));
+    }
+
+    @Test
+    public void testRotateToSecondary() {
+        KeyRing ring = new KeyRing("two", "one");
+
+        ring.rotate("one");
+
+        Assert.assertEquals("one", ring.getPrimary().getSecret());
+        Assert.assertEquals(Arrays.asList(new KeyRing.SigningKey("two")), ring.getSecondaries());
+    }
+
+    @Test
+    public void testRetire() {
+        KeyRing ring = new KeyRing("two", "one");
+
+        Assert.assertFalse(ring.retire(new KeyRing.SigningKey("two")));
+        Assert.assertTrue(ring.retire(new KeyRing.SigningKey("one")));
+        Assert.assertEquals(1, ring.getKeys().size());
+    }
+
+    @Test
+    public void testAnyMatchPrefersLastMatch() {
+        KeyRing ring = new KeyRing("primary", "old");
+        final List<String> tried = new ArrayList<>();
+
+        Assert.assertTrue(ring.anyMatch(key -> tried.add(key.getSecret()) && key.getSecret().equals("old")));
+        Assert.assertEquals(Arrays.asList("primary", "old"), tried);
+
+        tried.clear();
+        Assert.assertTrue(ring.anyMatch(key -> tried.add(key.getSecret()) && key.getSecret().equals("old")));
+        Assert.assertEquals(Arrays.asList("old"), tried);
+
+        tried.clear();
+        Assert.assertFalse(ring.anyMatch(key -> !tried.add(key.getSecret())));
+        Assert.assertEquals(Arrays.asList("old", "primary"), tried);
+    }
+
+    @Test
+    public void testMacIsPerThread() throws Exception {
+        final KeyRing.SigningKey key = new KeyRing.SigningKey("SK123", "secret");
+        Mac mac = key.getMac(KeyRing.HMAC_SHA1);
+        final Mac[] other = new Mac[1];
+
+        Thread thread = new Thread(() -> {
+            try {
+                other[0] = key.getMac(KeyRing.HMAC_SHA1);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        thread.start();
+        thread.join();
+
+        Assert.assertSame(mac, key.getMac(KeyRing.HMAC_SHA1));
+        Assert.assertNotNull(other[0]);
+        Assert.assertNotSame(mac, other[0]);
+        Assert.assertSame(key.getSecretKeySpec(KeyRing.HMAC_SHA256), key.getSecretKeySpec(KeyRing.HMAC_SHA256));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxSecondaries() {
+        new KeyRing("one").maxSecondaries(-1);
+    }
+}
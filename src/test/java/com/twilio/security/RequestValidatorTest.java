@@ -4,9 +4,19 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.xml.bind.DatatypeConverter;
+import java.io.ByteArrayInputStream;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Test class for {@link RequestValidator}.
@@ -33,6 +43,22 @@ public class RequestValidatorTest {
         Assert.assertTrue("Request does not match provided signature", validator.validate(url, params, signature));
     }
 
+    @Test
+    public void testValidateWithKeyRing() {
+        KeyRing keyRing = new KeyRing("67890");
+        RequestValidator ringValidator = new RequestValidator(keyRing);
+        Assert.assertFalse(ringValidator.validate(url, params, signature));
+
+        keyRing.rotate("12345");
+        Assert.assertTrue(ringValidator.validate(url, params, signature));
+
+        keyRing.rotate("67890");
+        Assert.assertTrue("Secondary key should still validate", ringValidator.validate(url, params, signature));
+
+        keyRing.retire(new KeyRing.SigningKey("12345"));
+        Assert.assertFalse(ringValidator.validate(url, params, signature));
+    }
+
     @Test
     public void testFailsWhenIncorrect() {
         signature = "NOTRSOYDt4T1cUTdK1PDd93/VVr8B8=";
@@ -114,4 +140,71 @@ public class RequestValidatorTest {
         Assert.assertTrue("Validator did not add port 80 to http url", isValid);
     }
 
+    @Test
+    public void testValidateSortedParams() {
+        Assert.assertTrue("Request does not match provided signature", validator.validate(url, new TreeMap<>(params), signature));
+    }
+
+    @Test
+    public void testValidateNonAsciiParams() throws Exception {
+        params.put("Body", "caf\u00e9 \u4e2d \ud83d\udc4d \ud83d");
+        params.put("Empty", null);
+
+        StringBuilder data = new StringBuilder(url);
+        for (String key : new TreeMap<>(params).keySet()) {
+            data.append(key).append(params.get(key) == null ? "" : params.get(key));
+        }
+        Mac mac = Mac.getInstance("HmacSHA1");
+        mac.init(new SecretKeySpec("12345".getBytes(StandardCharsets.UTF_8), "HmacSHA1"));
+        String expected = DatatypeConverter.printBase64Binary(mac.doFinal(data.toString().getBytes(StandardCharsets.UTF_8)));
+
+        Assert.assertTrue("Request does not match provided signature", validator.validate(url, params, expected));
+        Assert.assertTrue("Request does not match provided signature", validator.validate(url, params, expected));
+    }
+
+    @Test
+    public void testValidateWithRawBody() throws Exception {
+        String url = this.url + "&bodySHA256=" + bodyHash;
+        String signatureWithHash = "a9nBmqA0ju/hNViExpshrM61xv4=";
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+
+        Assert.assertTrue(validator.validate(url, bytes, signatureWithHash));
+        Assert.assertTrue(validator.validate(url, new ByteArrayInputStream(bytes), signatureWithHash));
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        Assert.assertTrue(validator.validate(url, buffer, signatureWithHash));
+        Assert.assertEquals(0, buffer.position());
+
+        bytes[0] = '[';
+        Assert.assertFalse(validator.validate(url, bytes, signatureWithHash));
+        Assert.assertFalse(validator.validate(url, new ByteArrayInputStream(bytes), signatureWithHash));
+        Assert.assertFalse(validator.validate(url, ByteBuffer.wrap(bytes), signatureWithHash));
+    }
+
+    @Test
+    public void testValidateMultiValuedParams() throws Exception {
+        Map<String, List<String>> multiValued = new HashMap<>();
+        Map<String, String[]> parameterMap = new HashMap<>();
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            multiValued.put(param.getKey(), Collections.singletonList(param.getValue()));
+            parameterMap.put(param.getKey(), new String[] {param.getValue()});
+        }
+
+        Assert.assertTrue(validator.validateMultiValued(url, multiValued, signature));
+        Assert.assertTrue(validator.validateParameterMap(url, parameterMap, signature));
+
+        multiValued.put("MediaUrl", Arrays.asList("https://b", "https://a"));
+        parameterMap.put("MediaUrl", new String[] {"https://b", "https://a"});
+
+        Mac mac = Mac.getInstance("HmacSHA1");
+        mac.init(new SecretKeySpec("12345".getBytes(StandardCharsets.UTF_8), "HmacSHA1"));
+        String data = url + "CallSidCA1234567890ABCDECaller+14158675309Digits1234From+14158675309"
+            + "MediaUrlhttps://aMediaUrlhttps://bTo+18005551212";
+        String expected = DatatypeConverter.printBase64Binary(mac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+
+        Assert.assertTrue(validator.validateMultiValued(url, multiValued, expected));
+        Assert.assertTrue(validator.validateParameterMap(url, parameterMap, expected));
+        Assert.assertArrayEquals(new String[] {"https://b", "https://a"}, parameterMap.get("MediaUrl"));
+    }
+
 }
@@ -0,0 +1,106 @@
+package com.twilio.sync;
+
+import com.twilio.FakeTwilio;
+import com.twilio.http.HttpMethod;
+import com.twilio.http.Request;
+import com.twilio.http.Response;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SyncListBatchUpdaterTest {
+
+    private static final String ITEMS = "/v1/Services/IS1/Lists/ES1/Items/";
+
+    /** Revision of each item of the fake list. */
+    private final Map<Integer, Integer> server = new ConcurrentHashMap<>();
+
+    @Rule
+    public final FakeTwilio twilio = new FakeTwilio().handler(this::handle).latency(2);
+
+    @Before
+    public void setUp() {
+        for (int i = 0; i < 20; i++) {
+            server.put(i, 1);
+        }
+    }
+
+    private static String item(final int index, final int revision, final Object value) {
+        return "{\"index\": " + index + ", \"revision\": \"" + revision + "\", \"data\": {\"v\": " + value + "}}";
+    }
+
+    private synchronized Response handle(final Request request) {
+        int index = Integer.parseInt(FakeTwilio.path(request).substring(ITEMS.length()));
+        Integer revision = server.get(index);
+        if (revision == null) {
+            return FakeTwilio.error(404, 20404, "Not found");
+        }
+        if (request.getMethod() == HttpMethod.GET) {
+            return FakeTwilio.json(item(index, revision, revision));
+        }
+
+        List<String> ifMatch = request.getHeaderParams().get("If-Match");
+        if (ifMatch != null && !ifMatch.get(0).equals(revision.toString())) {
+            return FakeTwilio.error(412, 54103, "Revision mismatch");
+        }
+        server.put(index, revision + 1);
+        return FakeTwilio.json(item(index, revision + 1, revision + 1));
+    }
+
+    private List<SyncItemMutation<Integer>> mutations() {
+        List<SyncItemMutation<Integer>> mutations = new ArrayList<>();
+        Map<String, Object> data = Collections.<String, Object>singletonMap("v", 1);
+        for (int i = 0; i < 20; i++) {
+            // Item 5 has moved on since its revision was read
+            mutations.add(SyncItemMutation.of(i, data, i == 5 ? "0" : "1"));
+        }
+        mutations.add(SyncItemMutation.of(99, data));
+        return mutations;
+    }
+
+    @Test
+    public void testUpdatesItemsByIndex() {
+        SyncBatchResult<Integer> result = new SyncListBatchUpdater("IS1", "ES1")
+            .maxInFlight(3)
+            .executorService(twilio.executor(8))
+            .update(twilio.client(), mutations());
+
+        assertEquals(21, result.size());
+        assertEquals(19, result.getAppliedCount());
+        assertEquals(Collections.singletonList(5), result.getConflicts());
+        assertEquals(Collections.singletonList(99), result.getFailures());
+        assertEquals("2", result.getRevision(0));
+        assertEquals(Integer.valueOf(1), server.get(5));
+        assertTrue(twilio.getMaxInFlight() <= 3);
+    }
+
+    @Test
+    public void testRetriesConflictsWithResolver() {
+        server.put(5, 4);
+        List<Integer> reread = Collections.synchronizedList(new ArrayList<>());
+
+        SyncBatchResult<Integer> result = new SyncListBatchUpdater("IS1", "ES1")
+            .executorService(twilio.executor(8))
+            .onConflict((current, mutation) -> {
+                reread.add(current.getIndex());
+                return Collections.<String, Object>singletonMap("v", current.getData().get("v"));
+            })
+            .update(twilio.client(), mutations().subList(0, 20));
+
+        assertTrue(result.isComplete());
+        assertEquals(20, result.getAppliedCount());
+        assertEquals(Arrays.asList(5), reread);
+        assertEquals("5", result.getRevision(5));
+        assertEquals(Integer.valueOf(5), server.get(5));
+    }
+}
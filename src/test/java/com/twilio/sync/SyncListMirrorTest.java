@@ -0,0 +1,216 @@
+package com.twilio.sync;
+
+import com.twilio.FakeTwilio;
+import com.twilio.exception.ApiException;
+import com.twilio.http.HttpMethod;
+import com.twilio.http.Request;
+import com.twilio.http.Response;
+import com.twilio.rest.sync.v1.service.synclist.SyncListItem;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SyncListMirrorTest {
+
+    private static final String ITEMS_PATH = "/v1/Services/IS1/Lists/ES1/Items";
+    private static final String ITEMS = "https://sync.twilio.com" + ITEMS_PATH;
+
+    /** Items of the fake list by index, with their revision as the value. */
+    private final NavigableMap<Integer, Integer> server = Collections.synchronizedNavigableMap(new TreeMap<>());
+    private final AtomicInteger listRevision = new AtomicInteger();
+    /** Queries of the pages read which started from an index. */
+    private final List<Map<String, String>> rangeReads = new CopyOnWriteArrayList<>();
+    private SyncListMirror mirror;
+
+    @Rule
+    public final FakeTwilio twilio = new FakeTwilio().handler(this::handle);
+
+    @Before
+    public void setUp() {
+        for (int i = 0; i < 250; i++) {
+            server.put(i, 0);
+        }
+
+        mirror = new SyncListMirror("IS1", "ES1");
+        mirror.client(twilio.client()).executorService(twilio.executor()).pageSize(20).parallelism(4);
+    }
+
+    private static String item(final int index, final int revision) {
+        return "{\"index\": " + index + ", \"revision\": \"" + revision + "\", \"data\": {\"v\": " + revision + "}}";
+    }
+
+    private Response handle(final Request request) {
+        String path = FakeTwilio.path(request);
+        if (path.endsWith("/Lists/ES1")) {
+            return FakeTwilio.json("{\"sid\": \"ES1\", \"revision\": \"" + listRevision.get() + "\"}");
+        }
+        if (path.equals(ITEMS_PATH)) {
+            if (request.getMethod() == HttpMethod.GET) {
+                return page(SyncMapMirrorTest.params(request));
+            }
+            int index;
+            synchronized (server) {
+                index = server.isEmpty() ? 0 : server.lastKey() + 1;
+                server.put(index, 0);
+            }
+            listRevision.incrementAndGet();
+            return new Response(item(index, 0), 201);
+        }
+
+        int index = Integer.parseInt(path.substring(ITEMS_PATH.length() + 1));
+        Integer revision = server.get(index);
+        if (revision == null) {
+            return FakeTwilio.error(404, 20404, "Not found");
+        }
+        if (request.getMethod() == HttpMethod.GET) {
+            return FakeTwilio.json(item(index, revision));
+        }
+
+        List<String> ifMatch = request.getHeaderParams().get("If-Match");
+        if (ifMatch != null && !ifMatch.get(0).equals(revision.toString())) {
+            return FakeTwilio.error(412, 54103, "Revision mismatch");
+        }
+        listRevision.incrementAndGet();
+        if (request.getMethod() == HttpMethod.DELETE) {
+            server.remove(index);
+            return new Response("", 204);
+        }
+        server.put(index, revision + 1);
+        return FakeTwilio.json(item(index, revision + 1));
+    }
+
+    private Response page(final Map<String, String> params) {
+        boolean descending = "desc".equals(params.get("Order"));
+        int pageSize = Integer.parseInt(params.get("PageSize"));
+        String from = params.get("From");
+        if (from != null) {
+            rangeReads.add(params);
+        }
+
+        List<Integer> indexes;
+        synchronized (server) {
+            NavigableMap<Integer, Integer> view = descending ? server.descendingMap() : server;
+            if (from != null) {
+                view = view.tailMap(Integer.valueOf(from), "inclusive".equals(params.get("Bounds")));
+            }
+            indexes = new ArrayList<>(view.keySet());
+        }
+
+        StringBuilder json = new StringBuilder("{\"items\": [");
+        for (int i = 0; i < Math.min(pageSize, indexes.size()); i++) {
+            json.append(i == 0 ? "" : ",").append(item(indexes.get(i), server.get(indexes.get(i))));
+        }
+        json.append("], \"meta\": {\"key\": \"items\", \"page_size\": ").append(pageSize)
+            .append(", \"url\": \"").append(ITEMS).append("\", \"first_page_url\": \"").append(ITEMS)
+            .append("\", \"previous_page_url\": null, \"next_page_url\": ");
+        if (indexes.size() > pageSize) {
+            json.append('"').append(ITEMS).append("?Order=").append(descending ? "desc" : "asc")
+                .append("&From=").append(indexes.get(pageSize)).append("&Bounds=inclusive&PageSize=")
+                .append(pageSize).append('"');
+        } else {
+            json.append("null");
+        }
+        return FakeTwilio.json(json.append("}}").toString());
+    }
+
+    @Test
+    public void testLoadFromBothEnds() {
+        assertEquals(250, mirror.load());
+        for (int i = 0; i < 250; i++) {
+            assertEquals("0", mirror.get(i).getRevision());
+        }
+        assertEquals(1 + 13 + 2, twilio.getRequestCount(), 2);
+        assertEquals("0", mirror.getRevision());
+    }
+
+    @Test
+    public void testRefreshReadsRangesFromInclusiveIndex() {
+        mirror.load();
+        rangeReads.clear();
+
+        server.put(3, 1);
+        server.put(200, 4);
+        server.remove(100);
+        server.put(250, 0);
+        listRevision.incrementAndGet();
+
+        assertEquals(4, mirror.refresh());
+        assertEquals(250, mirror.size());
+        assertEquals("1", mirror.get(3).getRevision());
+        assertEquals("4", mirror.get(200).getRevision());
+        assertNull(mirror.get(100));
+        assertEquals("0", mirror.get(250).getRevision());
+
+        // Ranges start at a mirrored index, so the first item of each range must be included
+        assertFalse(rangeReads.isEmpty());
+        for (Map<String, String> params : rangeReads) {
+            assertTrue(params.get("From").matches("\\d+"));
+            assertEquals("inclusive", params.get("Bounds"));
+        }
+    }
+
+    @Test
+    public void testAppend() {
+        mirror.load();
+        twilio.resetCounts();
+
+        SyncListItem item = mirror.append(Collections.<String, Object>singletonMap("v", 0));
+        assertEquals(Integer.valueOf(250), item.getIndex());
+        assertEquals(251, mirror.size());
+        assertEquals("0", mirror.get(250).getRevision());
+        assertTrue(server.containsKey(250));
+        assertEquals(1, twilio.getRequestCount());
+    }
+
+    @Test
+    public void testUpdateUsesIfMatch() {
+        mirror.load();
+        server.put(5, 7);
+
+        try {
+            mirror.update(5, Collections.<String, Object>singletonMap("v", 1));
+            fail("Expected a revision conflict");
+        } catch (final ApiException e) {
+            assertEquals(Integer.valueOf(412), e.getStatusCode());
+        }
+        assertEquals("7", mirror.get(5).getRevision());
+
+        mirror.update(5, Collections.<String, Object>singletonMap("v", 1));
+        assertEquals("8", mirror.get(5).getRevision());
+        assertEquals(Integer.valueOf(8), server.get(5));
+    }
+
+    @Test
+    public void testDeleteUsesIfMatch() {
+        mirror.load();
+        server.put(6, 2);
+
+        try {
+            mirror.delete(6);
+            fail("Expected a revision conflict");
+        } catch (final ApiException e) {
+            assertEquals(Integer.valueOf(412), e.getStatusCode());
+        }
+        assertEquals("2", mirror.get(6).getRevision());
+        assertTrue(server.containsKey(6));
+
+        assertTrue(mirror.delete(6));
+        assertNull(mirror.get(6));
+        assertFalse(server.containsKey(6));
+    }
+}
@@ -0,0 +1,124 @@
+package com.twilio.sync;
+
+import com.twilio.FakeTwilio;
+import com.twilio.http.HttpMethod;
+import com.twilio.http.Request;
+import com.twilio.http.Response;
+import com.twilio.rest.sync.v1.service.syncmap.SyncMapItem;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SyncMapBatchUpdaterTest {
+
+    private static final String ITEMS = "/v1/Services/IS1/Maps/MP1/Items/";
+
+    /** Revision of each item of the fake map. */
+    private final Map<String, Integer> server = new ConcurrentHashMap<>();
+
+    @Rule
+    public final FakeTwilio twilio = new FakeTwilio().handler(this::handle).latency(2);
+
+    @Before
+    public void setUp() {
+        for (int i = 0; i < 50; i++) {
+            server.put("k" + i, 1);
+        }
+    }
+
+    private static String item(final String key, final int revision) {
+        return "{\"key\": \"" + key + "\", \"revision\": \"" + revision + "\", \"data\": {}}";
+    }
+
+    private synchronized Response handle(final Request request) {
+        String key = FakeTwilio.path(request).substring(ITEMS.length());
+        Integer revision = server.get(key);
+        if (revision == null) {
+            return FakeTwilio.error(404, 20404, "Not found");
+        }
+        if (request.getMethod() == HttpMethod.GET) {
+            return FakeTwilio.json(item(key, revision));
+        }
+
+        List<String> ifMatch = request.getHeaderParams().get("If-Match");
+        if (ifMatch != null && !ifMatch.get(0).equals(revision.toString())) {
+            return FakeTwilio.error(412, 54103, "Revision mismatch");
+        }
+        server.put(key, revision + 1);
+        return FakeTwilio.json(item(key, revision + 1));
+    }
+
+    private List<SyncItemMutation<String>> mutations() {
+        List<SyncItemMutation<String>> mutations = new ArrayList<>();
+        Map<String, Object> data = Collections.<String, Object>singletonMap("v", 1);
+        for (int i = 0; i < 50; i++) {
+            // Items 3 and 7 have moved on since their revision was read
+            mutations.add(SyncItemMutation.of("k" + i, data, i == 3 || i == 7 ? "0" : "1"));
+        }
+        mutations.add(SyncItemMutation.of("missing", data));
+        return mutations;
+    }
+
+    @Test
+    public void testCollectsConflicts() {
+        SyncBatchResult<String> result = new SyncMapBatchUpdater("IS1", "MP1")
+            .maxInFlight(4)
+            .executorService(twilio.executor(16))
+            .update(twilio.client(), mutations());
+
+        assertEquals(51, result.size());
+        assertEquals(48, result.getAppliedCount());
+        assertEquals(Arrays.asList("k3", "k7"), result.getConflicts());
+        assertEquals(Collections.singletonList("missing"), result.getFailures());
+        assertEquals(Integer.valueOf(404), result.getError(50).getStatusCode());
+        assertEquals("2", result.getRevision(0));
+        assertNull(result.getRevision(3));
+        assertEquals(Integer.valueOf(1), server.get("k3"));
+        assertTrue(twilio.getMaxInFlight() <= 4);
+    }
+
+    @Test
+    public void testRetriesConflictsWithResolver() {
+        server.put("k7", 5);
+        List<SyncMapItem> reread = Collections.synchronizedList(new ArrayList<>());
+
+        SyncBatchResult<String> result = new SyncMapBatchUpdater("IS1", "MP1")
+            .executorService(twilio.executor(16))
+            .onConflict((current, mutation) -> {
+                reread.add(current);
+                return "k7".equals(current.getKey()) ? null : mutation.getData();
+            })
+            .update(twilio.client(), mutations());
+
+        assertEquals(49, result.getAppliedCount());
+        assertEquals("2", result.getRevision(3));
+        assertEquals(Collections.singletonList("k7"), result.getConflicts());
+        assertEquals(Integer.valueOf(5), server.get("k7"));
+        assertEquals(2, reread.size());
+        assertTrue(result.toString().contains("conflicts=1"));
+    }
+
+    @Test
+    public void testRateLimit() {
+        long start = System.nanoTime();
+        SyncBatchResult<String> result = new SyncMapBatchUpdater("IS1", "MP1")
+            .requestsPerSecond(200)
+            .executorService(twilio.executor(16))
+            .update(twilio.client(), mutations().subList(10, 30));
+
+        assertTrue(result.isComplete());
+        // 20 requests at 200 per second take at least 95ms
+        assertTrue(System.nanoTime() - start >= 90_000_000L);
+    }
+}
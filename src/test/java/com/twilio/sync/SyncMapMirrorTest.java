@@ -0,0 +1,220 @@
+package com.twilio.sync;
+
+import com.twilio.FakeTwilio;
+import com.twilio.exception.ApiException;
+import com.twilio.http.HttpMethod;
+import com.twilio.http.Request;
+import com.twilio.http.Response;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class SyncMapMirrorTest {
+
+    private static final String ITEMS_PATH = "/v1/Services/IS1/Maps/MP1/Items";
+    private static final String ITEMS = "https://sync.twilio.com" + ITEMS_PATH;
+
+    /** Items of the fake map by key, with their revision as the value. */
+    private volatile NavigableMap<String, Integer> server = Collections.synchronizedNavigableMap(new TreeMap<>());
+    private final AtomicInteger mapRevision = new AtomicInteger();
+    private SyncMapMirror mirror;
+
+    @Rule
+    public final FakeTwilio twilio = new FakeTwilio().handler(this::handle);
+
+    @Before
+    public void setUp() {
+        for (int i = 0; i < 250; i++) {
+            server.put(key(i), 0);
+        }
+
+        mirror = new SyncMapMirror("IS1", "MP1");
+        mirror.client(twilio.client()).executorService(twilio.executor()).pageSize(20).parallelism(4);
+    }
+
+    private static String key(final int i) {
+        return String.format("k%03d", i);
+    }
+
+    private static String item(final String key, final int revision) {
+        return "{\"key\": \"" + key + "\", \"revision\": \"" + revision + "\", \"data\": {\"v\": " + revision + "}}";
+    }
+
+    /**
+     * Get the query of a request, whether set as parameters or in the url of a next page.
+     */
+    static Map<String, String> params(final Request request) {
+        Map<String, String> params = new HashMap<>();
+        String url = request.getUrl();
+        int query = url.indexOf('?');
+        if (query >= 0) {
+            for (String param : url.substring(query + 1).split("&")) {
+                String[] pair = param.split("=", 2);
+                params.put(pair[0], pair[1]);
+            }
+        }
+        for (Map.Entry<String, List<String>> param : request.getQueryParams().entrySet()) {
+            params.put(param.getKey(), param.getValue().get(0));
+        }
+        return params;
+    }
+
+    private Response handle(final Request request) {
+        String path = FakeTwilio.path(request);
+        if (path.endsWith("/Maps/MP1")) {
+            return FakeTwilio.json("{\"sid\": \"MP1\", \"revision\": \"" + mapRevision.get() + "\"}");
+        }
+        if (path.equals(ITEMS_PATH) && request.getMethod() == HttpMethod.GET) {
+            return page(params(request));
+        }
+
+        String key = path.substring(ITEMS_PATH.length() + 1);
+        Integer revision = server.get(key);
+        if (revision == null) {
+            return FakeTwilio.error(404, 20404, "Not found");
+        }
+        if (request.getMethod() == HttpMethod.GET) {
+            return FakeTwilio.json(item(key, revision));
+        }
+
+        List<String> ifMatch = request.getHeaderParams().get("If-Match");
+        if (ifMatch != null && !ifMatch.get(0).equals(revision.toString())) {
+            return FakeTwilio.error(412, 54103, "Revision mismatch");
+        }
+        mapRevision.incrementAndGet();
+        if (request.getMethod() == HttpMethod.DELETE) {
+            server.remove(key);
+            return new Response("", 204);
+        }
+        server.put(key, revision + 1);
+        return FakeTwilio.json(item(key, revision + 1));
+    }
+
+    private Response page(final Map<String, String> params) {
+        boolean descending = "desc".equals(params.get("Order"));
+        int pageSize = Integer.parseInt(params.get("PageSize"));
+        String from = params.get("From");
+
+        List<String> keys;
+        synchronized (server) {
+            NavigableMap<String, Integer> view = descending ? server.descendingMap() : server;
+            if (from != null) {
+                view = view.tailMap(from, true);
+            }
+            keys = new ArrayList<>(view.keySet());
+        }
+
+        StringBuilder json = new StringBuilder("{\"items\": [");
+        for (int i = 0; i < Math.min(pageSize, keys.size()); i++) {
+            json.append(i == 0 ? "" : ",").append(item(keys.get(i), server.get(keys.get(i))));
+        }
+        json.append("], \"meta\": {\"key\": \"items\", \"page_size\": ").append(pageSize)
+            .append(", \"url\": \"").append(ITEMS).append("\", \"first_page_url\": \"").append(ITEMS)
+            .append("\", \"previous_page_url\": null, \"next_page_url\": ");
+        if (keys.size() > pageSize) {
+            json.append('"').append(ITEMS).append("?Order=").append(descending ? "desc" : "asc")
+                .append("&From=").append(keys.get(pageSize)).append("&Bounds=inclusive&PageSize=")
+                .append(pageSize).append('"');
+        } else {
+            json.append("null");
+        }
+        return FakeTwilio.json(json.append("}}").toString());
+    }
+
+    @Test
+    public void testLoadFromBothEnds() {
+        assertEquals(250, mirror.load());
+        for (int i = 0; i < 250; i++) {
+            assertEquals("0", mirror.get(key(i)).getRevision());
+        }
+        // One map fetch, and pages from both ends which overlap by at most a page each
+        assertEquals(1 + 13 + 2, twilio.getRequestCount(), 2);
+        assertEquals("0", mirror.getRevision());
+    }
+
+    @Test
+    public void testRefreshSkipsUnchangedMap() {
+        mirror.load();
+        twilio.resetCounts();
+
+        assertEquals(0, mirror.refresh());
+        assertEquals(1, twilio.getRequestCount());
+    }
+
+    @Test
+    public void testRefreshAppliesChanges() {
+        mirror.load();
+
+        server.put(key(3), 1);
+        server.put(key(200), 4);
+        server.remove(key(100));
+        server.put("k100a", 0);
+        server.put("zzz", 0);
+        mapRevision.incrementAndGet();
+
+        assertEquals(5, mirror.refresh());
+        assertEquals(251, mirror.size());
+        assertEquals("1", mirror.get(key(3)).getRevision());
+        assertEquals("4", mirror.get(key(200)).getRevision());
+        assertNull(mirror.get(key(100)));
+        assertEquals("0", mirror.get("zzz").getRevision());
+        assertEquals("0", mirror.get("k100a").getRevision());
+    }
+
+    @Test
+    public void testRefreshKeepsItemsMissedByRanges() {
+        server.clear();
+        for (int i = 0; i < 250; i++) {
+            server.put(String.format("K%03d", i), 0);
+        }
+        server.put("j500", 0);
+        mirror.load();
+        assertEquals(251, mirror.size());
+
+        // The API now lists keys ignoring case, so j500 comes first and the first range read stops on it
+        NavigableMap<String, Integer> ignoringCase = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        ignoringCase.putAll(server);
+        ignoringCase.remove("K010");
+        server = Collections.synchronizedNavigableMap(ignoringCase);
+        mapRevision.incrementAndGet();
+
+        assertEquals(1, mirror.refresh());
+        assertEquals(250, mirror.size());
+        assertNull(mirror.get("K010"));
+        assertEquals("0", mirror.get("K000").getRevision());
+        assertEquals("0", mirror.get("j500").getRevision());
+    }
+
+    @Test
+    public void testUpdateUsesIfMatch() {
+        mirror.load();
+        server.put(key(5), 7);
+
+        try {
+            mirror.update(key(5), Collections.<String, Object>singletonMap("v", 1));
+            fail("Expected a revision conflict");
+        } catch (final ApiException e) {
+            assertEquals(Integer.valueOf(412), e.getStatusCode());
+        }
+        assertEquals("7", mirror.get(key(5)).getRevision());
+
+        mirror.update(key(5), Collections.<String, Object>singletonMap("v", 1));
+        assertEquals("8", mirror.get(key(5)).getRevision());
+
+        mirror.delete(key(6));
+        assertNull(mirror.get(key(6)));
+    }
+}
@@ -0,0 +1,95 @@
+package com.twilio.taskrouter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Test class for {@link TaskRouterExpression}
+ */
+public class TaskRouterExpressionTest {
+
+    private static Map<String, Object> task() {
+        Map<String, Object> task = new HashMap<>();
+        task.put("type", "support");
+        task.put("language", "es");
+        task.put("priority", 5);
+        task.put("vip", true);
+        task.put("customer", Collections.singletonMap("tier", "gold"));
+        return task;
+    }
+
+    private static Map<String, Object> worker() {
+        Map<String, Object> worker = new HashMap<>();
+        worker.put("languages", Arrays.asList("en", "es"));
+        worker.put("level", 3L);
+        worker.put("team", "support-emea");
+        return worker;
+    }
+
+    private static boolean matches(String expression) {
+        return TaskRouterExpression.compile(expression).matches(task(), worker());
+    }
+
+    @Test
+    public void testComparisons() {
+        Assert.assertTrue(matches("type == 'support'"));
+        Assert.assertTrue(matches("type = \"support\""));
+        Assert.assertTrue(matches("type != 'sales'"));
+        Assert.assertTrue(matches("priority > 4 AND priority <= 5.0"));
+        Assert.assertTrue(matches("1==1"));
+        Assert.assertFalse(matches("priority < 5"));
+        Assert.assertFalse(matches("priority > 'a'"));
+        Assert.assertTrue(matches("customer.tier == 'gold'"));
+        Assert.assertTrue(matches("vip"));
+        Assert.assertTrue(matches("vip == true"));
+    }
+
+    @Test
+    public void testMissingAttributes() {
+        Assert.assertFalse(matches("missing == 'x'"));
+        Assert.assertFalse(matches("missing != 'x'"));
+        Assert.assertFalse(matches("customer.tier.name == 'x'"));
+        Assert.assertTrue(matches("NOT missing == 'x'"));
+    }
+
+    @Test
+    public void testListsAndLogic() {
+        Assert.assertTrue(matches("language IN ['en', 'es']"));
+        Assert.assertTrue(matches("language not in ['fr']"));
+        Assert.assertTrue(matches("worker.languages HAS task.language"));
+        Assert.assertTrue(matches("task.language IN worker.languages"));
+        Assert.assertTrue(matches("worker.team CONTAINS 'emea'"));
+        Assert.assertTrue(matches("worker.level >= 3"));
+        Assert.assertTrue(matches("type == 'sales' OR (vip AND priority > 1)"));
+        Assert.assertFalse(matches("type == 'sales' or vip and priority > 9"));
+        Assert.assertTrue(matches("!(type == 'sales') && type != 'billing'"));
+    }
+
+    @Test
+    public void testWorkerScope() {
+        TaskRouterExpression expression = TaskRouterExpression.compile(
+            "languages HAS task.language", TaskRouterExpression.Scope.WORKER
+        );
+
+        Assert.assertTrue(expression.matches(task(), worker()));
+        Assert.assertFalse(expression.matches(task(), Collections.<String, Object>emptyMap()));
+    }
+
+    @Test
+    public void testInvalidExpressions() {
+        for (String invalid : new String[]{"", "type ==", "type == 'x", "(type == 'x'", "type IN 'x'",
+                                           "type == 'x' AND", "type == 'x' )", "a..b == 1", "[a] == 1"}) {
+            try {
+                TaskRouterExpression.compile(invalid);
+                Assert.fail("Expected an error for: " + invalid);
+            } catch (final IllegalArgumentException e) {
+                Assert.assertTrue(e.getMessage().contains("position"));
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.twilio.taskrouter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test class for {@link WorkflowEvaluator}
+ */
+public class WorkflowEvaluatorTest {
+
+    private static final String CONFIGURATION = "{\"task_routing\": {"
+        + "\"filters\": ["
+        + "{\"friendly_name\": \"Spanish\", \"expression\": \"language == 'es'\", \"targets\": ["
+        + "  {\"queue\": \"WQspanish\", \"expression\": \"task.level <= worker.level\", "
+        + "   \"skip_if\": \"workers.available == 0\"},"
+        + "  {\"queue\": \"WQsupport\", \"timeout\": 60}"
+        + "]},"
+        + "{\"friendly_name\": \"Sales\", \"expression\": \"type == 'sales'\", \"targets\": ["
+        + "  {\"queue\": \"WQsales\", \"priority\": 10}"
+        + "]}"
+        + "],"
+        + "\"default_filter\": {\"queue\": \"WQsupport\"}"
+        + "}}";
+
+    private static Map<String, Object> attributes(Object... pairs) {
+        Map<String, Object> attributes = new HashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            attributes.put((String) pairs[i], pairs[i + 1]);
+        }
+        return attributes;
+    }
+
+    @Test
+    public void testRoute() {
+        WorkflowEvaluator evaluator = WorkflowEvaluator.fromConfiguration(CONFIGURATION);
+
+        RoutingDecision spanish = evaluator.route(attributes("language", "es", "type", "sales"));
+        Assert.assertEquals(0, spanish.getRuleIndex());
+        Assert.assertEquals("Spanish", spanish.getRule().getFriendlyName());
+        Assert.assertEquals("WQspanish", spanish.getQueue());
+        Assert.assertEquals(2, spanish.getTargets().size());
+
+        RoutingDecision sales = evaluator.route(attributes("type", "sales"));
+        Assert.assertEquals("WQsales", sales.getQueue());
+        Assert.assertEquals(Integer.valueOf(10), sales.getTarget().getPriority());
+
+        RoutingDecision fallback = evaluator.route(attributes("type", "billing"));
+        Assert.assertTrue(fallback.isDefault());
+        Assert.assertEquals(-1, fallback.getRuleIndex());
+        Assert.assertEquals("WQsupport", fallback.getQueue());
+
+        // Decisions without workers are shared
+        Assert.assertSame(fallback, evaluator.route(attributes("type", "other")));
+    }
+
+    @Test
+    public void testRouteToWorkers() {
+        WorkflowEvaluator evaluator = WorkflowEvaluator.fromConfiguration(CONFIGURATION)
+            .queue("WQspanish", "languages HAS 'es'")
+            .queue("WQsupport", "1 == 1");
+
+        Map<String, Map<String, Object>> workers = new LinkedHashMap<>();
+        workers.put("WK1", attributes("languages", Arrays.asList("en", "es"), "level", 3));
+        workers.put("WK2", attributes("languages", Collections.singletonList("es"), "level", 1));
+        workers.put("WK3", attributes("languages", Collections.singletonList("en"), "level", 5));
+
+        RoutingDecision easy = evaluator.route(attributes("language", "es", "level", 1), workers);
+        Assert.assertEquals("WQspanish", easy.getQueue());
+        Assert.assertEquals(Arrays.asList("WK1", "WK2"), easy.getWorkerSids());
+
+        RoutingDecision hard = evaluator.route(attributes("language", "es", "level", 4), workers);
+        Assert.assertEquals("WQsupport", hard.getQueue());
+        Assert.assertEquals(Arrays.asList("WK1", "WK2", "WK3"), hard.getWorkerSids());
+    }
+
+    @Test
+    public void testSkipIfCountsAvailableWorkers() {
+        WorkflowEvaluator evaluator = WorkflowEvaluator.fromConfiguration(CONFIGURATION)
+            .queue("WQspanish", "languages HAS 'es'");
+
+        Map<String, Map<String, Object>> workers = new LinkedHashMap<>();
+        workers.put("WK1", attributes("languages", Collections.singletonList("es"), "level", 3));
+        workers.put("WK2", attributes("languages", Collections.singletonList("es"), "level", 3));
+        workers.put("WK3", attributes("languages", Collections.singletonList("en"), "level", 3));
+        Map<String, Object> task = attributes("language", "es", "level", 1);
+
+        RoutingDecision offline = evaluator.route(task, workers, Collections.singleton("WK3"));
+        Assert.assertEquals("WQsupport", offline.getQueue());
+
+        RoutingDecision online = evaluator.route(task, workers, new HashSet<>(Arrays.asList("WK2", "WK3")));
+        Assert.assertEquals("WQspanish", online.getQueue());
+        Assert.assertEquals(Arrays.asList("WK1", "WK2"), online.getWorkerSids());
+    }
+
+    @Test
+    public void testValidate() {
+        Assert.assertTrue(WorkflowEvaluator.validate(CONFIGURATION).isEmpty());
+        Assert.assertEquals(1, WorkflowEvaluator.validate("{\"task_routing\": ").size());
+
+        List<String> errors = WorkflowEvaluator.validate(
+            "{\"task_routing\": {\"filters\": ["
+                + "{\"friendly_name\": \"Broken\", \"expression\": \"type == \", \"targets\": ["
+                + "  {\"expression\": \"level >\", \"timeout\": 0}]},"
+                + "{\"expression\": \"1 == 1\", \"targets\": []}"
+                + "], \"default_filter\": {\"queue\": \"WQsupport\"}}}"
+        );
+        Assert.assertEquals(5, errors.size());
+        Assert.assertTrue(errors.get(0).startsWith("filters[0] (Broken): expression:"));
+        Assert.assertEquals("filters[0] (Broken).targets[0]: queue is missing", errors.get(1));
+        Assert.assertEquals("filters[0] (Broken).targets[0]: timeout must be positive", errors.get(2));
+        Assert.assertTrue(errors.get(3).startsWith("filters[0] (Broken).targets[0]: expression:"));
+        Assert.assertEquals("filters[1]: targets are missing", errors.get(4));
+
+        try {
+            new WorkflowEvaluator(Workflow.fromJson("{\"task_routing\": {\"filters\": [{\"expression\": \"x ==\", "
+                + "\"targets\": [{\"queue\": \"WQ1\"}]}]}}"));
+            Assert.fail("Expected an invalid workflow");
+        } catch (final IllegalArgumentException | IOException e) {
+            Assert.assertTrue(e.getMessage().startsWith("Invalid workflow: filters[0]: expression:"));
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.twilio.taskrouter;
+
+import com.twilio.FakeTwilio;
+import com.twilio.exception.ApiException;
+import com.twilio.http.HttpMethod;
+import com.twilio.http.Request;
+import com.twilio.http.Response;
+import com.twilio.rest.taskrouter.v1.workspace.Task;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class WorkspaceStateCacheTest {
+
+    private static final String WORKSPACE = "/v1/Workspaces/WS1/";
+
+    /** Resources of the fake workspace by collection, then sid. */
+    private final Map<String, Map<String, String>> server = new ConcurrentHashMap<>();
+    private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger fetches = new AtomicInteger();
+    private final Set<String> failing = ConcurrentHashMap.newKeySet();
+    private WorkspaceStateCache cache;
+
+    @Rule
+    public final FakeTwilio twilio = new FakeTwilio().handler(this::handle);
+
+    @Before
+    public void setUp() {
+        for (String collection : new String[]{"Workers", "TaskQueues", "Activities", "Tasks"}) {
+            server.put(collection, Collections.synchronizedMap(new LinkedHashMap<>()));
+        }
+        server.get("Activities").put("WA1", "{\"sid\": \"WA1\", \"friendly_name\": \"Idle\", \"available\": true}");
+        server.get("Activities").put("WA2", "{\"sid\": \"WA2\", \"friendly_name\": \"Offline\", \"available\": false}");
+        server.get("TaskQueues").put("WQ1", "{\"sid\": \"WQ1\", \"friendly_name\": \"Support\"}");
+        server.get("Workers").put("WK1", worker("WK1", "WA1", true));
+        server.get("Workers").put("WK2", worker("WK2", "WA2", false));
+        server.get("Tasks").put("WT1", task("WT1", "pending"));
+        server.get("Tasks").put("WT2", task("WT2", "reserved"));
+        server.get("Tasks").put("WT3", task("WT3", "assigned"));
+
+        cache = new WorkspaceStateCache("WS1").client(twilio.client()).executorService(twilio.executor());
+    }
+
+    private static String worker(final String sid, final String activitySid, final boolean available) {
+        return "{\"sid\": \"" + sid + "\", \"activity_sid\": \"" + activitySid + "\", \"available\": " + available + "}";
+    }
+
+    private static String task(final String sid, final String status) {
+        return "{\"sid\": \"" + sid + "\", \"task_queue_sid\": \"WQ1\", \"assignment_status\": \"" + status + "\"}";
+    }
+
+    private void event(final String sid, final String type, final String resourceType, final String resourceSid,
+                       final String data) {
+        String date = ZonedDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS).toString();
+        events.add("{\"sid\": \"" + sid + "\", \"event_type\": \"" + type + "\", \"event_date\": \"" + date
+            + "\", \"resource_type\": \"" + resourceType + "\", \"resource_sid\": \"" + resourceSid
+            + "\", \"event_data\": " + data + "}");
+    }
+
+    private Response handle(final Request request) {
+        assertEquals(HttpMethod.GET, request.getMethod());
+        String[] parts = FakeTwilio.path(request).substring(WORKSPACE.length()).split("/");
+        if (parts.length == 2) {
+            fetches.incrementAndGet();
+            if (failing.contains(parts[1])) {
+                return FakeTwilio.error(403, 20403, "Forbidden");
+            }
+            String json = server.get(parts[0]).get(parts[1]);
+            return json == null ? FakeTwilio.error(404, 20404, "Not found") : FakeTwilio.json(json);
+        }
+
+        List<String> records = new ArrayList<>();
+        String key;
+        switch (parts[0]) {
+            case "Events":
+                key = "events";
+                records.addAll(events);
+                break;
+            case "Tasks":
+                key = "tasks";
+                List<String> statuses = request.getQueryParams().get("AssignmentStatus");
+                for (String task : server.get("Tasks").values()) {
+                    if (statuses.stream().anyMatch(s -> task.contains("\"" + s + "\""))) {
+                        records.add(task);
+                    }
+                }
+                break;
+            default:
+                key = "Workers".equals(parts[0]) ? "workers" : "TaskQueues".equals(parts[0]) ? "task_queues" : "activities";
+                records.addAll(server.get(parts[0]).values());
+                break;
+        }
+
+        return FakeTwilio.page(key, "https://taskrouter.twilio.com" + WORKSPACE + parts[0], records);
+    }
+
+    @Test
+    public void testLoad() {
+        cache.load();
+
+        assertEquals(2, cache.getWorkers().size());
+        assertEquals(1, cache.getAvailableWorkerCount());
+        assertEquals("WK1", cache.getAvailableWorkers().get(0).getSid());
+        assertEquals(Integer.valueOf(1), cache.getWorkerCountByActivity().get("WA2"));
+        assertEquals(2, cache.getActivities().size());
+        assertEquals("Support", cache.getTaskQueue("WQ1").getFriendlyName());
+        assertEquals(2, cache.getQueueDepth("WQ1"));
+        assertEquals(1, cache.getTaskCount("WQ1", Task.Status.ASSIGNED));
+        assertEquals(0, cache.getQueueDepth("WQ2"));
+        assertNotNull(cache.getLastUpdated());
+    }
+
+    @Test
+    public void testRefreshAppliesEvents() {
+        cache.load();
+
+        server.get("Workers").put("WK2", worker("WK2", "WA1", true));
+        server.get("Workers").remove("WK1");
+        server.get("Tasks").put("WT1", task("WT1", "completed"));
+        server.get("Tasks").put("WT4", task("WT4", "pending"));
+        event("EV1", "worker.activity.update", "worker", "WK2", "{}");
+        event("EV2", "worker.deleted", "worker", "WK1", "{}");
+        event("EV3", "task.completed", "task", "WT1", "{\"task_queue_sid\": \"WQ1\"}");
+        event("EV4", "task.created", "task", "WT4", "{\"task_queue_sid\": \"WQ1\"}");
+        event("EV5", "reservation.created", "reservation", "WR1", "{\"task_sid\": \"WT2\", \"worker_sid\": \"WK2\"}");
+        fetches.set(0);
+
+        assertEquals(5, cache.refresh());
+        // WK1, WK2, WQ1, WT1, WT2 and WT4, each fetched once
+        assertEquals(6, fetches.get());
+        assertEquals(1, cache.getWorkers().size());
+        assertNull(cache.getWorker("WK1"));
+        assertTrue(cache.getWorker("WK2").getAvailable());
+        assertEquals(1, cache.getAvailableWorkerCount());
+        assertNull(cache.getTask("WT1"));
+        assertNotNull(cache.getTask("WT4"));
+        assertEquals(2, cache.getQueueDepth("WQ1"));
+        assertEquals(1, cache.getTaskCount("WQ1", Task.Status.PENDING));
+
+        // Events already applied are not read again
+        fetches.set(0);
+        assertEquals(0, cache.refresh());
+        assertEquals(0, fetches.get());
+        assertFalse(cache.getTasks().isEmpty());
+    }
+
+    @Test
+    public void testFailedFetchRetriedOnNextRefresh() {
+        cache.load();
+
+        server.get("Workers").put("WK2", worker("WK2", "WA1", true));
+        event("EV1", "worker.activity.update", "worker", "WK2", "{}");
+        failing.add("WK2");
+
+        try {
+            cache.refresh();
+            fail("Expected the fetch to fail");
+        } catch (final ApiException e) {
+            assertEquals(Integer.valueOf(403), e.getStatusCode());
+        }
+        assertFalse(cache.getWorker("WK2").getAvailable());
+
+        // The event is not read again, but the worker it named is still fetched
+        failing.clear();
+        assertEquals(0, cache.refresh());
+        assertTrue(cache.getWorker("WK2").getAvailable());
+        assertEquals(2, cache.getAvailableWorkerCount());
+    }
+
+    @Test
+    public void testRefreshEveryKeepsRunningAfterFailure() throws InterruptedException {
+        cache.load();
+        event("EV1", "worker.activity.update", "worker", "WK2", "{}");
+        failing.add("WK2");
+        List<RuntimeException> errors = Collections.synchronizedList(new ArrayList<>());
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+        try {
+            cache.refreshEvery(scheduler, 5, TimeUnit.MILLISECONDS, e -> {
+                errors.add(e);
+                if (errors.size() == 2) {
+                    server.get("Workers").put("WK2", worker("WK2", "WA1", true));
+                    failing.clear();
+                }
+            });
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!cache.getWorker("WK2").getAvailable() && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+        } finally {
+            scheduler.shutdownNow();
+        }
+
+        assertTrue(cache.getWorker("WK2").getAvailable());
+        assertEquals(2, errors.size());
+        assertTrue(errors.get(0) instanceof ApiException);
+    }
+}
@@ -0,0 +1,131 @@
+package com.twilio.twiml;
+
+import com.twilio.twiml.voice.Gather;
+import com.twilio.twiml.voice.Play;
+import com.twilio.twiml.voice.Say;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test class for {@link TwiMLCache}.
+ */
+public class TwiMLCacheTest {
+
+    private static VoiceResponse menu(final String prompt) {
+        return new VoiceResponse.Builder()
+            .gather(new Gather.Builder().numDigits(1).say(new Say.Builder(prompt).build()).build())
+            .play(new Play.Builder("https://example.com/hold.mp3").loop(0).build())
+            .addText("\n")
+            .build();
+    }
+
+    @Test
+    public void testIdenticalTreesHit() {
+        TwiMLCache cache = new TwiMLCache(1024 * 1024);
+
+        String first = cache.toXml(menu("Press 1"));
+        String second = cache.toXml(menu("Press 1"));
+
+        Assert.assertEquals(menu("Press 1").toXml(), first);
+        Assert.assertSame(first, second);
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(0.5, cache.getHitRate(), 0.0);
+
+        Assert.assertEquals(menu("Press 1").toUrl(), cache.toUrl(menu("Press 1")));
+        Assert.assertEquals(2, cache.getHitCount());
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testDifferentTreesMiss() {
+        TwiMLCache cache = new TwiMLCache(1024 * 1024);
+
+        Assert.assertEquals(menu("Press 1").toXml(), cache.toXml(menu("Press 1")));
+        Assert.assertEquals(menu("Press 2").toXml(), cache.toXml(menu("Press 2")));
+
+        Assert.assertEquals(0, cache.getHitCount());
+        Assert.assertEquals(2, cache.getMissCount());
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsedBySize() {
+        TwiMLCache probe = new TwiMLCache(1024 * 1024);
+        probe.toXml(menu("Press 1"));
+        long entryBytes = probe.getBytes();
+
+        TwiMLCache cache = new TwiMLCache(entryBytes * 2);
+        cache.toXml(menu("Press 1"));
+        cache.toXml(menu("Press 2"));
+        cache.toXml(menu("Press 1"));
+        cache.toXml(menu("Press 3"));
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, cache.getEvictionCount());
+        Assert.assertTrue(cache.getBytes() <= cache.getMaxBytes());
+
+        cache.toXml(menu("Press 1"));
+        Assert.assertEquals(2, cache.getHitCount());
+        cache.toXml(menu("Press 2"));
+        Assert.assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    public void testSkipsEntriesLargerThanCache() {
+        TwiMLCache cache = new TwiMLCache(10);
+
+        Assert.assertEquals(menu("Press 1").toXml(), cache.toXml(menu("Press 1")));
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(0, cache.getBytes());
+    }
+
+    @Test
+    public void testHitDoesNotRender() {
+        AtomicInteger renders = new AtomicInteger();
+        AtomicInteger attributeCalls = new AtomicInteger();
+        TwiMLCache cache = new TwiMLCache(1024 * 1024);
+
+        TwiML first = counted(renders, attributeCalls);
+        String xml = cache.toXml(first);
+        Assert.assertEquals(1, renders.get());
+        Assert.assertEquals(1, attributeCalls.get());
+
+        // The same tree is found by its kept hash, without walking it
+        Assert.assertSame(xml, cache.toXml(first));
+        Assert.assertEquals(1, renders.get());
+        Assert.assertEquals(1, attributeCalls.get());
+
+        // An equal tree built anew takes its own attributes once, and is not rendered
+        Assert.assertSame(xml, cache.toXml(counted(renders, attributeCalls)));
+        Assert.assertEquals(1, renders.get());
+        Assert.assertEquals(2, attributeCalls.get());
+        Assert.assertEquals(2, cache.getHitCount());
+    }
+
+    private static TwiML counted(final AtomicInteger renders, final AtomicInteger attributeCalls) {
+        return new TwiML("Counted", new GenericNode.Builder("Counted").addText("Hello")) {
+            @Override
+            protected Map<String, String> getElementAttributes() {
+                attributeCalls.incrementAndGet();
+                return Collections.singletonMap("loop", "2");
+            }
+
+            @Override
+            protected void writeElement(final TwiMLWriter writer) throws IOException {
+                renders.incrementAndGet();
+                super.writeElement(writer);
+            }
+        };
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSize() {
+        new TwiMLCache(0);
+    }
+}
@@ -0,0 +1,199 @@
+package com.twilio.twiml;
+
+import com.twilio.http.HttpMethod;
+import com.twilio.twiml.fax.Receive;
+import com.twilio.twiml.messaging.Body;
+import com.twilio.twiml.messaging.Media;
+import com.twilio.twiml.messaging.Message;
+import com.twilio.twiml.messaging.Redirect;
+import com.twilio.twiml.video.Room;
+import com.twilio.twiml.voice.Dial;
+import com.twilio.twiml.voice.Gather;
+import com.twilio.twiml.voice.Number;
+import com.twilio.twiml.voice.Pay;
+import com.twilio.twiml.voice.Prompt;
+import com.twilio.twiml.voice.Say;
+import com.twilio.twiml.voice.SsmlBreak;
+import com.twilio.twiml.voice.SsmlSayAs;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test class for {@link TwiMLParser}.
+ */
+public class TwiMLParserTest {
+
+    private static void assertRoundTrip(final TwiML twiml) {
+        TwiML parsed = TwiMLParser.parse(twiml.toXml());
+
+        Assert.assertEquals(twiml.getClass(), parsed.getClass());
+        Assert.assertEquals(twiml.toXml(), parsed.toXml());
+        Assert.assertEquals(twiml, parsed);
+    }
+
+    @Test
+    public void testVoiceResponse() {
+        VoiceResponse response = new VoiceResponse.Builder()
+            .say(new Say.Builder("Hello & <welcome>").voice(Say.Voice.ALICE).loop(2)
+                .break_(new SsmlBreak.Builder().time("1s").build())
+                .sayAs(new SsmlSayAs.Builder("12345").interpretAs(SsmlSayAs.InterpretAs.DIGITS).build())
+                .build())
+            .gather(new Gather.Builder().inputs(Gather.Input.SPEECH).action("/gather").method(HttpMethod.GET)
+                .numDigits(4).profanityFilter(false).say(new Say.Builder("Press 1").build()).build())
+            .dial(new Dial.Builder().callerId("+15017122661")
+                .recordingStatusCallbackEvents(Dial.RecordingEvent.COMPLETED)
+                .number(new Number.Builder("+15558675310").build())
+                .build())
+            .pay(new Pay.Builder()
+                .prompt(new Prompt.Builder().for_(Prompt.For.SECURITY_CODE).attempts(2).build())
+                .build())
+            .build();
+
+        assertRoundTrip(response);
+
+        VoiceResponse parsed = TwiMLParser.parse(response.toXml(), VoiceResponse.class);
+        Say say = (Say) parsed.getChildren().get(0);
+        Assert.assertEquals(Say.Voice.ALICE, say.getVoice());
+        Assert.assertEquals(Integer.valueOf(2), say.getLoop());
+        Assert.assertEquals("Hello & <welcome>", say.getMessage());
+
+        Gather gather = (Gather) parsed.getChildren().get(1);
+        Assert.assertEquals(HttpMethod.GET, gather.getMethod());
+        Assert.assertEquals(Boolean.FALSE, gather.isProfanityFilter());
+    }
+
+    @Test
+    public void testMessagingFaxAndVideo() {
+        assertRoundTrip(new MessagingResponse.Builder()
+            .message(new Message.Builder().to("+1555").action("/cb")
+                .body(new Body.Builder("Hi\nthere").build())
+                .media(new Media.Builder("https://example.com/cat.gif").build())
+                .build())
+            .redirect(new Redirect.Builder("/next").build())
+            .build());
+        assertRoundTrip(new FaxResponse.Builder().receive(new Receive.Builder().action("/fax").build()).build());
+        assertRoundTrip(new Room.Builder("DailyStandup").build());
+        assertRoundTrip(new VoiceResponse.Builder().build());
+    }
+
+    @Test
+    public void testDetectsResponseTypePastSharedVerbs() {
+        TwiML messaging = TwiMLParser.parse("<Response><Redirect>/a</Redirect><Message>Hi</Message></Response>");
+        Assert.assertTrue(messaging instanceof MessagingResponse);
+        Assert.assertTrue(messaging.getChildren().get(0) instanceof Redirect);
+        Assert.assertTrue(messaging.getChildren().get(1) instanceof Message);
+
+        TwiML voice = TwiMLParser.parse("<Response><Redirect>/a</Redirect><Say>Hi</Say></Response>");
+        Assert.assertTrue(voice instanceof VoiceResponse);
+        Assert.assertTrue(voice.getChildren().get(0) instanceof com.twilio.twiml.voice.Redirect);
+
+        TwiML redirectOnly = TwiMLParser.parse("<Response><Redirect>/a</Redirect></Response>");
+        Assert.assertTrue(redirectOnly instanceof VoiceResponse);
+
+        assertRoundTrip(new MessagingResponse.Builder()
+            .redirect(new Redirect.Builder("/next").build())
+            .message(new Message.Builder("Hi").build())
+            .build());
+    }
+
+    @Test
+    public void testKeepsNamespaceDeclarations() {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+            + "<Response xmlns:custom=\"https://example.com/ns\"><Say custom:tone=\"low\">Hi</Say>"
+            + "<custom:Note xmlns=\"https://example.com/default\">x</custom:Note></Response>";
+
+        TwiML parsed = TwiMLParser.parse(xml);
+
+        Assert.assertEquals(xml, parsed.toXml());
+        Assert.assertEquals("https://example.com/ns", parsed.getOptions().get("xmlns:custom"));
+    }
+
+    @Test
+    public void testInvalidUrlKeptAsOption() {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+            + "<Response><Gather action=\"not a url\" numDigits=\"04\"/></Response>";
+
+        TwiML parsed = TwiMLParser.parse(xml);
+
+        Assert.assertEquals(xml, parsed.toXml());
+        Gather gather = (Gather) parsed.getChildren().get(0);
+        Assert.assertNull(gather.getAction());
+        Assert.assertEquals("not a url", gather.getOptions().get("action"));
+        Assert.assertNull(gather.getNumDigits());
+    }
+
+    @Test
+    public void testUnknownElementsAndValues() {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+            + "<Response><Say loop=\"007\" voice=\"robot\">Hi</Say><Custom a=\"1\"><Say>x</Say></Custom>text</Response>";
+
+        TwiML parsed = TwiMLParser.parse(xml);
+
+        Assert.assertTrue(parsed instanceof VoiceResponse);
+        Assert.assertEquals(xml, parsed.toXml());
+
+        Say say = (Say) parsed.getChildren().get(0);
+        Assert.assertNull(say.getLoop());
+        Assert.assertEquals("007", say.getOptions().get("loop"));
+        Assert.assertEquals("robot", say.getOptions().get("voice"));
+        Assert.assertTrue(parsed.getChildren().get(1) instanceof GenericNode);
+        Assert.assertTrue(parsed.getChildren().get(1).getChildren().get(0) instanceof GenericNode);
+    }
+
+    @Test
+    public void testIgnoresWhitespaceBetweenElements() {
+        String xml = "<Response>\n  <Say>Hello</Say>\n  <Hangup/>\n</Response>\n";
+
+        VoiceResponse parsed = TwiMLParser.parse(
+            new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)),
+            VoiceResponse.class
+        );
+
+        Assert.assertEquals(
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?><Response><Say>Hello</Say><Hangup/></Response>",
+            parsed.toXml()
+        );
+    }
+
+    @Test
+    public void testEvents() {
+        List<TwiMLEvent> events = new ArrayList<>();
+        try (TwiMLEventReader reader = new TwiMLEventReader(
+            new ByteArrayInputStream("<Response><Say voice=\"alice\">Hi</Say><Hangup/></Response>".getBytes(StandardCharsets.UTF_8))
+        )) {
+            reader.forEachRemaining(events::add);
+        }
+
+        Assert.assertEquals(7, events.size());
+        Assert.assertTrue(events.get(0).isStartElement());
+        Assert.assertEquals("Response", events.get(0).getTagName());
+        Assert.assertEquals(0, events.get(0).getDepth());
+        Assert.assertEquals("alice", events.get(1).getAttributes().get("voice"));
+        Assert.assertEquals(1, events.get(1).getDepth());
+        Assert.assertEquals("Hi", events.get(2).getText());
+        Assert.assertEquals(2, events.get(2).getDepth());
+        Assert.assertTrue(events.get(3).isEndElement());
+        Assert.assertEquals("Response", events.get(6).getTagName());
+        Assert.assertEquals(0, events.get(6).getDepth());
+    }
+
+    @Test(expected = TwiMLException.class)
+    public void testWrongRootType() {
+        TwiMLParser.parse("<Room>r</Room>", VoiceResponse.class);
+    }
+
+    @Test(expected = TwiMLException.class)
+    public void testMalformed() {
+        TwiMLParser.parse("<Response><Say></Response>");
+    }
+
+    @Test(expected = TwiMLException.class)
+    public void testRejectsDtd() {
+        TwiMLParser.parse("<?xml version=\"1.0\"?><!DOCTYPE r [<!ENTITY e SYSTEM \"file:///etc/passwd\">]><Response>&e;</Response>");
+    }
+}
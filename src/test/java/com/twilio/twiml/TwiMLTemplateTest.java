@@ -0,0 +1,99 @@
+package com.twilio.twiml;
+
+import com.twilio.twiml.messaging.Message;
+import com.twilio.twiml.voice.Gather;
+import com.twilio.twiml.voice.Redirect;
+import com.twilio.twiml.voice.Say;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * Test class for {@link TwiMLTemplate}.
+ */
+public class TwiMLTemplateTest {
+
+    private static VoiceResponse menu(final String name, final String prompt, final String caller) {
+        return new VoiceResponse.Builder()
+            .say(new Say.Builder("Hello " + name + "!").voice(Say.Voice.ALICE).build())
+            .gather(new Gather.Builder().numDigits(1).action("/menu?caller=" + caller).option("data", prompt)
+                .say(new Say.Builder(prompt).build())
+                .build())
+            .redirect(new Redirect.Builder("/menu?caller=" + caller).build())
+            .build();
+    }
+
+    @Test
+    public void testRendersLikeTree() {
+        TwiMLTemplate template = TwiMLTemplate.compile(
+            menu(TwiMLTemplate.slot("name"), TwiMLTemplate.slot("prompt"), TwiMLTemplate.slot("caller"))
+        );
+
+        Assert.assertEquals(new LinkedHashSet<>(Arrays.asList("name", "prompt", "caller")), template.getSlotNames());
+
+        String[][] cases = {
+            {"Ann", "Press 1", "+15558675310"},
+            {"A&B <Co>", "Say \"yes\"\nor 'no'\t\r", "a&b=c"},
+            {"café 👍", "\u0001\u0085", ""},
+        };
+
+        for (String[] values : cases) {
+            Map<String, String> params = new HashMap<>();
+            params.put("name", values[0]);
+            params.put("prompt", values[1]);
+            params.put("caller", values[2]);
+
+            String expected = menu(values[0], values[1], values[2]).toXml();
+            Assert.assertEquals(expected, template.toXml(params));
+            Assert.assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), template.toBytes(params));
+        }
+    }
+
+    @Test
+    public void testWriteTo() throws Exception {
+        TwiMLTemplate template = TwiMLTemplate.compile(
+            new MessagingResponse.Builder()
+                .message(new Message.Builder(TwiMLTemplate.slot("body")).to(TwiMLTemplate.slot("to")).build())
+                .build()
+        );
+
+        Map<String, String> params = new HashMap<>();
+        params.put("body", "Your code is <1234>");
+        params.put("to", "+15558675310");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        template.writeTo(out, params);
+
+        Assert.assertEquals(
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+            "<Response><Message to=\"+15558675310\">Your code is &lt;1234&gt;</Message></Response>",
+            new String(out.toByteArray(), StandardCharsets.UTF_8)
+        );
+    }
+
+    @Test
+    public void testNoSlots() {
+        Say say = new Say.Builder("Goodbye").build();
+
+        TwiMLTemplate template = TwiMLTemplate.compile(say);
+
+        Assert.assertTrue(template.getSlotNames().isEmpty());
+        Assert.assertEquals(say.toXml(), template.toXml(new HashMap<String, String>()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingValue() {
+        TwiMLTemplate.compile(new Say.Builder(TwiMLTemplate.slot("name")).build()).toXml(new HashMap<String, String>());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSlotName() {
+        TwiMLTemplate.slot("");
+    }
+}
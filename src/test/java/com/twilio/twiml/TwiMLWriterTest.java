@@ -0,0 +1,281 @@
+package com.twilio.twiml;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import com.tngtech.archunit.core.importer.ImportOption;
+import com.tngtech.archunit.core.importer.ImportOptions;
+import com.twilio.http.HttpMethod;
+import com.twilio.twiml.fax.Receive;
+import com.twilio.twiml.messaging.Body;
+import com.twilio.twiml.messaging.Media;
+import com.twilio.twiml.messaging.Message;
+import com.twilio.twiml.video.Room;
+import com.twilio.twiml.voice.Dial;
+import com.twilio.twiml.voice.Gather;
+import com.twilio.twiml.voice.Number;
+import com.twilio.twiml.voice.Pay;
+import com.twilio.twiml.voice.Play;
+import com.twilio.twiml.voice.Prompt;
+import com.twilio.twiml.voice.Say;
+import org.junit.Assert;
+import org.junit.Test;
+import org.w3c.dom.Document;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test class for {@link TwiMLWriter}.
+ */
+public class TwiMLWriterTest {
+
+    private static final String TRICKY = "a&b<c>d\"e'f\tg\nh\ri\u0001j\u007Fk\u0085lém中n👍o p";
+
+    /**
+     * Serialize with the DOM and transformer, as {@link TwiML#toXml()} used to.
+     */
+    private static String legacyXml(final TwiML twiml) throws Exception {
+        Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+        doc.setXmlStandalone(true);
+        doc.appendChild(twiml.buildXmlElement(doc));
+
+        Transformer transformer = TransformerFactory.newInstance().newTransformer();
+        transformer.setOutputProperty(OutputKeys.INDENT, "no");
+        StreamResult output = new StreamResult(new StringWriter());
+        transformer.transform(new DOMSource(doc), output);
+        return output.getWriter().toString().trim();
+    }
+
+    private static void assertSameAsLegacy(final TwiML twiml) throws Exception {
+        Assert.assertEquals(legacyXml(twiml), twiml.toXml());
+    }
+
+    /**
+     * Make a value for a builder setter parameter, or null if the parameter is not an attribute.
+     */
+    private static Object attributeValue(final Class<?> type, final Type genericType) {
+        if (type == String.class) {
+            return TRICKY;
+        } else if (type == Integer.class || type == int.class) {
+            return 7;
+        } else if (type == Boolean.class || type == boolean.class) {
+            return true;
+        } else if (type == URI.class) {
+            return URI.create("https://example.com/a?b=1&c=2");
+        } else if (type == HttpMethod.class) {
+            return HttpMethod.POST;
+        } else if (type.isEnum()) {
+            return type.getEnumConstants()[type.getEnumConstants().length - 1];
+        } else if (type == List.class && genericType instanceof ParameterizedType) {
+            Type element = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+            Object value = element instanceof Class ? attributeValue((Class<?>) element, element) : null;
+            return value == null ? null : Collections.singletonList(value);
+        } else if (type.isArray()) {
+            Object value = attributeValue(type.getComponentType(), type.getComponentType());
+            if (value == null) {
+                return null;
+            }
+            Object array = Array.newInstance(type.getComponentType(), 1);
+            Array.set(array, 0, value);
+            return array;
+        }
+        return null;
+    }
+
+    /**
+     * Build a verb with every attribute its builder can set.
+     */
+    private static TwiML buildWithEveryAttribute(final Class<?> verb) throws Exception {
+        Class<?> builderType = Class.forName(verb.getName() + "$Builder");
+        Constructor<?> constructor = builderType.getConstructors()[0];
+        for (Constructor<?> candidate : builderType.getConstructors()) {
+            if (candidate.getParameterCount() > constructor.getParameterCount()) {
+                constructor = candidate;
+            }
+        }
+
+        Object[] arguments = new Object[constructor.getParameterCount()];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = attributeValue(constructor.getParameterTypes()[i],
+                constructor.getGenericParameterTypes()[i]);
+        }
+        Object builder = constructor.newInstance(arguments);
+
+        for (Method setter : builderType.getMethods()) {
+            if (setter.getDeclaringClass() != builderType || setter.getParameterCount() != 1
+                || setter.getReturnType() != builderType || Modifier.isStatic(setter.getModifiers())) {
+                continue;
+            }
+            Object value = attributeValue(setter.getParameterTypes()[0], setter.getGenericParameterTypes()[0]);
+            if (value != null) {
+                setter.invoke(builder, value);
+            }
+        }
+
+        return (TwiML) builderType.getMethod("build").invoke(builder);
+    }
+
+    @Test
+    public void testVoiceResponse() throws Exception {
+        VoiceResponse response = new VoiceResponse.Builder()
+            .say(new Say.Builder(TRICKY).voice(Say.Voice.ALICE).loop(2).option("zz", TRICKY).option("Aa", "1").build())
+            .gather(new Gather.Builder().action("/gather?a=1&b=2").numDigits(4)
+                .say(new Say.Builder("").build())
+                .play(new Play.Builder("http://example.com/a.mp3").build())
+                .build())
+            .dial(new Dial.Builder().callerId("+15017122661")
+                .number(new Number.Builder("+15558675310").sendDigits("ww1928").build())
+                .build())
+            .pay(new Pay.Builder()
+                .prompt(new Prompt.Builder().for_(Prompt.For.PAYMENT_CARD_NUMBER).option("for", "override")
+                    .say(new Say.Builder("Card").build()).build())
+                .build())
+            .addText(TRICKY)
+            .addChild(new GenericNode.Builder("Custom").option("b", "2").option("a", "1").addText("t").build())
+            .build();
+
+        assertSameAsLegacy(response);
+    }
+
+    @Test
+    public void testMessagingResponse() throws Exception {
+        MessagingResponse response = new MessagingResponse.Builder()
+            .message(new Message.Builder().to("+1555").from("+1666").action("/cb?x=\"y\"")
+                .body(new Body.Builder(TRICKY).build())
+                .media(new Media.Builder("https://example.com/cat.gif").build())
+                .build())
+            .build();
+
+        assertSameAsLegacy(response);
+    }
+
+    @Test
+    public void testFaxAndVideo() throws Exception {
+        assertSameAsLegacy(new FaxResponse.Builder().receive(new Receive.Builder().action("/fax").build()).build());
+        assertSameAsLegacy(new FaxResponse.Builder().build());
+        assertSameAsLegacy(new Room.Builder(TRICKY).build());
+    }
+
+    @Test
+    public void testGeneratedAttributeOrder() throws Exception {
+        Dial dial = new Dial.Builder("+15558675310")
+            .action("/dial").method(HttpMethod.POST).timeout(30).hangupOnStar(true).timeLimit(600)
+            .callerId("+15017122661").record(Dial.Record.RECORD_FROM_ANSWER).trim(Dial.Trim.TRIM_SILENCE)
+            .recordingStatusCallback("/rec").recordingStatusCallbackEvents(Dial.RecordingEvent.COMPLETED)
+            .answerOnBridge(false).ringTone(Dial.RingTone.DE)
+            .build();
+        Gather gather = new Gather.Builder()
+            .inputs(Gather.Input.SPEECH).action("/gather").timeout(5).speechTimeout("auto").maxSpeechTime(60)
+            .profanityFilter(true).finishOnKey("#").numDigits(4).partialResultCallback("/partial")
+            .language(Gather.Language.EN_US).hints("yes,no").bargeIn(true).debug(false).actionOnEmptyResult(true)
+            .speechModel(Gather.SpeechModel.PHONE_CALL).enhanced(true)
+            .build();
+        Prompt prompt = new Prompt.Builder().for_(Prompt.For.SECURITY_CODE).attempts(2).build();
+
+        Assert.assertEquals(
+            "<Dial action=\"/dial\" answerOnBridge=\"false\" callerId=\"+15017122661\" hangupOnStar=\"true\" " +
+            "method=\"POST\" record=\"record-from-answer\" recordingStatusCallback=\"/rec\" " +
+            "recordingStatusCallbackEvent=\"completed\" ringTone=\"de\" timeLimit=\"600\" timeout=\"30\" " +
+            "trim=\"trim-silence\">+15558675310</Dial>",
+            dial.toXml().substring(TwiMLWriter.XML_DECLARATION.length())
+        );
+
+        assertSameAsLegacy(dial);
+        assertSameAsLegacy(gather);
+        assertSameAsLegacy(prompt);
+    }
+
+    @Test
+    public void testAttributesTakenOncePerElement() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        TwiML element = new TwiML("Counted", new GenericNode.Builder("Counted")) {
+            @Override
+            protected Map<String, String> getElementAttributes() {
+                calls.incrementAndGet();
+                Map<String, String> attrs = new HashMap<>();
+                attrs.put("b", "2");
+                attrs.put("for_", "1");
+                return attrs;
+            }
+        };
+
+        String xml = element.toXml();
+        Assert.assertEquals(xml, element.toXml());
+        Assert.assertEquals("<Counted b=\"2\" for=\"1\"/>", xml.substring(TwiMLWriter.XML_DECLARATION.length()));
+        Assert.assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testEveryVerbMatchesLegacy() throws Exception {
+        ImportOptions options = new ImportOptions().with(ImportOption.Predefined.DO_NOT_INCLUDE_TESTS);
+        List<Class<?>> verbs = new ArrayList<>();
+        for (JavaClass javaClass : new ClassFileImporter(options).importPackages("com.twilio.twiml")) {
+            Class<?> type = javaClass.reflect();
+            if (TwiML.class.isAssignableFrom(type) && type != TwiML.class && type != GenericNode.class
+                && type != Text.class && !Modifier.isAbstract(type.getModifiers())) {
+                verbs.add(type);
+            }
+        }
+        Assert.assertTrue(verbs.size() > 30);
+
+        for (Class<?> verb : verbs) {
+            TwiML twiml = buildWithEveryAttribute(verb);
+            Assert.assertEquals(verb.getName(), legacyXml(twiml), twiml.toXml());
+        }
+    }
+
+    @Test
+    public void testEveryCharacter() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (char c = 1; c < Character.MIN_SURROGATE; c++) {
+            text.append(c);
+        }
+        for (char c = Character.MAX_SURROGATE + 1; c > Character.MAX_SURROGATE; c++) {
+            text.append(c);
+        }
+        text.appendCodePoint(0x10000).appendCodePoint(0x10FFFF);
+
+        String value = text.toString();
+        assertSameAsLegacy(new GenericNode.Builder("Node").option("value", value).addText(value).build());
+    }
+
+    @Test
+    public void testWriteToStream() throws Exception {
+        Say say = new Say.Builder("café 👍").build();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        say.writeTo(out);
+
+        Assert.assertEquals(say.toXml(), new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testLoneSurrogate() {
+        try {
+            new Say.Builder("bad \uD83D").build().toXml();
+            Assert.fail("Expected TwiMLException");
+        } catch (TwiMLException e) {
+            Assert.assertTrue(e.getMessage().startsWith("Exception serializing TwiML: Invalid UTF-16 surrogate"));
+        }
+    }
+}
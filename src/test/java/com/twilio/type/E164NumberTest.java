@@ -0,0 +1,74 @@
+package com.twilio.type;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class E164NumberTest {
+
+    @Test
+    public void testParseNormalizes() {
+        E164Number number = E164Number.parse("+1 (415) 555-0100");
+
+        assertEquals(14155550100L, number.getDigits());
+        assertEquals("+14155550100", number.getEndpoint());
+        assertEquals(new PhoneNumber("+14155550100"), number.toPhoneNumber());
+        assertSame(number.toPhoneNumber(), number.toPhoneNumber());
+        assertEquals(number, E164Number.parse("+1.415.555.0100"));
+        assertEquals(number.hashCode(), E164Number.parse("+14155550100").hashCode());
+        assertEquals(number, E164Number.of(new PhoneNumber("+14155550100")));
+        assertEquals(number, E164Number.fromDigits(14155550100L));
+        assertNotEquals(number, E164Number.parse("+14155550101"));
+        assertTrue(number.compareTo(E164Number.parse("+442071838750")) < 0);
+    }
+
+    @Test
+    public void testRejectsOtherAddresses() {
+        assertEquals(-1, E164Number.pack("14155550100"));
+        assertEquals(-1, E164Number.pack("+"));
+        assertEquals(-1, E164Number.pack("+0155550100"));
+        assertEquals(-1, E164Number.pack("+1234567890123456"));
+        assertEquals(123456789012345L, E164Number.pack("+123456789012345"));
+        assertNull(E164Number.tryParse("client:alice"));
+        assertNull(E164Number.tryParse("whatsapp:+14155550100"));
+        assertNull(E164Number.tryParse(null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseInvalid() {
+        E164Number.parse("sip:alice@example.com");
+    }
+
+    @Test
+    public void testPoolInterns() {
+        E164Number.Pool pool = new E164Number.Pool(2);
+
+        E164Number first = pool.intern("+14155550100");
+        assertSame(first, pool.intern("+1 415 555 0100"));
+        assertSame(first, pool.intern(E164Number.parse("+14155550100")));
+        assertSame(first.toPhoneNumber(), pool.phoneNumber("+14155550100"));
+
+        pool.intern("+14155550101");
+        E164Number overflow = pool.intern("+14155550102");
+        assertTrue(pool.size() <= 2);
+        assertEquals(E164Number.parse("+14155550102"), overflow);
+
+        pool.clear();
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    public void testPoolEvictsPastMaximumSize() {
+        E164Number.Pool pool = new E164Number.Pool(4);
+
+        for (int i = 0; i < 100; i++) {
+            E164Number number = pool.intern("+1415555" + (1000 + i));
+            assertSame(number, pool.intern(E164Number.parse("+1415555" + (1000 + i))));
+        }
+        assertTrue(pool.size() <= 4);
+    }
+}